@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# =========================================================
+# Benchmark comparativo de lecturas: MVC (Tomcat + JPA) vs
+# reactivo (Netty + R2DBC), con miles de peticiones en vuelo.
+#
+# Solo se miden rutas que sirven ambos stacks, y antes de medir se
+# verifica que respondan el mismo estado HTTP y el mismo JSON (filas
+# ordenadas por id): si no, se compararían respuestas distintas.
+#
+# Requisitos: hey (https://github.com/rakyll/hey) y jq
+# Uso:
+#   java -jar target/clinica-0.0.1-SNAPSHOT.jar --spring.profiles.active=shards
+#   ./scripts/bench-lecturas.sh [concurrencia] [peticiones] [ruta]
+#
+# Ejemplo: ./scripts/bench-lecturas.sh 2000 100000 /api/samples/laboratory/Lab-1
+# =========================================================
+set -euo pipefail
+
+CONCURRENCIA="${1:-2000}"
+PETICIONES="${2:-100000}"
+RUTA="${3:-/api/samples/laboratory/Lab-1}"
+MVC="${MVC_URL:-http://localhost:8080}"
+REACTIVO="${REACTIVE_URL:-http://localhost:8081}"
+
+if ! command -v hey >/dev/null; then
+  echo "❌ Se necesita 'hey' en el PATH (go install github.com/rakyll/hey@latest)" >&2
+  exit 1
+fi
+if ! command -v jq >/dev/null; then
+  echo "❌ Se necesita 'jq' en el PATH para comparar las respuestas" >&2
+  exit 1
+fi
+
+# Rutas de lectura que existen en MVC y en ReactiveReadRoutes
+case "${RUTA%%\?*}" in
+  /api/samples | /api/samples/id/* | /api/samples/laboratory/* | \
+  /api/laboratories | /api/laboratories/id/* | /api/laboratories/state/*) ;;
+  *)
+    echo "❌ $RUTA no la sirven ambos stacks; use /api/samples[/id/{id}|/laboratory/{lab}]" \
+      "o /api/laboratories[/id/{id}|/state/{state}]" >&2
+    exit 1
+    ;;
+esac
+
+# Datos mínimos para que las consultas devuelvan filas
+if [ "${SEMBRAR:-1}" = "1" ]; then
+  echo "🌱 Sembrando muestras de prueba..."
+  # Laboratorio y técnico deben existir (SAMPLE los referencia por ID); si ya existen se ignora el 401
+  for l in $(seq 0 4); do
+    curl -s -o /dev/null -X POST "$MVC/api/laboratories" -H 'Content-Type: application/json' \
+      -d "{\"name\":\"Lab-$l\",\"description\":\"Laboratorio de benchmark\",\"state\":\"ACTIVO\"}"
+  done
+  curl -s -o /dev/null -X POST "$MVC/api/users/register" -H 'Content-Type: application/json' \
+    -d '{"fullName":"Tecnico Bench","email":"tecnico-bench@clinica.cl","password":"clave123","phone":"912345678","rol":"TECNICO"}'
+  for i in $(seq 1 200); do
+    curl -s -o /dev/null -X POST "$MVC/api/samples" -H 'Content-Type: application/json' \
+      -d "{\"code\":\"BENCH-$RANDOM-$i\",\"description\":\"Muestra de benchmark\",\"technician\":\"Tecnico Bench\",\"laboratory\":\"Lab-$((i % 5))\"}"
+  done
+fi
+
+# Misma respuesta en ambos stacks (los arreglos se comparan ordenados por id)
+respuesta() {
+  local cuerpo estado
+  cuerpo="$(curl -s -w '\n%{http_code}' "$1$RUTA")"
+  estado="${cuerpo##*$'\n'}"
+  cuerpo="${cuerpo%$'\n'*}"
+  echo "$estado"
+  if [ -n "$cuerpo" ]; then
+    echo "$cuerpo" | jq -S 'if type == "array" then sort_by(.id) else del(.timestamp) end'
+  fi
+}
+if ! diff <(respuesta "$MVC") <(respuesta "$REACTIVO") >/tmp/bench-lecturas.diff; then
+  echo "❌ MVC y reactivo responden distinto en $RUTA (ver /tmp/bench-lecturas.diff)" >&2
+  exit 1
+fi
+echo "✅ Misma respuesta en ambos stacks: $(head -1 <(respuesta "$MVC"))"
+
+for destino in "$MVC" "$REACTIVO"; do
+  echo
+  echo "🔥 Calentando $destino$RUTA"
+  hey -n 2000 -c 50 "$destino$RUTA" >/dev/null
+  echo "📊 $destino$RUTA  (concurrencia=$CONCURRENCIA, peticiones=$PETICIONES)"
+  hey -n "$PETICIONES" -c "$CONCURRENCIA" "$destino$RUTA" \
+    | grep -E "Requests/sec|Average|Slowest|Fastest|99%|95%|50%|\[[0-9]{3}\]|Error"
+done
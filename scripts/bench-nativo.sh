@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# =========================================================
+# Comparativa JVM vs imagen nativa: tiempo de arranque, latencia de
+# la primera petición y memoria residente (RSS).
+#
+# Uso:
+#   ./mvnw -B -DskipTests package                  # JAR → target/clinica-0.0.1-SNAPSHOT.jar
+#   ./mvnw -B -Pnative -DskipTests native:compile  # nativo → target/clinica (requiere GraalVM)
+#   ./scripts/bench-nativo.sh [repeticiones]
+#
+# Ambos se levantan con el perfil "shards" (H2 en memoria), el mismo
+# con el que se hace el AOT por defecto (native.aot.profiles).
+# =========================================================
+set -euo pipefail
+
+REPETICIONES="${1:-5}"
+PUERTO="${PORT:-8080}"
+PERFIL="${PERFIL:-shards}"
+JAR="${JAR:-target/clinica-0.0.1-SNAPSHOT.jar}"
+NATIVO="${NATIVO:-target/clinica}"
+API="http://localhost:$PUERTO"
+
+ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+rss_kb() { awk '/^VmRSS/ { print $2 }' "/proc/$1/status"; }
+
+# Una corrida: arranque hasta aceptar conexiones, primera petición y RSS
+medir() {
+  local nombre="$1"; shift
+  local inicio pid arranque primera rss_inicial rss_final
+  inicio="$(ms)"
+  "$@" --spring.profiles.active="$PERFIL" --server.port="$PUERTO" > "/tmp/bench-nativo-$nombre.log" 2>&1 &
+  pid=$!
+  until (exec 3<>"/dev/tcp/localhost/$PUERTO") 2>/dev/null; do
+    kill -0 "$pid" 2>/dev/null || { echo "💥 $nombre no arrancó (ver /tmp/bench-nativo-$nombre.log)"; exit 1; }
+    sleep 0.02
+  done
+  arranque=$(( $(ms) - inicio ))
+  rss_inicial="$(rss_kb "$pid")"
+
+  primera="$(curl -s -o /dev/null -w '%{time_total}' "$API/api/laboratories")"
+
+  # Algo de trabajo real: una escritura y lecturas por los tres controladores
+  curl -s -o /dev/null -X POST "$API/api/laboratories" -H 'Content-Type: application/json' \
+    -d '{"name":"LabBench","description":"Laboratorio de benchmark","state":"ACTIVO"}'
+  for _ in $(seq 1 50); do
+    curl -s -o /dev/null "$API/api/laboratories"
+    curl -s -o /dev/null "$API/api/samples"
+    curl -s -o /dev/null "$API/api/users"
+  done
+  rss_final="$(rss_kb "$pid")"
+
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  printf '%-7s arranque=%6d ms  primera=%6.1f ms  rss_inicial=%7d KB  rss_tras_carga=%7d KB\n' \
+    "$nombre" "$arranque" "$(awk -v s="$primera" 'BEGIN { print s * 1000 }')" "$rss_inicial" "$rss_final"
+}
+
+for i in $(seq 1 "$REPETICIONES"); do
+  echo "🔁 Corrida $i/$REPETICIONES"
+  if [ -f "$JAR" ]; then medir jvm java -jar "$JAR"; else echo "⚠️ Falta $JAR"; fi
+  if [ -x "$NATIVO" ]; then medir nativo "$NATIVO"; else echo "⚠️ Falta $NATIVO (./mvnw -Pnative native:compile)"; fi
+done
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# =========================================================
+# Benchmark de resultados por analito: throughput de ingesta
+# (POST /api/results por lotes) y latencia de consultas de rango
+# y agregados diarios sobre los chunks comprimidos.
+#
+# Uso:
+#   java -jar target/clinica-0.0.1-SNAPSHOT.jar --spring.profiles.active=shards
+#   ./scripts/bench-resultados.sh [puntos] [lote] [laboratorio]
+#
+# Ejemplo: ./scripts/bench-resultados.sh 200000 5000 Lab-R
+#
+# Compresión y throughput del códec, sin la API:
+#   ./mvnw test -Dtest=ResultChunkCodecBenchmark
+# =========================================================
+set -euo pipefail
+
+PUNTOS="${1:-100000}"
+LOTE="${2:-5000}"
+LABORATORIO="${3:-Lab-R}"
+API="${API_URL:-http://localhost:8080}"
+ANALITOS=(GLUCOSA HEMOGLOBINA CREATININA)
+REPETICIONES="${REPETICIONES:-50}"
+
+# p50 / p99 / máx (ms) de REPETICIONES peticiones GET a la URL
+latencia() {
+  for _ in $(seq 1 "$REPETICIONES"); do
+    curl -s -o /dev/null -w '%{time_total}\n' "$1"
+  done | sort -n | awk '{ t[NR] = $1 * 1000 } END {
+    printf "   p50=%.1f ms  p99=%.1f ms  máx=%.1f ms  (%d peticiones)\n",
+      t[int(NR * 0.5 + 0.5)], t[int(NR * 0.99 + 0.5)], t[NR], NR }'
+}
+
+# Laboratorio, técnico y 50 muestras a las que se asocian los resultados (los repetidos se ignoran)
+curl -s -o /dev/null -X POST "$API/api/laboratories" -H 'Content-Type: application/json' \
+  -d "{\"name\":\"$LABORATORIO\",\"description\":\"Laboratorio de benchmark\",\"state\":\"ACTIVO\"}"
+curl -s -o /dev/null -X POST "$API/api/users/register" -H 'Content-Type: application/json' \
+  -d '{"fullName":"Tecnico de Resultados","email":"resultados@clinica.cl","password":"clave123","phone":"912345678","rol":"TECNICO"}'
+MUESTRAS=()
+for i in $(seq 1 50); do
+  ID="$(curl -s -X POST "$API/api/samples" -H 'Content-Type: application/json' \
+    -d "{\"code\":\"RR-$RANDOM-$i\",\"description\":\"Muestra de resultados $i\",\"technician\":\"Tecnico de Resultados\",\"laboratory\":\"$LABORATORIO\"}" \
+    | sed -n 's/.*"id" *: *\([0-9]*\).*/\1/p')"
+  MUESTRAS+=("$ID")
+done
+
+# Lotes JSON generados de antemano para que el tiempo medido sea el de la API
+DIR="$(mktemp -d)"
+trap 'rm -rf "$DIR"' EXIT
+INICIO_EPOCH="$(date -u -d '2026-01-01' +%s)"
+LOTES=$(( (PUNTOS + LOTE - 1) / LOTE ))
+for b in $(seq 0 $((LOTES - 1))); do
+  awk -v b="$b" -v lote="$LOTE" -v total="$PUNTOS" -v t0="$INICIO_EPOCH" \
+      -v muestras="${MUESTRAS[*]}" -v analitos="${ANALITOS[*]}" 'BEGIN {
+    srand(b); split(muestras, m, " "); split(analitos, a, " ");
+    printf "{\"results\":[";
+    for (i = 0; i < lote && b * lote + i < total; i++) {
+      k = b * lote + i;
+      printf "%s{\"sampleId\":%s,\"analyte\":\"%s\",\"value\":%.1f,\"measuredAt\":\"%s\"}",
+        (i ? "," : ""), m[k % 50 + 1], a[k % 3 + 1], 80 + rand() * 40,
+        strftime("%Y-%m-%dT%H:%M:%S", t0 + k * 20, 1);
+    }
+    printf "]}";
+  }' > "$DIR/lote-$b.json"
+done
+
+echo "🧪 Ingestando $PUNTOS puntos en lotes de $LOTE..."
+INICIO="$(date +%s%N)"
+for b in $(seq 0 $((LOTES - 1))); do
+  curl -s -o /dev/null -w '' -X POST "$API/api/results" -H 'Content-Type: application/json' \
+    --data-binary "@$DIR/lote-$b.json"
+done
+MS=$(( ($(date +%s%N) - INICIO) / 1000000 ))
+echo "   $PUNTOS puntos en ${MS} ms → $(( PUNTOS * 1000 / (MS > 0 ? MS : 1) )) puntos/s"
+
+echo
+echo "📊 Agregados diarios (GLUCOSA)"
+latencia "$API/api/results/aggregates?laboratory=$LABORATORIO&analyte=GLUCOSA&from=2026-01-01&to=2026-12-31"
+echo "📈 Rango de un día (GLUCOSA)"
+latencia "$API/api/results?laboratory=$LABORATORIO&analyte=GLUCOSA&from=2026-01-01T00:00:00&to=2026-01-02T00:00:00"
+
+echo
+echo "🗜️ Almacenamiento"
+curl -s "$API/api/results/stats"
+echo
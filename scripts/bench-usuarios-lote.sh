@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# =========================================================
+# Benchmark del alta masiva de usuarios: el mismo lote con 1, 2, 4...
+# hilos de BCrypt, hasta los núcleos del servidor. Muestra la
+# aceleración respecto de un hilo.
+#
+# Uso:
+#   java -jar target/clinica-0.0.1-SNAPSHOT.jar
+#   ./scripts/bench-usuarios-lote.sh [usuarios]
+#
+# Ejemplo: ./scripts/bench-usuarios-lote.sh 200
+# =========================================================
+set -euo pipefail
+
+USUARIOS="${1:-100}"
+API="${API_URL:-http://localhost:8080}"
+NUCLEOS="$(nproc)"
+
+lote() {
+  local prefijo="$1"
+  printf '{"users":['
+  for i in $(seq 1 "$USUARIOS"); do
+    [ "$i" -gt 1 ] && printf ','
+    printf '{"fullName":"Usuario de Lote %05d","email":"%s-%d@clinica.cl","password":"clave123","phone":"912345678","rol":"%s"}' \
+      "$i" "$prefijo" "$i" "$([ $((i % 2)) -eq 0 ] && echo PACIENTE || echo TECNICO)"
+  done
+  printf ']}'
+}
+
+echo "👥 $USUARIOS usuarios por lote, hasta $NUCLEOS hilos"
+BASE=""
+HILOS=1
+while [ "$HILOS" -le "$NUCLEOS" ]; do
+  RESPUESTA="$(lote "lote-$RANDOM-$HILOS" | curl -s -X POST "$API/api/users/bulk?threads=$HILOS" \
+    -H 'Content-Type: application/json' --data-binary @-)"
+  HASH="$(echo "$RESPUESTA" | sed -n 's/.*"hashMillis" *: *\([0-9]*\).*/\1/p' | head -1)"
+  CREADOS="$(echo "$RESPUESTA" | sed -n 's/.*"created" *: *\([0-9]*\).*/\1/p' | head -1)"
+  BASE="${BASE:-$HASH}"
+  echo "   hilos=$HILOS  creados=$CREADOS  hash=${HASH} ms  aceleración=$(awk -v b="$BASE" -v h="$HASH" 'BEGIN { printf "%.2fx", b / (h > 0 ? h : 1) }')"
+  HILOS=$((HILOS * 2))
+done
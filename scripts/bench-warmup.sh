@@ -0,0 +1,104 @@
+#!/usr/bin/env bash
+# =========================================================
+# Latencia del primer minuto tras la readiness, sin y con calentamiento.
+#
+# Arranca el JAR dos veces (clinica.warmup.enabled=false / true), espera
+# a que /api/health/readiness responda 200, envía tráfico de lectura
+# durante VENTANA segundos y muestra los percentiles que midió el propio
+# servidor (/api/admin/warmup → primerMinuto; excluye el calentamiento).
+#
+# Uso:
+#   ./mvnw -B -DskipTests package
+#   ./scripts/bench-warmup.sh [segundos] [clientes]      # requiere jq
+#   PERFIL=perf ./scripts/bench-warmup.sh 60 4            # con el dataset sintético
+# =========================================================
+set -euo pipefail
+
+VENTANA="${1:-60}"
+CLIENTES="${2:-4}"
+PUERTO="${PORT:-8080}"
+PERFIL="${PERFIL:-shards}"
+JAR="${JAR:-target/clinica-0.0.1-SNAPSHOT.jar}"
+ARGS="${ARGS:-}"   # argumentos extra para Spring (ej: --clinica.dataset.samples=500000)
+API="http://localhost:$PUERTO"
+SEMBRADA=""
+
+ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+# Mezcla de lecturas de un cliente hasta el instante $1 (ms)
+cliente() {
+  local hasta="$1" lab="$2" usuario="$3" email="$4" muestra="$5" paciente="$6" i=0
+  while [ "$(ms)" -lt "$hasta" ]; do
+    curl -s -o /dev/null "$API/api/laboratories/id/$lab"
+    curl -s -o /dev/null "$API/api/laboratories/state/ACTIVO"
+    curl -s -o /dev/null "$API/api/users/id/$usuario"
+    curl -s -o /dev/null "$API/api/users/id/$paciente/samples?size=20"
+    curl -s -o /dev/null "$API/api/samples/id/$muestra"
+    curl -s -o /dev/null "$API/api/samples/id/$muestra/history"
+    curl -s -o /dev/null "$API/api/samples/view/count?status=RECIBIDA"
+    if [ $(( i % 10 )) -eq 0 ]; then
+      curl -s -o /dev/null -X POST "$API/api/users/login" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$email\",\"password\":\"Incorrecta1\"}"
+    fi
+    i=$(( i + 1 ))
+  done
+}
+
+# Preparación con X-Warmup: el servidor no la cuenta en el primer minuto
+prep() { curl -s -H 'X-Warmup: 1' "$@"; }
+
+# Datos mínimos para que haya algo que leer (en "perf" ya existen)
+sembrar() {
+  local lab
+  lab="$(prep "$API/api/laboratories/state/ACTIVO" | jq -r '(.[0].id)? // empty')"
+  if [ -n "$lab" ]; then return; fi
+  prep -o /dev/null -X POST "$API/api/laboratories" -H 'Content-Type: application/json' \
+    -d '{"name":"LabWarmup","description":"Laboratorio de calentamiento","state":"ACTIVO"}'
+  prep -o /dev/null -X POST "$API/api/users/register" -H 'Content-Type: application/json' \
+    -d '{"fullName":"Tecnico Calentamiento","email":"tecnico@warmup.cl","password":"Clave123","rol":"TECNICO"}'
+  for i in $(seq 1 20); do
+    SEMBRADA="$(prep -X POST "$API/api/samples" -H 'Content-Type: application/json' \
+      -d "{\"code\":\"WARM-$i\",\"description\":\"Muestra de calentamiento\",\"laboratory\":\"LabWarmup\",\"technician\":\"Tecnico Calentamiento\"}" \
+      | jq -r '.id? // empty')"
+  done
+}
+
+medir() {
+  local calentar="$1" inicio pid lista lab usuario email muestra paciente hasta
+  inicio="$(ms)"
+  java -jar "$JAR" --spring.profiles.active="$PERFIL" --server.port="$PUERTO" \
+    --clinica.warmup.enabled="$calentar" --clinica.warmup.observe-window="${VENTANA}s" $ARGS \
+    > "/tmp/bench-warmup-$calentar.log" 2>&1 &
+  pid=$!
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$API/api/health/readiness" 2>/dev/null)" = "200" ]; do
+    kill -0 "$pid" 2>/dev/null || { echo "💥 No arrancó (ver /tmp/bench-warmup-$calentar.log)"; exit 1; }
+    sleep 0.1
+  done
+  lista=$(( $(ms) - inicio ))
+
+  sembrar
+  lab="$(prep "$API/api/laboratories/state/ACTIVO" | jq -r '.[0].id')"
+  usuario="$(prep "$API/api/users/rol/TECNICO" | jq -r '.[0].id')"
+  email="$(prep "$API/api/users/id/$usuario" | jq -r '.email')"
+  # Sin calentamiento el modelo de lectura puede seguir cargando (503): se usa la muestra sembrada o la 1
+  muestra="$(prep "$API/api/samples/view?limit=1" | jq -r '(.[0].id)? // empty')"
+  muestra="${muestra:-${SEMBRADA:-1}}"
+  paciente="$(prep "$API/api/samples/id/$muestra" | jq -r ".patientId? // $usuario")"
+
+  hasta=$(( $(ms) + VENTANA * 1000 ))
+  for _ in $(seq 1 "$CLIENTES"); do cliente "$hasta" "$lab" "$usuario" "$email" "$muestra" "$paciente" & done
+  wait $(jobs -p | grep -v "^$pid$") 2>/dev/null || true
+
+  curl -s "$API/api/admin/warmup" | jq -r --arg c "$calentar" --argjson lista "$lista" '
+    def fila(n; h): "   \(n)  peticiones=\(h.peticiones)  p50=\(h.p50Ms)  p90=\(h.p90Ms)  p99=\(h.p99Ms)  max=\(h.maxMs) ms";
+    "calentamiento=\($c)  readiness=\($lista) ms (calentando \(.millis // 0) ms)  primera petición=\(.primerMinuto.primeraMs) ms",
+    fila("ventana   "; .primerMinuto),
+    (.primerMinuto.tramos[] | fila(("\(.desdeS)-\(.hastaS) s" + "          ")[0:10]; .))'
+
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+}
+
+[ -f "$JAR" ] || { echo "⚠️ Falta $JAR (./mvnw -B -DskipTests package)"; exit 1; }
+echo "⏱️ Primeros $VENTANA s tras la readiness, $CLIENTES clientes, perfil $PERFIL"
+medir false
+medir true
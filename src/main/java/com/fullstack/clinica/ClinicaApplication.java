@@ -1,9 +1,13 @@
 package com.fullstack.clinica;
 
+import com.fullstack.clinica.config.NativeHints;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class ClinicaApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,68 @@
+package com.fullstack.clinica.audit.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.fullstack.clinica.audit.model.AuditAction;
+import com.fullstack.clinica.audit.model.AuditEntry;
+import com.fullstack.clinica.audit.service.AuditService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: AuditController
+ * ---------------------------------------------------------------
+ * Historial de cambios (auditoría) de usuarios, muestras y laboratorios.
+ *
+ * - GET /api/audit?entityType=&entityId=&actor=&action=&from=&to=&page=&size=
+ * - GET /api/audit/{entityType}/id/{entityId} → historial de una entidad
+ * - GET /api/audit/stats → estado de la cola de escritura
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private final AuditService service;
+
+    public AuditController(AuditService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AuditEntry>> buscar(@RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("🧾 [GET] Consultando auditoría: tipo={} id={} actor={}", entityType, entityId, actor);
+        return ResponseEntity.ok(service.search(mayusculas(entityType), entityId, actor, action, from, to, page, size));
+    }
+
+    @GetMapping("/{entityType}/id/{entityId}")
+    public ResponseEntity<List<AuditEntry>> historial(@PathVariable String entityType, @PathVariable String entityId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("🧾 [GET] Historial de auditoría de {} {}", entityType, entityId);
+        return ResponseEntity.ok(service.search(mayusculas(entityType), entityId, null, null, null, null, page, size));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> estadisticas() {
+        return ResponseEntity.ok(service.stats());
+    }
+
+    private static String mayusculas(String valor) {
+        return valor != null ? valor.toUpperCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.fullstack.clinica.audit.model;
+
+/**
+ * ===============================================================
+ * 📘 Enum: AuditAction
+ * ---------------------------------------------------------------
+ * Tipo de cambio registrado en la auditoría.
+ * ===============================================================
+ */
+public enum AuditAction {
+    CREAR,
+    ACTUALIZAR,
+    ELIMINAR
+}
@@ -0,0 +1,52 @@
+package com.fullstack.clinica.audit.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+import java.time.LocalDateTime;
+
+/**
+ * ===============================================================
+ * 📘 Clase: AuditEntry
+ * ---------------------------------------------------------------
+ * Registro append-only de la auditoría: quién cambió qué entidad,
+ * cuándo y con qué diferencias (JSON campo → antes/después).
+ *
+ * Las filas las inserta y las consulta AuditService con JDBC; JPA
+ * solo se usa para crear la tabla.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "AUDIT_LOG", indexes = {
+        @Index(name = "IDX_AUDIT_LOG_ENTITY", columnList = "entity_type, entity_id"),
+        @Index(name = "IDX_AUDIT_LOG_ACTOR", columnList = "actor")
+})
+public class AuditEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // USER, SAMPLE, LABORATORY
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false, length = 40)
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false, length = 20)
+    private AuditAction action;
+
+    @Column(name = "actor", nullable = false, length = 120)
+    private String actor;
+
+    // JSON: {"campo": {"antes": ..., "despues": ...}}
+    @Lob
+    @Column(name = "changes")
+    private String changes;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,314 @@
+package com.fullstack.clinica.audit.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fullstack.clinica.audit.model.AuditAction;
+import com.fullstack.clinica.audit.model.AuditEntry;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ===============================================================
+ * 📘 Clase: AuditService
+ * ---------------------------------------------------------------
+ * Auditoría asíncrona de cambios de usuarios, muestras y laboratorios.
+ *
+ * - Los servicios llaman a record*() después de cada escritura: en el
+ *   hilo de la petición se toman las fotos "antes" y "después" (la
+ *   entidad puede seguir cambiando o quedar desconectada) y se encola
+ *   el cambio en una cola acotada.
+ * - Un hilo escritor calcula las diferencias campo a campo y las
+ *   inserta en AUDIT_LOG en lotes (JdbcTemplate.batchUpdate).
+ * - Si la cola se llena, el cambio se escribe en el mismo hilo que lo
+ *   generó (contrapresión): la auditoría nunca se descarta.
+ * - Al apagar la aplicación se vacía la cola antes de cerrar la BD.
+ *
+ * El actor es el usuario autenticado de la petición (Principal). La
+ * API no tiene autenticación propia, así que sin Principal se registra
+ * "anonimo@<ip>": una cabecera enviada por el cliente no identifica a
+ * nadie. Los cambios hechos fuera de una petición (trabajos en segundo
+ * plano) quedan como "sistema".
+ *
+ * La búsqueda arma el WHERE solo con los filtros presentes, para que
+ * cada combinación use los índices (entidad o actor) que le sirven.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class AuditService {
+
+    private static final String INSERT = "insert into AUDIT_LOG "
+            + "(entity_type, entity_id, action, actor, changes, occurred_at) values (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "select id, entity_type, entity_id, action, actor, changes, occurred_at "
+            + "from AUDIT_LOG";
+    private static final int MAX_ACTOR = 120;
+    private static final Set<String> CAMPOS_SENSIBLES = Set.of("password");
+    private static final int REINTENTOS = 3;
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper mapper;
+    private final BlockingQueue<Cambio> cola;
+    private final int batchSize;
+    private final long flushMillis;
+    private final Thread escritor;
+
+    private final LongAdder encolados = new LongAdder();
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder sincronos = new LongAdder();
+    private final LongAdder perdidos = new LongAdder();
+
+    private volatile boolean activo = true;
+
+    public AuditService(JdbcTemplate jdbc, ObjectMapper mapper,
+            @Value("${clinica.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${clinica.audit.batch-size:200}") int batchSize,
+            @Value("${clinica.audit.flush-interval-ms:500}") long flushMillis) {
+        this.jdbc = jdbc;
+        this.mapper = mapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        this.cola = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.escritor = new Thread(this::escribir, "audit-writer");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Vacía la cola antes de que se cierre el DataSource.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        activo = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(10));
+        List<Cambio> resto = new ArrayList<>();
+        cola.drainTo(resto);
+        if (!resto.isEmpty()) {
+            guardar(resto);
+        }
+        log.info("🧾 Auditoría detenida: {} registros escritos en total", escritos.sum());
+    }
+
+    // ============================================================
+    // Registro (hilo de la petición)
+    // ============================================================
+
+    public void recordCreate(String entityType, Object entityId, Object despues) {
+        encolar(new Cambio(entityType, entityId, AuditAction.CREAR, actorActual(), null, snapshot(despues)));
+    }
+
+    /**
+     * @param antes foto tomada con {@link #snapshot(Object)} ANTES de modificar la entidad
+     */
+    public void recordUpdate(String entityType, Object entityId, Map<String, Object> antes, Object despues) {
+        encolar(new Cambio(entityType, entityId, AuditAction.ACTUALIZAR, actorActual(), antes, snapshot(despues)));
+    }
+
+    public void recordDelete(String entityType, Object entityId, Map<String, Object> antes) {
+        encolar(new Cambio(entityType, entityId, AuditAction.ELIMINAR, actorActual(), antes, null));
+    }
+
+    /**
+     * Copia plana (campo → valor) del estado actual de una entidad.
+     */
+    public Map<String, Object> snapshot(Object entidad) {
+        return entidad == null ? null : mapper.convertValue(entidad, new TypeReference<Map<String, Object>>() { });
+    }
+
+    // ============================================================
+    // Consultas
+    // ============================================================
+
+    /**
+     * Búsqueda con filtros opcionales (null = sin filtro), más reciente primero.
+     */
+    public List<AuditEntry> search(String entityType, String entityId, String actor, AuditAction action,
+            LocalDateTime desde, LocalDateTime hasta, int page, int size) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        filtro(sql, args, "entity_type = ?", entityType);
+        filtro(sql, args, "entity_id = ?", entityId);
+        filtro(sql, args, "actor = ?", actor);
+        filtro(sql, args, "action = ?", action != null ? action.name() : null);
+        filtro(sql, args, "occurred_at >= ?", desde != null ? Timestamp.valueOf(desde) : null);
+        filtro(sql, args, "occurred_at < ?", hasta != null ? Timestamp.valueOf(hasta) : null);
+        int tamano = Math.max(1, Math.min(size, 500));
+        sql.append(" order by id desc offset ? rows fetch next ? rows only");
+        args.add((long) Math.max(0, page) * tamano);
+        args.add(tamano);
+        return jdbc.query(sql.toString(), (rs, fila) -> {
+            AuditEntry entrada = new AuditEntry();
+            entrada.setId(rs.getLong("id"));
+            entrada.setEntityType(rs.getString("entity_type"));
+            entrada.setEntityId(rs.getString("entity_id"));
+            entrada.setAction(AuditAction.valueOf(rs.getString("action")));
+            entrada.setActor(rs.getString("actor"));
+            entrada.setChanges(rs.getString("changes"));
+            entrada.setOccurredAt(rs.getTimestamp("occurred_at").toLocalDateTime());
+            return entrada;
+        }, args.toArray());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", encolados.sum());
+        stats.put("written", escritos.sum());
+        stats.put("pending", cola.size());
+        stats.put("writtenSynchronously", sincronos.sum());
+        stats.put("failed", perdidos.sum());
+        return stats;
+    }
+
+    // ============================================================
+    // Escritura en lotes (hilo audit-writer)
+    // ============================================================
+
+    private static void filtro(StringBuilder sql, List<Object> args, String condicion, Object valor) {
+        if (valor == null) {
+            return;
+        }
+        sql.append(args.isEmpty() ? " where " : " and ").append(condicion);
+        args.add(valor);
+    }
+
+    private void encolar(Cambio cambio) {
+        encolados.increment();
+        try {
+            if (activo && cola.offer(cambio, 50, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Cola llena (o aplicación apagándose): se escribe aquí mismo
+        sincronos.increment();
+        guardar(List.of(cambio));
+    }
+
+    private void escribir() {
+        List<Cambio> lote = new ArrayList<>(batchSize);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Cambio primero = cola.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, batchSize - 1);
+                guardar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Error inesperado en el escritor de auditoría: {}", e.getMessage());
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void guardar(List<Cambio> cambios) {
+        List<Object[]> filas = cambios.stream().map(this::aFila).toList();
+        for (int intento = 1; intento <= REINTENTOS; intento++) {
+            try {
+                jdbc.batchUpdate(INSERT, filas);
+                escritos.add(filas.size());
+                return;
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Lote de auditoría fallido (intento {}/{}): {}", intento, REINTENTOS, e.getMessage());
+                try {
+                    Thread.sleep(200L * intento);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        // Último recurso: queda en el log para reconstruirlo a mano
+        perdidos.add(filas.size());
+        filas.forEach(f -> log.error("🧾 Auditoría no persistida: {}", (Object) f));
+    }
+
+    private Object[] aFila(Cambio cambio) {
+        return new Object[] {
+                cambio.entityType,
+                String.valueOf(cambio.entityId),
+                cambio.action.name(),
+                cambio.actor,
+                diferencias(cambio.antes, cambio.despues),
+                Timestamp.valueOf(cambio.occurredAt)
+        };
+    }
+
+    /**
+     * JSON con los campos que cambiaron: {"campo": {"antes": x, "despues": y}}.
+     */
+    private String diferencias(Map<String, Object> antes, Map<String, Object> despues) {
+        Map<String, Object> a = antes != null ? antes : Map.of();
+        Map<String, Object> d = despues != null ? despues : Map.of();
+        Set<String> campos = new LinkedHashSet<>(a.keySet());
+        campos.addAll(d.keySet());
+
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        for (String campo : campos) {
+            Object valorAntes = a.get(campo);
+            Object valorDespues = d.get(campo);
+            if (Objects.equals(valorAntes, valorDespues)) {
+                continue;
+            }
+            Map<String, Object> par = new LinkedHashMap<>();
+            boolean sensible = CAMPOS_SENSIBLES.contains(campo);
+            par.put("antes", sensible && valorAntes != null ? "***" : valorAntes);
+            par.put("despues", sensible && valorDespues != null ? "***" : valorDespues);
+            cambios.put(campo, par);
+        }
+        try {
+            return mapper.writeValueAsString(cambios);
+        } catch (JsonProcessingException e) {
+            return "{}";
+        }
+    }
+
+    private static String actorActual() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            HttpServletRequest request = atributos.getRequest();
+            Principal usuario = request.getUserPrincipal();
+            String actor = usuario != null ? usuario.getName() : "anonimo@" + request.getRemoteAddr();
+            return actor.length() > MAX_ACTOR ? actor.substring(0, MAX_ACTOR) : actor;
+        }
+        return "sistema";
+    }
+
+    /** Cambio pendiente de escribir, con las fotos ya tomadas en el hilo de la petición. */
+    private record Cambio(String entityType, Object entityId, AuditAction action, String actor,
+            Map<String, Object> antes, Map<String, Object> despues, LocalDateTime occurredAt) {
+
+        private Cambio(String entityType, Object entityId, AuditAction action, String actor,
+                Map<String, Object> antes, Map<String, Object> despues) {
+            this(entityType, entityId, action, actor, antes, despues, LocalDateTime.now());
+        }
+    }
+}
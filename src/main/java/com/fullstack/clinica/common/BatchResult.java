@@ -0,0 +1,90 @@
+package com.fullstack.clinica.common;
+
+import com.fullstack.clinica.exception.BadRequestException;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * ===============================================================
+ * 📘 Clase: BatchResult
+ * ---------------------------------------------------------------
+ * Respuesta de los endpoints multi-get (?ids=1,2,3):
+ *
+ * {
+ *   "items":   [ ...entidades en el orden pedido... ],
+ *   "missing": [ ids que no existen ]
+ * }
+ *
+ * load() resuelve los ids con consultas IN de a lo más 1000 elementos
+ * (límite de Oracle), sin repetir ids, y reordena el resultado según
+ * el orden de la petición. Los endpoints aceptan a lo más
+ * {@link #MAX_IDS} ids por petición (checkRequest).
+ * ===============================================================
+ */
+@Data
+public class BatchResult<T> {
+
+    /** Máximo de elementos en una lista IN de Oracle (ORA-01795). */
+    public static final int MAX_IN_LIST = 1000;
+
+    /** Máximo de ids en un ?ids= (una sola consulta IN por shard). */
+    public static final int MAX_IDS = MAX_IN_LIST;
+
+    private final List<T> items;
+    private final List<Long> missing;
+
+    /**
+     * Rechaza (400) un multi-get con más de {@link #MAX_IDS} ids.
+     */
+    public static void checkRequest(List<Long> ids) {
+        if (ids.size() > MAX_IDS) {
+            throw new BadRequestException("Se pueden pedir a lo más " + MAX_IDS + " ids por petición ("
+                    + ids.size() + " recibidos)");
+        }
+    }
+
+    /**
+     * @param ids      ids en el orden pedido (los repetidos se ignoran)
+     * @param consulta carga las entidades de un lote de a lo más 1000 ids
+     * @param idDe     id de cada entidad devuelta
+     */
+    public static <T> BatchResult<T> load(List<Long> ids, Function<List<Long>, List<T>> consulta,
+            Function<T, Long> idDe) {
+        List<Long> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, T> porId = new HashMap<>();
+        for (List<Long> lote : chunks(unicos)) {
+            consulta.apply(lote).forEach(e -> porId.put(idDe.apply(e), e));
+        }
+
+        List<T> items = new ArrayList<>(porId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : unicos) {
+            T entidad = porId.get(id);
+            if (entidad != null) {
+                items.add(entidad);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(items, missing);
+    }
+
+    /**
+     * Divide los ids en lotes de a lo más {@link #MAX_IN_LIST}.
+     */
+    public static <E> List<List<E>> chunks(Collection<E> valores) {
+        List<E> lista = new ArrayList<>(valores);
+        List<List<E>> lotes = new ArrayList<>();
+        for (int i = 0; i < lista.size(); i += MAX_IN_LIST) {
+            lotes.add(lista.subList(i, Math.min(i + MAX_IN_LIST, lista.size())));
+        }
+        return lotes;
+    }
+}
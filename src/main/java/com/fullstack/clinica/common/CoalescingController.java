@@ -0,0 +1,33 @@
+package com.fullstack.clinica.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: CoalescingController
+ * ---------------------------------------------------------------
+ * API administrativa del agrupamiento de lecturas: llamadas, consultas
+ * reales y fan-in por método.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/coalescing")
+public class CoalescingController {
+
+    private final RequestCoalescer coalescer;
+
+    public CoalescingController(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> estadisticas() {
+        log.info("🔀 [GET] Consultando métricas de agrupamiento de lecturas");
+        return ResponseEntity.ok(coalescer.stats());
+    }
+}
@@ -0,0 +1,71 @@
+package com.fullstack.clinica.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: CsvLineParser
+ * ---------------------------------------------------------------
+ * Parser mínimo de una línea CSV (RFC 4180 sin saltos de línea dentro
+ * de comillas). Se usa en las importaciones masivas, que leen el
+ * archivo línea a línea para no cargarlo completo en memoria.
+ *
+ * - Separador configurable (coma o punto y coma, típico de Excel en español).
+ * - Soporta campos entre comillas y comillas escapadas ("").
+ * ===============================================================
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Detecta el separador a partir de la cabecera del archivo.
+     */
+    public static char detectSeparator(String header) {
+        return header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+    }
+
+    public static List<String> parse(String line, char separator) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separator) {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString().trim());
+        return campos;
+    }
+
+    /**
+     * Escapa un valor para escribirlo en un CSV (reportes de error).
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
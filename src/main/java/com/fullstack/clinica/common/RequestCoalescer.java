@@ -0,0 +1,150 @@
+package com.fullstack.clinica.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * ===============================================================
+ * 📘 Clase: RequestCoalescer
+ * ---------------------------------------------------------------
+ * "Single-flight" para lecturas calientes: si llegan varias llamadas
+ * idénticas (mismo método y mismos argumentos) mientras una ya está
+ * consultando la BD, todas esperan y comparten ese mismo resultado.
+ *
+ * - Sin locks: un CompletableFuture por clave en un ConcurrentHashMap;
+ *   el primero que lo registra (putIfAbsent) es el que consulta.
+ * - Ventana opcional (clinica.coalescing.linger-micros): el que consulta
+ *   espera unos microsegundos antes de ir a la BD para sumar más llamadas.
+ * - forget() descarta las consultas en vuelo de un grupo tras una
+ *   escritura, para que las llamadas siguientes no reciban datos previos.
+ * - Métricas por método: llamadas, consultas reales y fan-in
+ *   (llamadas / consultas).
+ *
+ * El resultado es la MISMA instancia para todas las llamadas agrupadas:
+ * quien lo reciba no debe modificarlo.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private final Map<Clave, CompletableFuture<Object>> enVuelo = new ConcurrentHashMap<>();
+    private final Map<String, Metricas> metricas = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final long lingerNanos;
+
+    public RequestCoalescer(@Value("${clinica.coalescing.enabled:true}") boolean enabled,
+            @Value("${clinica.coalescing.linger-micros:0}") long lingerMicros) {
+        this.enabled = enabled;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+    }
+
+    /**
+     * Ejecuta la consulta o se une a una idéntica que ya esté en curso.
+     *
+     * @param method nombre lógico del método (ej: "samples.findByLaboratory")
+     * @param args   argumentos que identifican la consulta
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, Supplier<T> consulta, Object... args) {
+        if (!enabled) {
+            return consulta.get();
+        }
+        Metricas m = metricas.computeIfAbsent(method, k -> new Metricas());
+        m.llamadas.increment();
+
+        Clave clave = new Clave(method, Arrays.asList(args.clone()));
+        CompletableFuture<Object> propio = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enVuelo.putIfAbsent(clave, propio);
+        if (existente != null) {
+            m.agrupadas.increment();
+            return (T) esperar(existente);
+        }
+
+        m.consultas.increment();
+        try {
+            if (lingerNanos > 0) {
+                LockSupport.parkNanos(lingerNanos);
+            }
+            T resultado = consulta.get();
+            propio.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            propio.completeExceptionally(e);
+            throw e;
+        } finally {
+            enVuelo.remove(clave, propio);
+        }
+    }
+
+    /**
+     * Descarta las consultas en vuelo cuyo método empiece con el prefijo
+     * (las llamadas ya agrupadas siguen recibiendo su resultado).
+     */
+    public void forget(String methodPrefix) {
+        enVuelo.keySet().removeIf(c -> c.method().startsWith(methodPrefix));
+    }
+
+    /**
+     * Métricas por método, ordenadas por nombre.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lingerMicros", TimeUnit.NANOSECONDS.toMicros(lingerNanos));
+        stats.put("inFlight", enVuelo.size());
+        Map<String, Object> porMetodo = new TreeMap<>();
+        metricas.forEach((metodo, m) -> porMetodo.put(metodo, m.resumen()));
+        stats.put("methods", porMetodo);
+        return stats;
+    }
+
+    private static Object esperar(CompletableFuture<Object> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private record Clave(String method, List<Object> args) {
+    }
+
+    private static final class Metricas {
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder consultas = new LongAdder();
+        private final LongAdder agrupadas = new LongAdder();
+
+        private Map<String, Object> resumen() {
+            long calls = llamadas.sum();
+            long queries = consultas.sum();
+            Map<String, Object> resumen = new LinkedHashMap<>();
+            resumen.put("calls", calls);
+            resumen.put("queries", queries);
+            resumen.put("coalesced", agrupadas.sum());
+            resumen.put("fanIn", queries == 0 ? 0.0 : Math.round(calls * 100.0 / queries) / 100.0);
+            return resumen;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.fullstack.clinica.config;
+
+import com.fullstack.clinica.audit.model.AuditAction;
+import com.fullstack.clinica.audit.model.AuditEntry;
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.job.model.Job;
+import com.fullstack.clinica.job.model.JobStatus;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.model.LaboratoryStateChange;
+import com.fullstack.clinica.result.model.ResultBatch;
+import com.fullstack.clinica.result.model.ResultChunk;
+import com.fullstack.clinica.result.model.ResultDailyAggregate;
+import com.fullstack.clinica.result.model.ResultPoint;
+import com.fullstack.clinica.sample.model.LaboratoryNameConverter;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.model.SampleTransition;
+import com.fullstack.clinica.sample.model.ShardAssignment;
+import com.fullstack.clinica.sample.model.TechnicianNameConverter;
+import com.fullstack.clinica.sample.model.TurnaroundStats;
+import com.fullstack.clinica.sync.model.ChangePage;
+import com.fullstack.clinica.sync.model.ChangeTombstone;
+import com.fullstack.clinica.sync.service.ChangeSeqListener;
+import com.fullstack.clinica.user.model.LoginRequest;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.model.UserBulkRequest;
+import com.fullstack.clinica.user.model.UserBulkResult;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: NativeHints
+ * ---------------------------------------------------------------
+ * Metadatos de alcanzabilidad para la imagen nativa (perfil Maven
+ * "native"). Lo que el AOT de Spring no deduce solo:
+ *
+ * - Modelos que Jackson serializa desde ResponseEntity<?>, Map o
+ *   convertValue (auditoría): getters/setters generados por Lombok.
+ * - Entidades JPA: campos y métodos declarados, que leen Hibernate
+ *   (acceso por campo) y Hibernate Validator (@NotBlank, @Size, ...).
+ * - Convertidores JPA de Sample y el listener de change_seq: Hibernate
+ *   los crea por reflexión (vía el contenedor de beans de Spring) a
+ *   partir de @Convert y @EntityListeners.
+ * - Drivers JDBC y dialectos que se cargan por nombre desde las
+ *   propiedades (spring.datasource.driver-class-name y dialect).
+ * - Proxies JDK de JdbcTimingPostProcessor (conexiones y sentencias).
+ *
+ * Los metadatos internos de H2, Oracle y Hibernate vienen del
+ * repositorio de metadatos de GraalVM y de los propios jars.
+ * ===============================================================
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    /** Modelos que salen (o entran) como JSON. */
+    private static final List<Class<?>> MODELOS = List.of(
+            User.class, LoginRequest.class, UserBulkRequest.class, UserBulkResult.class,
+            UserBulkResult.Row.class,
+            Laboratory.class, LaboratoryStateChange.class,
+            Sample.class, SampleStatus.class, SampleTransition.class, ShardAssignment.class, TurnaroundStats.class,
+            Job.class, JobStatus.class,
+            AuditEntry.class, AuditAction.class,
+            BatchResult.class, ChangePage.class, ChangePage.Cursor.class,
+            ResultPoint.class, ResultBatch.class, ResultDailyAggregate.class);
+
+    /** Entidades JPA con validaciones en sus campos. */
+    private static final List<Class<?>> ENTIDADES = List.of(
+            User.class, Laboratory.class, Sample.class, SampleTransition.class, ShardAssignment.class,
+            Job.class, AuditEntry.class, ResultChunk.class, ChangeTombstone.class);
+
+    /** Convertidores y listeners que Hibernate instancia desde @Convert / @EntityListeners. */
+    private static final List<Class<?>> CONVERTIDORES = List.of(
+            LaboratoryNameConverter.class, TechnicianNameConverter.class, ChangeSeqListener.class);
+
+    /** Clases que se instancian por nombre según el perfil activo. */
+    private static final List<String> POR_NOMBRE = List.of(
+            "org.h2.Driver",
+            "oracle.jdbc.OracleDriver",
+            "org.hibernate.dialect.H2Dialect",
+            "org.hibernate.dialect.OracleDialect");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar jackson = new BindingReflectionHintsRegistrar();
+        MODELOS.forEach(modelo -> jackson.registerReflectionHints(hints.reflection(), modelo));
+
+        ENTIDADES.forEach(entidad -> hints.reflection().registerType(entidad,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+
+        CONVERTIDORES.forEach(convertidor -> hints.reflection().registerType(convertidor,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+
+        POR_NOMBRE.forEach(clase -> hints.reflection().registerTypeIfPresent(classLoader, clase,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+        List.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class)
+                .forEach(jdbc -> hints.proxies().registerJdkProxy(jdbc));
+    }
+}
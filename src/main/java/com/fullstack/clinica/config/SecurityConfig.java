@@ -1,5 +1,7 @@
 package com.fullstack.clinica.config;
 
+import com.fullstack.clinica.profiling.TimedBCryptPasswordEncoder;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -9,6 +11,7 @@ public class SecurityConfig {
 
   @Bean
   public BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    // Igual que BCryptPasswordEncoder, pero suma el tiempo de hash a los eventos JFR
+    return new TimedBCryptPasswordEncoder();
   }
 }
\ No newline at end of file
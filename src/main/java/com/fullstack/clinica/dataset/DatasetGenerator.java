@@ -0,0 +1,525 @@
+package com.fullstack.clinica.dataset;
+
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sync.service.ChangeFeedService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * ===============================================================
+ * 📘 Clase: DatasetGenerator
+ * ---------------------------------------------------------------
+ * Carga un dataset sintético de volumen realista antes de que la
+ * aplicación quede lista (perfil "perf", clinica.dataset.enabled=true),
+ * para que los benchmarks no se midan contra una BD casi vacía.
+ *
+ * 1️⃣ Laboratorios: nombres por ciudad y especialidad; una fracción
+ *    queda INACTIVO.
+ * 2️⃣ Usuarios: ADMIN, TECNICO y PACIENTE en las proporciones
+ *    configuradas. Todos comparten una contraseña que se hashea una
+ *    sola vez (BCrypt por fila haría que la carga tardara horas).
+ * 3️⃣ Muestras: laboratorio según una ley de Zipf (pocos laboratorios
+ *    concentran casi todo el volumen), técnico del laboratorio,
+ *    pacientes crónicos con muchas muestras, tomas en horario de
+ *    mañana y turnaround log-normal propio de cada laboratorio. Las
+ *    antiguas están INFORMADA; las recientes y un pequeño atasco
+ *    quedan pendientes (retenidas si el laboratorio está inactivo).
+ *
+ * Todo sale de un único SplittableRandom con semilla fija y se
+ * inserta con INSERT por lotes JDBC, una transacción por lote y en el
+ * shard de cada laboratorio. Si la BD ya tiene el dataset (usuarios
+ * con el dominio de email sintético) no se genera de nuevo.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "clinica.dataset.enabled", havingValue = "true")
+@EnableConfigurationProperties(DatasetProperties.class)
+public class DatasetGenerator implements ApplicationRunner {
+
+    static final String DOMINIO = "@perf.clinica.test";
+
+    private static final String INSERT_LABORATORIO = "insert into LABORATORY (name, description, state, change_seq) "
+            + "values (?, ?, ?, ?)";
+    private static final String INSERT_USUARIO = "insert into USERC (full_name, password, email, phone, register_date, rol, "
+            + "laboratory_id, change_seq) values (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MUESTRA = "insert into SAMPLE (code, description, laboratory_id, technician_id, "
+            + "patient_id, collected_at, status, received_at, reported_at, held_at, change_seq, code_key) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] CIUDADES = { "Santiago", "Valparaíso", "Concepción", "La Serena", "Antofagasta",
+            "Temuco", "Rancagua", "Talca", "Arica", "Iquique", "Puerto Montt", "Chillán", "Osorno", "Valdivia",
+            "Copiapó", "Punta Arenas", "Calama", "Curicó", "Los Ángeles", "Coyhaique" };
+    private static final String[] ESPECIALIDADES = { "Clínico", "Hematología", "Bioquímica", "Microbiología",
+            "Inmunología", "Toxicología", "Genética", "Endocrinología" };
+    private static final String[] NOMBRES = { "Camila", "Valentina", "Francisca", "Javiera", "Catalina", "Constanza",
+            "Fernanda", "Daniela", "Antonia", "Isidora", "Sofía", "Martina", "Benjamín", "Vicente", "Matías",
+            "Sebastián", "Tomás", "Joaquín", "Agustín", "Cristóbal", "Maximiliano", "Nicolás", "Diego", "Felipe" };
+    private static final String[] APELLIDOS = { "González", "Muñoz", "Rojas", "Díaz", "Pérez", "Soto", "Contreras",
+            "Silva", "Martínez", "Sepúlveda", "Morales", "Rodríguez", "López", "Fuentes", "Hernández", "Torres",
+            "Araya", "Flores", "Espinoza", "Valenzuela", "Castillo", "Tapia", "Reyes", "Gutiérrez", "Castro",
+            "Pizarro", "Álvarez", "Vásquez", "Sánchez", "Fernández" };
+    // Ordenados de más a menos pedido (el reparto también sigue una ley de Zipf)
+    private static final String[] EXAMENES = { "Hemograma completo", "Perfil bioquímico", "Glucosa en ayunas",
+            "Perfil lipídico", "Orina completa", "Creatinina sérica", "Perfil hepático", "TSH y T4 libre",
+            "Hemoglobina glicosilada", "Proteína C reactiva", "Electrolitos plasmáticos", "Urocultivo",
+            "Tiempo de protrombina", "Ferritina sérica", "Vitamina D", "Antígeno prostático" };
+
+    // Muestras pendientes fuera de la ventana normal (la cola de trabajo nunca está vacía)
+    private static final double ATASCADAS = 0.015;
+
+    private final DatasetProperties properties;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final SampleShardRouter router;
+    private final PasswordEncoder passwordEncoder;
+    private final ChangeFeedService changes;
+
+    public DatasetGenerator(DatasetProperties properties, JdbcTemplate jdbc, TransactionTemplate tx,
+            SampleShardRouter router, PasswordEncoder passwordEncoder, ChangeFeedService changes) {
+        this.properties = properties;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.router = router;
+        this.passwordEncoder = passwordEncoder;
+        this.changes = changes;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existentes = router.onShard(0, () -> jdbc.queryForObject(
+                "select count(*) from USERC where email like ?", Long.class, "%" + DOMINIO));
+        if (existentes != null && existentes > 0) {
+            log.info("🧪 Dataset sintético ya presente ({} usuarios {}): no se genera", existentes, DOMINIO);
+            return;
+        }
+        log.info("🧪 Generando dataset sintético (semilla {}): {} laboratorios, {} usuarios, {} muestras",
+                properties.getSeed(), properties.getLaboratories(), properties.getUsers(), properties.getSamples());
+        long inicio = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        LocalDateTime ahora = properties.getAnchor() == null || properties.getAnchor().isBlank()
+                ? LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES)
+                : LocalDateTime.parse(properties.getAnchor());
+
+        Laboratorios labs = laboratorios(random);
+        long t = System.nanoTime();
+        Usuarios usuarios = usuarios(random, labs, ahora.toLocalDate());
+        long usuariosMillis = (System.nanoTime() - t) / 1_000_000;
+
+        t = System.nanoTime();
+        long[] porShard = muestras(random, labs, usuarios, ahora);
+        long muestrasMillis = Math.max(1, (System.nanoTime() - t) / 1_000_000);
+
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            router.onShard(shard, this::analizar);
+        }
+        long total = Arrays.stream(porShard).sum();
+        log.info("🧪 Dataset listo en {} s: {} usuarios en {} ms, {} muestras en {} ms ({} muestras/s), por shard {}",
+                (System.nanoTime() - inicio) / 1_000_000_000, usuarios.total, usuariosMillis, total, muestrasMillis,
+                total * 1000 / muestrasMillis, Arrays.toString(porShard));
+        log.info("🧪 Sesgo: el 10% de los laboratorios concentra el {}% de las muestras",
+                String.format(Locale.ROOT, "%.1f", labs.cuotaTop(0.10) * 100));
+    }
+
+    // ============================================================
+    // Laboratorios
+    // ============================================================
+
+    private Laboratorios laboratorios(SplittableRandom random) {
+        int n = Math.max(1, properties.getLaboratories());
+        Laboratorios labs = new Laboratorios(n);
+        for (int i = 0; i < n; i++) {
+            String ciudad = CIUDADES[random.nextInt(CIUDADES.length)];
+            String especialidad = ESPECIALIDADES[random.nextInt(ESPECIALIDADES.length)];
+            labs.nombres[i] = String.format(Locale.ROOT, "Laboratorio %s %s %03d", especialidad, ciudad, i + 1);
+            labs.inactivo[i] = random.nextDouble() < properties.getInactiveRatio();
+            // Mediana de turnaround propia: entre ~1 y ~8 horas
+            labs.medianaMinutos[i] = 150 * Math.exp(random.nextGaussian() * 0.6);
+        }
+        // El rango de Zipf no coincide con el orden de alta
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = labs.porRango[i];
+            labs.porRango[i] = labs.porRango[j];
+            labs.porRango[j] = tmp;
+        }
+
+        router.onShard(0, () -> tx.execute(status -> {
+            KeyHolder claves = new GeneratedKeyHolder();
+            long seq = changes.currentSeq();
+            jdbc.batchUpdate(con -> con.prepareStatement(INSERT_LABORATORIO, new String[] { "ID" }),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setString(1, labs.nombres[i]);
+                            ps.setString(2, "Sede sintética de " + labs.nombres[i].substring("Laboratorio ".length()));
+                            ps.setString(3, labs.inactivo[i] ? "INACTIVO" : "ACTIVO");
+                            ps.setLong(4, seq);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return n;
+                        }
+                    }, claves);
+            labs.ids = ids(claves);
+            return null;
+        }));
+        for (int i = 0; i < n; i++) {
+            labs.shard[i] = router.shardFor(labs.nombres[i]);
+        }
+        log.info("🧪 {} laboratorios creados ({} inactivos)", n, count(labs.inactivo));
+        return labs;
+    }
+
+    // ============================================================
+    // Usuarios
+    // ============================================================
+
+    private Usuarios usuarios(SplittableRandom random, Laboratorios labs, LocalDate hoy) {
+        int total = Math.max(properties.getUsers(), labs.n + 1);
+        int admins = Math.max(1, (int) Math.round(total * properties.getAdminRatio()));
+        int tecnicos = Math.max(labs.n, (int) Math.round(total * properties.getTechnicianRatio()));
+        int pacientes = Math.max(0, total - admins - tecnicos);
+        Zipf porLaboratorio = new Zipf(labs.n, properties.getSkew());
+        String hash = passwordEncoder.encode(properties.getPassword());
+
+        String[] roles = new String[admins + tecnicos + pacientes];
+        int[] laboratorio = new int[roles.length];
+        Arrays.fill(laboratorio, -1);
+        for (int i = 0; i < roles.length; i++) {
+            if (i < admins) {
+                roles[i] = "ADMIN";
+            } else if (i < admins + tecnicos) {
+                roles[i] = "TECNICO";
+                int k = i - admins;
+                // Cada laboratorio tiene al menos un técnico; el resto sigue al volumen
+                laboratorio[i] = k < labs.n ? k : labs.porRango[porLaboratorio.next(random)];
+            } else {
+                roles[i] = "PACIENTE";
+            }
+        }
+
+        Usuarios usuarios = new Usuarios(roles.length);
+        int lote = Math.max(1, properties.getBatchSize());
+        for (int desde = 0; desde < roles.length; desde += lote) {
+            int base = desde;
+            int filas = Math.min(lote, roles.length - desde);
+            // Los valores aleatorios se fijan fuera del lote para no depender del orden del driver
+            String[] nombres = new String[filas];
+            String[] telefonos = new String[filas];
+            LocalDate[] registros = new LocalDate[filas];
+            for (int i = 0; i < filas; i++) {
+                nombres[i] = NOMBRES[random.nextInt(NOMBRES.length)] + " " + APELLIDOS[random.nextInt(APELLIDOS.length)]
+                        + " " + APELLIDOS[random.nextInt(APELLIDOS.length)];
+                telefonos[i] = "9" + (10_000_000 + random.nextInt(90_000_000));
+                registros[i] = hoy.minusDays(random.nextInt(Math.max(1, properties.getDays() * 2)));
+            }
+            long[] ids = router.onShard(0, () -> tx.execute(status -> {
+                KeyHolder claves = new GeneratedKeyHolder();
+                long seq = changes.currentSeq();
+                jdbc.batchUpdate(con -> con.prepareStatement(INSERT_USUARIO, new String[] { "ID" }),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                int u = base + i;
+                                ps.setString(1, nombres[i]);
+                                ps.setString(2, hash);
+                                ps.setString(3, roles[u].toLowerCase(Locale.ROOT) + "." + String.format("%06d", u + 1) + DOMINIO);
+                                ps.setString(4, telefonos[i]);
+                                ps.setDate(5, Date.valueOf(registros[i]));
+                                ps.setString(6, roles[u]);
+                                // Técnicos de laboratorios inactivos: desvinculados (como tras la cascada)
+                                if (laboratorio[u] >= 0 && !labs.inactivo[laboratorio[u]]) {
+                                    ps.setLong(7, labs.ids[laboratorio[u]]);
+                                } else {
+                                    ps.setNull(7, Types.BIGINT);
+                                }
+                                ps.setLong(8, seq);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return filas;
+                            }
+                        }, claves);
+                return ids(claves);
+            }));
+            for (int i = 0; i < filas; i++) {
+                usuarios.agregar(ids[i]);
+            }
+        }
+        usuarios.agruparTecnicos(labs.n, laboratorio, admins, tecnicos);
+        log.info("🧪 {} usuarios creados: {} ADMIN, {} TECNICO, {} PACIENTE (contraseña '{}')",
+                usuarios.total, admins, tecnicos, pacientes, properties.getPassword());
+        return usuarios;
+    }
+
+    // ============================================================
+    // Muestras
+    // ============================================================
+
+    private long[] muestras(SplittableRandom random, Laboratorios labs, Usuarios usuarios, LocalDateTime ahora) {
+        int shards = router.shardCount();
+        int lote = Math.max(1, properties.getBatchSize());
+        List<List<Muestra>> buffers = new ArrayList<>(shards);
+        for (int s = 0; s < shards; s++) {
+            buffers.add(new ArrayList<>(lote));
+        }
+        long[] porShard = new long[shards];
+        Zipf porLaboratorio = new Zipf(labs.n, properties.getSkew());
+        Zipf porExamen = new Zipf(EXAMENES.length, 0.8);
+        int dias = Math.max(1, properties.getDays());
+        long total = properties.getSamples();
+        long aviso = Math.max(1, total / 10);
+
+        for (long i = 0; i < total; i++) {
+            int lab = labs.porRango[porLaboratorio.next(random)];
+            labs.muestras[lab]++;
+            long[] tecnicos = usuarios.tecnicosPorLaboratorio[lab];
+            long tecnico = tecnicos[random.nextInt(tecnicos.length)];
+            Long paciente = null;
+            if (usuarios.pacientes.length > 0 && random.nextDouble() < properties.getPatientRatio()) {
+                // Sesgo cuadrático: una minoría de pacientes crónicos acumula muchas muestras
+                double u = random.nextDouble();
+                paciente = usuarios.pacientes[(int) (usuarios.pacientes.length * u * u)];
+            }
+
+            // Tomas concentradas en la mañana (≈ 8:00 ± 2 h)
+            int hora = Math.min(20, 6 + (int) Math.abs(random.nextGaussian() * 2.5) + random.nextInt(3));
+            LocalDateTime tomada = ahora.toLocalDate().minusDays(random.nextInt(dias))
+                    .atTime(hora, random.nextInt(60));
+            if (tomada.isAfter(ahora)) {
+                tomada = tomada.minusDays(1);
+            }
+            LocalDateTime recibida = tomada.plusMinutes(5 + random.nextInt(175));
+            long turnaround = Math.max(10, Math.round(labs.medianaMinutos[lab] * Math.exp(random.nextGaussian() * 0.6)));
+            LocalDateTime informada = recibida.plusMinutes(turnaround);
+            boolean atascada = random.nextDouble() < ATASCADAS;
+
+            SampleStatus estado;
+            if (!atascada && !informada.isAfter(ahora)) {
+                estado = SampleStatus.INFORMADA;
+            } else if (recibida.isAfter(ahora)) {
+                recibida = ahora;
+                estado = SampleStatus.RECIBIDA;
+            } else if (atascada) {
+                estado = random.nextBoolean() ? SampleStatus.RECIBIDA : SampleStatus.EN_PROCESO;
+            } else {
+                estado = recibida.plusMinutes(turnaround * 6 / 10).isAfter(ahora) ? SampleStatus.EN_PROCESO
+                        : SampleStatus.VALIDADA;
+            }
+            boolean retenida = labs.inactivo[lab] && SampleStatus.pendientes().contains(estado);
+
+            Muestra muestra = new Muestra(String.format("PRF-%09d", i + 1), EXAMENES[porExamen.next(random)],
+                    labs.ids[lab], tecnico, paciente, tomada, estado, recibida,
+                    estado == SampleStatus.INFORMADA ? informada : null, retenida ? ahora : null);
+
+            int shard = labs.shard[lab];
+            List<Muestra> buffer = buffers.get(shard);
+            buffer.add(muestra);
+            if (buffer.size() >= lote) {
+                porShard[shard] += insertarMuestras(shard, buffer);
+            }
+            if ((i + 1) % aviso == 0) {
+                log.info("🧪 {} / {} muestras", i + 1, total);
+            }
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            porShard[shard] += insertarMuestras(shard, buffers.get(shard));
+        }
+        return porShard;
+    }
+
+    private int insertarMuestras(int shard, List<Muestra> buffer) {
+        if (buffer.isEmpty()) {
+            return 0;
+        }
+        router.onShard(shard, () -> tx.execute(status -> {
+            long seq = changes.currentSeq();
+            return jdbc.batchUpdate(INSERT_MUESTRA, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Muestra m = buffer.get(i);
+                    ps.setString(1, m.code());
+                    ps.setString(2, m.description());
+                    ps.setLong(3, m.laboratoryId());
+                    ps.setLong(4, m.technicianId());
+                    if (m.patientId() != null) {
+                        ps.setLong(5, m.patientId());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setTimestamp(6, Timestamp.valueOf(m.collectedAt()));
+                    ps.setString(7, m.status().name());
+                    ps.setTimestamp(8, Timestamp.valueOf(m.receivedAt()));
+                    ps.setTimestamp(9, m.reportedAt() != null ? Timestamp.valueOf(m.reportedAt()) : null);
+                    ps.setTimestamp(10, m.heldAt() != null ? Timestamp.valueOf(m.heldAt()) : null);
+                    ps.setLong(11, seq);
+                    ps.setString(12, Sample.normalizarCodigo(m.code()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return buffer.size();
+                }
+            });
+        }));
+        int filas = buffer.size();
+        buffer.clear();
+        return filas;
+    }
+
+    /** Estadísticas del optimizador de H2 tras la carga (en Oracle se deja al job de estadísticas). */
+    private Void analizar() {
+        boolean h2 = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con ->
+                con.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("h2")));
+        if (h2) {
+            jdbc.execute("ANALYZE");
+        }
+        return null;
+    }
+
+    private static long[] ids(KeyHolder claves) {
+        return claves.getKeyList().stream()
+                .mapToLong(fila -> ((Number) fila.values().iterator().next()).longValue())
+                .toArray();
+    }
+
+    private static int count(boolean[] valores) {
+        int n = 0;
+        for (boolean v : valores) {
+            if (v) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // ============================================================
+    // Estructuras auxiliares
+    // ============================================================
+
+    private record Muestra(String code, String description, long laboratoryId, long technicianId, Long patientId,
+            LocalDateTime collectedAt, SampleStatus status, LocalDateTime receivedAt, LocalDateTime reportedAt,
+            LocalDateTime heldAt) {
+    }
+
+    private static final class Laboratorios {
+        final int n;
+        final String[] nombres;
+        final boolean[] inactivo;
+        final double[] medianaMinutos;
+        final int[] shard;
+        final int[] porRango;
+        final long[] muestras;
+        long[] ids;
+
+        Laboratorios(int n) {
+            this.n = n;
+            this.nombres = new String[n];
+            this.inactivo = new boolean[n];
+            this.medianaMinutos = new double[n];
+            this.shard = new int[n];
+            this.muestras = new long[n];
+            this.porRango = new int[n];
+            for (int i = 0; i < n; i++) {
+                porRango[i] = i;
+            }
+        }
+
+        /** Fracción de las muestras que reciben los laboratorios más cargados. */
+        double cuotaTop(double fraccion) {
+            long total = Arrays.stream(muestras).sum();
+            if (total == 0) {
+                return 0;
+            }
+            int top = Math.max(1, (int) Math.round(n * fraccion));
+            long suma = Arrays.stream(muestras).boxed().sorted((a, b) -> Long.compare(b, a)).limit(top)
+                    .mapToLong(Long::longValue).sum();
+            return (double) suma / total;
+        }
+    }
+
+    private static final class Usuarios {
+        final long[] ids;
+        int total;
+        long[] pacientes = new long[0];
+        long[][] tecnicosPorLaboratorio;
+
+        Usuarios(int capacidad) {
+            this.ids = new long[capacidad];
+        }
+
+        void agregar(long id) {
+            ids[total++] = id;
+        }
+
+        void agruparTecnicos(int laboratorios, int[] laboratorioDe, int admins, int tecnicos) {
+            int[] cuenta = new int[laboratorios];
+            for (int i = admins; i < admins + tecnicos; i++) {
+                cuenta[laboratorioDe[i]]++;
+            }
+            tecnicosPorLaboratorio = new long[laboratorios][];
+            for (int l = 0; l < laboratorios; l++) {
+                tecnicosPorLaboratorio[l] = new long[cuenta[l]];
+                cuenta[l] = 0;
+            }
+            for (int i = admins; i < admins + tecnicos; i++) {
+                int l = laboratorioDe[i];
+                tecnicosPorLaboratorio[l][cuenta[l]++] = ids[i];
+            }
+            pacientes = Arrays.copyOfRange(ids, admins + tecnicos, total);
+        }
+    }
+
+    /** Muestreo de rangos 0..n-1 con probabilidad ∝ 1 / (rango + 1)^s (búsqueda binaria en la CDF). */
+    private static final class Zipf {
+        private final double[] cdf;
+
+        Zipf(int n, double s) {
+            cdf = new double[n];
+            double suma = 0;
+            for (int i = 0; i < n; i++) {
+                suma += 1.0 / Math.pow(i + 1, s);
+                cdf[i] = suma;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= suma;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int i = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(cdf.length - 1, i >= 0 ? i : -i - 1);
+        }
+    }
+}
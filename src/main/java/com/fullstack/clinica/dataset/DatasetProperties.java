@@ -0,0 +1,56 @@
+package com.fullstack.clinica.dataset;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * ===============================================================
+ * 📘 Clase: DatasetProperties
+ * ---------------------------------------------------------------
+ * Volúmenes del dataset sintético (clinica.dataset.*). Con la misma
+ * semilla y los mismos volúmenes se obtienen exactamente las mismas
+ * filas.
+ * ===============================================================
+ */
+@Data
+@ConfigurationProperties(prefix = "clinica.dataset")
+public class DatasetProperties {
+
+    // Genera el dataset al arrancar (solo si la BD aún no lo tiene)
+    private boolean enabled = false;
+
+    // Semilla del generador: mismo valor → mismos datos
+    private long seed = 42;
+
+    private int laboratories = 150;
+
+    private int users = 30_000;
+
+    private long samples = 2_000_000;
+
+    // Fracción de usuarios ADMIN y TECNICO (el resto son PACIENTE)
+    private double adminRatio = 0.002;
+    private double technicianRatio = 0.10;
+
+    // Laboratorios INACTIVO (sus técnicos sin laboratorio, sus pendientes retenidas)
+    private double inactiveRatio = 0.03;
+
+    // Exponente Zipf del reparto de muestras y técnicos por laboratorio (0 = uniforme)
+    private double skew = 1.1;
+
+    // Fracción de muestras con paciente asociado
+    private double patientRatio = 0.85;
+
+    // Ventana de fechas de toma hacia atrás desde hoy
+    private int days = 365;
+
+    // Instante "actual" de los datos (ISO, p. ej. 2026-01-01T12:00); vacío = ahora.
+    // Fijarlo hace que dos cargas con la misma semilla tengan también las mismas fechas
+    private String anchor;
+
+    // Filas por INSERT por lotes (una transacción por lote)
+    private int batchSize = 5_000;
+
+    // Contraseña de todos los usuarios generados (se hashea una sola vez)
+    private String password = "Perf1234";
+}
@@ -0,0 +1,18 @@
+package com.fullstack.clinica.exception;
+
+/**
+ * ===============================================================
+ * 📘 Clase: BadRequestException
+ * ---------------------------------------------------------------
+ * Excepción para responder "400 - Bad Request" cuando un parámetro
+ * de la petición está mal formado (por ejemplo, un cursor que no se
+ * puede decodificar o que pertenece a otro recurso).
+ * Se maneja en GlobalExceptionHandler.
+ * ===============================================================
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.fullstack.clinica.exception;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ConflictException
+ * ---------------------------------------------------------------
+ * Excepción para responder "409 - Conflict": la operación es válida
+ * pero no se puede aplicar en el estado actual del recurso (eliminar
+ * un laboratorio con muestras, cancelar un trabajo ya terminado,
+ * renovar un reclamo ajeno...).
+ *
+ * Es la única que GlobalExceptionHandler traduce a 409: un
+ * IllegalStateException interno sigue siendo un 500.
+ * ===============================================================
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.fullstack.clinica.exception;
+
+/**
+ * ===============================================================
+ * 📘 Clase: CursorExpiredException
+ * ---------------------------------------------------------------
+ * Excepción para responder "410 - Gone" a un cursor de sincronización
+ * que ya no puede ponerse al día (lápidas purgadas o BD reiniciada).
+ * El cliente debe descartar su copia y resincronizar sin "since".
+ * Se maneja en GlobalExceptionHandler.
+ * ===============================================================
+ */
+public class CursorExpiredException extends RuntimeException {
+
+    public CursorExpiredException(String message) {
+        super(message);
+    }
+}
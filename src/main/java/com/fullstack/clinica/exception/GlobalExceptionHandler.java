@@ -1,5 +1,7 @@
 package com.fullstack.clinica.exception;
 
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -19,7 +21,7 @@ import java.util.Map;
  *
  * 🔹 Semana 2:
  * - Captura y traduce excepciones a respuestas HTTP limpias y comprensibles.
- * - Centraliza el manejo de errores (400, 404 y 500).
+ * - Centraliza el manejo de errores (400, 404, 409, 410, 503 y 500).
  * - Integra logs para seguimiento profesional.
  * ===============================================================
  */
@@ -92,4 +94,83 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
     }
+
+    // ============================================================
+    // 🔸 4. Operaciones no permitidas por el estado actual (409 Conflict)
+    // ============================================================
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(ConflictException ex, WebRequest request) {
+        log.warn("⚠️ Operación en conflicto con el estado actual: {}", ex.getMessage());
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.CONFLICT.value());
+        error.put("timestamp", LocalDateTime.now());
+        error.put("error", ex.getMessage());
+        error.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // ============================================================
+    // 🔸 5. Parámetros mal formados (400 Bad Request)
+    // ============================================================
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(BadRequestException ex, WebRequest request) {
+        log.warn("⚠️ Petición inválida: {}", ex.getMessage());
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        error.put("timestamp", LocalDateTime.now());
+        error.put("error", ex.getMessage());
+        error.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    // ============================================================
+    // 🔸 6. Cursor de sincronización vencido (410 Gone)
+    // ============================================================
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleCursorExpired(CursorExpiredException ex, WebRequest request) {
+        log.warn("⌛ Cursor de sincronización vencido: {}", ex.getMessage());
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.GONE.value());
+        error.put("timestamp", LocalDateTime.now());
+        error.put("error", ex.getMessage());
+        error.put("resync", true);
+        error.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.GONE).body(error);
+    }
+
+    // ============================================================
+    // 🔸 7. Base de datos lenta o saturada (503 Service Unavailable)
+    // ============================================================
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceUnavailable(ServiceUnavailableException ex,
+            WebRequest request) {
+        log.warn("🚧 Servicio no disponible: {}", ex.getMessage());
+        return servicioNoDisponible(ex.getMessage(), ex.getRetryAfterSeconds(), request);
+    }
+
+    @ExceptionHandler({ QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class })
+    public ResponseEntity<Map<String, Object>> handleQueryTimeout(RuntimeException ex, WebRequest request) {
+        log.error("⏳ Consulta cancelada por timeout: {}", ex.getMessage());
+        return servicioNoDisponible("La base de datos tardó demasiado en responder, reintente en unos segundos",
+                5, request);
+    }
+
+    private ResponseEntity<Map<String, Object>> servicioNoDisponible(String mensaje, long retryAfterSeconds,
+            WebRequest request) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("timestamp", LocalDateTime.now());
+        error.put("error", mensaje);
+        error.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
 }
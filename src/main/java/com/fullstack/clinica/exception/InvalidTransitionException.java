@@ -0,0 +1,17 @@
+package com.fullstack.clinica.exception;
+
+/**
+ * ===============================================================
+ * 📘 Clase: InvalidTransitionException
+ * ---------------------------------------------------------------
+ * La muestra no puede pasar al estado pedido: la máquina de estados
+ * (SampleStatus) no lo permite o la muestra está retenida porque su
+ * laboratorio está inactivo. Responde 409 (es un ConflictException).
+ * ===============================================================
+ */
+public class InvalidTransitionException extends ConflictException {
+
+    public InvalidTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.fullstack.clinica.exception;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ServiceUnavailableException
+ * ---------------------------------------------------------------
+ * Excepción para responder "503 - Servicio no disponible" sin esperar:
+ * grupo de endpoints saturado (bulkhead) o base de datos con el
+ * circuito abierto. Se maneja en GlobalExceptionHandler, que agrega
+ * la cabecera Retry-After.
+ * ===============================================================
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,52 @@
+package com.fullstack.clinica.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.GraphQLTypeUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ===============================================================
+ * 📘 Clase: GraphQlConfig
+ * ---------------------------------------------------------------
+ * Límites de /graphql, evaluados antes de ejecutar (sin tocar la BD):
+ *
+ * - Profundidad máxima (clinica.graphql.max-depth): corta los ciclos
+ *   laboratory → users → laboratory → users ...
+ * - Complejidad máxima (clinica.graphql.max-complexity): cada campo
+ *   cuesta 1 más lo de sus hijos; en una lista, lo de los hijos se
+ *   multiplica por su argumento limit o, si no tiene, por
+ *   clinica.graphql.list-factor.
+ *
+ * Una consulta que excede un límite responde un error GraphQL y no se
+ * ejecuta. Spring Boot registra ambas instrumentaciones en el GraphQlSource.
+ * ===============================================================
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepth(@Value("${clinica.graphql.max-depth:8}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexity(
+            @Value("${clinica.graphql.max-complexity:2000}") int maxComplexity,
+            @Value("${clinica.graphql.list-factor:10}") int listFactor) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity, costo(listFactor));
+    }
+
+    static FieldComplexityCalculator costo(int listFactor) {
+        return (env, hijos) -> {
+            if (env.getArguments().get("limit") instanceof Integer limit) {
+                return 1 + hijos * Math.max(limit, 1);
+            }
+            boolean lista = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(env.getFieldDefinition().getType()));
+            return 1 + hijos * (lista ? listFactor : 1);
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.fullstack.clinica.graphql;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.service.LaboratoryService;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.service.UserService;
+
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ===============================================================
+ * 📘 Clase: GraphQlLoaders
+ * ---------------------------------------------------------------
+ * DataLoaders de /graphql. Spring crea uno nuevo por petición: las
+ * claves que piden los campos de un mismo nivel se juntan en un lote
+ * (una consulta IN) y cada clave se resuelve una sola vez por petición.
+ *
+ * - Laboratory, User y Sample por ID: multi-get de cada servicio
+ *   (BatchResult, de a 1000 IDs; las muestras por shard de su rango).
+ *   Se inyectan como DataLoader<Long, Laboratory>, etc.
+ * - usuariosPorLaboratorio: Laboratory.users.
+ * - muestrasPorLaboratorio: Laboratory.samples, con clave
+ *   (laboratorio, estado, límite); un lote por combinación de
+ *   argumentos, en la práctica uno.
+ *
+ * Un ID inexistente se resuelve a null (o a lista vacía).
+ * ===============================================================
+ */
+@Component
+public class GraphQlLoaders {
+
+    public static final String USUARIOS_POR_LABORATORIO = "usuariosPorLaboratorio";
+    public static final String MUESTRAS_POR_LABORATORIO = "muestrasPorLaboratorio";
+
+    /** Clave de Laboratory.samples: mismos argumentos → mismo lote. */
+    public record MuestrasDeLaboratorio(Long laboratoryId, SampleStatus status, int limit) {
+    }
+
+    public GraphQlLoaders(BatchLoaderRegistry registry, LaboratoryService laboratories, UserService users,
+            SampleService samples) {
+        registry.forTypePair(Long.class, Laboratory.class).registerMappedBatchLoader((ids, env) -> Mono.fromCallable(
+                () -> porId(laboratories.findByIds(new ArrayList<>(ids)).getItems(), Laboratory::getId)));
+
+        registry.forTypePair(Long.class, User.class).registerMappedBatchLoader((ids, env) -> Mono.fromCallable(
+                () -> porId(users.buscarPorIds(new ArrayList<>(ids)).getItems(), User::getId)));
+
+        registry.forTypePair(Long.class, Sample.class).registerMappedBatchLoader((ids, env) -> Mono.fromCallable(
+                () -> porId(samples.findByIds(new ArrayList<>(ids)).getItems(), Sample::getId)));
+
+        registry.<Long, List<User>>forName(USUARIOS_POR_LABORATORIO).registerMappedBatchLoader((ids, env) -> Mono
+                .fromCallable(() -> completar(ids, users.listarPorLaboratorios(ids))));
+
+        registry.<MuestrasDeLaboratorio, List<Sample>>forName(MUESTRAS_POR_LABORATORIO)
+                .registerMappedBatchLoader((claves, env) -> Mono.fromCallable(() -> muestras(samples, claves)));
+    }
+
+    private static Map<MuestrasDeLaboratorio, List<Sample>> muestras(SampleService samples,
+            Set<MuestrasDeLaboratorio> claves) {
+        Map<MuestrasDeLaboratorio, List<Sample>> resultado = new HashMap<>();
+        claves.stream()
+                .collect(Collectors.groupingBy(c -> new MuestrasDeLaboratorio(null, c.status(), c.limit())))
+                .forEach((argumentos, grupo) -> {
+                    Map<Long, List<Sample>> porLaboratorio = samples.findLatestByLaboratories(
+                            grupo.stream().map(MuestrasDeLaboratorio::laboratoryId).toList(),
+                            argumentos.status(), argumentos.limit());
+                    grupo.forEach(c -> resultado.put(c, porLaboratorio.getOrDefault(c.laboratoryId(), List.of())));
+                });
+        return resultado;
+    }
+
+    private static <T> Map<Long, T> porId(List<T> items, Function<T, Long> idDe) {
+        return items.stream().collect(Collectors.toMap(idDe, Function.identity()));
+    }
+
+    private static <V> Map<Long, List<V>> completar(Collection<Long> ids, Map<Long, List<V>> encontrados) {
+        Map<Long, List<V>> resultado = new HashMap<>();
+        ids.forEach(id -> resultado.put(id, encontrados.getOrDefault(id, List.of())));
+        return resultado;
+    }
+}
@@ -0,0 +1,52 @@
+package com.fullstack.clinica.health;
+
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: HealthController
+ * ---------------------------------------------------------------
+ * Sondas para el orquestador, con el estado de disponibilidad de
+ * Spring Boot (mismo formato que /actuator/health/*):
+ *
+ * - liveness: 200 una vez iniciado el contexto.
+ * - readiness: 503 hasta que termina el arranque (incluido el
+ *   calentamiento, ver WarmupService); luego 200.
+ * ===============================================================
+ */
+@RestController
+@RequestMapping("/api/health")
+public class HealthController {
+
+    private final ApplicationAvailability availability;
+
+    public HealthController(ApplicationAvailability availability) {
+        this.availability = availability;
+    }
+
+    @GetMapping("/liveness")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        LivenessState estado = availability.getLivenessState();
+        return respuesta(estado == LivenessState.CORRECT, estado);
+    }
+
+    @GetMapping("/readiness")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        ReadinessState estado = availability.getReadinessState();
+        return respuesta(estado == ReadinessState.ACCEPTING_TRAFFIC, estado);
+    }
+
+    private static ResponseEntity<Map<String, Object>> respuesta(boolean arriba, Enum<?> estado) {
+        return ResponseEntity.status(arriba ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", arriba ? "UP" : "DOWN", "state", estado.name()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.fullstack.clinica.job.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.fullstack.clinica.job.model.Job;
+import com.fullstack.clinica.job.service.JobService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: JobController
+ * ---------------------------------------------------------------
+ * Consulta, cancelación y descarga de resultados de los trabajos
+ * asíncronos. Los trabajos se crean desde los endpoints de cada
+ * módulo (ej: POST /api/samples/export), que responden 202 Accepted
+ * con la cabecera Location apuntando aquí.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobService service;
+
+    public JobController(JobService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Job> estado(@PathVariable String id) {
+        log.info("🧵 [GET] Estado del trabajo {}", id);
+        return ResponseEntity.ok(service.findById(id));
+    }
+
+    @GetMapping("/type/{type}")
+    public ResponseEntity<List<Job>> recientes(@PathVariable String type) {
+        log.info("🧵 [GET] Últimos trabajos de tipo {}", type);
+        return ResponseEntity.ok(service.findRecent(type));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Job> cancelar(@PathVariable String id) {
+        log.info("🛑 [DELETE] Cancelando trabajo {}", id);
+        return ResponseEntity.ok(service.cancel(id));
+    }
+
+    @GetMapping("/{id}/result")
+    public void resultado(@PathVariable String id, HttpServletResponse response) throws IOException {
+        log.info("📦 [GET] Descargando resultado del trabajo {}", id);
+        Job job = service.findById(id);
+        descargar(service, job, job.getType().toLowerCase() + "-" + id + extension(job.getResultContentType()),
+                response);
+    }
+
+    /**
+     * Transmite el resultado del trabajo desde la BD, tramo por tramo (también
+     * lo usa GET /api/samples/import/{jobId}/errors).
+     */
+    public static void descargar(JobService service, Job job, String nombre, HttpServletResponse response)
+            throws IOException {
+        service.checkResult(job); // antes de escribir: un 409 todavía puede salir como JSON
+        response.setContentType(job.getResultContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + nombre);
+        service.writeResult(job, response.getOutputStream());
+    }
+
+    private static String extension(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        return contentType.contains("csv") ? ".csv" : contentType.contains("json") ? ".json" : "";
+    }
+}
@@ -0,0 +1,78 @@
+package com.fullstack.clinica.job.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+import java.time.LocalDateTime;
+
+/**
+ * ===============================================================
+ * 📘 Clase: Job
+ * ---------------------------------------------------------------
+ * Trabajo asíncrono persistido (reportes, exportaciones, importaciones).
+ * Su estado, su entrada (JOB_INPUT) y su resultado (JOB_RESULT_PART)
+ * viven en la BD: sobreviven a reinicios y cualquier nodo puede
+ * retomarlo cuando vence el arriendo de su dueño.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "JOB", indexes = {
+        @Index(name = "IDX_JOB_STATUS", columnList = "status")
+})
+public class Job {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 40)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+
+    // Parámetros del trabajo en JSON (para poder reanudarlo tras un reinicio)
+    @Column(length = 2000)
+    private String params;
+
+    // Nodo que lo ejecuta y vencimiento de su arriendo. Solo cambian con los
+    // UPDATE condicionales de JobService, nunca al guardar la entidad.
+    @Column(length = 100, updatable = false)
+    private String owner;
+
+    @Column(updatable = false)
+    private LocalDateTime leaseUntil;
+
+    // Ejecuciones iniciadas (más de una = retomado tras una caída)
+    private int attempts;
+
+    // Hasta dónde quedó aplicado el trabajo (lo define el handler; 0 = nada)
+    @JsonIgnore
+    private long checkpoint;
+
+    @JsonIgnore
+    private int resultParts;
+
+    private long processed;
+    private long succeeded;
+    private long failed;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(length = 100)
+    private String resultContentType;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public boolean isResultAvailable() {
+        return resultContentType != null && status == JobStatus.COMPLETADO;
+    }
+}
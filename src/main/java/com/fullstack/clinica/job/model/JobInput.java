@@ -0,0 +1,30 @@
+package com.fullstack.clinica.job.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+/**
+ * ===============================================================
+ * 📘 Clase: JobInput
+ * ---------------------------------------------------------------
+ * Archivo de entrada de un trabajo (ej: el CSV de una importación).
+ * Se guarda en la BD al enviarlo, para que cualquier nodo pueda
+ * retomarlo; se borra cuando el trabajo termina.
+ *
+ * JobService lo escribe y lo lee por streaming (JDBC); JPA solo crea
+ * la tabla.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "JOB_INPUT")
+public class JobInput {
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Lob
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+}
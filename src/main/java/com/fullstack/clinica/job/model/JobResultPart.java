@@ -0,0 +1,37 @@
+package com.fullstack.clinica.job.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+/**
+ * ===============================================================
+ * 📘 Clase: JobResultPart
+ * ---------------------------------------------------------------
+ * Tramo del resultado descargable de un trabajo (ej: las filas
+ * rechazadas de un lote de importación). Se inserta en la misma
+ * transacción que el avance del trabajo, así que resultado, contadores
+ * y checkpoint siempre coinciden. La descarga concatena los tramos en
+ * orden.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "JOB_RESULT_PART", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_JOB_RESULT_PART", columnNames = { "job_id", "part" })
+})
+public class JobResultPart {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(nullable = false)
+    private int part;
+
+    @Lob
+    @Column(name = "content", nullable = false)
+    private String content;
+}
@@ -0,0 +1,17 @@
+package com.fullstack.clinica.job.model;
+
+/**
+ * Estados de un trabajo asíncrono.
+ */
+public enum JobStatus {
+
+    PENDIENTE,
+    EN_EJECUCION,
+    COMPLETADO,
+    FALLIDO,
+    CANCELADO;
+
+    public boolean isTerminal() {
+        return this == COMPLETADO || this == FALLIDO || this == CANCELADO;
+    }
+}
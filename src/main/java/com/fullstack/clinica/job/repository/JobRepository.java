@@ -0,0 +1,27 @@
+package com.fullstack.clinica.job.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.clinica.job.model.Job;
+import com.fullstack.clinica.job.model.JobStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Acceso a los trabajos asíncronos persistidos.
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, String> {
+
+    /**
+     * Trabajos que quedaron sin terminar (se usan al arrancar para recuperarlos).
+     */
+    List<Job> findByStatusIn(Collection<JobStatus> statuses);
+
+    /**
+     * Últimos trabajos de un tipo, más recientes primero.
+     */
+    List<Job> findTop50ByTypeOrderByCreatedAtDesc(String type);
+}
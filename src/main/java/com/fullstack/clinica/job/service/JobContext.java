@@ -0,0 +1,97 @@
+package com.fullstack.clinica.job.service;
+
+import com.fullstack.clinica.job.model.Job;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Vista que recibe un {@link JobHandler} mientras se ejecuta: parámetros,
+ * entrada, avance con checkpoint, resultado y cancelación.
+ */
+public class JobContext {
+
+    private final Job job;
+    private final Map<String, String> params;
+    private final Path directory;
+    private final JobService service;
+    private volatile boolean cancelled;
+
+    JobContext(Job job, Map<String, String> params, Path directory, JobService service) {
+        this.job = job;
+        this.params = params;
+        this.directory = directory;
+        this.service = service;
+    }
+
+    public String getJobId() {
+        return job.getId();
+    }
+
+    public String param(String name) {
+        return params.get(name);
+    }
+
+    /**
+     * Copia local del archivo de entrada (el original vive en JOB_INPUT).
+     */
+    public Path inputFile() {
+        return directory.resolve(job.getId() + ".input");
+    }
+
+    /**
+     * Hasta dónde quedó aplicado un intento anterior (0 = empezar desde el inicio).
+     */
+    public long checkpoint() {
+        return job.getCheckpoint();
+    }
+
+    /**
+     * ¿Es un reintento (el trabajo se retomó tras la caída de su nodo)?
+     */
+    public boolean isRetry() {
+        return job.getAttempts() > 1;
+    }
+
+    /**
+     * Tipo del resultado descargable (ej: text/csv).
+     */
+    public void resultType(String contentType) {
+        job.setResultContentType(contentType);
+    }
+
+    /**
+     * Agrega un tramo al resultado y guarda el avance y el checkpoint en
+     * una sola transacción: si el trabajo se retoma, parte exactamente de
+     * aquí. Lanza CancellationException si el trabajo ya no es de este nodo.
+     *
+     * @param result     texto a agregar al resultado (puede ser vacío)
+     * @param checkpoint posición ya aplicada (la interpreta el handler)
+     */
+    public void commit(String result, long processed, long succeeded, long failed, long checkpoint) {
+        job.setProcessed(job.getProcessed() + processed);
+        job.setSucceeded(job.getSucceeded() + succeeded);
+        job.setFailed(job.getFailed() + failed);
+        job.setCheckpoint(checkpoint);
+        service.commit(job, result);
+    }
+
+    public void message(String message) {
+        job.setMessage(message);
+    }
+
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    public void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Trabajo cancelado");
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+}
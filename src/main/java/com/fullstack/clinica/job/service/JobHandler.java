@@ -0,0 +1,33 @@
+package com.fullstack.clinica.job.service;
+
+/**
+ * ===============================================================
+ * 📘 Interfaz: JobHandler
+ * ---------------------------------------------------------------
+ * Implementación de un tipo de trabajo asíncrono. Cada handler es un
+ * bean de Spring; JobService lo ejecuta en el pool de su tipo.
+ * ===============================================================
+ */
+public interface JobHandler {
+
+    /**
+     * Identificador del tipo (ej: SAMPLE_EXPORT). Se guarda en JOB.type.
+     */
+    String type();
+
+    /**
+     * Ejecuta el trabajo. Debe consultar {@link JobContext#checkCancelled()}
+     * entre lotes para permitir la cancelación, y guardar su avance con
+     * {@link JobContext#commit} para poder retomarse desde ahí.
+     */
+    void execute(JobContext context) throws Exception;
+
+    /**
+     * Si el trabajo puede retomarse en otro nodo (o tras un reinicio): desde
+     * su checkpoint, o desde el inicio si no guardó ninguno. Si no, queda
+     * FALLIDO.
+     */
+    default boolean restartable() {
+        return true;
+    }
+}
@@ -0,0 +1,510 @@
+package com.fullstack.clinica.job.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.job.model.Job;
+import com.fullstack.clinica.job.model.JobStatus;
+import com.fullstack.clinica.job.repository.JobRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ===============================================================
+ * 📘 Clase: JobService
+ * ---------------------------------------------------------------
+ * Subsistema de trabajos asíncronos.
+ *
+ * - submit() persiste el trabajo como PENDIENTE y lo encola en el pool
+ *   de su tipo; el controller responde 202 Accepted con el ID.
+ * - Cada tipo tiene su propio pool acotado (hilos y cola), configurable:
+ *   clinica.jobs.pools.<TIPO>.threads / clinica.jobs.pools.<TIPO>.queue
+ * - Los trabajos se pueden cancelar (en cola o en ejecución), desde
+ *   cualquier nodo.
+ * - La entrada se guarda en JOB_INPUT y el resultado en JOB_RESULT_PART:
+ *   nada depende del disco local del nodo que recibió la petición.
+ *
+ * Varios nodos comparten la tabla JOB. Cada trabajo tiene un dueño
+ * (clinica.jobs.node-id) con un arriendo (clinica.jobs.lease) que el
+ * dueño renueva mientras lo tiene en cola o en ejecución. Si el nodo se
+ * cae, el arriendo vence y otro nodo lo reclama con un UPDATE
+ * condicional: solo uno gana. El reclamado se reanuda desde su último
+ * checkpoint (contadores y resultado incluidos) si su handler es
+ * reiniciable; si no, se marca FALLIDO. Un nodo que pierde el arriendo
+ * (o cuyo trabajo se canceló en otro nodo) abandona su ejecución sin
+ * escribir nada más.
+ *
+ * Con un node-id fijo por instancia, el nodo que reinicia retoma sus
+ * trabajos al arrancar sin esperar a que venza el arriendo.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class JobService {
+
+    /** Entrega el archivo de entrada del trabajo (ej: MultipartFile::getInputStream). */
+    @FunctionalInterface
+    public interface InputSource {
+        InputStream open() throws IOException;
+    }
+
+    private static final String ACTIVOS = "status in ('PENDIENTE', 'EN_EJECUCION')";
+    private static final String RENOVAR = "update JOB set lease_until = ? where id = ? and owner = ? and " + ACTIVOS;
+    private static final String RECLAMAR = "update JOB set owner = ?, lease_until = ? where id = ? and " + ACTIVOS
+            + " and (lease_until is null or lease_until < ? or owner = ?)";
+    private static final String CANCELAR = "update JOB set status = 'CANCELADO', finished_at = ?, message = ? "
+            + "where id = ? and " + ACTIVOS;
+    private static final String INSERTAR_ENTRADA = "insert into JOB_INPUT (job_id, content) values (?, ?)";
+    private static final String LEER_ENTRADA = "select content from JOB_INPUT where job_id = ?";
+    private static final String BORRAR_ENTRADA = "delete from JOB_INPUT where job_id = ?";
+    private static final String INSERTAR_TRAMO = "insert into JOB_RESULT_PART (job_id, part, content) values (?, ?, ?)";
+    private static final String LEER_TRAMO = "select content from JOB_RESULT_PART where job_id = ? and part = ?";
+    private static final String BORRAR_TRAMOS = "delete from JOB_RESULT_PART where job_id = ?";
+
+    private final JobRepository repository;
+    private final Map<String, JobHandler> handlers;
+    private final Environment env;
+    private final ObjectMapper mapper;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final Path directory;
+    private final String nodeId;
+    private final Duration lease;
+    private final ScheduledExecutorService arriendos;
+
+    private final Map<String, ThreadPoolExecutor> pools = new ConcurrentHashMap<>();
+    private final Map<String, Running> enEjecucion = new ConcurrentHashMap<>();
+
+    public JobService(JobRepository repository, List<JobHandler> handlers, Environment env, ObjectMapper mapper,
+            JdbcTemplate jdbc, TransactionTemplate tx,
+            @Value("${clinica.jobs.dir:${java.io.tmpdir}/clinica-jobs}") String directory,
+            @Value("${clinica.jobs.node-id:}") String nodeId,
+            @Value("${clinica.jobs.lease:60s}") Duration lease) {
+        this.repository = repository;
+        this.handlers = handlers.stream().collect(Collectors.toMap(JobHandler::type, Function.identity()));
+        this.env = env;
+        this.mapper = mapper;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.directory = Path.of(directory);
+        this.nodeId = nodeId.isBlank() ? "nodo-" + UUID.randomUUID() : nodeId;
+        this.lease = lease;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de trabajos " + directory, e);
+        }
+        this.arriendos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-lease");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        arriendos.shutdownNow();
+        pools.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    // ============================================================
+    // API pública
+    // ============================================================
+
+    public Job submit(String type, Map<String, String> params) {
+        return submit(type, params, null);
+    }
+
+    /**
+     * Registra un trabajo nuevo (con su entrada, si tiene) y lo encola en
+     * este nodo. Si el pool del tipo está lleno, el trabajo queda FALLIDO
+     * y se lanza ConflictException.
+     */
+    public Job submit(String type, Map<String, String> params, InputSource input) {
+        if (!handlers.containsKey(type)) {
+            throw new ResourceNotFoundException("Tipo de trabajo desconocido: " + type);
+        }
+        Job job = new Job();
+        job.setId(UUID.randomUUID().toString());
+        job.setType(type);
+        job.setStatus(JobStatus.PENDIENTE);
+        job.setParams(toJson(params));
+        job.setCreatedAt(LocalDateTime.now());
+        job.setOwner(nodeId);
+        job.setLeaseUntil(LocalDateTime.now().plus(lease));
+
+        Job guardado = tx.execute(status -> {
+            if (input != null) {
+                try (InputStream contenido = input.open()) {
+                    jdbc.update(con -> {
+                        var ps = con.prepareStatement(INSERTAR_ENTRADA);
+                        ps.setString(1, job.getId());
+                        ps.setBinaryStream(2, contenido);
+                        return ps;
+                    });
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo guardar la entrada del trabajo", e);
+                }
+            }
+            return repository.save(job);
+        });
+        encolar(guardado);
+        log.info("🧵 Trabajo {} ({}) encolado", guardado.getId(), type);
+        return guardado;
+    }
+
+    public Job findById(String id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No existe el trabajo con ID: " + id));
+    }
+
+    public List<Job> findRecent(String type) {
+        return repository.findTop50ByTypeOrderByCreatedAtDesc(type);
+    }
+
+    /**
+     * Cancela un trabajo en cola o en ejecución. Si lo ejecuta otro nodo,
+     * este lo abandona al renovar su arriendo.
+     */
+    public Job cancel(String id) {
+        Job job = findById(id);
+        if (job.getStatus().isTerminal()) {
+            throw new ConflictException("El trabajo ya terminó con estado " + job.getStatus());
+        }
+        Running running = enEjecucion.get(id);
+        if (running != null) {
+            running.context.cancel();
+            if (running.future != null) {
+                running.future.cancel(true);
+            }
+        }
+        if (running == null || !running.iniciado) {
+            // No se está ejecutando aquí: se marca directo en la BD
+            jdbc.update(CANCELAR, Timestamp.valueOf(LocalDateTime.now()), "Cancelado por el usuario", id);
+            enEjecucion.remove(id);
+            borrarEntrada(id);
+        }
+        log.info("🛑 Cancelación solicitada para el trabajo {}", id);
+        return findById(id);
+    }
+
+    /**
+     * Escribe el resultado descargable (solo de trabajos completados),
+     * tramo por tramo, sin cargarlo entero en memoria.
+     */
+    public void writeResult(Job job, OutputStream out) throws IOException {
+        checkResult(job);
+        for (int parte = 0; parte < job.getResultParts(); parte++) {
+            String tramo = jdbc.queryForObject(LEER_TRAMO, String.class, job.getId(), parte);
+            out.write(tramo.getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+    }
+
+    /**
+     * Comprueba que el trabajo tenga resultado descargable (antes de
+     * empezar a responder).
+     */
+    public void checkResult(Job job) {
+        if (!job.isResultAvailable()) {
+            throw new ConflictException("El trabajo " + job.getId() + " no tiene resultado disponible");
+        }
+    }
+
+    // ============================================================
+    // Arriendos y recuperación
+    // ============================================================
+
+    /**
+     * Al arrancar retoma los trabajos huérfanos (arriendo vencido, o de
+     * este mismo node-id antes del reinicio) y programa la renovación de
+     * arriendos y la búsqueda periódica de huérfanos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        reclamarHuerfanos(true);
+        long cada = Math.max(1, lease.toMillis() / 3);
+        arriendos.scheduleWithFixedDelay(this::vigilar, cada, cada, TimeUnit.MILLISECONDS);
+    }
+
+    private void vigilar() {
+        try {
+            renovarArriendos();
+            reclamarHuerfanos(false);
+        } catch (RuntimeException e) {
+            log.error("❌ Error al renovar o reclamar trabajos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renueva el arriendo de los trabajos en cola o en ejecución en este
+     * nodo. Los que ya no son suyos (arriendo vencido y reclamado, o
+     * cancelados en otro nodo) se abandonan.
+     */
+    private void renovarArriendos() {
+        Timestamp hasta = Timestamp.valueOf(LocalDateTime.now().plus(lease));
+        enEjecucion.forEach((id, running) -> {
+            if (jdbc.update(RENOVAR, hasta, id, nodeId) == 0) {
+                abandonar(id, running);
+            }
+        });
+    }
+
+    private void reclamarHuerfanos(boolean alArrancar) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Job job : repository.findByStatusIn(EnumSet.of(JobStatus.PENDIENTE, JobStatus.EN_EJECUCION))) {
+            if (enEjecucion.containsKey(job.getId())) {
+                continue; // en cola o en ejecución en este nodo
+            }
+            boolean vencido = job.getLeaseUntil() == null || job.getLeaseUntil().isBefore(ahora);
+            boolean propio = alArrancar && nodeId.equals(job.getOwner());
+            if (!vencido && !propio) {
+                continue;
+            }
+            // Solo un nodo gana el UPDATE condicional
+            if (jdbc.update(RECLAMAR, nodeId, Timestamp.valueOf(ahora.plus(lease)), job.getId(),
+                    Timestamp.valueOf(ahora), alArrancar ? nodeId : null) == 1) {
+                retomar(job.getId(), job.getOwner());
+            }
+        }
+    }
+
+    private void retomar(String id, String duenoAnterior) {
+        Job job = findById(id);
+        JobHandler handler = handlers.get(job.getType());
+        if (handler == null || !handler.restartable()) {
+            finalizar(job, JobStatus.FALLIDO, "Interrumpido por la caída del nodo " + duenoAnterior);
+            return;
+        }
+        if (job.getCheckpoint() == 0) {
+            // Sin checkpoint: se repite desde el inicio, sin el resultado parcial
+            tx.executeWithoutResult(status -> {
+                jdbc.update(BORRAR_TRAMOS, id);
+                job.setResultParts(0);
+                job.setProcessed(0);
+                job.setSucceeded(0);
+                job.setFailed(0);
+                job.setStatus(JobStatus.PENDIENTE);
+                repository.save(job);
+            });
+        } else {
+            job.setStatus(JobStatus.PENDIENTE);
+            repository.save(job);
+        }
+        try {
+            encolar(job);
+            log.info("♻️ Trabajo {} ({}) retomado del nodo {} desde el checkpoint {}", id, job.getType(),
+                    duenoAnterior, job.getCheckpoint());
+        } catch (ConflictException e) {
+            log.warn("⚠️ No se pudo reencolar el trabajo {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void abandonar(String id, Running running) {
+        running.perdido = true;
+        running.context.cancel();
+        if (running.future != null) {
+            running.future.cancel(true);
+        }
+        enEjecucion.remove(id);
+        log.warn("♻️ El trabajo {} ya no es de este nodo (cancelado o retomado por otro): se abandona", id);
+    }
+
+    // ============================================================
+    // Ejecución
+    // ============================================================
+
+    /**
+     * Guarda avance, checkpoint y un tramo de resultado en una transacción,
+     * solo si el trabajo sigue siendo de este nodo (y renueva el arriendo).
+     */
+    void commit(Job job, String tramo) {
+        tx.executeWithoutResult(status -> {
+            verificarDueno(job);
+            if (tramo != null && !tramo.isEmpty()) {
+                jdbc.update(INSERTAR_TRAMO, job.getId(), job.getResultParts(), tramo);
+                job.setResultParts(job.getResultParts() + 1);
+            }
+            repository.save(job);
+        });
+    }
+
+    private void verificarDueno(Job job) {
+        if (jdbc.update(RENOVAR, Timestamp.valueOf(LocalDateTime.now().plus(lease)), job.getId(), nodeId) == 0) {
+            throw new LeaseLostException(job.getId());
+        }
+    }
+
+    private void encolar(Job job) {
+        JobContext context = new JobContext(job, fromJson(job.getParams()), directory, this);
+        Running running = new Running(context);
+        enEjecucion.put(job.getId(), running);
+        try {
+            running.future = pool(job.getType()).submit(() -> ejecutar(job, running));
+        } catch (RejectedExecutionException e) {
+            enEjecucion.remove(job.getId());
+            finalizar(job, JobStatus.FALLIDO, "Cola de trabajos llena");
+            throw new ConflictException("Hay demasiados trabajos " + job.getType() + " en cola, reintente más tarde");
+        }
+    }
+
+    private void ejecutar(Job job, Running running) {
+        running.iniciado = true;
+        if (running.context.isCancelled()) {
+            enEjecucion.remove(job.getId());
+            return;
+        }
+        try {
+            job.setStatus(JobStatus.EN_EJECUCION);
+            job.setStartedAt(LocalDateTime.now());
+            job.setAttempts(job.getAttempts() + 1);
+            tx.executeWithoutResult(status -> {
+                verificarDueno(job);
+                repository.save(job);
+            });
+            descargarEntrada(job.getId(), running.context.inputFile());
+            handlers.get(job.getType()).execute(running.context);
+            finalizar(job, JobStatus.COMPLETADO, job.getMessage());
+            log.info("✅ Trabajo {} completado", job.getId());
+        } catch (CancellationException | InterruptedException e) {
+            if (running.perdido || e instanceof LeaseLostException) {
+                log.warn("♻️ Trabajo {} abandonado: ya no es de este nodo", job.getId());
+            } else {
+                finalizar(job, JobStatus.CANCELADO, "Cancelado por el usuario");
+                log.info("🛑 Trabajo {} cancelado", job.getId());
+            }
+        } catch (Exception e) {
+            if (running.perdido) {
+                log.warn("♻️ Trabajo {} abandonado: ya no es de este nodo", job.getId());
+            } else {
+                log.error("❌ Trabajo {} fallido: {}", job.getId(), e.getMessage());
+                finalizar(job, JobStatus.FALLIDO, e.getMessage());
+            }
+        } finally {
+            enEjecucion.remove(job.getId());
+            try {
+                Files.deleteIfExists(running.context.inputFile());
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo borrar la copia local de la entrada del trabajo {}", job.getId());
+            }
+        }
+    }
+
+    /** Copia la entrada desde JOB_INPUT a un archivo local (si el trabajo tiene entrada). */
+    private void descargarEntrada(String id, Path destino) {
+        jdbc.query(LEER_ENTRADA, rs -> {
+            try (InputStream contenido = rs.getBinaryStream(1)) {
+                Files.copy(contenido, destino, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo copiar la entrada del trabajo " + id, e);
+            }
+        }, id);
+    }
+
+    private void borrarEntrada(String id) {
+        jdbc.update(BORRAR_ENTRADA, id);
+    }
+
+    /**
+     * Estado final, solo si el trabajo sigue siendo de este nodo. La
+     * entrada ya no se necesita y se borra en la misma transacción.
+     */
+    private void finalizar(Job job, JobStatus status, String message) {
+        job.setStatus(status);
+        job.setMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        try {
+            tx.executeWithoutResult(s -> {
+                verificarDueno(job);
+                repository.save(job);
+                borrarEntrada(job.getId());
+            });
+        } catch (LeaseLostException e) {
+            log.warn("♻️ El trabajo {} ya no es de este nodo: no se marca {}", job.getId(), status);
+        }
+    }
+
+    private ThreadPoolExecutor pool(String type) {
+        return pools.computeIfAbsent(type, t -> {
+            int hilos = env.getProperty("clinica.jobs.pools." + t + ".threads", Integer.class, 1);
+            int cola = env.getProperty("clinica.jobs.pools." + t + ".queue", Integer.class, 20);
+            AtomicInteger contador = new AtomicInteger();
+            return new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(cola),
+                    r -> new Thread(r, "job-" + t.toLowerCase() + "-" + contador.incrementAndGet()));
+        });
+    }
+
+    private String toJson(Map<String, String> params) {
+        try {
+            return mapper.writer().without(SerializationFeature.INDENT_OUTPUT)
+                    .writeValueAsString(params != null ? params : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Parámetros de trabajo inválidos", e);
+        }
+    }
+
+    private Map<String, String> fromJson(String json) {
+        try {
+            return json == null ? Map.of() : mapper.readValue(json, new TypeReference<Map<String, String>>() { });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Parámetros de trabajo ilegibles", e);
+        }
+    }
+
+    /** El trabajo ya no es de este nodo: se abandona como una cancelación, sin escribir. */
+    private static final class LeaseLostException extends CancellationException {
+        private LeaseLostException(String id) {
+            super("El trabajo " + id + " ya no es de este nodo");
+        }
+    }
+
+    private static final class Running {
+        private final JobContext context;
+        private volatile Future<?> future;
+        private volatile boolean iniciado;
+        private volatile boolean perdido;
+
+        private Running(JobContext context) {
+            this.context = context;
+        }
+    }
+}
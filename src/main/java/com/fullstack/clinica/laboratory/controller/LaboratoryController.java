@@ -6,8 +6,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.fullstack.clinica.common.BatchResult;
 import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.model.LaboratoryStateChange;
 import com.fullstack.clinica.laboratory.service.LaboratoryService;
+import com.fullstack.clinica.sample.model.TurnaroundStats;
+import com.fullstack.clinica.sample.service.TurnaroundTracker;
+import com.fullstack.clinica.sync.model.ChangePage;
 
 import java.util.List;
 
@@ -32,9 +37,11 @@ import java.util.List;
 public class LaboratoryController {
 
     private final LaboratoryService service;
+    private final TurnaroundTracker turnaroundTracker;
 
-    public LaboratoryController(LaboratoryService service) {
+    public LaboratoryController(LaboratoryService service, TurnaroundTracker turnaroundTracker) {
         this.service = service;
+        this.turnaroundTracker = turnaroundTracker;
     }
 
     @GetMapping
@@ -51,6 +58,17 @@ public class LaboratoryController {
         return ResponseEntity.ok(laboratorio);
     }
 
+    /**
+     * Multi-get: GET /api/laboratories?ids=1,2,3 → laboratorios en el orden
+     * pedido más los IDs inexistentes en "missing" (a lo más 1000 IDs).
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResult<Laboratory>> obtenerPorIds(@RequestParam List<Long> ids) {
+        log.info("🔍 [GET] Buscando {} laboratorios por ID", ids.size());
+        BatchResult.checkRequest(ids);
+        return ResponseEntity.ok(service.findByIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<Laboratory> crear(@Valid @RequestBody Laboratory laboratorio) {
         log.info("📝 [POST] Creando laboratorio: {} - {}", laboratorio.getName());
@@ -72,6 +90,22 @@ public class LaboratoryController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Desactiva el laboratorio en cascada (usuarios desasociados y
+     * muestras pendientes retenidas) y devuelve las filas afectadas.
+     */
+    @PostMapping("/id/{id}/deactivate")
+    public ResponseEntity<LaboratoryStateChange> desactivar(@PathVariable Long id) {
+        log.info("⏸️ [POST] Desactivando laboratorio con ID: {}", id);
+        return ResponseEntity.ok(service.deactivate(id));
+    }
+
+    @PostMapping("/id/{id}/activate")
+    public ResponseEntity<LaboratoryStateChange> activar(@PathVariable Long id) {
+        log.info("▶️ [POST] Reactivando laboratorio con ID: {}", id);
+        return ResponseEntity.ok(service.activate(id));
+    }
+
     @GetMapping("/state/{state}")
     public ResponseEntity<List<Laboratory>> buscarPorTipo(@PathVariable String state) {
         log.info("📖 [GET] Buscando laboratorios con el estado: {}", state);
@@ -82,4 +116,22 @@ public class LaboratoryController {
         }
         return ResponseEntity.ok(laboratorios);
     }
+
+    /**
+     * Sincronización incremental: GET /api/laboratories/changes y luego
+     * ?since={cursor}. 410 si el cursor venció.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<Laboratory>> cambios(@RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("🔄 [GET] Cambios de laboratorios desde: {}", since);
+        return ResponseEntity.ok(service.findChanges(since, limit));
+    }
+
+    @GetMapping("/id/{id}/turnaround")
+    public ResponseEntity<TurnaroundStats> turnaround(@PathVariable Long id) {
+        log.info("⏱️ [GET] Percentiles de turnaround del laboratorio con ID: {}", id);
+        Laboratory laboratorio = service.findById(id); // Lanza excepción si no existe
+        return ResponseEntity.ok(turnaroundTracker.estadisticas(laboratorio.getName()));
+    }
 }
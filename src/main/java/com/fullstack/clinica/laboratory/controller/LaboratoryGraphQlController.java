@@ -0,0 +1,68 @@
+package com.fullstack.clinica.laboratory.controller;
+
+import com.fullstack.clinica.graphql.GraphQlLoaders;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.service.LaboratoryService;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.user.model.User;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ===============================================================
+ * 📘 Clase: LaboratoryGraphQlController
+ * ---------------------------------------------------------------
+ * Laboratorios en /graphql (esquema en graphql/clinica.graphqls).
+ * Los campos anidados van por los DataLoaders de GraphQlLoaders: el
+ * tablero de N laboratorios con sus usuarios y muestras cuesta una
+ * consulta por tipo, no una por laboratorio.
+ * ===============================================================
+ */
+@Slf4j
+@Controller
+public class LaboratoryGraphQlController {
+
+    private final LaboratoryService service;
+    private final int maxSamples;
+
+    public LaboratoryGraphQlController(LaboratoryService service,
+            @Value("${clinica.graphql.max-samples:200}") int maxSamples) {
+        this.service = service;
+        this.maxSamples = maxSamples;
+    }
+
+    @QueryMapping
+    public CompletableFuture<Laboratory> laboratory(@Argument Long id, DataLoader<Long, Laboratory> laboratorios) {
+        log.info("🔷 [GraphQL] Laboratorio con ID: {}", id);
+        return laboratorios.load(id);
+    }
+
+    @QueryMapping
+    public List<Laboratory> laboratories(@Argument String state) {
+        log.info("🔷 [GraphQL] Laboratorios con estado: {}", state);
+        return state != null ? service.findByState(state) : service.findAll();
+    }
+
+    @SchemaMapping
+    public CompletableFuture<List<User>> users(Laboratory laboratorio,
+            DataLoader<Long, List<User>> usuariosPorLaboratorio) {
+        return usuariosPorLaboratorio.load(laboratorio.getId());
+    }
+
+    @SchemaMapping
+    public CompletableFuture<List<Sample>> samples(Laboratory laboratorio, @Argument SampleStatus status,
+            @Argument int limit, DataLoader<GraphQlLoaders.MuestrasDeLaboratorio, List<Sample>> muestrasPorLaboratorio) {
+        int tope = Math.min(Math.max(limit, 1), maxSamples);
+        return muestrasPorLaboratorio.load(new GraphQlLoaders.MuestrasDeLaboratorio(laboratorio.getId(), status, tope));
+    }
+}
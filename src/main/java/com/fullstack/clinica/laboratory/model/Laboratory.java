@@ -3,11 +3,20 @@ package com.fullstack.clinica.laboratory.model;
 import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
 import jakarta.validation.constraints.*; // Bean Validation (validaciones en los atributos)
 import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fullstack.clinica.sync.model.ChangeTracked;
+import com.fullstack.clinica.sync.service.ChangeSeqListener;
 
 @Data // Lombok → genera automáticamente getters/setters/toString
 @Entity // Indica que esta clase se mapea a una tabla en la BD
-@Table(name = "LABORATORY") // Nombre explícito de la tabla en Oracle
-public class Laboratory {
+@Table(name = "LABORATORY", indexes = { // Nombre explícito de la tabla en Oracle
+        // GET /api/laboratories/changes recorre por keyset (change_seq, id)
+        @Index(name = "IX_LABORATORY_CHANGE", columnList = "change_seq, id")
+})
+@EntityListeners(ChangeSeqListener.class)
+public class Laboratory implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,4 +36,10 @@ public class Laboratory {
     @Pattern(regexp = "ACTIVO|INACTIVO", message = "El estado debe ser ACTIVO o INACTIVO")
     @Column(nullable = false, length = 20)
     private String state;
+
+    // Número del último cambio: lo fija ChangeSeqListener (sincronización incremental)
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    @JsonIgnore
+    private Long changeSeq;
 }
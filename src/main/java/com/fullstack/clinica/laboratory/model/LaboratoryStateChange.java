@@ -0,0 +1,25 @@
+package com.fullstack.clinica.laboratory.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado de desactivar o reactivar un laboratorio: filas afectadas
+ * por cada UPDATE de la cascada.
+ *
+ * - usersDetached: usuarios que dejaron de estar asociados al laboratorio.
+ * - samplesHeld: muestras pendientes retenidas (heldAt).
+ * - samplesReleased: muestras retenidas que se liberaron al reactivar.
+ */
+@Data
+@AllArgsConstructor
+public class LaboratoryStateChange {
+
+    private Long laboratoryId;
+    private String laboratory;
+    private String state;
+    private int usersDetached;
+    private int samplesHeld;
+    private int samplesReleased;
+    private long elapsedMillis;
+}
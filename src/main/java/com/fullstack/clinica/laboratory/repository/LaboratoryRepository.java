@@ -1,11 +1,19 @@
 package com.fullstack.clinica.laboratory.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.resilience.QueryTimeouts;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * ===============================================================
@@ -35,5 +43,41 @@ public interface LaboratoryRepository extends JpaRepository<Laboratory, Long> {
      * @param state (ACTIVO o INACTIVO).
      * @return Lista de laboratorios que pertenecen al estado indicado.
      */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
     List<Laboratory> findByState(String state);
+
+    /**
+     * ¿Otro laboratorio (id distinto) ya usa ese nombre, sin distinguir
+     * mayúsculas? Para validar un renombre sin cargar la tabla.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
+
+    /**
+     * Métodos heredados redeclarados solo para fijarles un timeout.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Override
+    List<Laboratory> findAll();
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    @Override
+    Optional<Laboratory> findById(Long id);
+
+    /**
+     * Multi-get: entidades cuyos ids están en la lista (a lo más 1000,
+     * ver BatchResult).
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<Laboratory> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Sincronización incremental (GET /api/laboratories/changes): filas con (changeSeq, id)
+     * posterior al cursor y visibles (changeSeq <= hasta), recorriendo
+     * IX_LABORATORY_CHANGE.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select l from Laboratory l where l.changeSeq >= :seq and l.changeSeq <= :hasta "
+            + "and (l.changeSeq > :seq or l.id > :id) order by l.changeSeq, l.id")
+    List<Laboratory> findChangedSince(long seq, long id, long hasta, Limit limit);
 }
@@ -1,12 +1,26 @@
 package com.fullstack.clinica.laboratory.service;
 
+import com.fullstack.clinica.audit.service.AuditService;
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.common.RequestCoalescer;
+import com.fullstack.clinica.exception.ConflictException;
 import com.fullstack.clinica.exception.ResourceNotFoundException; // Semana 2 → la crearemos en paso 4
 import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.model.LaboratoryStateChange;
 import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sync.model.ChangePage;
+import com.fullstack.clinica.sync.service.ChangeFeedService;
+import com.fullstack.clinica.user.repository.UserRepository;
 
 import lombok.extern.slf4j.Slf4j; // Lombok → para logs sin crear Logger manual
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.util.List;
+import java.util.Map;
 
 /**
  * ===============================================================
@@ -21,21 +35,66 @@ import java.util.List;
  * - Se agregan logs con @Slf4j para trazabilidad profesional.
  * - Se incorporan validaciones de negocio antes de guardar/eliminar.
  * - Se integrará manejo global de excepciones (GlobalExceptionHandler).
+ * 🔹 Lecturas calientes:
+ * - findAll y findByState pasan por RequestCoalescer; cada escritura
+ *   descarta las consultas en vuelo de laboratorios.
+ * 🔹 Auditoría:
+ * - Altas, cambios y bajas se registran en AuditService.
+ * 🔹 Muestras:
+ * - SAMPLE referencia al laboratorio por ID: no se elimina uno que
+ *   tenga muestras (409) y los cambios de nombre se avisan a
+ *   SampleReferences.
+ * 🔹 Desactivación (ACTIVO → INACTIVO, por update o deactivate):
+ * - Cascada por conjuntos, sin cargar filas: un UPDATE desasocia a sus
+ *   usuarios y otro retiene sus muestras pendientes (RECIBIDA /
+ *   EN_PROCESO), soltando sus reclamos de la cola de trabajo.
+ * - Si las muestras del laboratorio viven en la BD principal (siempre,
+ *   sin sharding) todo va en una transacción; si están en otro shard,
+ *   las muestras se retienen en una segunda transacción en ese shard.
+ *   Repetir la desactivación es idempotente y completa lo que falte.
+ * - Reactivar libera las muestras retenidas; los usuarios no se vuelven
+ *   a asociar (se reasignan como siempre, por usuario).
+ * 🔹 Sincronización incremental:
+ * - findChanges lee de la BD principal; la baja deja lápida. El JSON de
+ *   un usuario incluye su laboratorio: un cambio real del laboratorio
+ *   vuelve a marcar a sus usuarios en la misma transacción.
  * ===============================================================
  */
 @Slf4j
 @Service // Marca esta clase como "servicio" dentro del contexto de Spring
 public class LaboratoryService {
 
+    private static final String ENTIDAD = "LABORATORY";
+    private static final String ACTIVO = "ACTIVO";
+    private static final String INACTIVO = "INACTIVO";
+
     // Inyección del repositorio para interactuar con la base de datos
     private final LaboratoryRepository repository;
+    private final RequestCoalescer coalescer;
+    private final AuditService audit;
+    private final SampleService samples;
+    private final SampleReferences references;
+    private final SampleShardRouter router;
+    private final UserRepository users;
+    private final TransactionTemplate tx;
+    private final ChangeFeedService changes;
 
     /**
      * Constructor principal (inyección de dependencias por constructor).
      * Spring se encarga de pasar automáticamente una instancia de LaboratorioRepository.
      */
-    public LaboratoryService(LaboratoryRepository repository) {
+    public LaboratoryService(LaboratoryRepository repository, RequestCoalescer coalescer, AuditService audit,
+            SampleService samples, SampleReferences references, SampleShardRouter router, UserRepository users,
+            TransactionTemplate tx, ChangeFeedService changes) {
         this.repository = repository;
+        this.coalescer = coalescer;
+        this.audit = audit;
+        this.samples = samples;
+        this.references = references;
+        this.router = router;
+        this.users = users;
+        this.tx = tx;
+        this.changes = changes;
     }
 
     // ============================================================
@@ -47,7 +106,7 @@ public class LaboratoryService {
      */
     public List<Laboratory> findAll() {
         log.info("📚 Consultando todos los laboratorios en la base de datos");
-        return repository.findAll();
+        return coalescer.execute("laboratories.findAll", repository::findAll);
     }
 
     /**
@@ -60,6 +119,15 @@ public class LaboratoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("No se encontró el laboratorio con ID: " + id));
     }
 
+    /**
+     * Multi-get: resuelve varios IDs de una vez, en el orden pedido
+     * (consultas IN de hasta 1000 IDs).
+     */
+    public BatchResult<Laboratory> findByIds(List<Long> ids) {
+        log.info("🔍 Buscando {} laboratorios por ID", ids.size());
+        return BatchResult.load(ids, repository::findByIdIn, Laboratory::getId);
+    }
+
     // ============================================================
     // 🔸 Semana 2 → Nuevas validaciones y reglas de negocio
     // ============================================================
@@ -84,6 +152,8 @@ public class LaboratoryService {
         }
 
         Laboratory guardado = repository.save(laboratorio);
+        coalescer.forget("laboratories.");
+        audit.recordCreate(ENTIDAD, guardado.getId(), guardado);
         log.info("✅ laboratorio guardado correctamente con ID: {}", guardado.getId());
         return guardado;
     }
@@ -96,13 +166,42 @@ public class LaboratoryService {
         log.info("✏️ Actualizando laboratorio con ID: {}", id);
 
         Laboratory laboratoryExist = findById(id); // lanza excepción si no existe
+        Map<String, Object> antes = audit.snapshot(laboratoryExist);
+        String nombreAnterior = laboratoryExist.getName();
+
+        // Las muestras se resuelven por nombre: no puede quedar repetido
+        if (!nombreAnterior.equalsIgnoreCase(datosActualizados.getName())
+                && repository.existsByNameIgnoreCaseAndIdNot(datosActualizados.getName(), id)) {
+            log.warn("⚠️ Intento de renombrar al nombre de otro laboratorio: {}", datosActualizados.getName());
+            throw new ConflictException("Ya existe un laboratorio con el mismo nombre.");
+        }
+        if (!nombreAnterior.equals(datosActualizados.getName())) {
+            router.checkWritable(nombreAnterior); // su asignación de shard también se renombra
+        }
+        String estadoAnterior = laboratoryExist.getState();
 
         laboratoryExist.setName(datosActualizados.getName());
         laboratoryExist.setDescription(datosActualizados.getDescription());
         laboratoryExist.setState(datosActualizados.getState());
 
-
-        Laboratory actualizado = repository.save(laboratoryExist);
+        Laboratory actualizado;
+        if (!INACTIVO.equals(estadoAnterior) && INACTIVO.equals(laboratoryExist.getState())) {
+            actualizado = cascada(laboratoryExist, nombreAnterior, true).guardado();
+        } else if (INACTIVO.equals(estadoAnterior) && !INACTIVO.equals(laboratoryExist.getState())) {
+            actualizado = cascada(laboratoryExist, nombreAnterior, false).guardado();
+        } else {
+            boolean cambia = !antes.equals(audit.snapshot(laboratoryExist));
+            actualizado = tx.execute(status -> {
+                Laboratory guardado = repository.save(laboratoryExist);
+                if (cambia) {
+                    users.touchByLaboratory(id, changes.currentSeq());
+                }
+                return guardado;
+            });
+        }
+        coalescer.forget("laboratories.");
+        references.laboratoryRenamed(id, nombreAnterior, actualizado.getName());
+        audit.recordUpdate(ENTIDAD, id, antes, actualizado);
         log.info("✅ laboratorio actualizado correctamente: {}", actualizado.getName());
         return actualizado;
     }
@@ -114,15 +213,107 @@ public class LaboratoryService {
     public void delete(Long id) {
         log.info("🗑️ Eliminando laboratorio con ID: {}", id);
 
-        if (!repository.existsById(id)) {
+        Laboratory existente = repository.findById(id).orElseThrow(() -> {
             log.error("❌ No se puede eliminar. El laboratorio con ID {} no existe.", id);
-            throw new ResourceNotFoundException("No existe el laboratorio con ID: " + id);
+            return new ResourceNotFoundException("No existe el laboratorio con ID: " + id);
+        });
+
+        // Equivalente a ON DELETE RESTRICT de la FK de SAMPLE
+        if (samples.existsByLaboratory(id, existente.getName())) {
+            log.warn("⚠️ El laboratorio {} tiene muestras, no se elimina", existente.getName());
+            throw new ConflictException("El laboratorio tiene muestras registradas y no se puede eliminar");
         }
 
-        repository.deleteById(id);
+        tx.execute(status -> {
+            repository.delete(existente);
+            changes.tombstone(ENTIDAD, id);
+            return null;
+        });
+        references.laboratoryDeleted(id, existente.getName());
+        coalescer.forget("laboratories.");
+        audit.recordDelete(ENTIDAD, id, audit.snapshot(existente));
         log.info("✅ laboratorio eliminado correctamente.");
     }
 
+    // ============================================================
+    // Desactivación y reactivación en cascada
+    // ============================================================
+
+    /**
+     * Pasa el laboratorio a INACTIVO: desasocia a sus usuarios y retiene
+     * sus muestras pendientes. Si ya estaba inactivo, completa la cascada.
+     */
+    public LaboratoryStateChange deactivate(Long id) {
+        return cambiarEstado(id, true);
+    }
+
+    /**
+     * Pasa el laboratorio a ACTIVO y libera sus muestras retenidas.
+     */
+    public LaboratoryStateChange activate(Long id) {
+        return cambiarEstado(id, false);
+    }
+
+    private LaboratoryStateChange cambiarEstado(Long id, boolean desactivar) {
+        log.info("{} laboratorio con ID: {}", desactivar ? "⏸️ Desactivando" : "▶️ Reactivando", id);
+        long inicio = System.nanoTime();
+        Laboratory laboratorio = findById(id);
+        Map<String, Object> antes = audit.snapshot(laboratorio);
+        boolean cambia = !laboratorio.getState().equals(desactivar ? INACTIVO : ACTIVO);
+
+        laboratorio.setState(desactivar ? INACTIVO : ACTIVO);
+        Cascada resultado = cascada(laboratorio, laboratorio.getName(), desactivar);
+        coalescer.forget("laboratories.");
+        if (cambia) {
+            audit.recordUpdate(ENTIDAD, id, antes, resultado.guardado());
+        }
+        return new LaboratoryStateChange(id, laboratorio.getName(), laboratorio.getState(), resultado.usuarios(),
+                resultado.retenidas(), resultado.liberadas(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Guarda el laboratorio y aplica los UPDATE de la cascada. Con las
+     * muestras en la BD principal va todo en la misma transacción.
+     */
+    private Cascada cascada(Laboratory laboratorio, String nombre, boolean desactivar) {
+        router.checkWritable(nombre);
+        boolean mismaBd = router.assignedShard(nombre).orElse(0) == 0;
+        int[] muestras = { 0 };
+
+        Cascada parcial = router.onShard(0, () -> tx.execute(status -> {
+            Laboratory guardado = repository.save(laboratorio);
+            long seq = changes.currentSeq();
+            int usuarios = desactivar ? users.detachFromLaboratory(laboratorio.getId(), seq) : 0;
+            if (!desactivar) {
+                users.touchByLaboratory(laboratorio.getId(), seq);
+            }
+            if (mismaBd) {
+                muestras[0] = desactivar ? samples.holdPending(nombre) : samples.releaseHeld(nombre);
+            }
+            return new Cascada(guardado, usuarios, 0, 0);
+        }));
+        if (!mismaBd) {
+            muestras[0] = desactivar ? samples.holdPending(nombre) : samples.releaseHeld(nombre);
+        }
+
+        log.info("✅ Laboratorio {} {}: {} usuarios desasociados, {} muestras {}", nombre,
+                laboratorio.getState(), parcial.usuarios(), muestras[0], desactivar ? "retenidas" : "liberadas");
+        return desactivar
+                ? new Cascada(parcial.guardado(), parcial.usuarios(), muestras[0], 0)
+                : new Cascada(parcial.guardado(), 0, 0, muestras[0]);
+    }
+
+    private record Cascada(Laboratory guardado, int usuarios, int retenidas, int liberadas) {
+    }
+
+    /**
+     * Sincronización incremental: laboratorios creados, modificados o
+     * eliminados desde el cursor.
+     */
+    public ChangePage<Laboratory> findChanges(String since, Integer limit) {
+        return changes.page(ENTIDAD, since, limit, false, repository::findChangedSince);
+    }
+
     // ============================================================
     // Consultas personalizadas
     // ============================================================
@@ -131,6 +322,6 @@ public class LaboratoryService {
      */
     public List<Laboratory> findByState(String state) {
         log.info("📖 Buscando laboratorios con el estado: {}", state);
-        return repository.findByState(state);
+        return coalescer.execute("laboratories.findByState", () -> repository.findByState(state), state);
     }
 }
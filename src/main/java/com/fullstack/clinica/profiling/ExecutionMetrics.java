@@ -0,0 +1,61 @@
+package com.fullstack.clinica.profiling;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ExecutionMetrics
+ * ---------------------------------------------------------------
+ * Contadores acumulados por hilo: tiempo en JDBC (y cantidad de
+ * sentencias) y tiempo calculando hashes BCrypt.
+ *
+ * Solo se suman (sin reinicios): quien mide lee los valores antes y
+ * después y se queda con la diferencia, por eso las llamadas anidadas
+ * entre servicios no se pisan.
+ *
+ * - JdbcTimingPostProcessor suma cada sentencia que pasa por el
+ *   DataSource (Hibernate y JdbcTemplate).
+ * - TimedBCryptPasswordEncoder suma encode y matches.
+ *
+ * Lo que corre en otros hilos (fan-out entre shards, auditoría) se
+ * cuenta en esos hilos, no en el de la petición.
+ * ===============================================================
+ */
+public final class ExecutionMetrics {
+
+    private static final ThreadLocal<Contadores> ACTUAL = ThreadLocal.withInitial(Contadores::new);
+
+    private ExecutionMetrics() {
+    }
+
+    public static Contadores current() {
+        return ACTUAL.get();
+    }
+
+    static void recordJdbc(long nanos) {
+        Contadores c = ACTUAL.get();
+        c.dbNanos += nanos;
+        c.statements++;
+    }
+
+    static void recordHash(long nanos) {
+        ACTUAL.get().hashNanos += nanos;
+    }
+
+    /** Totales del hilo desde que arrancó. */
+    public static final class Contadores {
+        private long dbNanos;
+        private long statements;
+        private long hashNanos;
+
+        public long dbNanos() {
+            return dbNanos;
+        }
+
+        public long statements() {
+            return statements;
+        }
+
+        public long hashNanos() {
+            return hashNanos;
+        }
+    }
+}
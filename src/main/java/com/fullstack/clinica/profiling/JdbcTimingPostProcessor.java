@@ -0,0 +1,113 @@
+package com.fullstack.clinica.profiling;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ===============================================================
+ * 📘 Clase: JdbcTimingPostProcessor
+ * ---------------------------------------------------------------
+ * Envuelve el DataSource y suma a {@link ExecutionMetrics} el tiempo
+ * de cada sentencia o lote JDBC (métodos execute* de Statement,
+ * PreparedStatement y CallableStatement).
+ *
+ * Al medir en el DataSource se cuentan todas las rutas: Hibernate,
+ * JdbcTemplate / NamedParameterJdbcTemplate y JDBC directo. Con el
+ * sharding activo se envuelve el ShardRoutingDataSource (el único bean
+ * DataSource), así que cada sentencia se cuenta una vez.
+ *
+ * Proxies JDK mínimos (sin registrar parámetros ni SQL): lo demás pasa
+ * directo al objeto del driver.
+ * ===============================================================
+ */
+public class JdbcTimingPostProcessor implements BeanPostProcessor {
+
+    private final ProfilingProperties properties;
+
+    public JdbcTimingPostProcessor(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!properties.isEnabled() || !(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return new TimedDataSource(dataSource);
+    }
+
+    static final class TimedDataSource extends DelegatingDataSource {
+
+        TimedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, new ConexionMedida(super.getConnection()));
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, new ConexionMedida(super.getConnection(username, password)));
+        }
+    }
+
+    /** Las sentencias que crea la conexión salen envueltas. */
+    private record ConexionMedida(Connection conexion) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object resultado = invocar(conexion, metodo, args);
+            if (resultado instanceof CallableStatement sentencia) {
+                return proxy(CallableStatement.class, new SentenciaMedida(sentencia));
+            }
+            if (resultado instanceof PreparedStatement sentencia) {
+                return proxy(PreparedStatement.class, new SentenciaMedida(sentencia));
+            }
+            if (resultado instanceof Statement sentencia && metodo.getName().equals("createStatement")) {
+                return proxy(Statement.class, new SentenciaMedida(sentencia));
+            }
+            return resultado;
+        }
+    }
+
+    private record SentenciaMedida(Statement sentencia) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (!metodo.getName().startsWith("execute")) {
+                return invocar(sentencia, metodo, args);
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocar(sentencia, metodo, args);
+            } finally {
+                ExecutionMetrics.recordJdbc(System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcTimingPostProcessor.class.getClassLoader(), new Class<?>[] { tipo },
+                handler);
+    }
+}
@@ -0,0 +1,61 @@
+package com.fullstack.clinica.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ProfilingConfig
+ * ---------------------------------------------------------------
+ * Perfilado bajo demanda con Java Flight Recorder:
+ *
+ * - ServiceProfilingPostProcessor: eventos ServiceCall en los servicios.
+ * - JdbcTimingPostProcessor: tiempo de BD por hilo (proxy del DataSource:
+ *   Hibernate y JdbcTemplate).
+ * - ServerTimingFilter + TimedJacksonConverter: cabecera Server-Timing
+ *   (BD, hash, serialización) en una muestra de las peticiones.
+ * - ProfilingService / ProfilingController: iniciar, detener y
+ *   descargar la grabación (.jfr).
+ *
+ * Igual que en ResilienceConfig, las propiedades se enlazan con Binder
+ * porque el post-processor se crea antes que el resto de los beans.
+ * ===============================================================
+ */
+@Configuration
+public class ProfilingConfig {
+
+    @Bean
+    public static ProfilingProperties profilingProperties(Environment env) {
+        return Binder.get(env).bind("clinica.profiling", ProfilingProperties.class)
+                .orElseGet(ProfilingProperties::new);
+    }
+
+    @Bean
+    public static ServiceProfilingPostProcessor serviceProfiling(Environment env) {
+        return new ServiceProfilingPostProcessor(profilingProperties(env));
+    }
+
+    @Bean
+    public static JdbcTimingPostProcessor jdbcTiming(Environment env) {
+        return new JdbcTimingPostProcessor(profilingProperties(env));
+    }
+
+    /** Reemplaza al convertidor JSON de Spring Boot (mismo ObjectMapper). */
+    @Bean
+    public TimedJacksonConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonConverter(objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ProfilingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registro =
+                new FilterRegistrationBean<>(new ServerTimingFilter(properties.getServerTiming()));
+        registro.addUrlPatterns("/api/*");
+        registro.setEnabled(properties.isEnabled() && properties.getServerTiming().isEnabled());
+        return registro;
+    }
+}
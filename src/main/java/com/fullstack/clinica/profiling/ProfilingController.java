@@ -0,0 +1,72 @@
+package com.fullstack.clinica.profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ProfilingController
+ * ---------------------------------------------------------------
+ * API administrativa de perfilado con JFR:
+ *
+ * POST /api/admin/profiling/start?preset=default&duration=PT2M
+ * POST /api/admin/profiling/stop        → descarga el .jfr
+ * GET  /api/admin/profiling             → estado de la grabación
+ * GET  /api/admin/profiling/recording   → última grabación finalizada
+ *
+ * El archivo se abre con JDK Mission Control o con
+ * `jfr print --events com.fullstack.clinica.ServiceCall archivo.jfr`.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/profiling")
+public class ProfilingController {
+
+    private final ProfilingService service;
+
+    public ProfilingController(ProfilingService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> estado() {
+        log.info("🎥 [GET] Estado de la grabación JFR");
+        return ResponseEntity.ok(service.status());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> iniciar(@RequestParam(required = false) String preset,
+            @RequestParam(required = false) Duration duration) {
+        log.info("🎥 [POST] Iniciando grabación JFR (preset={}, duración={})", preset, duration);
+        return ResponseEntity.ok(service.start(preset, duration));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> detener() {
+        log.info("⏹️ [POST] Deteniendo grabación JFR");
+        return descargar(service.stop());
+    }
+
+    @GetMapping("/recording")
+    public ResponseEntity<Resource> grabacion() {
+        log.info("📦 [GET] Descargando última grabación JFR");
+        return descargar(service.lastRecording());
+    }
+
+    private static ResponseEntity<Resource> descargar(Path archivo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + archivo.getFileName())
+                .body(new FileSystemResource(archivo));
+    }
+}
@@ -0,0 +1,52 @@
+package com.fullstack.clinica.profiling;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ProfilingProperties
+ * ---------------------------------------------------------------
+ * Configuración del perfilado bajo demanda con JFR.
+ *
+ * clinica.profiling.services=...   → servicios que emiten ServiceCallEvent
+ * clinica.profiling.preset=...     → configuración JFR por defecto
+ * clinica.profiling.max-duration / max-size-mb → límites de una grabación
+ * clinica.profiling.server-timing.* → cabecera Server-Timing muestreada
+ * ===============================================================
+ */
+@Data
+public class ProfilingProperties {
+
+    private boolean enabled = true;
+
+    // Nombre simple de las clases de servicio instrumentadas
+    private List<String> services = List.of("UserService", "SampleService", "LaboratoryService");
+
+    // "default" (≈1% de overhead) o "profile" (más detalle, ≈2%)
+    private String preset = "default";
+
+    // Una grabación olvidada se detiene sola al llegar a este tiempo
+    private Duration maxDuration = Duration.ofMinutes(10);
+
+    private long maxSizeMb = 200;
+
+    // Solo se registran llamadas que duren al menos esto (0 = todas)
+    private Duration serviceThreshold = Duration.ZERO;
+
+    // Largo máximo de cada argumento en el resumen del evento
+    private int argumentLength = 40;
+
+    private ServerTiming serverTiming = new ServerTiming();
+
+    @Data
+    public static class ServerTiming {
+        private boolean enabled = true;
+        // Fracción de peticiones /api/** que reciben la cabecera (0.01 = 1%)
+        private double sampleRate = 0.01;
+        // Cabecera con la que el front-end la pide siempre (vacía = desactivado)
+        private String forceHeader = "X-Server-Timing";
+    }
+}
@@ -0,0 +1,148 @@
+package com.fullstack.clinica.profiling;
+
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ProfilingService
+ * ---------------------------------------------------------------
+ * Una única grabación JFR a la vez, iniciada y detenida desde la API
+ * administrativa.
+ *
+ * - Preset "default": la configuración continua de JFR (≈1% de
+ *   overhead); "profile" agrega más muestreo (≈2%).
+ * - Siempre incluye los eventos ServiceCall (umbral configurable).
+ * - Límites de duración y tamaño: una grabación olvidada se cierra sola.
+ * - El archivo de la última grabación se conserva hasta la siguiente.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class ProfilingService implements DisposableBean {
+
+    private final ProfilingProperties properties;
+
+    private Recording actual;
+    private Path ultimoArchivo;
+    private String ultimoPreset;
+    private Instant inicio;
+
+    public ProfilingService(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized Map<String, Object> start(String preset, Duration duration) {
+        if (actual != null && actual.getState() == RecordingState.RUNNING) {
+            throw new ConflictException("Ya hay una grabación JFR en curso (iniciada " + inicio + ")");
+        }
+        String nombre = preset == null || preset.isBlank() ? properties.getPreset() : preset;
+        Configuration configuracion;
+        try {
+            configuracion = Configuration.getConfiguration(nombre);
+        } catch (IOException | ParseException e) {
+            throw new ResourceNotFoundException("Preset JFR '" + nombre + "' no encontrado");
+        }
+        Duration maximo = properties.getMaxDuration();
+        Duration duracion = duration == null || duration.compareTo(maximo) > 0 ? maximo : duration;
+
+        descartarAnterior();
+        try {
+            Path archivo = Files.createTempFile("clinica-", ".jfr");
+            Recording recording = new Recording(configuracion);
+            recording.setName("clinica-" + nombre);
+            recording.enable(ServiceCallEvent.class).withThreshold(properties.getServiceThreshold());
+            recording.setToDisk(true);
+            recording.setDuration(duracion);
+            recording.setMaxSize(properties.getMaxSizeMb() * 1024 * 1024);
+            recording.setDestination(archivo);
+            recording.start();
+            actual = recording;
+            ultimoArchivo = archivo;
+            ultimoPreset = nombre;
+            inicio = Instant.now();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("🎥 Grabación JFR iniciada (preset={}, máximo {})", nombre, duracion);
+        return status();
+    }
+
+    /** Detiene la grabación en curso y devuelve el archivo .jfr. */
+    public synchronized Path stop() {
+        if (actual == null) {
+            throw new ResourceNotFoundException("No hay ninguna grabación JFR");
+        }
+        if (actual.getState() == RecordingState.RUNNING) {
+            actual.stop(); // con destino: vuelca el archivo al detenerse
+            log.info("⏹️ Grabación JFR detenida ({} bytes)", tamanio());
+        }
+        return lastRecording();
+    }
+
+    /** Archivo de la última grabación finalizada (por stop o por duración). */
+    public synchronized Path lastRecording() {
+        if (actual == null || actual.getState() == RecordingState.RUNNING
+                || actual.getState() == RecordingState.DELAYED || !Files.exists(ultimoArchivo)) {
+            throw new ResourceNotFoundException("No hay una grabación JFR finalizada para descargar");
+        }
+        return ultimoArchivo;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("enabled", properties.isEnabled());
+        estado.put("state", actual == null ? "NONE" : actual.getState().name());
+        if (actual != null) {
+            estado.put("preset", ultimoPreset);
+            estado.put("startedAt", inicio);
+            estado.put("duration", actual.getDuration());
+            estado.put("bytes", tamanio());
+        }
+        return estado;
+    }
+
+    private long tamanio() {
+        try {
+            return ultimoArchivo != null && Files.exists(ultimoArchivo) ? Files.size(ultimoArchivo) : actual.getSize();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void descartarAnterior() {
+        if (actual != null) {
+            actual.close();
+        }
+        if (ultimoArchivo != null) {
+            try {
+                Files.deleteIfExists(ultimoArchivo);
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo borrar la grabación anterior {}", ultimoArchivo);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        descartarAnterior();
+        actual = null;
+    }
+}
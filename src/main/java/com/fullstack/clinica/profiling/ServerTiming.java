@@ -0,0 +1,77 @@
+package com.fullstack.clinica.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Locale;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ServerTiming
+ * ---------------------------------------------------------------
+ * Contexto de medición de una petición muestreada: toma los contadores
+ * de {@link ExecutionMetrics} al entrar y arma la cabecera con la
+ * diferencia.
+ *
+ *   Server-Timing: db;dur=3.1, db-count;desc="4", hash;dur=71.9,
+ *                  ser;dur=0.8, app;dur=80.2
+ *
+ * Vive como atributo de la petición (no un ThreadLocal propio): el
+ * filtro lo crea y el convertidor JSON lo encuentra por
+ * RequestContextHolder.
+ * ===============================================================
+ */
+final class ServerTiming {
+
+    static final String HEADER = "Server-Timing";
+    private static final String ATRIBUTO = ServerTiming.class.getName();
+
+    private final ExecutionMetrics.Contadores contadores;
+    private final long inicio;
+    private final long db;
+    private final long sentencias;
+    private final long hash;
+    private boolean escrita;
+
+    private ServerTiming() {
+        this.contadores = ExecutionMetrics.current();
+        this.inicio = System.nanoTime();
+        this.db = contadores.dbNanos();
+        this.sentencias = contadores.statements();
+        this.hash = contadores.hashNanos();
+    }
+
+    static ServerTiming start(HttpServletRequest request) {
+        ServerTiming timing = new ServerTiming();
+        request.setAttribute(ATRIBUTO, timing);
+        return timing;
+    }
+
+    /** Contexto de la petición en curso, o null si no fue muestreada. */
+    static ServerTiming current() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos == null ? null
+                : (ServerTiming) atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Valor de la cabecera (una sola vez por petición: la primera
+     * respuesta que se escribe es la que la lleva).
+     */
+    String header(long serNanos) {
+        if (escrita) {
+            return null;
+        }
+        escrita = true;
+        return "db;dur=" + ms(contadores.dbNanos() - db)
+                + ", db-count;desc=\"" + (contadores.statements() - sentencias) + "\""
+                + ", hash;dur=" + ms(contadores.hashNanos() - hash)
+                + ", ser;dur=" + ms(serNanos)
+                + ", app;dur=" + ms(System.nanoTime() - inicio);
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
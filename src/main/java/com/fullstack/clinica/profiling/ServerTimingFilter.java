@@ -0,0 +1,63 @@
+package com.fullstack.clinica.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ServerTimingFilter
+ * ---------------------------------------------------------------
+ * Decide qué peticiones llevan la cabecera Server-Timing: una fracción
+ * al azar (sample-rate) más las que envían la cabecera de forzado
+ * (ej: `X-Server-Timing: 1` desde el front-end al reportar una lentitud).
+ *
+ * - Respuestas JSON: la cabecera la agrega TimedJacksonConverter, que
+ *   es quien conoce el tiempo de serialización.
+ * - Sin cuerpo o con cuerpo no JSON: se agrega aquí si la respuesta
+ *   aún no se envió (ser=0). Descargas y SSE ya enviadas no la llevan.
+ *
+ * Las peticiones no muestreadas solo pagan un número aleatorio.
+ * ===============================================================
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final ProfilingProperties.ServerTiming properties;
+
+    public ServerTimingFilter(ProfilingProperties.ServerTiming properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!muestreada(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ServerTiming timing = ServerTiming.start(request);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!response.isCommitted() && !request.isAsyncStarted()) {
+                String valor = timing.header(0);
+                if (valor != null) {
+                    response.setHeader(ServerTiming.HEADER, valor);
+                }
+            }
+        }
+    }
+
+    private boolean muestreada(HttpServletRequest request) {
+        String forzar = properties.getForceHeader();
+        if (forzar != null && !forzar.isBlank() && request.getHeader(forzar) != null) {
+            return true;
+        }
+        return properties.getSampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+    }
+}
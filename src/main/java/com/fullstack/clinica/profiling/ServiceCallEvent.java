@@ -0,0 +1,52 @@
+package com.fullstack.clinica.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento JFR de una llamada a un método público de UserService,
+ * SampleService o LaboratoryService. La duración del evento es la de
+ * la llamada; dbTime y hashTime indican qué parte fue JDBC y BCrypt.
+ */
+@Name("com.fullstack.clinica.ServiceCall")
+@Label("Llamada a servicio")
+@Category({ "Clínica", "Servicios" })
+@Description("Método de servicio con el tiempo de BD y de hash que consumió")
+@StackTrace(false)
+@Threshold("0 ms")
+class ServiceCallEvent extends Event {
+
+    @Label("Servicio")
+    String service;
+
+    @Label("Método")
+    String method;
+
+    @Label("Argumentos")
+    @Description("Resumen: números y enums tal cual, textos recortados, colecciones con su tamaño")
+    String arguments;
+
+    @Label("Tiempo de BD")
+    @Timespan(Timespan.NANOSECONDS)
+    long dbTime;
+
+    @Label("Sentencias SQL")
+    long statements;
+
+    @Label("Tiempo de hash")
+    @Timespan(Timespan.NANOSECONDS)
+    long hashTime;
+
+    @Label("Error")
+    String error;
+
+    @Label("Elementos devueltos")
+    @Description("Tamaño de la colección devuelta (-1 si no es una colección)")
+    long resultSize;
+}
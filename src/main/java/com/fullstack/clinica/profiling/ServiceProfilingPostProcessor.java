@@ -0,0 +1,148 @@
+package com.fullstack.clinica.profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.NativeDetector;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ServiceProfilingPostProcessor
+ * ---------------------------------------------------------------
+ * Envuelve los servicios configurados (clinica.profiling.services) en
+ * un proxy que emite un {@link ServiceCallEvent} por cada método público.
+ *
+ * - Sin una grabación JFR activa el costo es un isEnabled() por llamada.
+ * - Con grabación: dos lecturas de {@link ExecutionMetrics} y, solo si
+ *   el evento supera el umbral, el resumen de argumentos.
+ * - Los argumentos cuyo nombre sugiere un secreto (password, clave,
+ *   token) se enmascaran; las entidades aparecen solo por su tipo.
+ *
+ * En la imagen nativa no se pueden generar proxies CGLIB en ejecución:
+ * ahí los servicios quedan sin instrumentar (el resto de JFR funciona).
+ * ===============================================================
+ */
+@Slf4j
+public class ServiceProfilingPostProcessor implements BeanPostProcessor {
+
+    private final ProfilingProperties properties;
+
+    public ServiceProfilingPostProcessor(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> clase = ClassUtils.getUserClass(bean);
+        if (!properties.isEnabled() || !properties.getServices().contains(clase.getSimpleName())) {
+            return bean;
+        }
+        Interceptor interceptor = new Interceptor(clase.getSimpleName(), properties.getArgumentLength());
+        if (bean instanceof Advised advised) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        if (NativeDetector.inNativeImage()) {
+            log.warn("⚠️ {} sin eventos JFR: la imagen nativa no admite proxies de clase en ejecución", beanName);
+            return bean;
+        }
+        ProxyFactory proxy = new ProxyFactory(bean);
+        proxy.setProxyTargetClass(true);
+        proxy.addAdvice(interceptor);
+        log.info("🔬 {} emite eventos JFR ({})", clase.getSimpleName(), ServiceCallEvent.class.getSimpleName());
+        return proxy.getProxy(clase.getClassLoader());
+    }
+
+    private static final class Interceptor implements MethodInterceptor {
+        private final String servicio;
+        private final int largo;
+
+        private Interceptor(String servicio, int largo) {
+            this.servicio = servicio;
+            this.largo = largo;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method metodo = invocation.getMethod();
+            if (metodo.getDeclaringClass() == Object.class || !Modifier.isPublic(metodo.getModifiers())) {
+                return invocation.proceed();
+            }
+            ServiceCallEvent evento = new ServiceCallEvent();
+            if (!evento.isEnabled()) {
+                return invocation.proceed();
+            }
+            ExecutionMetrics.Contadores contadores = ExecutionMetrics.current();
+            long db = contadores.dbNanos();
+            long sentencias = contadores.statements();
+            long hash = contadores.hashNanos();
+            evento.begin();
+            Object resultado = null;
+            try {
+                resultado = invocation.proceed();
+                return resultado;
+            } catch (Throwable e) {
+                evento.error = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.service = servicio;
+                    evento.method = metodo.getName();
+                    evento.arguments = resumir(metodo.getParameters(), invocation.getArguments());
+                    evento.dbTime = contadores.dbNanos() - db;
+                    evento.statements = contadores.statements() - sentencias;
+                    evento.hashTime = contadores.hashNanos() - hash;
+                    evento.resultSize = resultado instanceof Collection<?> c ? c.size()
+                            : resultado instanceof Map<?, ?> m ? m.size() : -1;
+                    evento.commit();
+                }
+            }
+        }
+
+        private String resumir(Parameter[] parametros, Object[] argumentos) {
+            StringBuilder resumen = new StringBuilder();
+            for (int i = 0; i < argumentos.length; i++) {
+                if (i > 0) {
+                    resumen.append(", ");
+                }
+                String nombre = parametros[i].getName();
+                resumen.append(nombre).append('=').append(esSecreto(nombre) ? "***" : valor(argumentos[i]));
+            }
+            return resumen.toString();
+        }
+
+        private String valor(Object argumento) {
+            if (argumento == null || argumento instanceof Number || argumento instanceof Boolean
+                    || argumento instanceof Enum<?>) {
+                return String.valueOf(argumento);
+            }
+            if (argumento instanceof CharSequence texto) {
+                return texto.length() <= largo ? "'" + texto + "'" : "'" + texto.subSequence(0, largo) + "…'";
+            }
+            if (argumento instanceof Collection<?> coleccion) {
+                return argumento.getClass().getSimpleName() + "[" + coleccion.size() + "]";
+            }
+            if (argumento instanceof Map<?, ?> mapa) {
+                return argumento.getClass().getSimpleName() + "[" + mapa.size() + "]";
+            }
+            return argumento.getClass().getSimpleName();
+        }
+
+        private static boolean esSecreto(String nombre) {
+            String n = nombre.toLowerCase(Locale.ROOT);
+            return n.contains("password") || n.contains("clave") || n.contains("token") || n.contains("secret");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.fullstack.clinica.profiling;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCryptPasswordEncoder que suma a {@link ExecutionMetrics} el tiempo de
+ * cada hash (registro, login, cambio de contraseña). Es el costo de CPU
+ * dominante de UserService y no aparece como tiempo de BD.
+ */
+public class TimedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long inicio = System.nanoTime();
+        try {
+            return super.encode(rawPassword);
+        } finally {
+            ExecutionMetrics.recordHash(System.nanoTime() - inicio);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long inicio = System.nanoTime();
+        try {
+            return super.matches(rawPassword, encodedPassword);
+        } finally {
+            ExecutionMetrics.recordHash(System.nanoTime() - inicio);
+        }
+    }
+}
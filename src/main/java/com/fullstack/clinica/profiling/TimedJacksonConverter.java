@@ -0,0 +1,61 @@
+package com.fullstack.clinica.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * ===============================================================
+ * 📘 Clase: TimedJacksonConverter
+ * ---------------------------------------------------------------
+ * El convertidor JSON de siempre (mismo ObjectMapper de Spring Boot).
+ * En las peticiones muestreadas por {@link ServerTimingFilter}
+ * serializa a un buffer, mide el tiempo y agrega la cabecera
+ * Server-Timing antes de enviar el cuerpo (las cabeceras no se pueden
+ * agregar una vez que el cuerpo empezó a salir).
+ *
+ * El resto de las peticiones escribe directo a la respuesta, sin copia.
+ * ===============================================================
+ */
+public class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ServerTiming timing = ServerTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        long inicio = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        String valor = timing.header(System.nanoTime() - inicio);
+        if (valor != null) {
+            outputMessage.getHeaders().set(ServerTiming.HEADER, valor);
+        }
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,44 @@
+package com.fullstack.clinica.reactive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ReactiveProperties
+ * ---------------------------------------------------------------
+ * Configuración del stack reactivo de lectura (WebFlux + R2DBC).
+ *
+ * clinica.reactive.enabled=true
+ * clinica.reactive.port=8081
+ * clinica.reactive.databases[0].url=r2dbc:h2:mem:///clinica0   → shard 0
+ * clinica.reactive.databases[1].url=...                        → shard 1
+ *
+ * Las BD deben listarse en el mismo orden que los shards JDBC
+ * (spring.datasource primero, luego clinica.sharding.shards[*]).
+ * ===============================================================
+ */
+@Data
+@ConfigurationProperties(prefix = "clinica.reactive")
+public class ReactiveProperties {
+
+    private boolean enabled = false;
+
+    // Puerto del servidor Netty (independiente del Tomcat de server.port)
+    private int port = 8081;
+
+    // Conexiones R2DBC por BD: pocas conexiones atienden miles de peticiones
+    private int poolSize = 20;
+
+    private List<Database> databases = new ArrayList<>();
+
+    @Data
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,70 @@
+package com.fullstack.clinica.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ReactiveReadConfig
+ * ---------------------------------------------------------------
+ * Cuando clinica.reactive.enabled=true levanta el stack reactivo de
+ * lectura en paralelo a la API MVC:
+ *
+ * - Un pool R2DBC por BD (Oracle R2DBC en producción, H2 R2DBC en local).
+ * - Un servidor Netty en clinica.reactive.port con las rutas de lectura.
+ *
+ * Los pools NO se publican como beans ConnectionFactory: si existiera
+ * uno, Spring Boot dejaría de crear el DataSource JDBC que usa JPA.
+ * ===============================================================
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReactiveProperties.class)
+@ConditionalOnProperty(prefix = "clinica.reactive", name = "enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReactiveReadRepository reactiveReadRepository(ReactiveProperties properties, SampleShardRouter router,
+            SampleReferences references) {
+        if (properties.getDatabases().size() != router.shardCount()) {
+            throw new IllegalStateException("clinica.reactive.databases debe tener una BD por shard ("
+                    + router.shardCount() + "), hay " + properties.getDatabases().size());
+        }
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (ReactiveProperties.Database database : properties.getDatabases()) {
+            ConnectionFactoryOptions.Builder opciones = ConnectionFactoryOptions.parse(database.getUrl()).mutate();
+            if (database.getUsername() != null) {
+                opciones.option(ConnectionFactoryOptions.USER, database.getUsername());
+            }
+            if (database.getPassword() != null) {
+                opciones.option(ConnectionFactoryOptions.PASSWORD, database.getPassword());
+            }
+            pools.add(new ConnectionPool(ConnectionPoolConfiguration
+                    .builder(ConnectionFactories.get(opciones.build()))
+                    .maxSize(properties.getPoolSize())
+                    .build()));
+        }
+        log.info("⚡ Pools R2DBC de lectura creados para {} BD", pools.size());
+        return new ReactiveReadRepository(pools, router, references);
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveReadRepository repository, ObjectMapper mapper,
+            ReactiveProperties properties) {
+        return new ReactiveReadServer(new ReactiveReadRoutes(repository), mapper, properties.getPort());
+    }
+}
@@ -0,0 +1,207 @@
+package com.fullstack.clinica.reactive;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ReactiveReadRepository
+ * ---------------------------------------------------------------
+ * Consultas de solo lectura sobre R2DBC (sin JPA ni hilos bloqueados).
+ *
+ * - Hay un pool R2DBC (y un DatabaseClient) por shard, en el mismo
+ *   orden que los shards JDBC.
+ * - Las muestras se enrutan igual que en SampleShardRouter: por ID
+ *   (rango de IDs del shard) o por laboratorio (mapa de asignaciones).
+ * - Los listados globales se combinan con Flux.merge: las filas de cada
+ *   shard se emiten a medida que llegan y respetan la demanda del cliente.
+ * - LABORATORY vive siempre en el shard 0.
+ * - SAMPLE guarda laboratory_id / technician_id: los nombres salen de
+ *   la caché de SampleReferences; si falta uno se lee por R2DBC (nunca
+ *   JDBC bloqueante en el event loop) y se guarda en la caché.
+ * ===============================================================
+ */
+public class ReactiveReadRepository {
+
+    private static final String SAMPLE_COLUMNS =
+            "select id, code, description, technician_id, laboratory_id, patient_id, collected_at, status, "
+                    + "received_at, reported_at, claimed_by, lease_until, held_at from SAMPLE";
+    private static final String LABORATORY_COLUMNS = "select id, name, description, state from LABORATORY";
+
+    private final List<ConnectionPool> pools;
+    private final List<DatabaseClient> clients;
+    private final SampleShardRouter router;
+    private final SampleReferences references;
+
+    public ReactiveReadRepository(List<ConnectionPool> pools, SampleShardRouter router,
+            SampleReferences references) {
+        this.pools = pools;
+        this.clients = pools.stream().map(DatabaseClient::create).toList();
+        this.router = router;
+        this.references = references;
+    }
+
+    /** Cierra los pools R2DBC (destroyMethod del bean). */
+    public void close() {
+        pools.forEach(ConnectionPool::dispose);
+    }
+
+    // ============================================================
+    // Muestras
+    // ============================================================
+
+    public Flux<Sample> findAllSamples() {
+        return Flux.merge(clients.stream()
+                .map(client -> client.sql(SAMPLE_COLUMNS).map(ReactiveReadRepository::aFila).all()
+                        .concatMap(this::conNombres))
+                .toList());
+    }
+
+    /**
+     * Primero en el shard del rango del ID; si no está (muestra movida con
+     * su laboratorio), en los demás.
+     */
+    public Mono<Sample> findSampleById(Long id) {
+        int propio = Math.min(router.shardForId(id), clients.size() - 1);
+        List<Integer> orden = new ArrayList<>();
+        orden.add(propio);
+        IntStream.range(0, clients.size()).filter(shard -> shard != propio).forEach(orden::add);
+        return Flux.fromIterable(orden)
+                .concatMap(shard -> clients.get(shard).sql(SAMPLE_COLUMNS + " where id = :id")
+                        .bind("id", id)
+                        .map(ReactiveReadRepository::aFila)
+                        .all())
+                .next()
+                .flatMap(this::conNombres);
+    }
+
+    public Flux<Sample> findSamplesByLaboratory(String laboratory) {
+        Optional<Integer> asignado = router.assignedShard(laboratory).filter(shard -> shard < clients.size());
+        if (asignado.isEmpty()) {
+            return Flux.empty();
+        }
+        return laboratorioId(laboratory).flatMapMany(laboratoryId -> clients.get(asignado.get())
+                .sql(SAMPLE_COLUMNS + " where laboratory_id = :laboratoryId")
+                .bind("laboratoryId", laboratoryId)
+                .map(ReactiveReadRepository::aFila)
+                .all()
+                .concatMap(this::conNombres));
+    }
+
+    // ============================================================
+    // Laboratorios
+    // ============================================================
+
+    public Flux<Laboratory> findAllLaboratories() {
+        return clients.get(0).sql(LABORATORY_COLUMNS).map(ReactiveReadRepository::aLaboratorio).all();
+    }
+
+    public Mono<Laboratory> findLaboratoryById(Long id) {
+        return clients.get(0).sql(LABORATORY_COLUMNS + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveReadRepository::aLaboratorio)
+                .one();
+    }
+
+    public Flux<Laboratory> findLaboratoriesByState(String state) {
+        return clients.get(0).sql(LABORATORY_COLUMNS + " where state = :state")
+                .bind("state", state)
+                .map(ReactiveReadRepository::aLaboratorio)
+                .all();
+    }
+
+    // ============================================================
+    // Mapeo de filas
+    // ============================================================
+
+    /** Muestra sin nombres todavía, con los IDs que hay que traducir. */
+    private record FilaMuestra(Sample muestra, Long technicianId, Long laboratoryId) {
+    }
+
+    private static FilaMuestra aFila(Readable fila) {
+        Sample muestra = new Sample();
+        muestra.setId(fila.get("id", Long.class));
+        muestra.setCode(fila.get("code", String.class));
+        muestra.setDescription(fila.get("description", String.class));
+        muestra.setPatientId(fila.get("patient_id", Long.class));
+        muestra.setCollectedAt(fila.get("collected_at", LocalDateTime.class));
+        String status = fila.get("status", String.class);
+        muestra.setStatus(status != null ? SampleStatus.valueOf(status) : null);
+        muestra.setReceivedAt(fila.get("received_at", LocalDateTime.class));
+        muestra.setReportedAt(fila.get("reported_at", LocalDateTime.class));
+        muestra.setClaimedBy(fila.get("claimed_by", String.class));
+        muestra.setLeaseUntil(fila.get("lease_until", LocalDateTime.class));
+        muestra.setHeldAt(fila.get("held_at", LocalDateTime.class));
+        return new FilaMuestra(muestra, fila.get("technician_id", Long.class), fila.get("laboratory_id", Long.class));
+    }
+
+    private Mono<Sample> conNombres(FilaMuestra fila) {
+        return Mono.zip(
+                nombre(fila.technicianId(), references::cachedTechnicianName, references::rememberTechnician,
+                        "select full_name as name from USERC where id = :id"),
+                nombre(fila.laboratoryId(), references::cachedLaboratoryName, references::rememberLaboratory,
+                        "select name from LABORATORY where id = :id"))
+                .map(nombres -> {
+                    Sample muestra = fila.muestra();
+                    muestra.setTechnician(nombres.getT1().orElse(null));
+                    muestra.setLaboratory(nombres.getT2().orElse(null));
+                    return muestra;
+                });
+    }
+
+    /** Nombre desde la caché o, si falta, por R2DBC en el shard 0. */
+    private Mono<Optional<String>> nombre(Long id, Function<Long, String> enCache, BiConsumer<Long, String> recordar,
+            String sql) {
+        String nombre = enCache.apply(id);
+        if (id == null || nombre != null) {
+            return Mono.just(Optional.ofNullable(nombre));
+        }
+        return clients.get(0).sql(sql)
+                .bind("id", id)
+                .map(f -> f.get("name", String.class))
+                .one()
+                .doOnNext(leido -> recordar.accept(id, leido))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    /** ID del laboratorio desde la caché o por R2DBC (los nombres son únicos: LaboratoryService). */
+    private Mono<Long> laboratorioId(String laboratory) {
+        Long id = references.cachedLaboratoryId(laboratory);
+        if (id != null) {
+            return Mono.just(id);
+        }
+        return clients.get(0).sql("select id from LABORATORY where name = :name order by id")
+                .bind("name", laboratory)
+                .map(f -> f.get("id", Long.class))
+                .all()
+                .next()
+                .doOnNext(leido -> references.rememberLaboratory(leido, laboratory));
+    }
+
+    private static Laboratory aLaboratorio(Readable fila) {
+        Laboratory laboratorio = new Laboratory();
+        laboratorio.setId(fila.get("id", Long.class));
+        laboratorio.setName(fila.get("name", String.class));
+        laboratorio.setDescription(fila.get("description", String.class));
+        laboratorio.setState(fila.get("state", String.class));
+        return laboratorio;
+    }
+}
@@ -0,0 +1,142 @@
+package com.fullstack.clinica.reactive;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.sample.model.Sample;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ReactiveReadRoutes
+ * ---------------------------------------------------------------
+ * Rutas funcionales de WebFlux con los mismos endpoints de lectura
+ * que SampleController y LaboratoryController:
+ *
+ * - GET /api/samples
+ * - GET /api/samples/id/{id}
+ * - GET /api/samples/laboratory/{laboratory}
+ * - GET /api/laboratories
+ * - GET /api/laboratories/id/{id}
+ * - GET /api/laboratories/state/{state}
+ *
+ * Los listados se serializan a medida que llegan las filas
+ * (application/json como arreglo, o application/x-ndjson si el cliente
+ * lo pide en Accept), con backpressure hasta la BD. Las respuestas son
+ * las mismas que en MVC (campos JSON, 404, y 204 en los listados por
+ * laboratorio o estado sin filas), para comparar ambos stacks.
+ * Las escrituras siguen en el stack MVC + JPA.
+ * ===============================================================
+ */
+@Slf4j
+public class ReactiveReadRoutes {
+
+    private final ReactiveReadRepository repository;
+
+    public ReactiveReadRoutes(ReactiveReadRepository repository) {
+        this.repository = repository;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return route()
+                .GET("/api/samples", r -> listado(r, repository.findAllSamples(), Sample.class))
+                .GET("/api/samples/id/{id}", this::muestraPorId)
+                .GET("/api/samples/laboratory/{laboratory}", r -> listadoNoVacio(r,
+                        repository.findSamplesByLaboratory(r.pathVariable("laboratory")), Sample.class))
+                .GET("/api/laboratories", r -> listado(r, repository.findAllLaboratories(), Laboratory.class))
+                .GET("/api/laboratories/id/{id}", this::laboratorioPorId)
+                .GET("/api/laboratories/state/{state}", r -> listadoNoVacio(r,
+                        repository.findLaboratoriesByState(r.pathVariable("state")), Laboratory.class))
+                .onError(Exception.class, this::errorInterno)
+                .build();
+    }
+
+    // ============================================================
+    // Handlers
+    // ============================================================
+
+    private Mono<ServerResponse> muestraPorId(ServerRequest request) {
+        Long id = aId(request);
+        if (id == null) {
+            return error(request, HttpStatus.BAD_REQUEST, "ID inválido: " + request.pathVariable("id"));
+        }
+        return repository.findSampleById(id)
+                .flatMap(muestra -> ServerResponse.ok().bodyValue(muestra))
+                .switchIfEmpty(Mono.defer(() ->
+                        error(request, HttpStatus.NOT_FOUND, "No se encontró la muestra con ID: " + id)));
+    }
+
+    private Mono<ServerResponse> laboratorioPorId(ServerRequest request) {
+        Long id = aId(request);
+        if (id == null) {
+            return error(request, HttpStatus.BAD_REQUEST, "ID inválido: " + request.pathVariable("id"));
+        }
+        return repository.findLaboratoryById(id)
+                .flatMap(laboratorio -> ServerResponse.ok().bodyValue(laboratorio))
+                .switchIfEmpty(Mono.defer(() ->
+                        error(request, HttpStatus.NOT_FOUND, "No se encontró el laboratorio con ID: " + id)));
+    }
+
+    private Mono<ServerResponse> errorInterno(Throwable ex, ServerRequest request) {
+        log.error("💥 Error en lectura reactiva {}: {}", request.path(), ex.getMessage());
+        return error(request, HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor: " + ex.getMessage());
+    }
+
+    // ============================================================
+    // Utilidades
+    // ============================================================
+
+    /**
+     * Listado en streaming: arreglo JSON por defecto, o un objeto por línea
+     * si el cliente acepta application/x-ndjson.
+     */
+    private static <T> Mono<ServerResponse> listado(ServerRequest request, Flux<T> filas, Class<T> tipo) {
+        boolean ndjson = request.headers().accept().stream()
+                .anyMatch(m -> m.isCompatibleWith(MediaType.APPLICATION_NDJSON) && !m.isWildcardType());
+        return ServerResponse.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(filas, tipo);
+    }
+
+    /**
+     * Como listado(), pero 204 si no hay filas (igual que los controladores
+     * MVC). Se espera la primera fila antes de responder; el resto sigue
+     * en streaming sin volver a consultar.
+     */
+    private static <T> Mono<ServerResponse> listadoNoVacio(ServerRequest request, Flux<T> filas, Class<T> tipo) {
+        return filas.switchOnFirst((primera, todas) -> primera.hasValue()
+                        ? listado(request, todas, tipo)
+                        : ServerResponse.noContent().build(), false)
+                .singleOrEmpty();
+    }
+
+    private static Long aId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Mismo formato de error que GlobalExceptionHandler. */
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String mensaje) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("status", status.value());
+        error.put("timestamp", LocalDateTime.now());
+        error.put("error", mensaje);
+        error.put("path", request.path());
+        return ServerResponse.status(status).bodyValue(error);
+    }
+}
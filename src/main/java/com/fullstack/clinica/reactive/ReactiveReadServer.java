@@ -0,0 +1,79 @@
+package com.fullstack.clinica.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ReactiveReadServer
+ * ---------------------------------------------------------------
+ * Servidor Netty (Reactor) que expone las rutas de ReactiveReadRoutes
+ * en su propio puerto, junto al Tomcat de la API principal.
+ *
+ * - Arranca y se detiene con el contexto de Spring (SmartLifecycle).
+ * - Usa el ObjectMapper de la aplicación, así el JSON es idéntico al
+ *   del stack MVC (fechas, READ_ONLY, etc.), pero sin indentación.
+ * - Los listados se pueden pedir como application/x-ndjson (un objeto
+ *   por línea) para consumirlos en streaming.
+ * ===============================================================
+ */
+@Slf4j
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private final ReactiveReadRoutes routes;
+    private final ObjectMapper mapper;
+    private final int port;
+
+    private volatile DisposableServer server;
+
+    public ReactiveReadServer(ReactiveReadRoutes routes, ObjectMapper mapper, int port) {
+        this.routes = routes;
+        this.mapper = mapper;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        ObjectMapper compacto = mapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(c -> {
+                    c.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(compacto,
+                            MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON));
+                    c.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(compacto));
+                })
+                .build();
+        HttpHandler handler = RouterFunctions.toHttpHandler(routes.routes(), strategies);
+
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+        log.info("⚡ API reactiva de lectura escuchando en el puerto {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+            log.info("⚡ API reactiva de lectura detenida");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.fullstack.clinica.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * ===============================================================
+ * 📘 Clase: BulkheadInterceptor
+ * ---------------------------------------------------------------
+ * Reserva un cupo del grupo del endpoint antes de ejecutar el
+ * controller y lo libera al terminar.
+ *
+ * En peticiones asíncronas (SSE, StreamingResponseBody) el cupo se
+ * libera apenas el controller devuelve, así una conexión abierta no
+ * ocupa un cupo durante minutos.
+ * ===============================================================
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO = BulkheadInterceptor.class.getName() + ".grupo";
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadInterceptor(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        EndpointGroup grupo = EndpointGroup.of(request.getMethod(), request.getRequestURI());
+        registry.acquire(grupo);
+        request.setAttribute(ATRIBUTO, grupo);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        liberar(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        liberar(request);
+    }
+
+    private void liberar(HttpServletRequest request) {
+        Object grupo = request.getAttribute(ATRIBUTO);
+        if (grupo != null) {
+            request.removeAttribute(ATRIBUTO);
+            registry.release((EndpointGroup) grupo);
+        }
+    }
+}
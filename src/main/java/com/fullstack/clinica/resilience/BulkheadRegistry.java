@@ -0,0 +1,83 @@
+package com.fullstack.clinica.resilience;
+
+import com.fullstack.clinica.exception.ServiceUnavailableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ===============================================================
+ * 📘 Clase: BulkheadRegistry
+ * ---------------------------------------------------------------
+ * Un semáforo por grupo de endpoints. Cuando un grupo no tiene cupo
+ * se espera como máximo max-wait-ms y luego se responde 503, en vez
+ * de seguir acumulando hilos de Tomcat bloqueados en JDBC.
+ * ===============================================================
+ */
+@Slf4j
+public class BulkheadRegistry {
+
+    private final Map<EndpointGroup, Compartimento> compartimentos = new EnumMap<>(EndpointGroup.class);
+
+    public BulkheadRegistry(ResilienceProperties properties) {
+        for (EndpointGroup grupo : EndpointGroup.values()) {
+            ResilienceProperties.Bulkhead config = properties.bulkhead(grupo);
+            compartimentos.put(grupo, new Compartimento(config.getMaxConcurrent(), config.getMaxWaitMs()));
+        }
+    }
+
+    /**
+     * Reserva un cupo del grupo o lanza ServiceUnavailableException.
+     */
+    public void acquire(EndpointGroup grupo) {
+        Compartimento c = compartimentos.get(grupo);
+        boolean obtenido;
+        try {
+            obtenido = c.cupos.tryAcquire(c.maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obtenido = false;
+        }
+        if (!obtenido) {
+            c.rechazadas.increment();
+            log.warn("🚧 Bulkhead {} lleno ({} en curso): petición rechazada", grupo, c.max);
+            throw new ServiceUnavailableException("Demasiadas peticiones simultáneas en " + grupo
+                    + ", reintente en unos segundos", 1);
+        }
+    }
+
+    public void release(EndpointGroup grupo) {
+        compartimentos.get(grupo).cupos.release();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        compartimentos.forEach((grupo, c) -> {
+            Map<String, Object> g = new LinkedHashMap<>();
+            g.put("maxConcurrent", c.max);
+            g.put("active", c.max - c.cupos.availablePermits());
+            g.put("rejected", c.rechazadas.sum());
+            stats.put(grupo.name(), g);
+        });
+        return stats;
+    }
+
+    private static final class Compartimento {
+        private final int max;
+        private final long maxWaitMs;
+        private final Semaphore cupos;
+        private final LongAdder rechazadas = new LongAdder();
+
+        private Compartimento(int max, long maxWaitMs) {
+            this.max = max;
+            this.maxWaitMs = maxWaitMs;
+            this.cupos = new Semaphore(max);
+        }
+    }
+}
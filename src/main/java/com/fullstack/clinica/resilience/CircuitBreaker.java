@@ -0,0 +1,138 @@
+package com.fullstack.clinica.resilience;
+
+import com.fullstack.clinica.exception.ServiceUnavailableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ===============================================================
+ * 📘 Clase: CircuitBreaker
+ * ---------------------------------------------------------------
+ * Circuit breaker por conteo sobre las últimas N llamadas.
+ *
+ * - CERRADO: las llamadas pasan; si el % de fallos (errores de BD o
+ *   llamadas lentas) supera el umbral, se abre.
+ * - ABIERTO: se rechaza todo al instante con 503 durante open-seconds.
+ * - SEMIABIERTO: se dejan pasar half-open-calls llamadas de prueba;
+ *   si todas salen bien se cierra, si una falla se vuelve a abrir.
+ * ===============================================================
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    private final String name;
+    private final ResilienceProperties.Breaker config;
+
+    // Ventana circular de resultados (true = fallo); protegida por "this"
+    private final boolean[] ventana;
+    private int posicion;
+    private int registradas;
+    private int fallos;
+
+    private volatile Estado estado = Estado.CERRADO;
+    private volatile long abiertoHasta;
+    private int pruebasEnCurso;
+    private int pruebasExitosas;
+
+    public CircuitBreaker(String name, ResilienceProperties.Breaker config) {
+        this.name = name;
+        this.config = config;
+        this.ventana = new boolean[config.getWindowSize()];
+    }
+
+    /**
+     * Pide permiso para ejecutar una llamada; lanza 503 si el circuito está abierto.
+     */
+    public void acquirePermission() {
+        if (estado == Estado.CERRADO) {
+            return;
+        }
+        synchronized (this) {
+            if (estado == Estado.ABIERTO && System.nanoTime() - abiertoHasta >= 0) {
+                estado = Estado.SEMIABIERTO;
+                pruebasEnCurso = 0;
+                pruebasExitosas = 0;
+                log.info("🔌 Circuito {} semiabierto: probando la base de datos", name);
+            }
+            if (estado == Estado.SEMIABIERTO && pruebasEnCurso < config.getHalfOpenCalls()) {
+                pruebasEnCurso++;
+                return;
+            }
+            if (estado == Estado.CERRADO) {
+                return;
+            }
+        }
+        throw new ServiceUnavailableException("La base de datos no está respondiendo (" + name
+                + "), reintente en unos segundos", Math.max(1, config.getOpenSeconds()));
+    }
+
+    /**
+     * Registra el resultado de una llamada autorizada.
+     */
+    public synchronized void record(boolean fallo) {
+        switch (estado) {
+            case SEMIABIERTO -> {
+                if (fallo) {
+                    abrir();
+                } else if (++pruebasExitosas >= config.getHalfOpenCalls()) {
+                    cerrar();
+                }
+            }
+            case CERRADO -> {
+                if (registradas == ventana.length) {
+                    fallos -= ventana[posicion] ? 1 : 0;
+                } else {
+                    registradas++;
+                }
+                ventana[posicion] = fallo;
+                fallos += fallo ? 1 : 0;
+                posicion = (posicion + 1) % ventana.length;
+                if (registradas >= config.getMinimumCalls()
+                        && fallos * 100 >= config.getFailureRatePercent() * registradas) {
+                    abrir();
+                }
+            }
+            case ABIERTO -> {
+                // Llamadas que empezaron antes de abrir: no cambian nada
+            }
+        }
+    }
+
+    public long slowCallNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(config.getSlowCallMs());
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", estado);
+        stats.put("calls", registradas);
+        stats.put("failureRate", registradas == 0 ? 0 : fallos * 100 / registradas);
+        return stats;
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        abiertoHasta = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getOpenSeconds());
+        log.error("🔌 Circuito {} ABIERTO: {} de {} llamadas fallidas o lentas", name, fallos, registradas);
+    }
+
+    private void cerrar() {
+        estado = Estado.CERRADO;
+        posicion = 0;
+        registradas = 0;
+        fallos = 0;
+        log.info("🔌 Circuito {} cerrado: la base de datos responde de nuevo", name);
+    }
+}
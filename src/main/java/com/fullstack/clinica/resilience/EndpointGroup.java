@@ -0,0 +1,37 @@
+package com.fullstack.clinica.resilience;
+
+/**
+ * ===============================================================
+ * 📘 Enum: EndpointGroup
+ * ---------------------------------------------------------------
+ * Grupos de endpoints con límite de concurrencia propio (bulkhead):
+ * si un grupo se satura, los demás siguen respondiendo.
+ *
+ * - LOGIN → login, registro y recuperación de clave (BCrypt).
+ * - SAMPLE_WRITES → escrituras sobre /api/samples.
+ * - READS → cualquier GET que no sea administrativo.
+ * - ADMIN → /api/admin/** y /api/jobs/**.
+ * - WRITES → resto de escrituras (usuarios, laboratorios).
+ * ===============================================================
+ */
+public enum EndpointGroup {
+    LOGIN,
+    SAMPLE_WRITES,
+    READS,
+    ADMIN,
+    WRITES;
+
+    public static EndpointGroup of(String method, String path) {
+        if (path.startsWith("/api/admin") || path.startsWith("/api/jobs")) {
+            return ADMIN;
+        }
+        if (path.startsWith("/api/users/login") || path.startsWith("/api/users/register")
+                || path.startsWith("/api/users/recover")) {
+            return LOGIN;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return READS;
+        }
+        return path.startsWith("/api/samples") ? SAMPLE_WRITES : WRITES;
+    }
+}
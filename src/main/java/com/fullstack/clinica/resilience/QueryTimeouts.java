@@ -0,0 +1,27 @@
+package com.fullstack.clinica.resilience;
+
+/**
+ * ===============================================================
+ * 📘 Clase: QueryTimeouts
+ * ---------------------------------------------------------------
+ * Timeouts (ms) para @QueryHints en los repositorios. Hibernate los
+ * aplica como Statement.setQueryTimeout, así una consulta colgada en
+ * Oracle se corta en vez de retener el hilo indefinidamente.
+ * ===============================================================
+ */
+public final class QueryTimeouts {
+
+    public static final String HINT = "jakarta.persistence.query.timeout";
+
+    // Búsqueda por clave (PK, email, código)
+    public static final String POINT = "2000";
+
+    // Listados filtrados por un índice (laboratorio, estado, rol)
+    public static final String LIST = "5000";
+
+    // Recorridos completos o masivos (findAll, exportación, reconstrucción)
+    public static final String SCAN = "30000";
+
+    private QueryTimeouts() {
+    }
+}
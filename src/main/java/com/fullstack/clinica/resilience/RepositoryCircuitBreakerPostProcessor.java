@@ -0,0 +1,105 @@
+package com.fullstack.clinica.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ===============================================================
+ * 📘 Clase: RepositoryCircuitBreakerPostProcessor
+ * ---------------------------------------------------------------
+ * Agrega un circuit breaker a cada repositorio de Spring Data (uno por
+ * interfaz), como primer advice del proxy del repositorio.
+ *
+ * Cuentan como fallo solo los problemas de infraestructura (timeouts,
+ * conexión, no poder abrir la transacción) y las llamadas lentas; un
+ * duplicado o un registro inexistente no abre el circuito.
+ * ===============================================================
+ */
+public class RepositoryCircuitBreakerPostProcessor implements BeanPostProcessor {
+
+    private final ResilienceProperties properties;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public RepositoryCircuitBreakerPostProcessor(ResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (properties.isEnabled() && bean instanceof Repository<?, ?> && bean instanceof Advised advised) {
+            String nombre = Arrays.stream(advised.getProxiedInterfaces())
+                    .filter(i -> i.getPackageName().startsWith("com.fullstack"))
+                    .map(Class::getSimpleName)
+                    .findFirst()
+                    .orElse(beanName);
+            CircuitBreaker breaker = breakers.computeIfAbsent(nombre,
+                    n -> new CircuitBreaker(n, properties.getBreaker()));
+            advised.addAdvice(0, new Interceptor(breaker));
+        }
+        return bean;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        breakers.forEach((nombre, breaker) -> stats.put(nombre, breaker.stats()));
+        return stats;
+    }
+
+    public CircuitBreaker breaker(String nombre) {
+        return breakers.get(nombre);
+    }
+
+    static boolean esFalloDeInfraestructura(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof QueryTimeoutException
+                    || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTimeoutException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Interceptor implements MethodInterceptor {
+        private final CircuitBreaker breaker;
+
+        private Interceptor(CircuitBreaker breaker) {
+            this.breaker = breaker;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            breaker.acquirePermission();
+            long inicio = System.nanoTime();
+            try {
+                Object resultado = invocation.proceed();
+                breaker.record(System.nanoTime() - inicio > breaker.slowCallNanos());
+                return resultado;
+            } catch (Throwable e) {
+                breaker.record(esFalloDeInfraestructura(e) || System.nanoTime() - inicio > breaker.slowCallNanos());
+                throw e;
+            }
+        }
+    }
+}
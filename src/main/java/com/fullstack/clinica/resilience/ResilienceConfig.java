@@ -0,0 +1,61 @@
+package com.fullstack.clinica.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResilienceConfig
+ * ---------------------------------------------------------------
+ * Protección ante picos de latencia de Oracle:
+ *
+ * - Bulkheads por grupo de endpoints (BulkheadInterceptor).
+ * - Circuit breaker por repositorio (RepositoryCircuitBreakerPostProcessor).
+ * - Timeouts de consulta: @QueryHints por método (QueryTimeouts) y un
+ *   timeout por defecto para el resto (application.properties).
+ *
+ * Las propiedades se enlazan a mano (Binder) porque el post-processor
+ * de repositorios se crea antes que los beans @ConfigurationProperties.
+ * ===============================================================
+ */
+@Slf4j
+@Configuration
+public class ResilienceConfig implements WebMvcConfigurer {
+
+    private final BulkheadRegistry bulkheads;
+    private final ResilienceProperties properties;
+
+    public ResilienceConfig(BulkheadRegistry bulkheads, ResilienceProperties properties) {
+        this.bulkheads = bulkheads;
+        this.properties = properties;
+    }
+
+    @Bean
+    public static ResilienceProperties resilienceProperties(Environment env) {
+        return Binder.get(env).bind("clinica.resilience", ResilienceProperties.class)
+                .orElseGet(ResilienceProperties::new);
+    }
+
+    @Bean
+    public static RepositoryCircuitBreakerPostProcessor repositoryCircuitBreakers(Environment env) {
+        return new RepositoryCircuitBreakerPostProcessor(resilienceProperties(env));
+    }
+
+    @Bean
+    public static BulkheadRegistry bulkheadRegistry(ResilienceProperties properties) {
+        return new BulkheadRegistry(properties);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(new BulkheadInterceptor(bulkheads)).addPathPatterns("/api/**");
+            log.info("🚧 Bulkheads activos por grupo de endpoints");
+        }
+    }
+}
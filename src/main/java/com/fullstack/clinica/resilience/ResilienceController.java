@@ -0,0 +1,39 @@
+package com.fullstack.clinica.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResilienceController
+ * ---------------------------------------------------------------
+ * API administrativa: ocupación de cada bulkhead y estado de los
+ * circuit breakers de los repositorios.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/resilience")
+public class ResilienceController {
+
+    private final BulkheadRegistry bulkheads;
+    private final RepositoryCircuitBreakerPostProcessor breakers;
+
+    public ResilienceController(BulkheadRegistry bulkheads, RepositoryCircuitBreakerPostProcessor breakers) {
+        this.bulkheads = bulkheads;
+        this.breakers = breakers;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> estado() {
+        log.info("🚧 [GET] Consultando bulkheads y circuit breakers");
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("bulkheads", bulkheads.stats());
+        respuesta.put("circuitBreakers", breakers.stats());
+        return ResponseEntity.ok(respuesta);
+    }
+}
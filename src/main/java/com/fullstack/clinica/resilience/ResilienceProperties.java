@@ -0,0 +1,55 @@
+package com.fullstack.clinica.resilience;
+
+import lombok.Data;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResilienceProperties
+ * ---------------------------------------------------------------
+ * Configuración de bulkheads y circuit breakers.
+ *
+ * clinica.resilience.bulkheads.<grupo>.max-concurrent=...
+ * clinica.resilience.bulkheads.<grupo>.max-wait-ms=...
+ * clinica.resilience.breaker.*  → un breaker por repositorio JPA
+ * ===============================================================
+ */
+@Data
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    private Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+
+    private Breaker breaker = new Breaker();
+
+    public Bulkhead bulkhead(EndpointGroup grupo) {
+        return bulkheads.getOrDefault(grupo, new Bulkhead());
+    }
+
+    @Data
+    public static class Bulkhead {
+        // Peticiones simultáneas permitidas en el grupo
+        private int maxConcurrent = 50;
+        // Espera máxima por un cupo antes de responder 503
+        private long maxWaitMs = 50;
+    }
+
+    @Data
+    public static class Breaker {
+        // Últimas N llamadas consideradas para la tasa de fallos
+        private int windowSize = 20;
+        // Mínimo de llamadas en la ventana antes de poder abrir
+        private int minimumCalls = 10;
+        // % de fallos (o llamadas lentas) que abre el circuito
+        private int failureRatePercent = 50;
+        // Una llamada más lenta que esto cuenta como fallo
+        private long slowCallMs = 3000;
+        // Tiempo que el circuito queda abierto antes de probar de nuevo
+        private long openSeconds = 10;
+        // Llamadas de prueba en estado semiabierto
+        private int halfOpenCalls = 3;
+    }
+}
@@ -0,0 +1,34 @@
+package com.fullstack.clinica.result.controller;
+
+import com.fullstack.clinica.result.service.ResultService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultAdminController
+ * ---------------------------------------------------------------
+ * API administrativa de resultados: compactación inmediata.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/results")
+public class ResultAdminController {
+
+    private final ResultService service;
+
+    public ResultAdminController(ResultService service) {
+        this.service = service;
+    }
+
+    @PostMapping("/compact")
+    public ResponseEntity<Map<String, Object>> compactar() {
+        log.info("🗜️ [POST] Compactando chunks de resultados");
+        return ResponseEntity.ok(service.compactAll());
+    }
+}
@@ -0,0 +1,71 @@
+package com.fullstack.clinica.result.controller;
+
+import com.fullstack.clinica.result.model.ResultBatch;
+import com.fullstack.clinica.result.model.ResultDailyAggregate;
+import com.fullstack.clinica.result.model.ResultPoint;
+import com.fullstack.clinica.result.service.ResultService;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultController
+ * ---------------------------------------------------------------
+ * API de resultados numéricos por analito:
+ *
+ * POST /api/results                     → registrar un lote
+ * GET  /api/results?laboratory=&analyte=&from=&to=   → puntos en el rango
+ * GET  /api/results/aggregates?laboratory=&from=&to= → mín/máx/promedio por día
+ * GET  /api/results/stats               → chunks, puntos y compresión
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/results")
+public class ResultController {
+
+    private final ResultService service;
+
+    public ResultController(ResultService service) {
+        this.service = service;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> registrar(@Valid @RequestBody ResultBatch lote) {
+        log.info("🧪 [POST] Registrar {} resultados", lote.getResults().size());
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.ingest(lote.getResults()));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ResultPoint>> rango(@RequestParam String laboratory, @RequestParam String analyte,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10000") int limit) {
+        log.info("📈 [GET] Resultados de {} en {}", analyte, laboratory);
+        return ResponseEntity.ok(service.findRange(laboratory, analyte, from, to, limit));
+    }
+
+    @GetMapping("/aggregates")
+    public ResponseEntity<List<ResultDailyAggregate>> agregados(@RequestParam String laboratory,
+            @RequestParam(required = false) String analyte,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("📊 [GET] Agregados diarios de {} ({})", laboratory, analyte);
+        return ResponseEntity.ok(service.dailyAggregates(laboratory, analyte, from, to));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> estadisticas() {
+        return ResponseEntity.ok(service.stats());
+    }
+}
@@ -0,0 +1,20 @@
+package com.fullstack.clinica.result.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cuerpo de POST /api/results: un lote de resultados (de una o varias
+ * muestras y analitos).
+ */
+@Data
+public class ResultBatch {
+
+    @NotEmpty(message = "El lote no tiene resultados")
+    @Size(max = 10000, message = "Un lote admite hasta 10000 resultados")
+    private List<@Valid ResultPoint> results;
+}
@@ -0,0 +1,70 @@
+package com.fullstack.clinica.result.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultChunk
+ * ---------------------------------------------------------------
+ * Bloque inmutable de resultados de un analito, de un laboratorio y de
+ * un día: hasta clinica.results.max-points-per-chunk puntos
+ * (tiempo, valor, muestra) comprimidos en payload (ResultChunkCodec).
+ *
+ * Las columnas de cabecera (rango de tiempo, cantidad, mín, máx, suma)
+ * permiten:
+ * - Descartar chunks fuera del rango consultado sin descomprimirlos.
+ * - Calcular mín / máx / promedio por día solo con SQL sobre las
+ *   cabeceras (un chunk nunca cruza de un día a otro).
+ *
+ * Vive en el shard del laboratorio, igual que sus muestras.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "RESULT_CHUNK", indexes = {
+        @Index(name = "IX_RESULT_CHUNK_SERIES", columnList = "laboratory_id, analyte, result_day")
+})
+public class ResultChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "laboratory_id", nullable = false)
+    private Long laboratoryId;
+
+    @Column(nullable = false, length = 40)
+    private String analyte;
+
+    @Column(name = "result_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "end_at", nullable = false)
+    private LocalDateTime endAt;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    @Column(name = "min_value", nullable = false)
+    private double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private double maxValue;
+
+    @Column(name = "sum_value", nullable = false)
+    private double sumValue;
+
+    @Column(name = "payload_bytes", nullable = false)
+    private int payloadBytes;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+}
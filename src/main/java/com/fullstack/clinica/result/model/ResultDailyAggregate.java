@@ -0,0 +1,22 @@
+package com.fullstack.clinica.result.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen diario de un analito en un laboratorio (GET /api/results/aggregates).
+ */
+@Data
+@AllArgsConstructor
+public class ResultDailyAggregate {
+
+    private String laboratory;
+    private String analyte;
+    private LocalDate day;
+    private long count;
+    private double min;
+    private double max;
+    private double mean;
+}
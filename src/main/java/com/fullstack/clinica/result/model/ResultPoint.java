@@ -0,0 +1,35 @@
+package com.fullstack.clinica.result.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un resultado numérico de un analito sobre una muestra: lo que recibe
+ * POST /api/results y lo que devuelve la consulta por rango.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultPoint {
+
+    @NotNull(message = "La muestra es obligatoria")
+    private Long sampleId;
+
+    @NotBlank(message = "El analito es obligatorio")
+    @Size(max = 40, message = "El analito admite hasta 40 caracteres")
+    @Pattern(regexp = "[A-Za-z0-9_.-]+", message = "El analito solo admite letras, números, '_', '.' y '-'")
+    private String analyte;
+
+    @NotNull(message = "El valor es obligatorio")
+    private Double value;
+
+    // Momento de la medición; si no se informa, el de la recepción del resultado
+    private LocalDateTime measuredAt;
+}
@@ -0,0 +1,82 @@
+package com.fullstack.clinica.result.repository;
+
+import com.fullstack.clinica.resilience.QueryTimeouts;
+import com.fullstack.clinica.result.model.ResultChunk;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Interfaz: ResultChunkRepository
+ * ---------------------------------------------------------------
+ * Chunks de resultados. Todas las consultas entran por
+ * IX_RESULT_CHUNK_SERIES (laboratorio, analito, día).
+ * ===============================================================
+ */
+@Repository
+public interface ResultChunkRepository extends JpaRepository<ResultChunk, Long> {
+
+    /**
+     * Chunks de la serie que se solapan con [desde, hasta]. El rango de
+     * días acota el índice; el de tiempos descarta el resto de los
+     * chunks de los días extremos sin descomprimirlos.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select c from ResultChunk c where c.laboratoryId = :laboratoryId and c.analyte = :analyte "
+            + "and c.day between :desdeDia and :hastaDia and c.endAt >= :desde and c.startAt <= :hasta "
+            + "order by c.startAt")
+    List<ResultChunk> findSeries(Long laboratoryId, String analyte, LocalDate desdeDia, LocalDate hastaDia,
+            LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * (analito, día, cantidad, mín, máx, suma) por día, solo con las
+     * cabeceras: no se descomprime ningún chunk.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select c.analyte, c.day, sum(c.pointCount), min(c.minValue), max(c.maxValue), sum(c.sumValue) "
+            + "from ResultChunk c where c.laboratoryId = :laboratoryId "
+            + "and (:analyte is null or c.analyte = :analyte) and c.day between :desde and :hasta "
+            + "group by c.analyte, c.day order by c.analyte, c.day")
+    List<Object[]> aggregateByDay(Long laboratoryId, String analyte, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Chunks chicos de una serie-día (candidatos a compactar), bloqueados
+     * (SELECT ... FOR UPDATE) hasta el fin de la transacción: dos
+     * compactaciones de la misma serie, en este u otro nodo, se turnan.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select c from ResultChunk c where c.laboratoryId = :laboratoryId and c.analyte = :analyte "
+            + "and c.day = :day and c.pointCount < :maxPoints order by c.startAt")
+    List<ResultChunk> lockSmall(Long laboratoryId, String analyte, LocalDate day, int maxPoints);
+
+    /** Borra los chunks indicados; devuelve cuántos existían. */
+    @Modifying
+    @Query("delete from ResultChunk c where c.id in :ids")
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Series-día con más de un chunk chico: (laboratorio, analito, día).
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("select c.laboratoryId, c.analyte, c.day from ResultChunk c where c.pointCount < :maxPoints "
+            + "group by c.laboratoryId, c.analyte, c.day having count(c) > 1")
+    List<Object[]> findFragmentedSeries(int maxPoints);
+
+    /** (chunks, puntos, bytes comprimidos) del shard. */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("select count(c), coalesce(sum(c.pointCount), 0), coalesce(sum(c.payloadBytes), 0) from ResultChunk c")
+    List<Object[]> totals();
+}
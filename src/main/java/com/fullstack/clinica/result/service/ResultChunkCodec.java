@@ -0,0 +1,304 @@
+package com.fullstack.clinica.result.service;
+
+import java.util.Arrays;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultChunkCodec
+ * ---------------------------------------------------------------
+ * Compresión por columnas de un chunk de resultados (una serie
+ * laboratorio + analito + día, ordenada por tiempo), al estilo de
+ * Gorilla (Facebook, VLDB 2015):
+ *
+ * 1️⃣ Tiempos (epoch ms): el primero completo; luego la diferencia de
+ *    la diferencia (delta-of-delta) en cubetas de 0 / 8 / 16 / 32 / 64
+ *    bits. Mediciones a intervalo regular cuestan 1 bit.
+ * 2️⃣ Muestras (IDs): el primero completo; luego la diferencia con el
+ *    anterior, en las mismas cubetas (IDs cercanos → 10 bits).
+ * 3️⃣ Valores: 3 bits de modo y luego
+ *    - decimal (modo 1–5): si todos los valores tienen a lo más 0–4
+ *      decimales (lo habitual en un equipo de laboratorio: 95.3 mg/dL),
+ *      se guardan como enteros escalados, en delta y con las mismas
+ *      cubetas;
+ *    - XOR (modo 0), para el resto: XOR con el anterior. Igual → 1 bit;
+ *      si los bits significativos caben en la ventana anterior, solo
+ *      esos; si no, 5 bits de ceros a la izquierda + 6 de largo + los bits.
+ *
+ * Frente a 24 bytes por punto sin comprimir, una serie de laboratorio
+ * típica queda en 3–5 bytes. El chunk es inmutable: agregar puntos es
+ * escribir otro chunk (ver compactación en ResultService).
+ * ===============================================================
+ */
+public final class ResultChunkCodec {
+
+    /** Bytes por punto sin comprimir: tiempo + valor + ID de muestra. */
+    public static final int RAW_BYTES_PER_POINT = 24;
+
+    private static final int MODO_XOR = 0;
+    private static final int MAX_DECIMALES = 4;
+    private static final double[] ESCALAS = {1, 10, 100, 1_000, 10_000};
+
+    private ResultChunkCodec() {
+    }
+
+    /** Columnas de un chunk decodificado, en orden de tiempo. */
+    public record Columns(long[] times, double[] values, long[] sampleIds) {
+        public int size() {
+            return times.length;
+        }
+    }
+
+    public static byte[] encode(Columns columnas) {
+        int n = columnas.size();
+        if (n == 0) {
+            return new byte[0];
+        }
+        BitWriter out = new BitWriter(n * 3);
+
+        long[] t = columnas.times();
+        out.write(t[0], 64);
+        long deltaAnterior = 0;
+        for (int i = 1; i < n; i++) {
+            long delta = t[i] - t[i - 1];
+            out.writeBucket(delta - deltaAnterior);
+            deltaAnterior = delta;
+        }
+
+        long[] ids = columnas.sampleIds();
+        out.write(ids[0], 64);
+        for (int i = 1; i < n; i++) {
+            out.writeBucket(ids[i] - ids[i - 1]);
+        }
+
+        double[] v = columnas.values();
+        int decimales = decimales(v);
+        if (decimales >= 0) {
+            out.write(decimales + 1, 3);
+            long previo = Math.round(v[0] * ESCALAS[decimales]);
+            out.write(previo, 64);
+            for (int i = 1; i < n; i++) {
+                long escalado = Math.round(v[i] * ESCALAS[decimales]);
+                out.writeBucket(escalado - previo);
+                previo = escalado;
+            }
+            return out.toByteArray();
+        }
+
+        out.write(MODO_XOR, 3);
+        long anterior = Double.doubleToRawLongBits(v[0]);
+        out.write(anterior, 64);
+        int ceros = -1;
+        int finales = 0;
+        for (int i = 1; i < n; i++) {
+            long actual = Double.doubleToRawLongBits(v[i]);
+            long xor = actual ^ anterior;
+            if (xor == 0) {
+                out.write(0, 1);
+            } else {
+                out.write(1, 1);
+                int lead = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                int trail = Long.numberOfTrailingZeros(xor);
+                if (ceros >= 0 && lead >= ceros && trail >= finales) {
+                    out.write(0, 1);
+                    out.write(xor >>> finales, 64 - ceros - finales);
+                } else {
+                    int significativos = 64 - lead - trail;
+                    out.write(1, 1);
+                    out.write(lead, 5);
+                    out.write(significativos - 1, 6);
+                    out.write(xor >>> trail, significativos);
+                    ceros = lead;
+                    finales = trail;
+                }
+            }
+            anterior = actual;
+        }
+        return out.toByteArray();
+    }
+
+    public static Columns decode(byte[] payload, int n) {
+        long[] t = new long[n];
+        long[] ids = new long[n];
+        double[] v = new double[n];
+        if (n == 0) {
+            return new Columns(t, v, ids);
+        }
+        BitReader in = new BitReader(payload);
+
+        t[0] = in.read(64);
+        long delta = 0;
+        for (int i = 1; i < n; i++) {
+            delta += in.readBucket();
+            t[i] = t[i - 1] + delta;
+        }
+
+        ids[0] = in.read(64);
+        for (int i = 1; i < n; i++) {
+            ids[i] = ids[i - 1] + in.readBucket();
+        }
+
+        int modo = (int) in.read(3);
+        if (modo != MODO_XOR) {
+            double escala = ESCALAS[modo - 1];
+            long escalado = in.read(64);
+            v[0] = escalado / escala;
+            for (int i = 1; i < n; i++) {
+                escalado += in.readBucket();
+                v[i] = escalado / escala;
+            }
+            return new Columns(t, v, ids);
+        }
+
+        long anterior = in.read(64);
+        v[0] = Double.longBitsToDouble(anterior);
+        int ceros = 0;
+        int finales = 0;
+        for (int i = 1; i < n; i++) {
+            if (in.read(1) != 0) {
+                if (in.read(1) != 0) {
+                    ceros = (int) in.read(5);
+                    int significativos = (int) in.read(6) + 1;
+                    finales = 64 - ceros - significativos;
+                }
+                long xor = in.read(64 - ceros - finales) << finales;
+                anterior ^= xor;
+            }
+            v[i] = Double.longBitsToDouble(anterior);
+        }
+        return new Columns(t, v, ids);
+    }
+
+    /**
+     * Menor cantidad de decimales (0–4) con la que todos los valores se
+     * reconstruyen bit a bit desde un entero escalado; -1 si no hay.
+     */
+    private static int decimales(double[] valores) {
+        for (int d = 0; d <= MAX_DECIMALES; d++) {
+            if (exactos(valores, ESCALAS[d])) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean exactos(double[] valores, double escala) {
+        for (double valor : valores) {
+            double escalado = valor * escala;
+            if (!(Math.abs(escalado) < 1L << 52)) {
+                return false; // NaN, infinito o sin precisión entera
+            }
+            long entero = Math.round(escalado);
+            if (Double.doubleToRawLongBits(entero / escala) != Double.doubleToRawLongBits(valor)) {
+                return false; // incluye -0.0, que no sobrevive al entero
+            }
+        }
+        return true;
+    }
+
+    // ============================================================
+    // Flujo de bits (más significativo primero)
+    // ============================================================
+
+    private static final class BitWriter {
+        private long[] palabras;
+        private int posicion;
+
+        BitWriter(int palabrasIniciales) {
+            palabras = new long[Math.max(4, palabrasIniciales)];
+        }
+
+        void write(long valor, int bits) {
+            if (bits < 64) {
+                valor &= (1L << bits) - 1;
+            }
+            int indice = posicion >>> 6;
+            if (indice + 2 > palabras.length) {
+                palabras = Arrays.copyOf(palabras, palabras.length * 2);
+            }
+            int libres = 64 - (posicion & 63);
+            if (bits <= libres) {
+                palabras[indice] |= valor << (libres - bits);
+            } else {
+                int resto = bits - libres;
+                palabras[indice] |= valor >>> resto;
+                palabras[indice + 1] |= valor << (64 - resto);
+            }
+            posicion += bits;
+        }
+
+        /** Entero con signo en cubetas: 0 → '0', luego '10'+8, '110'+16, '1110'+32, '1111'+64. */
+        void writeBucket(long valor) {
+            long zz = (valor << 1) ^ (valor >> 63); // zigzag: magnitudes pequeñas → pocos bits
+            if (zz == 0) {
+                write(0, 1);
+            } else if (zz >>> 8 == 0) {
+                write(0b10, 2);
+                write(zz, 8);
+            } else if (zz >>> 16 == 0) {
+                write(0b110, 3);
+                write(zz, 16);
+            } else if (zz >>> 32 == 0) {
+                write(0b1110, 4);
+                write(zz, 32);
+            } else {
+                write(0b1111, 4);
+                write(zz, 64);
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] bytes = new byte[(posicion + 7) >>> 3];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) (palabras[i >>> 3] >>> (56 - ((i & 7) << 3)));
+            }
+            return bytes;
+        }
+    }
+
+    private static final class BitReader {
+        private final long[] palabras;
+        private int posicion;
+
+        BitReader(byte[] bytes) {
+            palabras = new long[(bytes.length + 7) / 8 + 1];
+            for (int i = 0; i < bytes.length; i++) {
+                palabras[i >>> 3] |= (bytes[i] & 0xFFL) << (56 - ((i & 7) << 3));
+            }
+        }
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int indice = posicion >>> 6;
+            int desplazamiento = posicion & 63;
+            int libres = 64 - desplazamiento;
+            long valor;
+            if (bits <= libres) {
+                valor = palabras[indice] << desplazamiento >>> (64 - bits);
+            } else {
+                int resto = bits - libres;
+                valor = (palabras[indice] << desplazamiento >>> desplazamiento) << resto
+                        | palabras[indice + 1] >>> (64 - resto);
+            }
+            posicion += bits;
+            return valor;
+        }
+
+        long readBucket() {
+            long zz;
+            if (read(1) == 0) {
+                return 0;
+            } else if (read(1) == 0) {
+                zz = read(8);
+            } else if (read(1) == 0) {
+                zz = read(16);
+            } else if (read(1) == 0) {
+                zz = read(32);
+            } else {
+                zz = read(64);
+            }
+            return (zz >>> 1) ^ -(zz & 1);
+        }
+    }
+}
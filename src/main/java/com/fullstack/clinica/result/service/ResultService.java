@@ -0,0 +1,469 @@
+package com.fullstack.clinica.result.service;
+
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.result.model.ResultChunk;
+import com.fullstack.clinica.result.model.ResultDailyAggregate;
+import com.fullstack.clinica.result.model.ResultPoint;
+import com.fullstack.clinica.result.repository.ResultChunkRepository;
+import com.fullstack.clinica.sample.event.SampleShardMovedEvent;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sample.shard.ShardRowCopier;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultService
+ * ---------------------------------------------------------------
+ * Resultados numéricos por analito, guardados como chunks comprimidos
+ * (ResultChunk + ResultChunkCodec) en el shard del laboratorio.
+ *
+ * 🔹 Ingesta (append-only):
+ * - Cada lote se agrupa por serie (laboratorio, analito, día), se
+ *   ordena por tiempo y se escribe como chunks nuevos en una sola
+ *   transacción por laboratorio. Nunca se modifica un chunk existente.
+ * 🔹 Compactación (hilo result-compactor):
+ * - Los lotes chicos dejan chunks chicos (comprimen peor). Cuando una
+ *   serie-día acumula clinica.results.compact-after de ellos, se
+ *   reescriben como chunks llenos y se borran los originales.
+ * - Los chunks leídos quedan bloqueados (FOR UPDATE) y, si al borrarlos
+ *   falta alguno, la transacción se deshace: una compactación
+ *   concurrente de la misma serie (compactAll, otro nodo) nunca duplica
+ *   puntos.
+ * 🔹 Consultas:
+ * - Rango de tiempo: se descomprimen solo los chunks que se solapan.
+ * - Agregados por día: SQL sobre las cabeceras de los chunks.
+ * 🔹 Sharding:
+ * - Al mover un laboratorio de shard los chunks se copian tal cual
+ *   (mismo ID: RESULT_CHUNK también usa rangos de ID por shard, y las
+ *   muestras conservan el suyo).
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class ResultService {
+
+    private static final String PAGINA_CHUNKS = "select * from RESULT_CHUNK where laboratory_id = :laboratoryId "
+            + "order by id fetch first 200 rows only";
+
+    private final ResultChunkRepository repository;
+    private final SampleService samples;
+    private final SampleReferences references;
+    private final SampleShardRouter router;
+    private final TransactionTemplate tx;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ShardRowCopier copier;
+    private final int maxPointsPerChunk;
+    private final int compactAfter;
+    private final int maxQueryPoints;
+
+    private final BlockingQueue<Serie> porCompactar = new LinkedBlockingQueue<>();
+    private final Set<Serie> encoladas = ConcurrentHashMap.newKeySet();
+    private final Thread compactador;
+    private volatile boolean activo = true;
+
+    public ResultService(ResultChunkRepository repository, SampleService samples, SampleReferences references,
+            SampleShardRouter router, TransactionTemplate tx, NamedParameterJdbcTemplate jdbc, ShardRowCopier copier,
+            @Value("${clinica.results.max-points-per-chunk:2048}") int maxPointsPerChunk,
+            @Value("${clinica.results.compact-after:8}") int compactAfter,
+            @Value("${clinica.results.max-query-points:100000}") int maxQueryPoints) {
+        this.repository = repository;
+        this.samples = samples;
+        this.references = references;
+        this.router = router;
+        this.tx = tx;
+        this.jdbc = jdbc;
+        this.copier = copier;
+        this.maxPointsPerChunk = maxPointsPerChunk;
+        this.compactAfter = Math.max(2, compactAfter);
+        this.maxQueryPoints = maxQueryPoints;
+        this.compactador = new Thread(this::compactarEnSegundoPlano, "result-compactor");
+        this.compactador.setDaemon(true);
+        this.compactador.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        activo = false;
+        compactador.interrupt();
+        compactador.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // ============================================================
+    // Ingesta
+    // ============================================================
+
+    /**
+     * Guarda un lote de resultados. Todas las muestras deben existir
+     * (si falta alguna no se guarda nada: 404 con los IDs faltantes).
+     */
+    public Map<String, Object> ingest(List<ResultPoint> puntos) {
+        log.info("🧪 Registrando {} resultados", puntos.size());
+        List<Long> ids = puntos.stream().map(ResultPoint::getSampleId).distinct().toList();
+        BatchResult<Sample> muestras = samples.findByIds(ids);
+        if (!muestras.getMissing().isEmpty()) {
+            throw new ResourceNotFoundException("No existen las muestras: " + muestras.getMissing());
+        }
+        Map<Long, String> laboratorioDe = muestras.getItems().stream()
+                .collect(Collectors.toMap(Sample::getId, Sample::getLaboratory));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Serie, List<ResultPoint>> porSerie = new LinkedHashMap<>();
+        for (ResultPoint punto : puntos) {
+            if (punto.getMeasuredAt() == null) {
+                punto.setMeasuredAt(ahora);
+            }
+            String laboratorio = laboratorioDe.get(punto.getSampleId());
+            Serie serie = new Serie(laboratorio, references.laboratoryId(laboratorio),
+                    punto.getAnalyte().toUpperCase(Locale.ROOT), punto.getMeasuredAt().toLocalDate());
+            porSerie.computeIfAbsent(serie, s -> new ArrayList<>()).add(punto);
+        }
+
+        Map<String, List<ResultChunk>> porLaboratorio = new LinkedHashMap<>();
+        porSerie.forEach((serie, puntosSerie) -> porLaboratorio
+                .computeIfAbsent(serie.laboratory(), l -> new ArrayList<>())
+                .addAll(chunks(serie, columnas(puntosSerie))));
+
+        porLaboratorio.forEach((laboratorio, chunks) ->
+                router.onLaboratoryWrite(laboratorio, () -> tx.execute(status -> repository.saveAll(chunks))));
+        porSerie.keySet().forEach(this::encolarCompactacion);
+
+        List<ResultChunk> escritos = porLaboratorio.values().stream().flatMap(List::stream).toList();
+        long bytes = escritos.stream().mapToLong(ResultChunk::getPayloadBytes).sum();
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("points", puntos.size());
+        resumen.put("series", porSerie.size());
+        resumen.put("chunks", escritos.size());
+        resumen.put("bytes", bytes);
+        resumen.put("bytesPerPoint", redondear((double) bytes / puntos.size()));
+        log.info("✅ {} resultados en {} chunks ({} bytes)", puntos.size(), escritos.size(), bytes);
+        return resumen;
+    }
+
+    // ============================================================
+    // Consultas
+    // ============================================================
+
+    /**
+     * Resultados de un analito de un laboratorio en [desde, hasta], en
+     * orden de tiempo (a lo más limit, tope clinica.results.max-query-points).
+     */
+    public List<ResultPoint> findRange(String laboratory, String analyte, LocalDateTime desde,
+            LocalDateTime hasta, int limit) {
+        log.info("📈 Resultados de {} en {} entre {} y {}", analyte, laboratory, desde, hasta);
+        Long laboratoryId = laboratorio(laboratory);
+        String analito = analyte.toUpperCase(Locale.ROOT);
+        int tope = Math.min(Math.max(limit, 1), maxQueryPoints);
+        List<ResultChunk> chunks = router.assignedShard(laboratory)
+                .map(shard -> router.onShard(shard, () -> repository.findSeries(laboratoryId, analito,
+                        desde.toLocalDate(), hasta.toLocalDate(), desde, hasta)))
+                .orElse(List.of());
+
+        long desdeMs = epochMillis(desde);
+        long hastaMs = epochMillis(hasta);
+        List<ResultPoint> puntos = new ArrayList<>();
+        for (ResultChunk chunk : chunks) {
+            ResultChunkCodec.Columns c = ResultChunkCodec.decode(chunk.getPayload(), chunk.getPointCount());
+            for (int i = 0; i < c.size(); i++) {
+                if (c.times()[i] >= desdeMs && c.times()[i] <= hastaMs) {
+                    puntos.add(new ResultPoint(c.sampleIds()[i], analito, c.values()[i], fecha(c.times()[i])));
+                }
+            }
+        }
+        // Los chunks de una serie-día pueden solaparse (lotes que llegan desordenados)
+        puntos.sort(Comparator.comparing(ResultPoint::getMeasuredAt).thenComparing(ResultPoint::getSampleId));
+        return puntos.size() > tope ? new ArrayList<>(puntos.subList(0, tope)) : puntos;
+    }
+
+    /**
+     * Mín / máx / promedio por día de un analito (o de todos, si es null)
+     * en un laboratorio, entre dos días inclusive.
+     */
+    public List<ResultDailyAggregate> dailyAggregates(String laboratory, String analyte, LocalDate desde,
+            LocalDate hasta) {
+        log.info("📊 Agregados diarios de {} en {} entre {} y {}", analyte, laboratory, desde, hasta);
+        Long laboratoryId = laboratorio(laboratory);
+        String analito = analyte == null || analyte.isBlank() ? null : analyte.toUpperCase(Locale.ROOT);
+        List<Object[]> filas = router.assignedShard(laboratory)
+                .map(shard -> router.onShard(shard,
+                        () -> repository.aggregateByDay(laboratoryId, analito, desde, hasta)))
+                .orElse(List.of());
+        return filas.stream().map(f -> {
+            long cantidad = ((Number) f[2]).longValue();
+            return new ResultDailyAggregate(laboratory, (String) f[0], (LocalDate) f[1], cantidad,
+                    ((Number) f[3]).doubleValue(), ((Number) f[4]).doubleValue(),
+                    ((Number) f[5]).doubleValue() / cantidad);
+        }).toList();
+    }
+
+    public Map<String, Object> stats() {
+        long chunks = 0;
+        long puntos = 0;
+        long bytes = 0;
+        for (Object[] fila : router.fanOut(repository::totals)) {
+            chunks += ((Number) fila[0]).longValue();
+            puntos += ((Number) fila[1]).longValue();
+            bytes += ((Number) fila[2]).longValue();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("chunks", chunks);
+        stats.put("points", puntos);
+        stats.put("compressedBytes", bytes);
+        stats.put("rawBytes", puntos * ResultChunkCodec.RAW_BYTES_PER_POINT);
+        stats.put("bytesPerPoint", puntos == 0 ? 0 : redondear((double) bytes / puntos));
+        stats.put("pendingCompactions", porCompactar.size());
+        return stats;
+    }
+
+    // ============================================================
+    // Compactación
+    // ============================================================
+
+    /**
+     * Compacta ahora todas las series-día con más de un chunk chico.
+     */
+    public Map<String, Object> compactAll() {
+        int series = 0;
+        int antes = 0;
+        int despues = 0;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            List<Object[]> fragmentadas = router.onShard(shard,
+                    () -> repository.findFragmentedSeries(maxPointsPerChunk));
+            for (Object[] f : fragmentadas) {
+                Long laboratoryId = (Long) f[0];
+                Serie serie = new Serie(references.laboratoryName(laboratoryId), laboratoryId, (String) f[1],
+                        (LocalDate) f[2]);
+                int[] resultado = compactar(serie, 2);
+                series++;
+                antes += resultado[0];
+                despues += resultado[1];
+            }
+        }
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("series", series);
+        resumen.put("chunksBefore", antes);
+        resumen.put("chunksAfter", despues);
+        log.info("🗜️ Compactación manual: {} series, {} → {} chunks", series, antes, despues);
+        return resumen;
+    }
+
+    private void encolarCompactacion(Serie serie) {
+        if (encoladas.add(serie)) {
+            porCompactar.offer(serie);
+        }
+    }
+
+    private void compactarEnSegundoPlano() {
+        while (activo) {
+            try {
+                Serie serie = porCompactar.take();
+                encoladas.remove(serie);
+                compactar(serie, compactAfter);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Ej: laboratorio moviéndose de shard; la próxima ingesta lo vuelve a encolar
+                log.warn("⚠️ No se pudo compactar una serie de resultados: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reescribe los chunks chicos de una serie-día como chunks llenos,
+     * si son al menos {@code minimo}. Devuelve {chunks antes, chunks después}.
+     */
+    private int[] compactar(Serie serie, int minimo) {
+        if (serie.laboratory() == null) {
+            return new int[] { 0, 0 };
+        }
+        return router.onLaboratoryWrite(serie.laboratory(), () -> tx.execute(status -> {
+            List<ResultChunk> chicos = repository.lockSmall(serie.laboratoryId(), serie.analyte(), serie.day(),
+                    maxPointsPerChunk);
+            if (chicos.size() < minimo) {
+                return new int[] { chicos.size(), chicos.size() };
+            }
+            int borrados = repository.deleteByIds(chicos.stream().map(ResultChunk::getId).toList());
+            if (borrados != chicos.size()) {
+                // Otra compactación ya reescribió parte de estos chunks
+                status.setRollbackOnly();
+                log.warn("⚠️ Compactación de {} {} {} descartada: {} de {} chunks ya no existían",
+                        serie.laboratory(), serie.analyte(), serie.day(), chicos.size() - borrados, chicos.size());
+                return new int[] { chicos.size(), chicos.size() };
+            }
+            List<ResultChunk> nuevos = chunks(serie, unir(chicos));
+            repository.saveAll(nuevos);
+            log.debug("🗜️ {} {} {}: {} → {} chunks", serie.laboratory(), serie.analyte(), serie.day(),
+                    chicos.size(), nuevos.size());
+            return new int[] { chicos.size(), nuevos.size() };
+        }));
+    }
+
+    // ============================================================
+    // Shards
+    // ============================================================
+
+    /**
+     * El laboratorio se movió de shard: sus chunks lo siguen. Corre dentro
+     * del movimiento (escrituras del laboratorio aún bloqueadas) y es
+     * idempotente: por página, el destino reemplaza los mismos IDs y
+     * luego se borran en el origen.
+     */
+    @EventListener
+    public void onShardMoved(SampleShardMovedEvent evento) {
+        Long laboratoryId = references.laboratoryId(evento.getLaboratory());
+        if (laboratoryId == null) {
+            return;
+        }
+        int destino = evento.getToShard();
+        int movidos = 0;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            if (shard == destino) {
+                continue;
+            }
+            int origen = shard;
+            List<Map<String, Object>> pagina;
+            while (!(pagina = router.onShard(origen, () -> jdbc.queryForList(PAGINA_CHUNKS,
+                    Map.of("laboratoryId", laboratoryId)))).isEmpty()) {
+                List<Map<String, Object>> filas = pagina;
+                Map<String, Object> ids = Map.of("ids",
+                        filas.stream().map(f -> ((Number) f.get("ID")).longValue()).toList());
+                router.onShard(destino, () -> tx.execute(status -> {
+                    jdbc.update("delete from RESULT_CHUNK where id in (:ids)", ids);
+                    return copier.insertar("RESULT_CHUNK", filas, Set.of());
+                }));
+                router.onShard(origen, () -> tx.execute(status ->
+                        jdbc.update("delete from RESULT_CHUNK where id in (:ids)", ids)));
+                movidos += filas.size();
+            }
+        }
+        if (movidos > 0) {
+            log.info("🧩 {} chunks de resultados de '{}' movidos al shard {}", movidos,
+                    evento.getLaboratory(), destino);
+        }
+    }
+
+    // ============================================================
+    // Armado de chunks
+    // ============================================================
+
+    /** Serie = laboratorio + analito + día (la unidad de un chunk). */
+    private record Serie(String laboratory, Long laboratoryId, String analyte, LocalDate day) {
+    }
+
+    /** Divide columnas ya ordenadas en chunks de hasta maxPointsPerChunk puntos. */
+    private List<ResultChunk> chunks(Serie serie, ResultChunkCodec.Columns columnas) {
+        List<ResultChunk> chunks = new ArrayList<>();
+        for (int desde = 0; desde < columnas.size(); desde += maxPointsPerChunk) {
+            int hasta = Math.min(columnas.size(), desde + maxPointsPerChunk);
+            chunks.add(construir(serie.laboratoryId(), serie.analyte(), serie.day(), new ResultChunkCodec.Columns(
+                    Arrays.copyOfRange(columnas.times(), desde, hasta),
+                    Arrays.copyOfRange(columnas.values(), desde, hasta),
+                    Arrays.copyOfRange(columnas.sampleIds(), desde, hasta))));
+        }
+        return chunks;
+    }
+
+    private static ResultChunk construir(Long laboratoryId, String analyte, LocalDate day,
+            ResultChunkCodec.Columns c) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double suma = 0;
+        for (double v : c.values()) {
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            suma += v;
+        }
+        byte[] payload = ResultChunkCodec.encode(c);
+        ResultChunk chunk = new ResultChunk();
+        chunk.setLaboratoryId(laboratoryId);
+        chunk.setAnalyte(analyte);
+        chunk.setDay(day);
+        chunk.setStartAt(fecha(c.times()[0]));
+        chunk.setEndAt(fecha(c.times()[c.size() - 1]));
+        chunk.setPointCount(c.size());
+        chunk.setMinValue(min);
+        chunk.setMaxValue(max);
+        chunk.setSumValue(suma);
+        chunk.setPayloadBytes(payload.length);
+        chunk.setPayload(payload);
+        return chunk;
+    }
+
+    /** Puntos de una serie → columnas ordenadas por (tiempo, muestra). */
+    private static ResultChunkCodec.Columns columnas(List<ResultPoint> puntos) {
+        List<ResultPoint> ordenados = new ArrayList<>(puntos);
+        ordenados.sort(Comparator.comparing(ResultPoint::getMeasuredAt).thenComparing(ResultPoint::getSampleId));
+        int n = ordenados.size();
+        long[] t = new long[n];
+        double[] v = new double[n];
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ResultPoint p = ordenados.get(i);
+            t[i] = epochMillis(p.getMeasuredAt());
+            v[i] = p.getValue();
+            ids[i] = p.getSampleId();
+        }
+        return new ResultChunkCodec.Columns(t, v, ids);
+    }
+
+    /** Une y ordena los puntos de varios chunks. */
+    private static ResultChunkCodec.Columns unir(List<ResultChunk> chunks) {
+        List<ResultPoint> puntos = new ArrayList<>();
+        for (ResultChunk chunk : chunks) {
+            ResultChunkCodec.Columns c = ResultChunkCodec.decode(chunk.getPayload(), chunk.getPointCount());
+            for (int i = 0; i < c.size(); i++) {
+                puntos.add(new ResultPoint(c.sampleIds()[i], null, c.values()[i], fecha(c.times()[i])));
+            }
+        }
+        return columnas(puntos);
+    }
+
+    private Long laboratorio(String laboratory) {
+        Long id = references.laboratoryId(laboratory);
+        if (id == null) {
+            throw new ResourceNotFoundException("No existe el laboratorio: " + laboratory);
+        }
+        return id;
+    }
+
+    static long epochMillis(LocalDateTime fecha) {
+        return fecha.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime fecha(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
@@ -1,15 +1,38 @@
 package com.fullstack.clinica.sample.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid; // Semana 2 → para activar Bean Validation
 import lombok.extern.slf4j.Slf4j; // Semana 2 → logging profesional
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.exception.BadRequestException;
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.exception.ServiceUnavailableException;
+import com.fullstack.clinica.job.controller.JobController;
+import com.fullstack.clinica.job.model.Job;
+import com.fullstack.clinica.job.service.JobService;
 import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.model.SampleTransition;
+import com.fullstack.clinica.sample.service.SampleExportJobHandler;
+import com.fullstack.clinica.sample.service.SampleImportService;
+import com.fullstack.clinica.sample.service.SampleReadModel;
 import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sample.service.SampleStreamService;
+import com.fullstack.clinica.sample.service.SampleWorkQueueService;
+import com.fullstack.clinica.sync.model.ChangePage;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ===============================================================
@@ -32,9 +55,18 @@ import java.util.List;
 public class SampleController {
 
     private final SampleService service;
+    private final JobService jobService;
+    private final SampleStreamService streamService;
+    private final SampleReadModel readModel;
+    private final SampleWorkQueueService workQueue;
 
-    public SampleController(SampleService service) {
+    public SampleController(SampleService service, JobService jobService, SampleStreamService streamService,
+            SampleReadModel readModel, SampleWorkQueueService workQueue) {
         this.service = service;
+        this.jobService = jobService;
+        this.streamService = streamService;
+        this.readModel = readModel;
+        this.workQueue = workQueue;
     }
 
     @GetMapping
@@ -51,6 +83,17 @@ public class SampleController {
         return ResponseEntity.ok(laboratorio);
     }
 
+    /**
+     * Multi-get: GET /api/samples?ids=1,2,3 → muestras en el orden pedido
+     * más los IDs inexistentes en "missing" (a lo más 1000 IDs).
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResult<Sample>> obtenerPorIds(@RequestParam List<Long> ids) {
+        log.info("🔍 [GET] Buscando {} muestras por ID", ids.size());
+        BatchResult.checkRequest(ids);
+        return ResponseEntity.ok(service.findByIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<Sample> crear(@Valid @RequestBody Sample laboratorio) {
         log.info("📝 [POST] Creando laboratorio: {} - {}", laboratorio.getCode());
@@ -82,4 +125,169 @@ public class SampleController {
         }
         return ResponseEntity.ok(laboratorios);
     }
+
+    /**
+     * Sincronización incremental: GET /api/samples/changes y luego
+     * ?since={cursor} (todos los shards). 410 si el cursor venció.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<Sample>> cambios(@RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("🔄 [GET] Cambios de muestras desde: {}", since);
+        return ResponseEntity.ok(service.findChanges(since, limit));
+    }
+
+    // ============================================================
+    // Modelo de lectura en memoria (SampleReadModel)
+    // ============================================================
+
+    /**
+     * Listado con filtros opcionales servido desde el modelo de lectura
+     * por columnas, sin consultar la BD. 503 mientras se carga al arrancar.
+     */
+    @GetMapping("/view")
+    public ResponseEntity<List<Sample>> listarVista(@RequestParam(required = false) String laboratory,
+            @RequestParam(required = false) String technician,
+            @RequestParam(required = false) SampleStatus status,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "1000") int limit) {
+        log.info("🧮 [GET] Listado desde el modelo de lectura: lab={} técnico={} estado={}",
+                laboratory, technician, status);
+        if (!readModel.isReady()) {
+            throw new ServiceUnavailableException("El modelo de lectura de muestras se está cargando", 5);
+        }
+        return ResponseEntity.ok(readModel.find(laboratory, technician, status,
+                Math.max(offset, 0), Math.min(Math.max(limit, 1), 10_000)));
+    }
+
+    @GetMapping("/view/count")
+    public ResponseEntity<Map<String, Object>> contarVista(@RequestParam(required = false) String laboratory,
+            @RequestParam(required = false) String technician,
+            @RequestParam(required = false) SampleStatus status) {
+        if (!readModel.isReady()) {
+            throw new ServiceUnavailableException("El modelo de lectura de muestras se está cargando", 5);
+        }
+        Map<String, Object> respuesta = new HashMap<>();
+        respuesta.put("count", readModel.count(laboratory, technician, status));
+        return ResponseEntity.ok(respuesta);
+    }
+
+    // ============================================================
+    // Feed en tiempo real (Server-Sent Events)
+    // ============================================================
+
+    @GetMapping(value = "/laboratory/{laboratory}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String laboratory) {
+        log.info("📡 [GET] Suscripción SSE a las muestras del laboratorio: {}", laboratory);
+        return streamService.subscribe(laboratory);
+    }
+
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Object>> streamStats() {
+        return ResponseEntity.ok(streamService.stats());
+    }
+
+    // ============================================================
+    // Ciclo de vida de la muestra
+    // ============================================================
+
+    @PutMapping("/id/{id}/status/{status}")
+    public ResponseEntity<Sample> cambiarEstado(@PathVariable Long id, @PathVariable SampleStatus status) {
+        log.info("🔄 [PUT] Cambiando estado de la muestra {} a {}", id, status);
+        return ResponseEntity.ok(service.changeStatus(id, status));
+    }
+
+    @GetMapping("/id/{id}/history")
+    public ResponseEntity<List<SampleTransition>> historial(@PathVariable Long id) {
+        log.info("📜 [GET] Historial de estados de la muestra {}", id);
+        return ResponseEntity.ok(service.findHistory(id));
+    }
+
+    // ============================================================
+    // Cola de trabajo de los técnicos (reclamos con arriendo)
+    // ============================================================
+
+    @GetMapping("/queue")
+    public ResponseEntity<List<Sample>> colaDeTrabajo(@RequestParam String laboratory,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("📋 [GET] Cola de trabajo del laboratorio: {}", laboratory);
+        return ResponseEntity.ok(workQueue.pending(laboratory, limit));
+    }
+
+    /**
+     * Reclama muestras disponibles del laboratorio para el técnico (sin
+     * orden garantizado). Varios técnicos pueden reclamar a la vez sin
+     * repetirse.
+     */
+    @PostMapping("/claim")
+    public ResponseEntity<List<Sample>> reclamar(@RequestParam String laboratory, @RequestParam String technician,
+            @RequestParam(defaultValue = "1") int limit) {
+        log.info("🙋 [POST] {} reclama {} muestras del laboratorio {}", technician, limit, laboratory);
+        return ResponseEntity.ok(workQueue.claim(laboratory, technician, limit));
+    }
+
+    @PostMapping("/id/{id}/renew")
+    public ResponseEntity<Sample> renovarReclamo(@PathVariable Long id, @RequestParam String technician) {
+        log.info("⏳ [POST] {} renueva el reclamo de la muestra {}", technician, id);
+        return ResponseEntity.ok(workQueue.renew(id, technician));
+    }
+
+    @PostMapping("/id/{id}/release")
+    public ResponseEntity<Sample> liberar(@PathVariable Long id, @RequestParam String technician) {
+        log.info("↩️ [POST] {} libera la muestra {}", technician, id);
+        return ResponseEntity.ok(workQueue.release(id, technician));
+    }
+
+    // ============================================================
+    // Trabajos asíncronos (importación CSV y exportación)
+    // ============================================================
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Job> importar(@RequestParam("file") MultipartFile file) {
+        log.info("📥 [POST] Importando muestras desde CSV: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        if (file.isEmpty()) {
+            throw new BadRequestException("El archivo CSV está vacío");
+        }
+        Map<String, String> params = new HashMap<>();
+        params.put("fileName", file.getOriginalFilename());
+        Job job = jobService.submit(SampleImportService.TYPE, params, file::getInputStream);
+        return aceptado(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Job> estadoImportacion(@PathVariable String jobId) {
+        log.info("📥 [GET] Estado de la importación {}", jobId);
+        return ResponseEntity.ok(importacion(jobId));
+    }
+
+    @GetMapping("/import/{jobId}/errors")
+    public void erroresImportacion(@PathVariable String jobId, HttpServletResponse response) throws IOException {
+        log.info("📥 [GET] Reporte de errores de la importación {}", jobId);
+        JobController.descargar(jobService, importacion(jobId), "errores-" + jobId + ".csv", response);
+    }
+
+    @PostMapping("/export")
+    public ResponseEntity<Job> exportar(@RequestParam(required = false) String laboratory) {
+        log.info("📤 [POST] Exportando muestras{}", laboratory != null ? " del laboratorio " + laboratory : "");
+        Map<String, String> params = new HashMap<>();
+        if (laboratory != null) {
+            params.put("laboratory", laboratory);
+        }
+        return aceptado(jobService.submit(SampleExportJobHandler.TYPE, params));
+    }
+
+    /** El trabajo, solo si es una importación de muestras. */
+    private Job importacion(String jobId) {
+        Job job = jobService.findById(jobId);
+        if (!SampleImportService.TYPE.equals(job.getType())) {
+            throw new ResourceNotFoundException("No existe la importación con ID: " + jobId);
+        }
+        return job;
+    }
+
+    private ResponseEntity<Job> aceptado(Job job) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/jobs/" + job.getId())
+                .body(job);
+    }
 }
@@ -0,0 +1,63 @@
+package com.fullstack.clinica.sample.controller;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.user.model.User;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleGraphQlController
+ * ---------------------------------------------------------------
+ * Muestras en /graphql. Sample guarda el laboratorio y el técnico
+ * por nombre: SampleReferences los traduce a ID en memoria y el
+ * DataLoader de cada tipo los carga en lote (técnico y paciente
+ * comparten el de usuarios).
+ * ===============================================================
+ */
+@Slf4j
+@Controller
+public class SampleGraphQlController {
+
+    private final SampleReferences references;
+
+    public SampleGraphQlController(SampleReferences references) {
+        this.references = references;
+    }
+
+    @QueryMapping
+    public CompletableFuture<Sample> sample(@Argument Long id, DataLoader<Long, Sample> muestras) {
+        log.info("🔷 [GraphQL] Muestra con ID: {}", id);
+        return muestras.load(id);
+    }
+
+    @SchemaMapping
+    public CompletableFuture<Laboratory> laboratory(Sample muestra, DataLoader<Long, Laboratory> laboratorios) {
+        return cargar(laboratorios, references.laboratoryId(muestra.getLaboratory()));
+    }
+
+    @SchemaMapping
+    public CompletableFuture<User> technician(Sample muestra, DataLoader<Long, User> usuarios) {
+        // El ID leído de la fila: por nombre, un homónimo lo volvería ambiguo
+        Long id = muestra.getTechnicianId();
+        return cargar(usuarios, id != null ? id : references.technicianId(muestra.getTechnician()));
+    }
+
+    @SchemaMapping
+    public CompletableFuture<User> patient(Sample muestra, DataLoader<Long, User> usuarios) {
+        return cargar(usuarios, muestra.getPatientId());
+    }
+
+    private static <T> CompletableFuture<T> cargar(DataLoader<Long, T> loader, Long id) {
+        return id != null ? loader.load(id) : CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.fullstack.clinica.sample.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.fullstack.clinica.sample.service.SampleReadModel;
+
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReadModelController
+ * ---------------------------------------------------------------
+ * API administrativa del modelo de lectura de muestras:
+ * tamaño y memoria estimada. La comparación con el camino JPA es
+ * SampleReadModelBenchmark (src/test).
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/read-model")
+public class SampleReadModelController {
+
+    private final SampleReadModel readModel;
+
+    public SampleReadModelController(SampleReadModel readModel) {
+        this.readModel = readModel;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> estadisticas() {
+        log.info("🧮 [GET] Estadísticas del modelo de lectura");
+        Map<String, Object> stats = readModel.stats();
+        stats.put("byLaboratory", readModel.countByLaboratory());
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,49 @@
+package com.fullstack.clinica.sample.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sample.service.ShardRebalanceService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleShardController
+ * ---------------------------------------------------------------
+ * API administrativa del particionado de muestras por laboratorio:
+ * consultar el mapa de shards y mover un laboratorio a otro shard.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/shards")
+public class SampleShardController {
+
+    private final SampleShardRouter router;
+    private final ShardRebalanceService rebalanceService;
+
+    public SampleShardController(SampleShardRouter router, ShardRebalanceService rebalanceService) {
+        this.router = router;
+        this.rebalanceService = rebalanceService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> mapa() {
+        log.info("🧩 [GET] Consultando mapa de shards");
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("enabled", router.isEnabled());
+        respuesta.put("shards", router.shardCount());
+        respuesta.put("assignments", router.assignments());
+        return ResponseEntity.ok(respuesta);
+    }
+
+    @PutMapping("/{laboratory}/{shard}")
+    public ResponseEntity<Map<String, Object>> mover(@PathVariable String laboratory, @PathVariable int shard) {
+        log.info("🧩 [PUT] Moviendo laboratorio '{}' al shard {}", laboratory, shard);
+        return ResponseEntity.ok(rebalanceService.move(laboratory, shard));
+    }
+}
@@ -0,0 +1,31 @@
+package com.fullstack.clinica.sample.event;
+
+import com.fullstack.clinica.sample.model.Sample;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleChangedEvent
+ * ---------------------------------------------------------------
+ * Evento que publica SampleService cada vez que una muestra se crea,
+ * se modifica, cambia de estado o se elimina. Los listeners lo reciben
+ * después del commit (feed SSE, modelos de lectura, etc.).
+ * ===============================================================
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SampleChangedEvent {
+
+    public enum Tipo { CREADA, ACTUALIZADA, ESTADO, ELIMINADA }
+
+    private final Tipo tipo;
+    private final Long sampleId;
+    private final String laboratory;
+
+    // Estado de la muestra tras el cambio (null si fue eliminada)
+    private final Sample sample;
+}
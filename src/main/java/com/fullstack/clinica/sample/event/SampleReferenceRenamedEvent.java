@@ -0,0 +1,41 @@
+package com.fullstack.clinica.sample.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReferenceRenamedEvent
+ * ---------------------------------------------------------------
+ * Evento que publica SampleReferences cuando cambia el nombre de un
+ * laboratorio o de un técnico referenciado por las muestras.
+ *
+ * SAMPLE guarda solo los IDs, así que la BD ya está al día; el evento
+ * es para lo que se indexa por nombre en memoria (mapa de shards,
+ * modelo de lectura, histogramas de turnaround).
+ *
+ * remote = true: el renombre se hizo en otro nodo y este lo detectó al
+ * refrescar; solo corresponde corregir lo que está en memoria.
+ * ===============================================================
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SampleReferenceRenamedEvent {
+
+    public enum Tipo {
+        LABORATORIO,
+        TECNICO
+    }
+
+    private final Tipo tipo;
+    private final Long id;
+    private final String oldName;
+    private final String newName;
+    private final boolean remote;
+
+    public SampleReferenceRenamedEvent(Tipo tipo, Long id, String oldName, String newName) {
+        this(tipo, id, oldName, newName, false);
+    }
+}
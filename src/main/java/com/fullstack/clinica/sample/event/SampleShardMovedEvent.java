@@ -0,0 +1,26 @@
+package com.fullstack.clinica.sample.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleShardMovedEvent
+ * ---------------------------------------------------------------
+ * Evento que publica ShardRebalanceService cuando ya movió las
+ * muestras de un laboratorio a otro shard (con sus mismos IDs), antes
+ * de levantar el bloqueo de escrituras: quien guarde datos del
+ * laboratorio en su shard los mueve aquí. Se vuelve a publicar si el
+ * movimiento se reanuda, así que los listeners deben ser idempotentes.
+ * ===============================================================
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SampleShardMovedEvent {
+
+    private final String laboratory;
+    private final int fromShard;
+    private final int toShard;
+}
@@ -0,0 +1,31 @@
+package com.fullstack.clinica.sample.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SamplesHeldEvent
+ * ---------------------------------------------------------------
+ * Evento que publica SampleService tras retener (o liberar) en bloque
+ * las muestras pendientes de un laboratorio, con un solo UPDATE.
+ * Reemplaza a un SampleChangedEvent por fila: los listeners aplican
+ * la misma regla sobre las muestras del laboratorio.
+ *
+ * - heldAt != null → las pendientes sin retener quedan retenidas desde
+ *   heldAt y pierden su reclamo de la cola de trabajo.
+ * - heldAt == null → todas las retenidas del laboratorio se liberan.
+ * ===============================================================
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SamplesHeldEvent {
+
+    private final String laboratory;
+    private final LocalDateTime heldAt;
+    private final int count;
+}
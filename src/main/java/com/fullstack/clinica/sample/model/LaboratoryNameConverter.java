@@ -0,0 +1,32 @@
+package com.fullstack.clinica.sample.model;
+
+import com.fullstack.clinica.sample.service.SampleReferences;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Sample.laboratory (nombre del laboratorio) ↔ columna laboratory_id (FK a LABORATORY).
+ * Hibernate lo instancia como bean de Spring para poder usar el
+ * directorio {@link SampleReferences}. Un nombre desconocido se traduce
+ * a null: en una consulta no coincide con ninguna fila.
+ */
+@Converter
+public class LaboratoryNameConverter implements AttributeConverter<String, Long> {
+
+    private final SampleReferences references;
+
+    public LaboratoryNameConverter(SampleReferences references) {
+        this.references = references;
+    }
+
+    @Override
+    public Long convertToDatabaseColumn(String nombre) {
+        return references.laboratoryId(nombre);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long id) {
+        return references.laboratoryName(id);
+    }
+}
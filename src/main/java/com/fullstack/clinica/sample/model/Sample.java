@@ -2,12 +2,39 @@ package com.fullstack.clinica.sample.model;
 
 import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
 import jakarta.validation.constraints.*; // Bean Validation (validaciones en los atributos)
+import lombok.AccessLevel;
 import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fullstack.clinica.sync.model.ChangeTracked;
+import com.fullstack.clinica.sync.service.ChangeSeqListener;
 
 @Data // Lombok → genera automáticamente getters/setters/toString
 @Entity // Indica que esta clase se mapea a una tabla en la BD
-@Table(name = "SAMPLE") // Nombre explícito de la tabla en Oracle
-public class Sample {
+@Table(name = "SAMPLE", indexes = { // Nombre explícito de la tabla en Oracle
+        @Index(name = "IX_SAMPLE_LABORATORY", columnList = "laboratory_id, status, id"),
+        @Index(name = "IX_SAMPLE_TECHNICIAN", columnList = "technician_id"),
+        // Historial del paciente: se recorre al revés (más reciente primero) sin ordenar
+        @Index(name = "IX_SAMPLE_PATIENT", columnList = "patient_id, collected_at, id"),
+        // GET /api/samples/changes recorre por keyset (change_seq, id) en cada shard
+        @Index(name = "IX_SAMPLE_CHANGE", columnList = "change_seq, id"),
+        // Duplicados de código sin distinguir mayúsculas: búsqueda IN por índice y unicidad por shard
+        @Index(name = "UX_SAMPLE_CODE_KEY", columnList = "code_key", unique = true)
+})
+@EntityListeners(ChangeSeqListener.class)
+// Solo las columnas cambiadas: el técnico de una muestra ya guardada no se vuelve a
+// traducir de nombre a ID (un homónimo posterior lo haría ambiguo)
+@DynamicUpdate
+public class Sample implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,16 +45,87 @@ public class Sample {
     @Column(nullable = false, length = 50)
     private String code;
 
+    // Código en mayúsculas (lo fija setCode): H2 no admite índices por upper(code)
+    @Column(name = "code_key", length = 50)
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String codeKey;
+
     @NotBlank(message = "La descripción es obligatoria")
     @Size(min = 5, max = 100, message = "La descripción debe tener entre 5 y 100 caracteres")
     @Column(nullable = false, length = 100)
     private String description;
 
-    // Snapshot del técnico que tomó la muestra
-    @Column(name = "technician", nullable = false, length = 100)
+    // Técnico que tomó la muestra: FK a USERC (la API usa su nombre completo)
+    @Convert(converter = TechnicianNameConverter.class)
+    @Column(name = "technician_id", nullable = false)
     private String technician;
 
-    // Snapshot del labotatorio asociado
-    @Column(name = "laboratory", nullable = false, length = 100)
+    // Misma columna, como ID (solo lectura; se escribe con el nombre de arriba)
+    @Column(name = "technician_id", insertable = false, updatable = false)
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private Long technicianId;
+
+    // Laboratorio asociado: FK a LABORATORY (la API usa su nombre)
+    @Convert(converter = LaboratoryNameConverter.class)
+    @Column(name = "laboratory_id", nullable = false)
     private String laboratory;
+
+    // Paciente dueño de la muestra: FK a USERC (usuario con rol PACIENTE, opcional)
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    // Momento de la toma; si no se informa, se usa el de recepción
+    @Column(name = "collected_at")
+    private LocalDateTime collectedAt;
+
+    // ============================================================
+    // Ciclo de vida (lo administra SampleService, no el cliente)
+    // ============================================================
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private SampleStatus status;
+
+    @Column(name = "received_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "reported_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime reportedAt;
+
+    // ============================================================
+    // Cola de trabajo (reclamos con arriendo, ver SampleWorkQueueService)
+    // ============================================================
+    @Column(name = "claimed_by", length = 100)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime leaseUntil;
+
+    // Retenida desde que su laboratorio se desactivó (solo pendientes; se omite si es null)
+    @Column(name = "held_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime heldAt;
+
+    // Número del último cambio: lo fija ChangeSeqListener (sincronización incremental)
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    @JsonIgnore
+    private Long changeSeq;
+
+    public void setCode(String code) {
+        this.code = code;
+        this.codeKey = normalizarCodigo(code);
+    }
+
+    /** Forma en que se comparan los códigos (la de code_key). */
+    public static String normalizarCodigo(String code) {
+        return code != null ? code.toUpperCase(Locale.ROOT) : null;
+    }
 }
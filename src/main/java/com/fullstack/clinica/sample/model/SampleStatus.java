@@ -0,0 +1,48 @@
+package com.fullstack.clinica.sample.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * ===============================================================
+ * 📘 Enum: SampleStatus
+ * ---------------------------------------------------------------
+ * Ciclo de vida de una muestra dentro del laboratorio.
+ *
+ * RECIBIDA → EN_PROCESO → VALIDADA → INFORMADA
+ *
+ * - Una muestra validada puede volver a EN_PROCESO (repetición del análisis).
+ * - INFORMADA es un estado final: ya se entregó el resultado.
+ * ===============================================================
+ */
+public enum SampleStatus {
+
+    RECIBIDA,
+    EN_PROCESO,
+    VALIDADA,
+    INFORMADA;
+
+    /**
+     * Estados a los que se puede avanzar desde el estado actual.
+     */
+    public Set<SampleStatus> siguientes() {
+        return switch (this) {
+            case RECIBIDA -> EnumSet.of(EN_PROCESO);
+            case EN_PROCESO -> EnumSet.of(VALIDADA);
+            case VALIDADA -> EnumSet.of(INFORMADA, EN_PROCESO);
+            case INFORMADA -> EnumSet.noneOf(SampleStatus.class);
+        };
+    }
+
+    public boolean puedePasarA(SampleStatus destino) {
+        return siguientes().contains(destino);
+    }
+
+    /**
+     * Estados en que la muestra aún espera trabajo: son las que se
+     * retienen cuando su laboratorio se desactiva.
+     */
+    public static Set<SampleStatus> pendientes() {
+        return EnumSet.of(RECIBIDA, EN_PROCESO);
+    }
+}
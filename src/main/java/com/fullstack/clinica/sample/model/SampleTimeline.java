@@ -0,0 +1,58 @@
+package com.fullstack.clinica.sample.model;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleTimeline
+ * ---------------------------------------------------------------
+ * Una página del historial de muestras de un paciente (más reciente
+ * primero):
+ *
+ * {
+ *   "items":      [ ...muestras... ],
+ *   "nextCursor": "MjAyNi0xMC0xOVQxMDowMDp8NDI"   (null en la última página)
+ * }
+ *
+ * El cursor es opaco para el cliente: codifica la (collectedAt, id) de
+ * la última muestra entregada. La página siguiente empieza justo
+ * después, sin OFFSET, así que cuesta lo mismo en la página 1 que en
+ * la 100 y no repite ni salta muestras si entran nuevas mientras se
+ * recorre.
+ * ===============================================================
+ */
+@Data
+public class SampleTimeline {
+
+    private final List<Sample> items;
+    private final String nextCursor;
+
+    /** Posición de una muestra en el historial. */
+    public record Cursor(LocalDateTime collectedAt, Long id) {
+
+        public static Cursor of(Sample muestra) {
+            return new Cursor(muestra.getCollectedAt(), muestra.getId());
+        }
+
+        public String encode() {
+            String valor = collectedAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** @throws IllegalArgumentException si el texto no es un cursor válido */
+        public static Cursor decode(String cursor) {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new Cursor(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        }
+    }
+}
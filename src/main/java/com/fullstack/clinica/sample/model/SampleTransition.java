@@ -0,0 +1,41 @@
+package com.fullstack.clinica.sample.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro append-only de los cambios de estado de una muestra.
+ * Nunca se actualiza ni se elimina: cada transición es una fila nueva.
+ */
+@Data
+@Entity
+@Table(name = "SAMPLE_TRANSITION", indexes = {
+        @Index(name = "IDX_SAMPLE_TRANSITION_SAMPLE", columnList = "sample_id")
+})
+public class SampleTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sample_id", nullable = false, updatable = false)
+    private Long sampleId;
+
+    // Snapshot del laboratorio al momento de la transición
+    @Column(name = "laboratory", nullable = false, length = 100, updatable = false)
+    private String laboratory;
+
+    // Null en la transición inicial (creación de la muestra)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20, updatable = false)
+    private SampleStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20, updatable = false)
+    private SampleStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,35 @@
+package com.fullstack.clinica.sample.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+import java.time.LocalDateTime;
+
+/**
+ * Mapa laboratorio → shard donde se guardan sus muestras.
+ * Vive siempre en el shard 0 (BD principal).
+ *
+ * Mientras el laboratorio se mueve de shard, moving_to guarda el
+ * destino: es el bloqueo de escrituras (lo ven todos los nodos) y
+ * sobrevive a una caída hasta que el movimiento se reanude.
+ */
+@Data
+@Entity
+@Table(name = "SAMPLE_SHARD_MAP")
+public class ShardAssignment {
+
+    @Id
+    @Column(name = "laboratory", length = 100)
+    private String laboratory;
+
+    @Column(name = "shard", nullable = false)
+    private Integer shard;
+
+    // Shard destino de un movimiento en curso (null = sin movimiento)
+    @Column(name = "moving_to")
+    private Integer movingTo;
+
+    // Última renovación del movimiento; vencida, otro nodo puede reanudarlo
+    @Column(name = "moving_since")
+    private LocalDateTime movingSince;
+}
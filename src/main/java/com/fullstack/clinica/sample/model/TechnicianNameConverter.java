@@ -0,0 +1,32 @@
+package com.fullstack.clinica.sample.model;
+
+import com.fullstack.clinica.sample.service.SampleReferences;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Sample.technician (nombre del técnico) ↔ columna technician_id (FK a USERC).
+ * Hibernate lo instancia como bean de Spring para poder usar el
+ * directorio {@link SampleReferences}. Un nombre desconocido se traduce
+ * a null: en una consulta no coincide con ninguna fila.
+ */
+@Converter
+public class TechnicianNameConverter implements AttributeConverter<String, Long> {
+
+    private final SampleReferences references;
+
+    public TechnicianNameConverter(SampleReferences references) {
+        this.references = references;
+    }
+
+    @Override
+    public Long convertToDatabaseColumn(String nombre) {
+        return references.technicianId(nombre);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long id) {
+        return references.technicianName(id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.fullstack.clinica.sample.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * ===============================================================
+ * 📘 Clase: TurnaroundStats
+ * ---------------------------------------------------------------
+ * DTO con los percentiles de turnaround (recepción → informe) de un
+ * laboratorio. Todos los tiempos están expresados en minutos.
+ * ===============================================================
+ */
+@Data
+@AllArgsConstructor
+public class TurnaroundStats {
+
+    private String laboratory;
+    private long count;
+    private double p50Minutes;
+    private double p90Minutes;
+    private double p95Minutes;
+    private double p99Minutes;
+    private double maxMinutes;
+}
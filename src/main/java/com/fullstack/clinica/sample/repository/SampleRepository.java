@@ -1,11 +1,22 @@
 package com.fullstack.clinica.sample.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.fullstack.clinica.resilience.QueryTimeouts;
 import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * ===============================================================
@@ -35,5 +46,170 @@ public interface SampleRepository extends JpaRepository<Sample, Long> {
      * @param laboratory (ACTIVA, INACTIVA, PROCESADA).
      * @return Lista de laboratorios que pertenecen al estado indicado.
      */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
     List<Sample> findByLaboratory(String laboratory);
+
+    /**
+     * Métodos heredados redeclarados solo para fijarles un timeout.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Override
+    List<Sample> findAll();
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    @Override
+    Optional<Sample> findById(Long id);
+
+    /**
+     * Alguna muestra que referencie al laboratorio / técnico (antes de
+     * eliminarlo, como haría la FK). Por ID: entre homónimos el nombre
+     * no resuelve a ninguno.
+     */
+    @Query(value = "select id from SAMPLE where laboratory_id = :laboratoryId fetch first 1 rows only",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    List<Long> findAnyByLaboratoryId(Long laboratoryId);
+
+    @Query(value = "select id from SAMPLE where technician_id = :technicianId fetch first 1 rows only",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    List<Long> findAnyByTechnicianId(Long technicianId);
+
+    @Query(value = "select id from SAMPLE where patient_id = :patientId fetch first 1 rows only",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    List<Long> findAnyByPatientId(Long patientId);
+
+    /**
+     * Historial de un paciente por keyset (toma más reciente primero):
+     * la primera página y las siguientes, a partir de la última
+     * (collectedAt, id) entregada.
+     *
+     * Para que la BD recorra IX_SAMPLE_PATIENT hacia atrás en vez de
+     * ordenar todas las muestras del paciente: el ORDER BY incluye
+     * patientId y el "collectedAt <=" acota el rango del índice (el OR
+     * solo descarta los empates ya entregados).
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select s from Sample s where s.patientId = :patientId "
+            + "order by s.patientId desc, s.collectedAt desc, s.id desc")
+    List<Sample> findTimeline(Long patientId, Limit limit);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select s from Sample s where s.patientId = :patientId and s.collectedAt <= :collectedAt "
+            + "and (s.collectedAt < :collectedAt or s.id < :id) "
+            + "order by s.patientId desc, s.collectedAt desc, s.id desc")
+    List<Sample> findTimelineBefore(Long patientId, LocalDateTime collectedAt, Long id, Limit limit);
+
+    /**
+     * Multi-get: entidades cuyos ids están en la lista (a lo más 1000,
+     * ver BatchResult).
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<Sample> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Las {@code limite} muestras más recientes (id decreciente) de cada
+     * laboratorio de la lista, en una sola consulta: ROW_NUMBER() por
+     * laboratorio sobre IX_SAMPLE_LABORATORY. A lo más 1000 laboratorios.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query(value = "select * from (select s.*, row_number() over (partition by s.laboratory_id order by s.id desc) rn "
+            + "from SAMPLE s where s.laboratory_id in (:laboratoryIds) and s.status in (:estados)) t "
+            + "where t.rn <= :limite", nativeQuery = true)
+    List<Sample> findLatestByLaboratoryIdIn(Collection<Long> laboratoryIds, Collection<String> estados, int limite);
+
+    /**
+     * Recorrido por keyset (id creciente) en páginas de 1000 filas.
+     * Lo usan las exportaciones para no cargar la tabla completa.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<Sample> findTop1000ByIdGreaterThanOrderByIdAsc(Long id);
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<Sample> findTop1000ByLaboratoryAndIdGreaterThanOrderByIdAsc(String laboratory, Long id);
+
+    /**
+     * Devuelve cuáles de los códigos indicados (en mayúsculas) ya existen,
+     * por UX_SAMPLE_CODE_KEY (code_key = upper(code)): no recorre la tabla.
+     * Oracle admite hasta 1000 elementos en el IN: quien llama debe
+     * respetar ese tamaño de lote.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select s.codeKey from Sample s where s.codeKey in :codes")
+    List<String> findExistingCodes(Collection<String> codes);
+
+    /**
+     * Muestras con los códigos indicados (en mayúsculas), por UX_SAMPLE_CODE_KEY.
+     * Mismo límite de 1000 elementos en el IN.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<Sample> findByCodeKeyIn(Collection<String> codes);
+
+    /**
+     * Devuelve (id, laboratorio, recepción, informe) de las muestras ya
+     * informadas con ID mayor al indicado, por keyset sobre la PK.
+     * Solo se usa al arrancar para reconstruir los histogramas de
+     * turnaround, de a una página por vez.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select s.id, s.laboratory, s.receivedAt, s.reportedAt from Sample s "
+            + "where s.id > :id and s.receivedAt is not null and s.reportedAt is not null order by s.id")
+    List<Object[]> findTurnaroundRows(Long id, Limit limit);
+
+    /**
+     * Cola de trabajo: muestras del laboratorio en el estado indicado sin
+     * dueño o con el arriendo vencido, por ID (solo lectura; el reclamo en
+     * sí lo hace SampleWorkQueueService con SKIP LOCKED, sin ORDER BY).
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select s from Sample s where s.laboratory = :laboratory and s.status = :status "
+            + "and s.heldAt is null and (s.claimedBy is null or s.leaseUntil < :ahora) order by s.id")
+    List<Sample> findClaimable(String laboratory, SampleStatus status, LocalDateTime ahora, Limit limit);
+
+    /**
+     * Retiene en una sola sentencia las muestras pendientes del laboratorio
+     * (estado en pendientes, o sin estado) y suelta sus reclamos.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("update Sample s set s.heldAt = :ahora, s.claimedBy = null, s.leaseUntil = null, s.changeSeq = :seq "
+            + "where s.laboratory = :laboratory and (s.status in :pendientes or s.status is null) "
+            + "and s.heldAt is null")
+    int holdPending(String laboratory, Collection<SampleStatus> pendientes, LocalDateTime ahora, long seq);
+
+    /**
+     * Libera en una sola sentencia las muestras retenidas del laboratorio.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("update Sample s set s.heldAt = null, s.changeSeq = :seq "
+            + "where s.laboratory = :laboratory and s.heldAt is not null")
+    int releaseHeld(String laboratory, long seq);
+
+    /**
+     * El JSON de una muestra lleva el nombre de su laboratorio y de su
+     * técnico: al renombrarlos, sus muestras vuelven a salir en
+     * /api/samples/changes (un UPDATE por shard, por IX_SAMPLE_LABORATORY
+     * / IX_SAMPLE_TECHNICIAN).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query(value = "update SAMPLE set change_seq = :seq where laboratory_id = :laboratoryId", nativeQuery = true)
+    int touchByLaboratoryId(Long laboratoryId, long seq);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query(value = "update SAMPLE set change_seq = :seq where technician_id = :technicianId", nativeQuery = true)
+    int touchByTechnicianId(Long technicianId, long seq);
+
+    /**
+     * Sincronización incremental (GET /api/samples/changes): filas con (changeSeq, id)
+     * posterior al cursor y visibles (changeSeq <= hasta), recorriendo
+     * IX_SAMPLE_CHANGE en el shard actual.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select s from Sample s where s.changeSeq >= :seq and s.changeSeq <= :hasta "
+            + "and (s.changeSeq > :seq or s.id > :id) order by s.changeSeq, s.id")
+    List<Sample> findChangedSince(long seq, long id, long hasta, Limit limit);
 }
@@ -0,0 +1,40 @@
+package com.fullstack.clinica.sample.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.clinica.resilience.QueryTimeouts;
+import com.fullstack.clinica.sample.model.SampleTransition;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Interfaz: SampleTransitionRepository
+ * ---------------------------------------------------------------
+ * Acceso al historial (append-only) de cambios de estado de muestras.
+ * Solo se insertan filas; nunca se eliminan y solo se actualiza el
+ * nombre del laboratorio cuando este se renombra.
+ * ===============================================================
+ */
+@Repository
+public interface SampleTransitionRepository extends JpaRepository<SampleTransition, Long> {
+
+    /**
+     * Historial completo de una muestra, en orden cronológico.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<SampleTransition> findBySampleIdOrderByChangedAtAscIdAsc(Long sampleId);
+
+    /**
+     * El laboratorio se renombró: su historial guarda el nombre nuevo.
+     */
+    @Modifying
+    @Query("update SampleTransition t set t.laboratory = :nuevo where t.laboratory = :anterior")
+    int renameLaboratory(String anterior, String nuevo);
+}
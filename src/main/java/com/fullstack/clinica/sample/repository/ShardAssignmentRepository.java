@@ -0,0 +1,52 @@
+package com.fullstack.clinica.sample.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.clinica.sample.model.ShardAssignment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Acceso al mapa de shards. Se lee al arrancar, antes de cada escritura
+ * de muestras (bloqueo de rebalanceo) y al rebalancear.
+ */
+@Repository
+public interface ShardAssignmentRepository extends JpaRepository<ShardAssignment, String> {
+
+    /**
+     * Reclama el movimiento del laboratorio: solo si no hay otro en curso,
+     * o si el mismo movimiento quedó abandonado (renovación vencida).
+     */
+    @Modifying
+    @Query("update ShardAssignment a set a.movingTo = :destino, a.movingSince = :ahora "
+            + "where a.laboratory = :laboratory and (a.movingTo is null "
+            + "or (a.movingTo = :destino and a.movingSince < :vencido))")
+    int claimMove(String laboratory, int destino, LocalDateTime ahora, LocalDateTime vencido);
+
+    /**
+     * Renueva el movimiento en curso (lo hace quien lo reclamó, por página).
+     */
+    @Modifying
+    @Query("update ShardAssignment a set a.movingSince = :ahora "
+            + "where a.laboratory = :laboratory and a.movingTo = :destino")
+    int renewMove(String laboratory, int destino, LocalDateTime ahora);
+
+    /**
+     * Apunta el laboratorio al shard destino sin levantar el bloqueo.
+     */
+    @Modifying
+    @Query("update ShardAssignment a set a.shard = :destino "
+            + "where a.laboratory = :laboratory and a.movingTo = :destino")
+    int reassign(String laboratory, int destino);
+
+    /**
+     * Termina el movimiento: levanta el bloqueo de escrituras.
+     */
+    @Modifying
+    @Query("update ShardAssignment a set a.movingTo = null, a.movingSince = null "
+            + "where a.laboratory = :laboratory and a.movingTo = :destino")
+    int finishMove(String laboratory, int destino);
+}
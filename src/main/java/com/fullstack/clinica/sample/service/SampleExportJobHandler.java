@@ -0,0 +1,69 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.common.CsvLineParser;
+import com.fullstack.clinica.job.service.JobContext;
+import com.fullstack.clinica.job.service.JobHandler;
+import com.fullstack.clinica.sample.model.Sample;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleExportJobHandler
+ * ---------------------------------------------------------------
+ * Trabajo SAMPLE_EXPORT: genera un CSV con todas las muestras (o las
+ * de un laboratorio, parámetro "laboratory") fuera del hilo de la
+ * petición. Recorre la tabla por keyset en páginas de 1000 filas; cada
+ * página es un tramo del resultado. Sin checkpoint: si se retoma en
+ * otro nodo, se repite desde el inicio.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class SampleExportJobHandler implements JobHandler {
+
+    public static final String TYPE = "SAMPLE_EXPORT";
+
+    private final SampleService sampleService;
+
+    public SampleExportJobHandler(SampleService sampleService) {
+        this.sampleService = sampleService;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void execute(JobContext context) {
+        String laboratory = context.param("laboratory");
+        log.info("📤 Exportando muestras{}", laboratory != null ? " del laboratorio " + laboratory : "");
+
+        context.resultType("text/csv");
+        String cabecera = "id,code,description,technician,laboratory,status,receivedAt,reportedAt\n";
+        AtomicBoolean primera = new AtomicBoolean(true);
+        sampleService.forEachPage(laboratory, pagina -> {
+            context.checkCancelled();
+            StringBuilder out = new StringBuilder(primera.getAndSet(false) ? cabecera : "");
+            for (Sample s : pagina) {
+                out.append(s.getId()).append(',').append(CsvLineParser.escape(s.getCode())).append(',')
+                        .append(CsvLineParser.escape(s.getDescription())).append(',')
+                        .append(CsvLineParser.escape(s.getTechnician())).append(',')
+                        .append(CsvLineParser.escape(s.getLaboratory())).append(',')
+                        .append(Objects.toString(s.getStatus(), "")).append(',')
+                        .append(Objects.toString(s.getReceivedAt(), "")).append(',')
+                        .append(Objects.toString(s.getReportedAt(), "")).append('\n');
+            }
+            context.commit(out.toString(), pagina.size(), pagina.size(), 0, 0);
+        });
+        if (primera.get()) {
+            context.commit(cabecera, 0, 0, 0, 0);
+        }
+        context.message("Exportación completada");
+    }
+}
@@ -0,0 +1,282 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.common.CsvLineParser;
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.job.service.JobContext;
+import com.fullstack.clinica.job.service.JobHandler;
+import com.fullstack.clinica.sample.model.Sample;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleImportService
+ * ---------------------------------------------------------------
+ * Importación masiva de muestras desde un CSV (trabajo SAMPLE_IMPORT).
+ *
+ * - El archivo se lee línea a línea: en memoria solo hay un lote
+ *   (clinica.import.chunk-size filas), sin importar el tamaño del CSV.
+ * - Cada lote se valida (Bean Validation) en paralelo en todos los núcleos.
+ * - Laboratorio y técnico deben existir (SampleReferences); si no, la
+ *   fila se rechaza igual que una validación fallida.
+ * - Los duplicados se detectan con una sola consulta IN por lote.
+ * - Las filas válidas se guardan en una transacción por lote y laboratorio.
+ * - Las filas rechazadas de cada lote son un tramo del CSV de errores,
+ *   el resultado descargable del trabajo (GET /api/jobs/{id}/result o
+ *   GET /api/samples/import/{jobId}/errors).
+ *
+ * Reanudable: tras cada lote se guarda la última línea procesada como
+ * checkpoint, junto con los contadores y los errores del lote. Si otro
+ * nodo retoma el trabajo, salta las líneas ya procesadas. El lote que
+ * estaba en curso pudo quedar guardado en parte (una transacción por
+ * laboratorio): al repetirlo, una muestra existente idéntica a la fila
+ * cuenta como importada, no como duplicada.
+ *
+ * Columnas esperadas (cabecera obligatoria, en cualquier orden):
+ * code, description, technician, laboratory
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class SampleImportService implements JobHandler {
+
+    public static final String TYPE = "SAMPLE_IMPORT";
+
+    private static final int MAX_IN_LIST = 1000;
+    private static final List<String> COLUMNAS = List.of("code", "description", "technician", "laboratory");
+
+    private final SampleService sampleService;
+    private final Validator validator;
+    private final SampleReferences references;
+    private final int chunkSize;
+
+    public SampleImportService(SampleService sampleService, Validator validator, SampleReferences references,
+            @Value("${clinica.import.chunk-size:500}") int chunkSize) {
+        this.sampleService = sampleService;
+        this.validator = validator;
+        this.references = references;
+        this.chunkSize = Math.min(chunkSize, MAX_IN_LIST);
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    // ============================================================
+    // Procesamiento
+    // ============================================================
+
+    @Override
+    public void execute(JobContext context) throws IOException {
+        long desde = context.checkpoint();
+        log.info("📥 Procesando importación {} ({}){}", context.getJobId(), context.param("fileName"),
+                desde > 0 ? " desde la línea " + (desde + 1) : "");
+        if (!Files.exists(context.inputFile())) {
+            throw new IllegalStateException("La importación no tiene archivo de entrada");
+        }
+
+        context.resultType("text/csv");
+        Progreso progreso = new Progreso(desde == 0 ? "line,code,error\n" : "", context.isRetry());
+        try (BufferedReader reader = Files.newBufferedReader(context.inputFile(), StandardCharsets.UTF_8)) {
+            String cabecera = reader.readLine();
+            if (cabecera == null) {
+                throw new IllegalArgumentException("El archivo no tiene cabecera");
+            }
+            cabecera = cabecera.replace("\uFEFF", ""); // BOM de Excel
+            char separador = CsvLineParser.detectSeparator(cabecera);
+            int[] indices = indicesDeColumnas(CsvLineParser.parse(cabecera, separador));
+
+            List<Fila> lote = new ArrayList<>(chunkSize);
+            long numeroLinea = 1;
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                if (numeroLinea <= desde || linea.isBlank()) {
+                    continue; // ya procesada en un intento anterior, o vacía
+                }
+                lote.add(new Fila(numeroLinea, aMuestra(CsvLineParser.parse(linea, separador), indices)));
+                if (lote.size() == chunkSize) {
+                    context.checkCancelled();
+                    procesarLote(context, lote, numeroLinea, progreso);
+                    lote = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!lote.isEmpty() || !progreso.cabecera.isEmpty()) {
+                procesarLote(context, lote, numeroLinea, progreso);
+            }
+        }
+    }
+
+    /**
+     * Procesa un lote y guarda su avance (hasta la línea indicada) con sus errores.
+     */
+    private void procesarLote(JobContext context, List<Fila> lote, long hastaLinea, Progreso progreso) {
+
+        // 1️⃣ Bean Validation en paralelo (el validador es thread-safe)
+        lote.parallelStream().forEach(fila -> fila.error = validar(fila.muestra));
+
+        // 2️⃣ Duplicados: dentro del lote y contra la BD (una consulta IN)
+        Set<String> codigos = lote.stream()
+                .filter(f -> f.error == null)
+                .map(f -> f.muestra.getCode().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        Set<String> existentes = sampleService.findExistingCodes(codigos);
+        // Primer lote de un reintento: lo ya guardado de este lote cuenta como importado
+        Set<String> yaImportadas = progreso.reintento && !existentes.isEmpty()
+                ? identicas(lote, existentes) : Set.of();
+        progreso.reintento = false;
+        Set<String> vistos = new HashSet<>();
+        Map<String, List<Fila>> porLaboratorio = new LinkedHashMap<>();
+        long importadas = 0;
+        for (Fila fila : lote) {
+            if (fila.error == null) {
+                String codigo = fila.muestra.getCode().toUpperCase(Locale.ROOT);
+                if (yaImportadas.contains(codigo) && vistos.add(codigo)) {
+                    importadas++;
+                } else if (existentes.contains(codigo) || !vistos.add(codigo)) {
+                    fila.error = "Ya existe una muestra con el mismo código.";
+                } else {
+                    porLaboratorio.computeIfAbsent(fila.muestra.getLaboratory(), l -> new ArrayList<>()).add(fila);
+                }
+            }
+        }
+
+        // 3️⃣ Escritura por laboratorio (una transacción por grupo)
+        for (Map.Entry<String, List<Fila>> grupo : porLaboratorio.entrySet()) {
+            List<Fila> filas = grupo.getValue();
+            try {
+                sampleService.saveImported(grupo.getKey(), filas.stream().map(f -> f.muestra).toList());
+                importadas += filas.size();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Lote del laboratorio {} rechazado: {}", grupo.getKey(), e.getMessage());
+                filas.forEach(f -> f.error = "Error al guardar: " + e.getMessage());
+            }
+        }
+
+        long rechazadas = 0;
+        StringBuilder errores = new StringBuilder(progreso.cabecera);
+        progreso.cabecera = "";
+        for (Fila fila : lote) {
+            if (fila.error != null) {
+                rechazadas++;
+                errores.append(fila.linea).append(',').append(CsvLineParser.escape(fila.muestra.getCode()))
+                        .append(',').append(CsvLineParser.escape(fila.error)).append('\n');
+            }
+        }
+
+        // 4️⃣ Errores, contadores y checkpoint en una sola transacción
+        context.commit(errores.toString(), lote.size(), importadas, rechazadas, hastaLinea);
+    }
+
+    /**
+     * Códigos de filas cuya muestra ya existe con los mismos datos
+     * (guardadas por el intento anterior antes de caer).
+     */
+    private Set<String> identicas(List<Fila> lote, Set<String> existentes) {
+        Map<String, Sample> guardadas = sampleService.findByCodes(existentes).stream()
+                .collect(Collectors.toMap(Sample::getCodeKey, m -> m, (a, b) -> a));
+        Set<String> identicas = new HashSet<>();
+        for (Fila fila : lote) {
+            Sample guardada = fila.error == null ? guardadas.get(fila.muestra.getCode().toUpperCase(Locale.ROOT)) : null;
+            if (guardada != null && Objects.equals(guardada.getCode(), fila.muestra.getCode())
+                    && Objects.equals(guardada.getDescription(), fila.muestra.getDescription())
+                    && Objects.equals(guardada.getTechnician(), fila.muestra.getTechnician())
+                    && Objects.equals(guardada.getLaboratory(), fila.muestra.getLaboratory())) {
+                identicas.add(guardada.getCodeKey());
+            }
+        }
+        return identicas;
+    }
+
+    private String validar(Sample muestra) {
+        List<String> mensajes = new ArrayList<>();
+        for (ConstraintViolation<Sample> v : validator.validate(muestra)) {
+            mensajes.add(v.getPropertyPath() + ": " + v.getMessage());
+        }
+        if (muestra.getTechnician() == null || muestra.getTechnician().isBlank()) {
+            mensajes.add("technician: El técnico es obligatorio");
+        } else {
+            try {
+                if (references.technicianId(muestra.getTechnician()) == null) {
+                    mensajes.add("technician: No existe un usuario con ese nombre");
+                }
+            } catch (ConflictException e) {
+                // Homónimos: se rechaza la fila, no la importación
+                mensajes.add("technician: " + e.getMessage());
+            }
+        }
+        if (muestra.getLaboratory() == null || muestra.getLaboratory().isBlank()) {
+            mensajes.add("laboratory: El laboratorio es obligatorio");
+        } else if (references.laboratoryId(muestra.getLaboratory()) == null) {
+            mensajes.add("laboratory: No existe el laboratorio");
+        }
+        return mensajes.isEmpty() ? null : String.join("; ", mensajes);
+    }
+
+    private static int[] indicesDeColumnas(List<String> cabecera) {
+        List<String> normalizada = cabecera.stream().map(c -> c.toLowerCase(Locale.ROOT)).toList();
+        int[] indices = new int[COLUMNAS.size()];
+        for (int i = 0; i < COLUMNAS.size(); i++) {
+            indices[i] = normalizada.indexOf(COLUMNAS.get(i));
+            if (indices[i] < 0) {
+                throw new IllegalArgumentException("Falta la columna '" + COLUMNAS.get(i) + "' en la cabecera");
+            }
+        }
+        return indices;
+    }
+
+    private static Sample aMuestra(List<String> campos, int[] indices) {
+        Sample muestra = new Sample();
+        muestra.setCode(campo(campos, indices[0]));
+        muestra.setDescription(campo(campos, indices[1]));
+        muestra.setTechnician(campo(campos, indices[2]));
+        muestra.setLaboratory(campo(campos, indices[3]));
+        return muestra;
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice < campos.size() && !campos.get(indice).isEmpty() ? campos.get(indice) : null;
+    }
+
+    /** Estado entre lotes de una ejecución. */
+    private static final class Progreso {
+        private String cabecera;
+        private boolean reintento;
+
+        private Progreso(String cabecera, boolean reintento) {
+            this.cabecera = cabecera;
+            this.reintento = reintento;
+        }
+    }
+
+    /** Fila del CSV en proceso. */
+    private static final class Fila {
+        private final long linea;
+        private final Sample muestra;
+        private volatile String error;
+
+        private Fila(long linea, Sample muestra) {
+            this.linea = linea;
+            this.muestra = muestra;
+        }
+    }
+}
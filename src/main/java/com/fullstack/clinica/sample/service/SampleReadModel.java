@@ -0,0 +1,674 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.sample.event.SampleChangedEvent;
+import com.fullstack.clinica.sample.event.SampleReferenceRenamedEvent;
+import com.fullstack.clinica.sample.event.SamplesHeldEvent;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReadModel
+ * ---------------------------------------------------------------
+ * Modelo de lectura (CQRS) de las muestras, en memoria y por columnas.
+ *
+ * - Cada atributo vive en su propio arreglo (ids, códigos, estados,
+ *   fechas...) indexado por número de fila: sin un objeto por muestra.
+ * - laboratory y technician se codifican con diccionario: cada fila
+ *   guarda un int y el texto existe una sola vez.
+ * - Listas de posiciones (int[] ordenados) por laboratorio y por
+ *   técnico: filtrar es recorrer solo las filas de ese valor.
+ * - Se carga una vez al arrancar (keyset, shard por shard) y luego se
+ *   mantiene al día con los SampleChangedEvent que publica SampleService
+ *   tras cada escritura confirmada (y
+ *   SampleReferenceRenamedEvent cuando se renombra un laboratorio o un
+ *   técnico: sus filas pasan al nombre nuevo, y SamplesHeldEvent cuando
+ *   se retienen o liberan en bloque las pendientes de un laboratorio).
+ *
+ * Las entidades Sample solo se materializan para las filas que se
+ * devuelven. Un único lock de lectura/escritura: las escrituras son
+ * pocas y breves comparadas con las lecturas.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class SampleReadModel {
+
+    private static final int NULO = -1;
+    private static final byte SIN_ESTADO = -1;
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+    private static final SampleStatus[] ESTADOS = SampleStatus.values();
+
+    private final SampleService service;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ------------------------------------------------------------
+    // Columnas (posición = número de fila)
+    // ------------------------------------------------------------
+    private int filas;
+    private int vivas;
+    private long[] ids;
+    private String[] codes;
+    private String[] descriptions;
+    private int[] laboratorios;
+    private int[] tecnicos;
+    private byte[] estados;
+    private long[] recibidas; // microsegundos desde epoch (UTC)
+    private long[] informadas;
+    private int[] reservadas; // técnico que la reclamó (diccionario de técnicos)
+    private long[] arriendos; // fin del arriendo del reclamo, en microsegundos
+    private long[] retenidas; // retenida desde (laboratorio inactivo), en microsegundos
+    private final BitSet eliminadas = new BitSet();
+
+    private final Diccionario diccionarioLaboratorios = new Diccionario();
+    private final Diccionario diccionarioTecnicos = new Diccionario();
+    private final List<ListaEnteros> porLaboratorio = new ArrayList<>();
+    private final List<ListaEnteros> porTecnico = new ArrayList<>();
+    private final MapaLargoEntero filaPorId = new MapaLargoEntero();
+
+    // Eventos recibidos mientras se hace la carga inicial (se aplican al final)
+    private List<Object> pendientes = new ArrayList<>();
+    private volatile boolean listo;
+    private volatile long cargaMillis;
+
+    public SampleReadModel(SampleService service,
+            @Value("${clinica.read-model.enabled:true}") boolean enabled,
+            @Value("${clinica.read-model.initial-capacity:1024}") int capacidadInicial) {
+        this.service = service;
+        this.enabled = enabled;
+        int capacidad = Math.max(16, capacidadInicial);
+        this.ids = new long[capacidad];
+        this.codes = new String[capacidad];
+        this.descriptions = new String[capacidad];
+        this.laboratorios = new int[capacidad];
+        this.tecnicos = new int[capacidad];
+        this.estados = new byte[capacidad];
+        this.recibidas = new long[capacidad];
+        this.informadas = new long[capacidad];
+        this.reservadas = new int[capacidad];
+        this.arriendos = new long[capacidad];
+        this.retenidas = new long[capacidad];
+    }
+
+    public boolean isReady() {
+        return listo;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ============================================================
+    // Carga inicial y eventos
+    // ============================================================
+
+    /**
+     * Carga todas las muestras en un hilo aparte: el arranque no espera
+     * y, mientras tanto, quien consulte recibe 503 (isReady() = false).
+     * Va primero entre los listeners: el calentamiento espera esta carga.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        if (!enabled) {
+            log.info("🧮 Modelo de lectura de muestras desactivado");
+            return;
+        }
+        Thread cargador = new Thread(this::cargaInicial, "sample-read-model-loader");
+        cargador.setDaemon(true);
+        cargador.start();
+    }
+
+    private void cargaInicial() {
+        long inicio = System.nanoTime();
+        try {
+            service.forEachPage(null, pagina -> {
+                lock.writeLock().lock();
+                try {
+                    pagina.forEach(this::upsert);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                pendientes.forEach(this::aplicar);
+                pendientes = null;
+                listo = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            cargaMillis = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("🧮 Modelo de lectura cargado: {} muestras, {} laboratorios, {} técnicos en {} ms",
+                    vivas, diccionarioLaboratorios.size(), diccionarioTecnicos.size(), cargaMillis);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendientes = null; // sin modelo no tiene sentido seguir acumulando eventos
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("❌ No se pudo cargar el modelo de lectura de muestras: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onSampleChanged(SampleChangedEvent evento) {
+        recibir(evento);
+    }
+
+    @EventListener
+    public void onReferenceRenamed(SampleReferenceRenamedEvent evento) {
+        recibir(evento);
+    }
+
+    @EventListener
+    public void onSamplesHeld(SamplesHeldEvent evento) {
+        recibir(evento);
+    }
+
+    private void recibir(Object evento) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!listo) {
+                if (pendientes != null) {
+                    pendientes.add(evento);
+                }
+                return;
+            }
+            aplicar(evento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void aplicar(Object evento) {
+        if (evento instanceof SampleReferenceRenamedEvent renombre) {
+            if (renombre.getTipo() == SampleReferenceRenamedEvent.Tipo.LABORATORIO) {
+                renombrar(porLaboratorio, laboratorios, diccionarioLaboratorios, renombre);
+            } else {
+                renombrar(porTecnico, tecnicos, diccionarioTecnicos, renombre);
+            }
+        } else if (evento instanceof SamplesHeldEvent retencion) {
+            retener(retencion);
+        } else if (evento instanceof SampleChangedEvent cambio) {
+            if (cambio.getTipo() == SampleChangedEvent.Tipo.ELIMINADA) {
+                eliminar(cambio.getSampleId());
+            } else if (cambio.getSample() != null) {
+                upsert(cambio.getSample());
+            }
+        }
+    }
+
+    // ============================================================
+    // Consultas
+    // ============================================================
+
+    /**
+     * Muestras que cumplen los filtros (null = sin filtro), en orden de carga.
+     */
+    public List<Sample> find(String laboratory, String technician, SampleStatus status, int offset, int limit) {
+        List<Sample> resultado = new ArrayList<>(Math.min(limit, 1024));
+        lock.readLock().lock();
+        try {
+            int[] saltar = { offset };
+            recorrer(laboratory, technician, status, fila -> {
+                if (saltar[0] > 0) {
+                    saltar[0]--;
+                    return true;
+                }
+                resultado.add(aMuestra(fila));
+                return resultado.size() < limit;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    public int count(String laboratory, String technician, SampleStatus status) {
+        int[] total = { 0 };
+        lock.readLock().lock();
+        try {
+            recorrer(laboratory, technician, status, fila -> {
+                total[0]++;
+                return true;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return total[0];
+    }
+
+    /**
+     * Cantidad de muestras por laboratorio (tamaño de cada lista de posiciones).
+     */
+    public Map<String, Integer> countByLaboratory() {
+        Map<String, Integer> conteo = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            for (int codigo = 0; codigo < porLaboratorio.size(); codigo++) {
+                int cantidad = porLaboratorio.get(codigo).size;
+                if (cantidad > 0) {
+                    conteo.put(diccionarioLaboratorios.valor(codigo), cantidad);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return conteo;
+    }
+
+    /**
+     * Tamaño del modelo y estimación de memoria frente al grafo de entidades.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            long textos = 0;
+            for (int fila = 0; fila < filas; fila++) {
+                textos += bytesTexto(codes[fila]) + bytesTexto(descriptions[fila]);
+            }
+            long columnas = (long) ids.length * (8 + 4 + 4 + 4 + 4 + 1 + 8 + 8 + 4 + 8 + 8) + eliminadas.size() / 8;
+            long listas = porLaboratorio.stream().mapToLong(l -> 16L + 4L * l.valores.length).sum()
+                    + porTecnico.stream().mapToLong(l -> 16L + 4L * l.valores.length).sum();
+            long modelo = columnas + textos + listas + filaPorId.bytes()
+                    + diccionarioLaboratorios.bytes() + diccionarioTecnicos.bytes();
+
+            // Misma muestra como entidad: objeto + Long + 2 LocalDateTime + 4 String propios
+            long entidades = 0;
+            for (int fila = 0; fila < filas; fila++) {
+                if (eliminadas.get(fila)) {
+                    continue;
+                }
+                entidades += 48 + 16 + 2 * 72 + bytesTexto(codes[fila]) + bytesTexto(descriptions[fila])
+                        + bytesTexto(diccionarioLaboratorios.valor(laboratorios[fila]))
+                        + bytesTexto(diccionarioTecnicos.valor(tecnicos[fila]));
+            }
+
+            stats.put("enabled", enabled);
+            stats.put("ready", listo);
+            stats.put("loadMillis", cargaMillis);
+            stats.put("rows", vivas);
+            stats.put("deletedRows", eliminadas.cardinality());
+            stats.put("laboratories", diccionarioLaboratorios.size());
+            stats.put("technicians", diccionarioTecnicos.size());
+            stats.put("estimatedBytes", modelo);
+            stats.put("entityGraphEstimatedBytes", entidades);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    // ============================================================
+    // Escritura (siempre con el write lock tomado)
+    // ============================================================
+
+    private void upsert(Sample muestra) {
+        long id = muestra.getId();
+        int fila = buscarFila(id);
+        if (fila == NULO) {
+            fila = nuevaFila(id);
+        }
+        moverEnLista(porLaboratorio, laboratorios, fila, diccionarioLaboratorios.codigo(muestra.getLaboratory()));
+        moverEnLista(porTecnico, tecnicos, fila, diccionarioTecnicos.codigo(muestra.getTechnician()));
+        codes[fila] = muestra.getCode();
+        descriptions[fila] = muestra.getDescription();
+        estados[fila] = muestra.getStatus() != null ? (byte) muestra.getStatus().ordinal() : SIN_ESTADO;
+        recibidas[fila] = aMicros(muestra.getReceivedAt());
+        informadas[fila] = aMicros(muestra.getReportedAt());
+        reservadas[fila] = muestra.getClaimedBy() != null ? diccionarioTecnicos.codigo(muestra.getClaimedBy()) : NULO;
+        arriendos[fila] = aMicros(muestra.getLeaseUntil());
+        retenidas[fila] = aMicros(muestra.getHeldAt());
+    }
+
+    /**
+     * Misma regla que el UPDATE de SampleRepository.holdPending /
+     * releaseHeld, sobre la lista de posiciones del laboratorio.
+     */
+    private void retener(SamplesHeldEvent evento) {
+        ListaEnteros filasLab = lista(porLaboratorio, diccionarioLaboratorios, evento.getLaboratory());
+        if (filasLab == null) {
+            return;
+        }
+        long desde = aMicros(evento.getHeldAt());
+        for (int i = 0; i < filasLab.size; i++) {
+            int fila = filasLab.valores[i];
+            if (desde == SIN_FECHA) {
+                retenidas[fila] = SIN_FECHA;
+            } else if (retenidas[fila] == SIN_FECHA && pendiente(estados[fila])) {
+                retenidas[fila] = desde;
+                reservadas[fila] = NULO;
+                arriendos[fila] = SIN_FECHA;
+            }
+        }
+    }
+
+    private static boolean pendiente(byte estado) {
+        return estado == SIN_ESTADO || SampleStatus.pendientes().contains(ESTADOS[estado]);
+    }
+
+    private void eliminar(long id) {
+        int fila = buscarFila(id);
+        if (fila == NULO) {
+            return;
+        }
+        moverEnLista(porLaboratorio, laboratorios, fila, NULO);
+        moverEnLista(porTecnico, tecnicos, fila, NULO);
+        codes[fila] = null;
+        descriptions[fila] = null;
+        eliminadas.set(fila);
+        vivas--;
+    }
+
+    /**
+     * Fila viva del ID (se valida contra la columna ids y las eliminadas).
+     */
+    private int buscarFila(long id) {
+        int fila = filaPorId.get(id);
+        return fila != NULO && ids[fila] == id && !eliminadas.get(fila) ? fila : NULO;
+    }
+
+    private int nuevaFila(long id) {
+        if (filas == ids.length) {
+            crecer(ids.length + (ids.length >> 1));
+        }
+        int fila = filas++;
+        ids[fila] = id;
+        laboratorios[fila] = NULO;
+        tecnicos[fila] = NULO;
+        filaPorId.put(id, fila);
+        vivas++;
+        return fila;
+    }
+
+    private void crecer(int capacidad) {
+        ids = Arrays.copyOf(ids, capacidad);
+        codes = Arrays.copyOf(codes, capacidad);
+        descriptions = Arrays.copyOf(descriptions, capacidad);
+        laboratorios = Arrays.copyOf(laboratorios, capacidad);
+        tecnicos = Arrays.copyOf(tecnicos, capacidad);
+        estados = Arrays.copyOf(estados, capacidad);
+        recibidas = Arrays.copyOf(recibidas, capacidad);
+        informadas = Arrays.copyOf(informadas, capacidad);
+        reservadas = Arrays.copyOf(reservadas, capacidad);
+        arriendos = Arrays.copyOf(arriendos, capacidad);
+        retenidas = Arrays.copyOf(retenidas, capacidad);
+    }
+
+    /**
+     * Pasa las filas del nombre anterior al nuevo. Solo la columna
+     * referenciada: claimedBy es texto libre y conserva el nombre viejo.
+     */
+    private static void renombrar(List<ListaEnteros> listas, int[] columna, Diccionario diccionario,
+            SampleReferenceRenamedEvent renombre) {
+        int anterior = diccionario.buscar(renombre.getOldName());
+        if (anterior == NULO || anterior >= listas.size()) {
+            return;
+        }
+        ListaEnteros filas = listas.get(anterior);
+        int nuevo = diccionario.codigo(renombre.getNewName());
+        while (listas.size() <= nuevo) {
+            listas.add(new ListaEnteros());
+        }
+        ListaEnteros destino = listas.get(nuevo);
+        for (int i = 0; i < filas.size; i++) {
+            columna[filas.valores[i]] = nuevo;
+            destino.agregar(filas.valores[i]);
+        }
+        listas.set(anterior, new ListaEnteros());
+    }
+
+    /** Cambia el valor codificado de la fila y la mueve de lista de posiciones. */
+    private static void moverEnLista(List<ListaEnteros> listas, int[] columna, int fila, int codigo) {
+        int anterior = columna[fila];
+        if (anterior == codigo) {
+            return;
+        }
+        if (anterior != NULO) {
+            listas.get(anterior).quitar(fila);
+        }
+        if (codigo != NULO) {
+            while (listas.size() <= codigo) {
+                listas.add(new ListaEnteros());
+            }
+            listas.get(codigo).agregar(fila);
+        }
+        columna[fila] = codigo;
+    }
+
+    // ============================================================
+    // Recorrido de filas (con el read lock tomado)
+    // ============================================================
+
+    /**
+     * Visita las filas vivas que cumplen los filtros hasta que el visitante
+     * devuelva false. Con filtro de laboratorio y/o técnico recorre la lista
+     * de posiciones más corta y verifica la otra por búsqueda binaria.
+     */
+    private void recorrer(String laboratory, String technician, SampleStatus status, IntPredicate visitante) {
+        byte estado = status != null ? (byte) status.ordinal() : SIN_ESTADO;
+        ListaEnteros porLab = laboratory != null ? lista(porLaboratorio, diccionarioLaboratorios, laboratory) : null;
+        ListaEnteros porTec = technician != null ? lista(porTecnico, diccionarioTecnicos, technician) : null;
+        if ((laboratory != null && porLab == null) || (technician != null && porTec == null)) {
+            return;
+        }
+
+        if (porLab == null && porTec == null) {
+            for (int fila = 0; fila < filas; fila++) {
+                if (!eliminadas.get(fila) && (estado == SIN_ESTADO || estados[fila] == estado)
+                        && !visitante.test(fila)) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        ListaEnteros base = porLab == null ? porTec : porTec == null ? porLab
+                : porLab.size <= porTec.size ? porLab : porTec;
+        ListaEnteros otra = porLab == null || porTec == null ? null : base == porLab ? porTec : porLab;
+        for (int i = 0; i < base.size; i++) {
+            int fila = base.valores[i];
+            if ((otra == null || otra.contiene(fila)) && (estado == SIN_ESTADO || estados[fila] == estado)
+                    && !visitante.test(fila)) {
+                return;
+            }
+        }
+    }
+
+    private static ListaEnteros lista(List<ListaEnteros> listas, Diccionario diccionario, String valor) {
+        int codigo = diccionario.buscar(valor);
+        return codigo != NULO && codigo < listas.size() ? listas.get(codigo) : null;
+    }
+
+    private Sample aMuestra(int fila) {
+        Sample muestra = new Sample();
+        muestra.setId(ids[fila]);
+        muestra.setCode(codes[fila]);
+        muestra.setDescription(descriptions[fila]);
+        muestra.setLaboratory(diccionarioLaboratorios.valor(laboratorios[fila]));
+        muestra.setTechnician(diccionarioTecnicos.valor(tecnicos[fila]));
+        muestra.setStatus(estados[fila] != SIN_ESTADO ? ESTADOS[estados[fila]] : null);
+        muestra.setReceivedAt(aFecha(recibidas[fila]));
+        muestra.setReportedAt(aFecha(informadas[fila]));
+        muestra.setClaimedBy(diccionarioTecnicos.valor(reservadas[fila]));
+        muestra.setLeaseUntil(aFecha(arriendos[fila]));
+        muestra.setHeldAt(aFecha(retenidas[fila]));
+        return muestra;
+    }
+
+    private static long aMicros(LocalDateTime fecha) {
+        return fecha == null ? SIN_FECHA
+                : fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + fecha.getNano() / 1_000;
+    }
+
+    private static LocalDateTime aFecha(long micros) {
+        return micros == SIN_FECHA ? null
+                : LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                        (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /** Cabecera + arreglo de un String Latin-1 (aprox.). */
+    private static long bytesTexto(String texto) {
+        return texto == null ? 0 : 40L + texto.length();
+    }
+
+    // ============================================================
+    // Estructuras primitivas
+    // ============================================================
+
+    /** Diccionario texto ↔ código int (los códigos no se reutilizan). */
+    private static final class Diccionario {
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private final List<String> valores = new ArrayList<>();
+
+        int codigo(String valor) {
+            if (valor == null) {
+                return NULO;
+            }
+            return codigos.computeIfAbsent(valor, v -> {
+                valores.add(v);
+                return valores.size() - 1;
+            });
+        }
+
+        int buscar(String valor) {
+            return codigos.getOrDefault(valor, NULO);
+        }
+
+        String valor(int codigo) {
+            return codigo == NULO ? null : valores.get(codigo);
+        }
+
+        int size() {
+            return valores.size();
+        }
+
+        long bytes() {
+            return valores.stream().mapToLong(v -> 2 * bytesTexto(v) + 48).sum();
+        }
+    }
+
+    /** Lista ordenada de int (posiciones de fila) sin boxing. */
+    private static final class ListaEnteros {
+        private int[] valores = new int[8];
+        private int size;
+
+        void agregar(int valor) {
+            // Casi siempre es la última fila: agregar al final sin buscar
+            int pos = size == 0 || valores[size - 1] < valor
+                    ? size
+                    : -(Arrays.binarySearch(valores, 0, size, valor) + 1);
+            if (size == valores.length) {
+                valores = Arrays.copyOf(valores, size * 2);
+            }
+            System.arraycopy(valores, pos, valores, pos + 1, size - pos);
+            valores[pos] = valor;
+            size++;
+        }
+
+        void quitar(int valor) {
+            int pos = Arrays.binarySearch(valores, 0, size, valor);
+            if (pos >= 0) {
+                System.arraycopy(valores, pos + 1, valores, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        boolean contiene(int valor) {
+            return Arrays.binarySearch(valores, 0, size, valor) >= 0;
+        }
+    }
+
+    /** Mapa id (long) → fila (int) con direccionamiento abierto. */
+    private static final class MapaLargoEntero {
+        private static final long VACIO = Long.MIN_VALUE;
+
+        private long[] claves = nuevasClaves(1024);
+        private int[] filas = new int[1024];
+        private int size;
+
+        int get(long clave) {
+            int mascara = claves.length - 1;
+            for (int i = indice(clave, mascara); ; i = (i + 1) & mascara) {
+                if (claves[i] == clave) {
+                    return filas[i];
+                }
+                if (claves[i] == VACIO) {
+                    return NULO;
+                }
+            }
+        }
+
+        void put(long clave, int fila) {
+            if ((size + 1) * 4 > claves.length * 3) {
+                redimensionar();
+            }
+            int mascara = claves.length - 1;
+            int i = indice(clave, mascara);
+            while (claves[i] != VACIO && claves[i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == VACIO) {
+                size++;
+            }
+            claves[i] = clave;
+            filas[i] = fila;
+        }
+
+        long bytes() {
+            return 12L * claves.length;
+        }
+
+        private void redimensionar() {
+            long[] clavesAnteriores = claves;
+            int[] filasAnteriores = filas;
+            claves = nuevasClaves(clavesAnteriores.length * 2);
+            filas = new int[clavesAnteriores.length * 2];
+            size = 0;
+            for (int i = 0; i < clavesAnteriores.length; i++) {
+                if (clavesAnteriores[i] != VACIO) {
+                    put(clavesAnteriores[i], filasAnteriores[i]);
+                }
+            }
+        }
+
+        private static int indice(long clave, int mascara) {
+            long h = clave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+
+        private static long[] nuevasClaves(int capacidad) {
+            long[] claves = new long[capacidad];
+            Arrays.fill(claves, VACIO);
+            return claves;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.sample.event.SampleReferenceRenamedEvent;
+import com.fullstack.clinica.sync.service.ChangeSequence;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReferences
+ * ---------------------------------------------------------------
+ * Directorio nombre ↔ ID de los laboratorios (LABORATORY) y técnicos
+ * (USERC) que referencian las muestras.
+ *
+ * SAMPLE guarda laboratory_id / technician_id, pero la API sigue
+ * recibiendo y devolviendo nombres: los convertidores JPA de Sample
+ * traducen con este directorio en cada lectura y escritura.
+ *
+ * - Caché en memoria con lectura bajo demanda: la primera vez que se
+ *   pide un nombre (o un ID) se consulta la BD principal; después es
+ *   un acceso a mapa.
+ * - Quien no puede bloquear (la API reactiva, en el event loop) usa
+ *   solo la caché (cached*) y, si falta, consulta por su cuenta y la
+ *   completa (remember*).
+ * - Siempre consulta el shard 0 (donde viven LABORATORY y USERC) con
+ *   su propio DataSource, aunque quien pregunta esté en la transacción
+ *   de otro shard.
+ * - Los nombres se comparan exactos (como antes en SAMPLE). Un nombre
+ *   que comparten varias filas es ambiguo: responde 409 y no se guarda
+ *   en caché (el técnico no se elige por su cuenta).
+ * - LaboratoryService y UserService avisan los cambios de este nodo
+ *   (altas, renombres y bajas); los renombres se publican como
+ *   SampleReferenceRenamedEvent.
+ * - Lo que cambia en otro nodo (o por SQL masivo) se ve con un refresco
+ *   cada clinica.references.refresh-interval: las filas con change_seq
+ *   nuevo (hasta lo visible de ChangeSequence) y sus lápidas. Un
+ *   renombre detectado así se publica con remote = true: cada nodo
+ *   corrige lo suyo en memoria y la BD ya la actualizó quien renombró.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class SampleReferences {
+
+    private final JdbcTemplate principal;
+    private final ApplicationEventPublisher events;
+    private final ChangeSequence sequence;
+    private final Duration intervalo;
+    private final ScheduledExecutorService refresco;
+
+    private final Referencias laboratorios = new Referencias(SampleReferenceRenamedEvent.Tipo.LABORATORIO,
+            "LABORATORY", "name", "Laboratorio", "laboratorios");
+    private final Referencias tecnicos = new Referencias(SampleReferenceRenamedEvent.Tipo.TECNICO,
+            "USERC", "full_name", "Técnico", "usuarios");
+
+    /** Último change_seq revisado por el refresco (-1 = aún no arranca). Solo lo toca su hilo. */
+    private long revisado = -1;
+
+    public SampleReferences(DataSource dataSource, ApplicationEventPublisher events, ChangeSequence sequence,
+            @Value("${clinica.references.refresh-interval:5s}") Duration intervalo) {
+        this.principal = new JdbcTemplate(principal(dataSource));
+        this.events = events;
+        this.sequence = sequence;
+        this.intervalo = intervalo;
+        this.refresco = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sample-references-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** El refresco arranca con la aplicación lista (CHANGE_CLOCK ya existe). */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarRefresco() {
+        long cada = Math.max(100, intervalo.toMillis());
+        refresco.scheduleWithFixedDelay(this::refrescar, 0, cada, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresco.shutdownNow();
+    }
+
+    /**
+     * DataSource de la BD principal (shard 0), también con sharding activo.
+     */
+    static DataSource principal(DataSource dataSource) {
+        return dataSource instanceof AbstractRoutingDataSource routing
+                ? routing.getResolvedDefaultDataSource()
+                : dataSource;
+    }
+
+    // ============================================================
+    // Traducción (convertidores de Sample)
+    // ============================================================
+
+    /** ID del laboratorio con ese nombre (null si no existe). */
+    public Long laboratoryId(String name) {
+        return laboratorios.id(name);
+    }
+
+    public String laboratoryName(Long id) {
+        return laboratorios.nombre(id);
+    }
+
+    /**
+     * ID del usuario con ese nombre completo (null si no existe).
+     * ConflictException (409) si varios usuarios lo comparten.
+     */
+    public Long technicianId(String name) {
+        return tecnicos.id(name);
+    }
+
+    public String technicianName(Long id) {
+        return tecnicos.nombre(id);
+    }
+
+    // ============================================================
+    // Solo caché (sin E/S bloqueante)
+    // ============================================================
+
+    /** ID del laboratorio si ya está en caché (null si no). */
+    public Long cachedLaboratoryId(String name) {
+        return name != null ? laboratorios.porNombre.get(name) : null;
+    }
+
+    public String cachedLaboratoryName(Long id) {
+        return id != null ? laboratorios.porId.get(id) : null;
+    }
+
+    public String cachedTechnicianName(Long id) {
+        return id != null ? tecnicos.porId.get(id) : null;
+    }
+
+    /** Completa la caché con un laboratorio leído por otra vía (R2DBC). */
+    public void rememberLaboratory(Long id, String name) {
+        laboratorios.recordar(id, name);
+    }
+
+    public void rememberTechnician(Long id, String name) {
+        tecnicos.recordar(id, name);
+    }
+
+    /**
+     * ¿Existe el usuario y tiene rol PACIENTE? Sin caché: el rol puede
+     * cambiar y solo se pregunta al registrar una muestra con paciente.
+     */
+    public boolean isPatient(Long id) {
+        return !principal.queryForList("select id from USERC where id = ? and rol = 'PACIENTE'", Long.class, id)
+                .isEmpty();
+    }
+
+    // ============================================================
+    // Avisos de LaboratoryService / UserService
+    // ============================================================
+
+    public void laboratoryRenamed(Long id, String oldName, String newName) {
+        laboratorios.renombrar(id, oldName, newName, false);
+    }
+
+    public void laboratoryDeleted(Long id, String name) {
+        laboratorios.olvidar(id, name);
+    }
+
+    /** Un usuario nuevo puede volver ambiguo un nombre que estaba en caché. */
+    public void technicianCreated(String name) {
+        tecnicos.olvidarNombre(name);
+    }
+
+    public void technicianRenamed(Long id, String oldName, String newName) {
+        tecnicos.renombrar(id, oldName, newName, false);
+    }
+
+    public void technicianDeleted(Long id, String name) {
+        tecnicos.olvidar(id, name);
+    }
+
+    // ============================================================
+    // Cambios de otros nodos (hilo sample-references-refresh)
+    // ============================================================
+
+    private void refrescar() {
+        try {
+            long hasta = sequence.visible().upTo();
+            if (revisado < 0) {
+                // Lo guardado antes del primer refresco pudo cambiar en otro nodo
+                laboratorios.vaciar();
+                tecnicos.vaciar();
+            } else if (hasta > revisado) {
+                laboratorios.refrescar(revisado, hasta);
+                tecnicos.refrescar(revisado, hasta);
+            }
+            revisado = Math.max(revisado, hasta);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo refrescar el directorio de laboratorios y técnicos: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("laboratories", laboratorios.porId.size());
+        stats.put("technicians", tecnicos.porId.size());
+        return stats;
+    }
+
+    /** Caché bidireccional de una tabla referenciada. */
+    private final class Referencias {
+        private final SampleReferenceRenamedEvent.Tipo tipo;
+        private final String singular;
+        private final String plural;
+        private final String sqlId;
+        private final String sqlNombre;
+        private final String sqlCambios;
+        private final String sqlBajas;
+        private final Map<String, Long> porNombre = new ConcurrentHashMap<>();
+        private final Map<Long, String> porId = new ConcurrentHashMap<>();
+
+        private Referencias(SampleReferenceRenamedEvent.Tipo tipo, String tabla, String columna,
+                String singular, String plural) {
+            this.tipo = tipo;
+            this.singular = singular;
+            this.plural = plural;
+            // A lo más dos: basta para saber si el nombre es ambiguo
+            this.sqlId = "select id from " + tabla + " where " + columna + " = ? fetch first 2 rows only";
+            this.sqlNombre = "select " + columna + " from " + tabla + " where id = ?";
+            this.sqlCambios = "select id, " + columna + " from " + tabla
+                    + " where change_seq > ? and change_seq <= ?";
+            this.sqlBajas = "select entity_id from CHANGE_TOMBSTONE where entity_type = '"
+                    + (tipo == SampleReferenceRenamedEvent.Tipo.LABORATORIO ? "LABORATORY" : "USER")
+                    + "' and change_seq > ? and change_seq <= ?";
+        }
+
+        Long id(String nombre) {
+            if (nombre == null) {
+                return null;
+            }
+            Long id = porNombre.get(nombre);
+            if (id == null) {
+                List<Long> ids = principal.queryForList(sqlId, Long.class, nombre);
+                if (ids.size() > 1) {
+                    throw new ConflictException("Hay varios " + plural + " con el nombre '" + nombre
+                            + "': no se puede saber a cuál se refiere");
+                }
+                if (!ids.isEmpty()) {
+                    id = ids.get(0);
+                    porNombre.put(nombre, id);
+                    porId.putIfAbsent(id, nombre);
+                }
+            }
+            return id;
+        }
+
+        String nombre(Long id) {
+            if (id == null) {
+                return null;
+            }
+            String nombre = porId.get(id);
+            if (nombre == null) {
+                List<String> nombres = principal.queryForList(sqlNombre, String.class, id);
+                if (!nombres.isEmpty()) {
+                    nombre = nombres.get(0);
+                    porId.put(id, nombre);
+                }
+            }
+            return nombre;
+        }
+
+        /** El nombre → ID solo lo fija id() (que rechaza los homónimos). */
+        void recordar(Long id, String nombre) {
+            porId.putIfAbsent(id, nombre);
+        }
+
+        /** Actualiza la caché y, si el nombre realmente cambió, publica el renombre. */
+        void renombrar(Long id, String anterior, String nuevo, boolean remoto) {
+            if (anterior == null || anterior.equals(nuevo)) {
+                return;
+            }
+            // Ambos nombres se vuelven a resolver (puede haber homónimos)
+            porNombre.remove(anterior);
+            porNombre.remove(nuevo);
+            porId.put(id, nuevo);
+            log.info("🏷️ {} {} renombrado{}: '{}' → '{}'", singular, id, remoto ? " en otro nodo" : "",
+                    anterior, nuevo);
+            events.publishEvent(new SampleReferenceRenamedEvent(tipo, id, anterior, nuevo, remoto));
+        }
+
+        void olvidar(Long id, String nombre) {
+            porId.remove(id);
+            olvidarNombre(nombre);
+        }
+
+        void olvidarNombre(String nombre) {
+            if (nombre != null) {
+                porNombre.remove(nombre);
+            }
+        }
+
+        void vaciar() {
+            porNombre.clear();
+            porId.clear();
+        }
+
+        /** Aplica las altas, cambios y bajas con change_seq en (desde, hasta]. */
+        void refrescar(long desde, long hasta) {
+            principal.query(sqlCambios, rs -> {
+                long id = rs.getLong(1);
+                String nombre = rs.getString(2);
+                // Alta o cambio: el nombre se vuelve a resolver (puede tener un homónimo nuevo)
+                olvidarNombre(nombre);
+                String conocido = porId.get(id);
+                if (conocido != null && !conocido.equals(nombre)) {
+                    renombrar(id, conocido, nombre, true);
+                }
+            }, desde, hasta);
+            principal.queryForList(sqlBajas, Long.class, desde, hasta)
+                    .forEach(id -> olvidar(id, porId.get(id)));
+        }
+    }
+}
@@ -1,12 +1,56 @@
 package com.fullstack.clinica.sample.service;
 
+import com.fullstack.clinica.audit.service.AuditService;
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.common.RequestCoalescer;
+import com.fullstack.clinica.exception.BadRequestException;
+import com.fullstack.clinica.exception.InvalidTransitionException;
 import com.fullstack.clinica.exception.ResourceNotFoundException; // Semana 2 → la crearemos en paso 4
+import com.fullstack.clinica.sample.event.SampleChangedEvent;
+import com.fullstack.clinica.sample.event.SampleReferenceRenamedEvent;
+import com.fullstack.clinica.sample.event.SamplesHeldEvent;
 import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.model.SampleTimeline;
+import com.fullstack.clinica.sample.model.SampleTransition;
 import com.fullstack.clinica.sample.repository.SampleRepository;
+import com.fullstack.clinica.sample.repository.SampleTransitionRepository;
+import com.fullstack.clinica.sync.model.ChangePage;
+import com.fullstack.clinica.sync.service.ChangeFeedService;
 
 import lombok.extern.slf4j.Slf4j; // Lombok → para logs sin crear Logger manual
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * ===============================================================
@@ -21,21 +65,87 @@ import java.util.List;
  * - Se agregan logs con @Slf4j para trazabilidad profesional.
  * - Se incorporan validaciones de negocio antes de guardar/eliminar.
  * - Se integrará manejo global de excepciones (GlobalExceptionHandler).
+ * 🔹 Sharding:
+ * - Todo acceso al repositorio pasa por SampleShardRouter, que fija el
+ *   shard del laboratorio ANTES de abrir la transacción.
+ * 🔹 Eventos:
+ * - Tras cada escritura confirmada se publica un SampleChangedEvent
+ *   (feed SSE por laboratorio y demás suscriptores).
+ * 🔹 Lecturas calientes:
+ * - findAll y findByLaboratory pasan por RequestCoalescer: llamadas
+ *   idénticas simultáneas comparten una sola consulta.
+ * 🔹 Auditoría:
+ * - Altas, cambios (incluido el estado) y bajas se registran en
+ *   AuditService una vez confirmada la escritura.
+ * 🔹 Referencias:
+ * - Laboratorio y técnico se guardan como FK (SampleReferences traduce
+ *   los nombres); una muestra nueva debe referenciar a ambos existentes.
+ * - El paciente (opcional) se guarda por ID y debe tener rol PACIENTE.
+ * 🔹 Laboratorio inactivo:
+ * - holdPending / releaseHeld retienen y liberan las muestras pendientes
+ *   del laboratorio con un UPDATE en su shard y publican un único
+ *   SamplesHeldEvent (no uno por muestra). Una muestra retenida no
+ *   cambia de estado (409).
+ * 🔹 Historial del paciente:
+ * - findPatientTimeline pagina por keyset (collectedAt, id) en todos
+ *   los shards y mezcla las páginas.
+ * 🔹 Sincronización incremental:
+ * - findChanges entrega lo cambiado desde un cursor (ChangeFeedService);
+ *   las bajas dejan lápida en su misma transacción y los UPDATE en
+ *   bloque fijan change_seq. Renombrar un laboratorio o técnico vuelve
+ *   a marcar sus muestras (su JSON lleva el nombre).
  * ===============================================================
  */
 @Slf4j
 @Service // Marca esta clase como "servicio" dentro del contexto de Spring
 public class SampleService {
 
+    private static final String ENTIDAD = "SAMPLE";
+
+    // Importación: INSERT por lotes JDBC (con IDENTITY, Hibernate no agrupa los INSERT)
+    private static final String INSERT_MUESTRA = "insert into SAMPLE (code, code_key, description, laboratory_id, "
+            + "technician_id, patient_id, collected_at, status, received_at, change_seq) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRANSICION = "insert into SAMPLE_TRANSITION (sample_id, laboratory, "
+            + "from_status, to_status, changed_at) values (?, ?, ?, ?, ?)";
+
+    /** Orden del historial: toma más reciente primero (igual que IX_SAMPLE_PATIENT). */
+    private static final Comparator<Sample> MAS_RECIENTE_PRIMERO = Comparator
+            .comparing(Sample::getCollectedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Sample::getId, Comparator.reverseOrder());
+
     // Inyección del repositorio para interactuar con la base de datos
     private final SampleRepository repository;
+    private final SampleTransitionRepository transitionRepository;
+    private final TurnaroundTracker turnaroundTracker;
+    private final SampleShardRouter router;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final RequestCoalescer coalescer;
+    private final AuditService audit;
+    private final SampleReferences references;
+    private final ChangeFeedService changes;
+    private final JdbcTemplate jdbc;
 
     /**
      * Constructor principal (inyección de dependencias por constructor).
      * Spring se encarga de pasar automáticamente una instancia de LaboratorioRepository.
      */
-    public SampleService(SampleRepository repository) {
+    public SampleService(SampleRepository repository, SampleTransitionRepository transitionRepository,
+            TurnaroundTracker turnaroundTracker, SampleShardRouter router, TransactionTemplate tx,
+            ApplicationEventPublisher events, RequestCoalescer coalescer, AuditService audit,
+            SampleReferences references, ChangeFeedService changes, JdbcTemplate jdbc) {
         this.repository = repository;
+        this.transitionRepository = transitionRepository;
+        this.turnaroundTracker = turnaroundTracker;
+        this.router = router;
+        this.tx = tx;
+        this.events = events;
+        this.coalescer = coalescer;
+        this.audit = audit;
+        this.references = references;
+        this.changes = changes;
+        this.jdbc = jdbc;
     }
 
     // ============================================================
@@ -47,7 +157,7 @@ public class SampleService {
      */
     public List<Sample> findAll() {
         log.info("📚 Consultando todos las muestras en la base de datos");
-        return repository.findAll();
+        return coalescer.execute("samples.findAll", () -> router.fanOut(repository::findAll));
     }
 
     /**
@@ -56,10 +166,32 @@ public class SampleService {
      */
     public Sample findById(Long id) {
         log.info("🔍 Buscando muestra con ID: {}", id);
-        return repository.findById(id)
+        return router.onSampleId(id, () -> repository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("No se encontró la muestra con ID: " + id));
     }
 
+    /**
+     * Multi-get: resuelve varios IDs de una vez, en el orden pedido.
+     * Cada ID se enruta al shard de su rango; por shard se hace una
+     * consulta IN por cada lote de hasta 1000 IDs. Los que no aparecen
+     * (muestras movidas con su laboratorio) se buscan en todos los shards.
+     */
+    public BatchResult<Sample> findByIds(List<Long> ids) {
+        log.info("🔍 Buscando {} muestras por ID", ids.size());
+        return BatchResult.load(ids, lote -> {
+            Map<Integer, List<Long>> porShard = lote.stream().collect(Collectors.groupingBy(router::shardForId));
+            List<Sample> encontradas = new ArrayList<>(lote.size());
+            porShard.forEach((shard, idsShard) ->
+                    encontradas.addAll(router.onShard(shard, () -> repository.findByIdIn(idsShard))));
+            if (router.isEnabled() && encontradas.size() < lote.size()) {
+                Set<Long> vistas = encontradas.stream().map(Sample::getId).collect(Collectors.toSet());
+                List<Long> faltantes = lote.stream().filter(id -> !vistas.contains(id)).toList();
+                encontradas.addAll(router.fanOut(() -> repository.findByIdIn(faltantes)));
+            }
+            return encontradas;
+        }, Sample::getId);
+    }
+
     // ============================================================
     // 🔸 Semana 2 → Nuevas validaciones y reglas de negocio
     // ============================================================
@@ -70,20 +202,35 @@ public class SampleService {
      * Reglas de negocio agregadas (Semana 2):
      * 1️⃣ No permitir guardar un muestra con el mismo código.
      * 2️⃣ Registrar logs de INFO y WARN según la operación.
+     * 3️⃣ Toda muestra nueva ingresa en estado RECIBIDA.
      */
     public Sample save(Sample muestra) {
         log.info("💾 Guardando muestra: {} - {}", muestra.getCode());
 
-        // Validación de duplicado: mismo nombre
-        boolean existe = repository.findAll().stream()
-                .anyMatch(s -> s.getCode().equalsIgnoreCase(muestra.getCode()));
-
-        if (existe) {
-            log.warn("⚠️ Intento de guardar una muestra duplicada: {}", muestra.getCode());
-            throw new IllegalArgumentException("Ya existe una muestra con el mismo código.");
+        // Validación de duplicado: mismo código (búsqueda por UX_SAMPLE_CODE_KEY en cada shard)
+        if (!findExistingCodes(Set.of(muestra.getCodeKey())).isEmpty()) {
+            throw codigoDuplicado(muestra);
         }
 
-        Sample guardado = repository.save(muestra);
+        validarReferencias(muestra);
+        prepararRecepcion(muestra);
+
+        Sample guardado;
+        try {
+            guardado = router.onLaboratoryWrite(muestra.getLaboratory(), () -> tx.execute(status -> {
+                Sample nueva = repository.save(muestra);
+                registrarTransicion(nueva, null);
+                return nueva;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición guardó el mismo código entre la consulta y el INSERT (índice único)
+            if (!findExistingCodes(Set.of(muestra.getCodeKey())).isEmpty()) {
+                throw codigoDuplicado(muestra);
+            }
+            throw e;
+        }
+        publicar(SampleChangedEvent.Tipo.CREADA, guardado);
+        audit.recordCreate(ENTIDAD, guardado.getId(), guardado);
         log.info("✅ Muestra guardada correctamente con ID: {}", guardado.getId());
         return guardado;
     }
@@ -91,16 +238,37 @@ public class SampleService {
     /**
      * Actualiza un muestra existente.
      * Si no existe, lanza excepción de recurso no encontrado.
+     * Si el código cambia, aplica la misma validación de duplicado que save().
      */
     public Sample update(Long id, Sample datosActualizados) {
         log.info("✏️ Actualizando muestra con ID: {}", id);
 
         Sample sampleExist = findById(id); // lanza excepción si no existe
+        Map<String, Object> antes = audit.snapshot(sampleExist);
+
+        String claveNueva = Sample.normalizarCodigo(datosActualizados.getCode());
+        boolean cambiaCodigo = !Objects.equals(claveNueva, sampleExist.getCodeKey());
+        // Solo mayúsculas/minúsculas distintas = la misma clave: no choca consigo misma
+        if (cambiaCodigo && !findExistingCodes(Set.of(claveNueva)).isEmpty()) {
+            throw codigoDuplicado(datosActualizados);
+        }
 
         sampleExist.setCode(datosActualizados.getCode());
         sampleExist.setDescription(datosActualizados.getDescription());
 
-        Sample actualizado = repository.save(sampleExist);
+        Sample actualizado;
+        try {
+            actualizado = router.onLaboratoryWrite(sampleExist.getLaboratory(),
+                    () -> repository.saveAndFlush(sampleExist));
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición tomó el mismo código entre la consulta y el UPDATE (índice único)
+            if (cambiaCodigo && !findExistingCodes(Set.of(claveNueva)).isEmpty()) {
+                throw codigoDuplicado(datosActualizados);
+            }
+            throw e;
+        }
+        publicar(SampleChangedEvent.Tipo.ACTUALIZADA, actualizado);
+        audit.recordUpdate(ENTIDAD, id, antes, actualizado);
         log.info("✅ Muestra actualizada correctamente: {}", actualizado.getCode());
         return actualizado;
     }
@@ -112,12 +280,19 @@ public class SampleService {
     public void delete(Long id) {
         log.info("🗑️ Eliminando muestra con ID: {}", id);
 
-        if (!repository.existsById(id)) {
+        Sample existente = router.onSampleId(id, () -> repository.findById(id)).orElseThrow(() -> {
             log.error("❌ No se puede eliminar. La muestra con ID {} no existe.", id);
-            throw new ResourceNotFoundException("No existe la muestra con ID: " + id);
-        }
+            return new ResourceNotFoundException("No existe la muestra con ID: " + id);
+        });
 
-        repository.deleteById(id);
+        router.onLaboratoryWrite(existente.getLaboratory(), () -> tx.execute(status -> {
+            repository.deleteById(id);
+            changes.tombstone(ENTIDAD, id);
+            return null;
+        }));
+        events.publishEvent(new SampleChangedEvent(SampleChangedEvent.Tipo.ELIMINADA, id,
+                existente.getLaboratory(), null));
+        audit.recordDelete(ENTIDAD, id, audit.snapshot(existente));
         log.info("✅ muestra eliminado correctamente.");
     }
 
@@ -129,6 +304,443 @@ public class SampleService {
      */
     public List<Sample> findByLaboratory(String laboratory) {
         log.info("📖 Buscando muestras del laboratorio: {}", laboratory);
-        return repository.findByLaboratory(laboratory);
+        if (references.laboratoryId(laboratory) == null) {
+            return List.of(); // sin asignarle shard a un laboratorio inexistente
+        }
+        return coalescer.execute("samples.findByLaboratory",
+                () -> router.onLaboratory(laboratory, () -> repository.findByLaboratory(laboratory)), laboratory);
+    }
+
+    /**
+     * Historial de muestras de un paciente, más reciente primero, en
+     * páginas por keyset. Las muestras de un paciente quedan en el shard
+     * de cada laboratorio: se piden size + 1 filas a cada shard, se
+     * mezclan y la fila sobrante indica si hay página siguiente.
+     *
+     * @param cursor nextCursor de la página anterior (null = primera)
+     */
+    public SampleTimeline findPatientTimeline(Long patientId, String cursor, int size) {
+        log.info("🩺 Historial de muestras del paciente {} (cursor={}, size={})", patientId, cursor, size);
+        SampleTimeline.Cursor desde;
+        try {
+            desde = cursor == null || cursor.isBlank() ? null : SampleTimeline.Cursor.decode(cursor);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor de historial inválido: " + cursor);
+        }
+        Limit limite = Limit.of(size + 1);
+        List<Sample> filas = new ArrayList<>(router.fanOut(() -> desde == null
+                ? repository.findTimeline(patientId, limite)
+                : repository.findTimelineBefore(patientId, desde.collectedAt(), desde.id(), limite)));
+        filas.sort(MAS_RECIENTE_PRIMERO);
+
+        if (filas.size() <= size) {
+            return new SampleTimeline(filas, null);
+        }
+        List<Sample> pagina = List.copyOf(filas.subList(0, size));
+        return new SampleTimeline(pagina, SampleTimeline.Cursor.of(pagina.get(size - 1)).encode());
+    }
+
+    /**
+     * Sincronización incremental: muestras creadas, modificadas o
+     * eliminadas desde el cursor, mezclando todos los shards.
+     *
+     * @param since cursor de la respuesta anterior (null = resincronización completa)
+     */
+    public ChangePage<Sample> findChanges(String since, Integer limit) {
+        return changes.page(ENTIDAD, since, limit, true, repository::findChangedSince);
+    }
+
+    /**
+     * Las {@code limit} muestras más recientes de cada laboratorio (solo
+     * las del estado indicado, si viene), agrupadas por ID de laboratorio.
+     * Una consulta por shard con laboratorios asignados (y por cada 1000
+     * laboratorios); los que aún no tienen shard no tienen muestras.
+     */
+    public Map<Long, List<Sample>> findLatestByLaboratories(Collection<Long> laboratoryIds, SampleStatus status,
+            int limit) {
+        log.info("🧫 Buscando las últimas {} muestras de {} laboratorios", limit, laboratoryIds.size());
+        List<String> estados = (status != null ? List.of(status) : List.of(SampleStatus.values())).stream()
+                .map(SampleStatus::name).toList();
+        Map<Integer, List<Long>> porShard = new HashMap<>();
+        for (Long id : laboratoryIds) {
+            String nombre = references.laboratoryName(id);
+            if (nombre != null) {
+                router.assignedShard(nombre)
+                        .ifPresent(shard -> porShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(id));
+            }
+        }
+        Map<Long, List<Sample>> porLaboratorio = new HashMap<>();
+        porShard.forEach((shard, ids) -> BatchResult.chunks(ids).forEach(lote -> router
+                .onShard(shard, () -> repository.findLatestByLaboratoryIdIn(lote, estados, limit))
+                .forEach(m -> porLaboratorio.computeIfAbsent(references.laboratoryId(m.getLaboratory()),
+                        id -> new ArrayList<>()).add(m))));
+        porLaboratorio.values().forEach(muestras -> muestras.sort(Comparator.comparing(Sample::getId).reversed()));
+        return porLaboratorio;
+    }
+
+    // ============================================================
+    // Recorridos masivos (exportaciones)
+    // ============================================================
+
+    /**
+     * Recorre las muestras (todas o de un laboratorio) en páginas por
+     * keyset, shard por shard, entregando cada página al consumidor.
+     */
+    public void forEachPage(String laboratory, Consumer<List<Sample>> consumidor) {
+        List<Integer> shards = laboratory != null
+                ? List.of(router.shardFor(laboratory))
+                : IntStream.range(0, router.shardCount()).boxed().toList();
+        for (int shard : shards) {
+            long ultimoId = 0;
+            List<Sample> pagina;
+            do {
+                long desde = ultimoId;
+                pagina = router.onShard(shard, () -> laboratory != null
+                        ? repository.findTop1000ByLaboratoryAndIdGreaterThanOrderByIdAsc(laboratory, desde)
+                        : repository.findTop1000ByIdGreaterThanOrderByIdAsc(desde));
+                if (!pagina.isEmpty()) {
+                    consumidor.accept(pagina);
+                    ultimoId = pagina.get(pagina.size() - 1).getId();
+                }
+            } while (!pagina.isEmpty());
+        }
+    }
+
+    // ============================================================
+    // Importación masiva (SampleImportService)
+    // ============================================================
+
+    /**
+     * Códigos (en mayúsculas) que ya existen en cualquier shard.
+     */
+    public Set<String> findExistingCodes(Collection<String> upperCodes) {
+        if (upperCodes.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(router.fanOut(() -> repository.findExistingCodes(upperCodes)));
+    }
+
+    /**
+     * Muestras con esos códigos (en mayúsculas) en cualquier shard: al
+     * retomar una importación, distingue lo que guardó el intento anterior
+     * de un duplicado real.
+     */
+    public List<Sample> findByCodes(Collection<String> upperCodes) {
+        if (upperCodes.isEmpty()) {
+            return List.of();
+        }
+        return router.fanOut(() -> repository.findByCodeKeyIn(upperCodes));
+    }
+
+    /**
+     * Guarda en una sola transacción un lote de muestras ya validadas de un
+     * mismo laboratorio, junto con su transición inicial a RECIBIDA: un
+     * INSERT por lotes JDBC para las muestras (con sus IDs generados) y
+     * otro para las transiciones, en vez de dos sentencias por fila.
+     */
+    public List<Sample> saveImported(String laboratory, List<Sample> muestras) {
+        if (muestras.isEmpty()) {
+            return List.of();
+        }
+        muestras.forEach(this::validarReferencias);
+        muestras.forEach(this::prepararRecepcion);
+        List<Sample> guardadas = router.onLaboratoryWrite(laboratory, () -> tx.execute(status -> {
+            insertarMuestras(muestras, changes.currentSeq());
+            insertarTransicionesIniciales(muestras);
+            return muestras;
+        }));
+        guardadas.forEach(m -> {
+            publicar(SampleChangedEvent.Tipo.CREADA, m);
+            audit.recordCreate(ENTIDAD, m.getId(), m);
+        });
+        return guardadas;
+    }
+
+    // ============================================================
+    // Referencias (LaboratoryService / UserService antes de eliminar)
+    // ============================================================
+
+    /**
+     * ¿Alguna muestra referencia al laboratorio? Solo se consulta su shard.
+     */
+    public boolean existsByLaboratory(Long laboratoryId, String laboratory) {
+        return router.assignedShard(laboratory)
+                .map(shard -> router.onShard(shard, () -> repository.findAnyByLaboratoryId(laboratoryId)))
+                .filter(ids -> !ids.isEmpty())
+                .isPresent();
+    }
+
+    /**
+     * ¿Alguna muestra (en cualquier shard) referencia al técnico?
+     */
+    public boolean existsByTechnician(Long technicianId) {
+        return !router.fanOut(() -> repository.findAnyByTechnicianId(technicianId)).isEmpty();
+    }
+
+    /**
+     * ¿Alguna muestra (en cualquier shard) pertenece al paciente?
+     */
+    public boolean existsByPatient(Long patientId) {
+        return !router.fanOut(() -> repository.findAnyByPatientId(patientId)).isEmpty();
+    }
+
+    // ============================================================
+    // Retención (LaboratoryService al desactivar / reactivar)
+    // ============================================================
+
+    /**
+     * Retiene las muestras pendientes del laboratorio y suelta sus
+     * reclamos, en una sentencia. Devuelve cuántas se retuvieron.
+     */
+    public int holdPending(String laboratory) {
+        LocalDateTime ahora = LocalDateTime.now();
+        int retenidas = enBloque(laboratory,
+                () -> repository.holdPending(laboratory, SampleStatus.pendientes(), ahora, changes.currentSeq()));
+        if (retenidas > 0) {
+            coalescer.forget("samples.");
+            publicarTrasCommit(new SamplesHeldEvent(laboratory, ahora, retenidas));
+        }
+        log.info("⏸️ {} muestras pendientes retenidas en {}", retenidas, laboratory);
+        return retenidas;
+    }
+
+    /**
+     * Libera las muestras retenidas del laboratorio, en una sentencia.
+     */
+    public int releaseHeld(String laboratory) {
+        int liberadas = enBloque(laboratory, () -> repository.releaseHeld(laboratory, changes.currentSeq()));
+        if (liberadas > 0) {
+            coalescer.forget("samples.");
+            publicarTrasCommit(new SamplesHeldEvent(laboratory, null, liberadas));
+        }
+        log.info("▶️ {} muestras liberadas en {}", liberadas, laboratory);
+        return liberadas;
+    }
+
+    /**
+     * Si quien llama ya abrió una transacción (LaboratoryService, con todo
+     * en la BD principal), el evento espera a su commit.
+     */
+    private void publicarTrasCommit(Object evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.publishEvent(evento);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.publishEvent(evento);
+            }
+        });
+    }
+
+    /**
+     * UPDATE en el shard del laboratorio (0 filas si aún no tiene shard);
+     * se une a la transacción en curso si la hay. El update se evalúa
+     * dentro de la transacción (toma su change_seq).
+     */
+    private int enBloque(String laboratory, IntSupplier update) {
+        Optional<Integer> shard = router.assignedShard(laboratory);
+        if (shard.isEmpty()) {
+            return 0;
+        }
+        router.checkWritable(laboratory);
+        return router.onShard(shard.get(), () -> tx.execute(status -> update.getAsInt()));
+    }
+
+    /**
+     * Un laboratorio o técnico cambió de nombre. SAMPLE guarda su ID y no
+     * cambia; lo que está indexado por nombre sí: asignación de shard,
+     * historial de transiciones, histogramas y consultas en vuelo. Las
+     * muestras afectadas se marcan como cambiadas (su JSON sí cambia).
+     */
+    @EventListener
+    public void onReferenceRenamed(SampleReferenceRenamedEvent evento) {
+        coalescer.forget("samples.");
+        if (evento.isRemote()) {
+            // Renombrado en otro nodo: ese nodo ya actualizó la BD; aquí solo lo que está en memoria
+            if (evento.getTipo() == SampleReferenceRenamedEvent.Tipo.LABORATORIO) {
+                router.renombradoEnOtroNodo(evento.getOldName(), evento.getNewName());
+                turnaroundTracker.renombrar(evento.getOldName(), evento.getNewName());
+            }
+            return;
+        }
+        if (evento.getTipo() != SampleReferenceRenamedEvent.Tipo.LABORATORIO) {
+            router.fanOut(() -> {
+                tx.executeWithoutResult(status -> repository.touchByTechnicianId(evento.getId(), changes.currentSeq()));
+                return List.of();
+            });
+            return;
+        }
+        String anterior = evento.getOldName();
+        String nuevo = evento.getNewName();
+        router.renombrar(anterior, nuevo).ifPresent(shard -> router.onShard(shard, () -> tx.execute(status -> {
+            transitionRepository.renameLaboratory(anterior, nuevo);
+            return repository.touchByLaboratoryId(evento.getId(), changes.currentSeq());
+        })));
+        turnaroundTracker.renombrar(anterior, nuevo);
+    }
+
+    // ============================================================
+    // Ciclo de vida de la muestra
+    // ============================================================
+
+    /**
+     * Avanza una muestra a un nuevo estado respetando la máquina de estados
+     * definida en {@link SampleStatus}. Cada cambio queda en el historial.
+     *
+     * Si la transición no está permitida lanza InvalidTransitionException (409).
+     */
+    public Sample changeStatus(Long id, SampleStatus nuevo) {
+        log.info("🔄 Cambiando estado de la muestra {} a {}", id, nuevo);
+
+        Sample previa = findById(id);
+        String laboratory = previa.getLaboratory();
+        Map<String, Object> antes = audit.snapshot(previa);
+        Sample actualizada = router.onLaboratoryWrite(laboratory,
+                () -> tx.execute(status -> aplicarTransicion(id, nuevo)));
+
+        if (nuevo == SampleStatus.INFORMADA) {
+            turnaroundTracker.registrar(actualizada.getLaboratory(), actualizada.getReceivedAt(),
+                    actualizada.getReportedAt());
+        }
+        publicar(SampleChangedEvent.Tipo.ESTADO, actualizada);
+        audit.recordUpdate(ENTIDAD, id, antes, actualizada);
+        log.info("✅ Muestra {} ahora en estado {}", id, nuevo);
+        return actualizada;
+    }
+
+    private Sample aplicarTransicion(Long id, SampleStatus nuevo) {
+        Sample muestra = findById(id);
+        // Las muestras anteriores al ciclo de vida se consideran recibidas
+        SampleStatus actual = muestra.getStatus() != null ? muestra.getStatus() : SampleStatus.RECIBIDA;
+
+        if (muestra.getHeldAt() != null) {
+            log.warn("⚠️ La muestra {} está retenida, no cambia de estado", id);
+            throw new InvalidTransitionException("La muestra está retenida: su laboratorio está inactivo");
+        }
+
+        if (!actual.puedePasarA(nuevo)) {
+            log.warn("⚠️ Transición inválida para la muestra {}: {} → {}", id, actual, nuevo);
+            throw new InvalidTransitionException("No se puede pasar la muestra de " + actual + " a " + nuevo);
+        }
+
+        muestra.setStatus(nuevo);
+        if (nuevo == SampleStatus.INFORMADA) {
+            muestra.setReportedAt(LocalDateTime.now());
+        }
+
+        Sample actualizada = repository.save(muestra);
+        registrarTransicion(actualizada, actual);
+        return actualizada;
+    }
+
+    /**
+     * Historial de estados de una muestra (más antiguo primero).
+     */
+    public List<SampleTransition> findHistory(Long id) {
+        log.info("📜 Consultando historial de la muestra {}", id);
+        Sample muestra = findById(id); // lanza excepción si no existe
+        return router.onLaboratory(muestra.getLaboratory(),
+                () -> transitionRepository.findBySampleIdOrderByChangedAtAscIdAsc(id));
+    }
+
+    private void publicar(SampleChangedEvent.Tipo tipo, Sample muestra) {
+        coalescer.forget("samples.");
+        events.publishEvent(new SampleChangedEvent(tipo, muestra.getId(), muestra.getLaboratory(), muestra));
+    }
+
+    /**
+     * Equivalente a las FK: el laboratorio y el técnico deben existir.
+     */
+    private void validarReferencias(Sample muestra) {
+        if (references.laboratoryId(muestra.getLaboratory()) == null) {
+            throw new ResourceNotFoundException("No existe el laboratorio: " + muestra.getLaboratory());
+        }
+        if (references.technicianId(muestra.getTechnician()) == null) {
+            throw new ResourceNotFoundException("No existe un usuario con el nombre: " + muestra.getTechnician());
+        }
+        if (muestra.getPatientId() != null && !references.isPatient(muestra.getPatientId())) {
+            throw new ResourceNotFoundException("No existe un paciente con ID: " + muestra.getPatientId());
+        }
+    }
+
+    private void prepararRecepcion(Sample muestra) {
+        muestra.setStatus(SampleStatus.RECIBIDA);
+        muestra.setReceivedAt(LocalDateTime.now());
+        muestra.setReportedAt(null);
+        if (muestra.getCollectedAt() == null) {
+            muestra.setCollectedAt(muestra.getReceivedAt());
+        }
+    }
+
+    private static IllegalArgumentException codigoDuplicado(Sample muestra) {
+        log.warn("⚠️ Intento de guardar una muestra duplicada: {}", muestra.getCode());
+        return new IllegalArgumentException("Ya existe una muestra con el mismo código.");
+    }
+
+    private void insertarMuestras(List<Sample> muestras, long seq) {
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbc.batchUpdate(con -> con.prepareStatement(INSERT_MUESTRA, new String[] { "ID" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Sample m = muestras.get(i);
+                        ps.setString(1, m.getCode());
+                        ps.setString(2, m.getCodeKey());
+                        ps.setString(3, m.getDescription());
+                        ps.setLong(4, references.laboratoryId(m.getLaboratory()));
+                        ps.setLong(5, references.technicianId(m.getTechnician()));
+                        if (m.getPatientId() != null) {
+                            ps.setLong(6, m.getPatientId());
+                        } else {
+                            ps.setNull(6, Types.BIGINT);
+                        }
+                        ps.setTimestamp(7, Timestamp.valueOf(m.getCollectedAt()));
+                        ps.setString(8, m.getStatus().name());
+                        ps.setTimestamp(9, Timestamp.valueOf(m.getReceivedAt()));
+                        ps.setLong(10, seq);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return muestras.size();
+                    }
+                }, claves);
+        List<Map<String, Object>> ids = claves.getKeyList();
+        for (int i = 0; i < muestras.size(); i++) {
+            muestras.get(i).setId(((Number) ids.get(i).values().iterator().next()).longValue());
+            muestras.get(i).setChangeSeq(seq);
+        }
+    }
+
+    private void insertarTransicionesIniciales(List<Sample> muestras) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate(INSERT_TRANSICION, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Sample m = muestras.get(i);
+                ps.setLong(1, m.getId());
+                ps.setString(2, m.getLaboratory());
+                ps.setNull(3, Types.VARCHAR);
+                ps.setString(4, m.getStatus().name());
+                ps.setTimestamp(5, ahora);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return muestras.size();
+            }
+        });
+    }
+
+    private void registrarTransicion(Sample muestra, SampleStatus desde) {
+        SampleTransition transicion = new SampleTransition();
+        transicion.setSampleId(muestra.getId());
+        transicion.setLaboratory(muestra.getLaboratory());
+        transicion.setFromStatus(desde);
+        transicion.setToStatus(muestra.getStatus());
+        transicion.setChangedAt(LocalDateTime.now());
+        transitionRepository.save(transicion);
     }
 }
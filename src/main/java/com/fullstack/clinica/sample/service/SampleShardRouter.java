@@ -0,0 +1,345 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.sample.model.ShardAssignment;
+import com.fullstack.clinica.sample.repository.ShardAssignmentRepository;
+import com.fullstack.clinica.sample.shard.SampleShardContext;
+import com.fullstack.clinica.sample.shard.ShardProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleShardRouter
+ * ---------------------------------------------------------------
+ * Decide en qué shard se ejecuta cada operación sobre muestras.
+ *
+ * - La clave de partición es Sample.laboratory.
+ * - Cada laboratorio nuevo se asigna por hash y la asignación se
+ *   persiste en SAMPLE_SHARD_MAP (así agregar shards no mueve datos).
+ * - Los IDs de cada shard arrancan en shard × ID_RANGE, así que son
+ *   únicos entre shards y una búsqueda por ID va primero al shard de su
+ *   rango. Una muestra movida conserva su ID: si no está ahí, se busca
+ *   en los demás.
+ * - Cada escritura lee la asignación en SAMPLE_SHARD_MAP: si el
+ *   laboratorio se está moviendo (moving_to) se rechaza con 409 en
+ *   cualquier nodo, y si otro nodo lo movió se escribe en el shard nuevo.
+ * - findAll y búsquedas globales se ejecutan en paralelo en todos los
+ *   shards y se combinan (fan-out + merge).
+ *
+ * Con el sharding desactivado todas las operaciones se ejecutan tal cual.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class SampleShardRouter {
+
+    /** Rango de IDs reservado para cada shard. */
+    public static final long ID_RANGE = 1_000_000_000_000L;
+
+    private final ShardProperties properties;
+    private final ShardAssignmentRepository assignmentRepository;
+    private final TransactionTemplate tx;
+
+    private final Map<String, Integer> mapa = new ConcurrentHashMap<>();
+    private ExecutorService fanOutPool;
+
+    public SampleShardRouter(ShardProperties properties, ShardAssignmentRepository assignmentRepository,
+            TransactionTemplate tx) {
+        this.properties = properties;
+        this.assignmentRepository = assignmentRepository;
+        this.tx = tx;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        fanOutPool = Executors.newFixedThreadPool(shardCount());
+        onShard(0, () -> assignmentRepository.findAll()).forEach(a -> {
+            mapa.put(a.getLaboratory(), a.getShard());
+            if (a.getMovingTo() != null) {
+                log.warn("⚠️ Movimiento pendiente: '{}' del shard {} al {} (escrituras bloqueadas hasta reanudarlo)",
+                        a.getLaboratory(), a.getShard(), a.getMovingTo());
+            }
+        });
+        log.info("🧩 Mapa de shards cargado: {} laboratorios asignados", mapa.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fanOutPool != null) {
+            fanOutPool.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int shardCount() {
+        return isEnabled() ? properties.getShards().size() + 1 : 1;
+    }
+
+    /**
+     * Shard asignado a un laboratorio (se asigna y persiste si es nuevo).
+     */
+    public int shardFor(String laboratory) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        Integer asignado = mapa.get(laboratory);
+        if (asignado != null) {
+            return asignado;
+        }
+        // La escritura en BD va fuera del mapa: computeIfAbsent no debe bloquear en E/S
+        int shard = asignar(laboratory);
+        Integer previo = mapa.putIfAbsent(laboratory, shard);
+        return previo != null ? previo : shard;
+    }
+
+    /**
+     * Shard al que pertenece un ID de muestra.
+     */
+    public int shardForId(Long id) {
+        if (!isEnabled() || id == null) {
+            return 0;
+        }
+        int shard = (int) (id / ID_RANGE);
+        return shard < shardCount() ? shard : 0;
+    }
+
+    /**
+     * Shard ya asignado al laboratorio, sin asignar uno nuevo (vacío si el
+     * laboratorio aún no tiene muestras).
+     */
+    public Optional<Integer> assignedShard(String laboratory) {
+        return isEnabled() ? Optional.ofNullable(mapa.get(laboratory)) : Optional.of(0);
+    }
+
+    public Map<String, Integer> assignments() {
+        return Map.copyOf(mapa);
+    }
+
+    // ============================================================
+    // Ejecución enrutada
+    // ============================================================
+
+    /**
+     * Lectura en el shard del laboratorio.
+     */
+    public <T> T onLaboratory(String laboratory, Supplier<T> operacion) {
+        return isEnabled() ? onShard(shardFor(laboratory), operacion) : operacion.get();
+    }
+
+    /**
+     * Escritura en el shard del laboratorio. Se rechaza (409) mientras el
+     * laboratorio se está moviendo de shard.
+     */
+    public <T> T onLaboratoryWrite(String laboratory, Supplier<T> operacion) {
+        return isEnabled() ? onShard(shardParaEscribir(laboratory), operacion) : operacion.get();
+    }
+
+    /**
+     * 409 si el laboratorio se está moviendo de shard (también lo usa
+     * LaboratoryService antes de renombrarlo).
+     */
+    public void checkWritable(String laboratory) {
+        if (isEnabled()) {
+            shardParaEscribir(laboratory);
+        }
+    }
+
+    /**
+     * Busca por ID de muestra: primero en el shard de su rango y, si no
+     * está (la muestra se movió con su laboratorio), en los demás.
+     */
+    public <T> Optional<T> onSampleId(Long id, Supplier<Optional<T>> consulta) {
+        if (!isEnabled()) {
+            return consulta.get();
+        }
+        int propio = shardForId(id);
+        Optional<T> encontrado = onShard(propio, consulta);
+        for (int shard = 0; shard < shardCount() && encontrado.isEmpty(); shard++) {
+            if (shard != propio) {
+                encontrado = onShard(shard, consulta);
+            }
+        }
+        return encontrado;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> operacion) {
+        Integer anterior = SampleShardContext.get();
+        SampleShardContext.set(shard);
+        try {
+            return operacion.get();
+        } finally {
+            if (anterior != null) {
+                SampleShardContext.set(anterior);
+            } else {
+                SampleShardContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la consulta en todos los shards en paralelo y concatena los resultados.
+     */
+    public <T> List<T> fanOut(Supplier<? extends List<T>> consulta) {
+        if (!isEnabled()) {
+            return consulta.get();
+        }
+        List<CompletableFuture<? extends List<T>>> parciales = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int destino = shard;
+            parciales.add(CompletableFuture.supplyAsync(() -> onShard(destino, consulta), fanOutPool));
+        }
+        List<T> resultado = new ArrayList<>();
+        try {
+            parciales.forEach(f -> resultado.addAll(f.join()));
+        } catch (CompletionException e) {
+            // Se propaga el error original (ej: 503 del circuit breaker), no el envoltorio
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+        return resultado;
+    }
+
+    /**
+     * Devuelve el primer resultado presente recorriendo los shards.
+     */
+    public <T> Optional<T> findFirst(Supplier<Optional<T>> consulta) {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            Optional<T> encontrado = onShard(shard, consulta);
+            if (encontrado.isPresent()) {
+                return encontrado;
+            }
+        }
+        return Optional.empty();
+    }
+
+    // ============================================================
+    // Rebalanceo (lo usa ShardRebalanceService)
+    // ============================================================
+
+    /**
+     * Reclama el movimiento en SAMPLE_SHARD_MAP (UPDATE condicional): desde
+     * ese commit ningún nodo escribe muestras del laboratorio. Un movimiento
+     * al mismo destino sin renovar en {@code lease} se puede reanudar.
+     */
+    boolean reclamarMovimiento(String laboratory, int destino, Duration lease) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return enShardPrincipal(() -> assignmentRepository.claimMove(laboratory, destino, ahora, ahora.minus(lease))) == 1;
+    }
+
+    void renovarMovimiento(String laboratory, int destino) {
+        enShardPrincipal(() -> assignmentRepository.renewMove(laboratory, destino, LocalDateTime.now()));
+    }
+
+    /**
+     * Movimiento pendiente del laboratorio (destino), leído de la BD.
+     */
+    Optional<Integer> movimientoPendiente(String laboratory) {
+        return onShard(0, () -> assignmentRepository.findById(laboratory)).map(ShardAssignment::getMovingTo);
+    }
+
+    void reasignar(String laboratory, int destino) {
+        enShardPrincipal(() -> assignmentRepository.reassign(laboratory, destino));
+        mapa.put(laboratory, destino);
+    }
+
+    void terminarMovimiento(String laboratory, int destino) {
+        enShardPrincipal(() -> assignmentRepository.finishMove(laboratory, destino));
+    }
+
+    /**
+     * Otro nodo renombró el laboratorio (y su asignación en la BD): el
+     * mapa local sigue al nombre nuevo.
+     */
+    void renombradoEnOtroNodo(String anterior, String nuevo) {
+        Integer shard = mapa.remove(anterior);
+        if (shard != null) {
+            mapa.put(nuevo, shard);
+        }
+    }
+
+    /**
+     * El laboratorio cambió de nombre: la asignación (clave = nombre) lo sigue.
+     */
+    Optional<Integer> renombrar(String anterior, String nuevo) {
+        Integer shard = isEnabled() ? mapa.get(anterior) : null;
+        if (shard == null) {
+            return assignedShard(nuevo);
+        }
+        guardarAsignacion(nuevo, shard);
+        mapa.put(nuevo, shard);
+        onShard(0, () -> {
+            assignmentRepository.deleteById(anterior);
+            return null;
+        });
+        mapa.remove(anterior);
+        log.info("🧩 Asignación del shard {} renombrada: '{}' → '{}'", shard, anterior, nuevo);
+        return Optional.of(shard);
+    }
+
+    /**
+     * Lee la asignación vigente en la BD: 409 si hay un movimiento en
+     * curso; si otro nodo movió el laboratorio, el mapa local se corrige.
+     */
+    private int shardParaEscribir(String laboratory) {
+        Optional<ShardAssignment> fila = onShard(0, () -> assignmentRepository.findById(laboratory));
+        if (fila.isEmpty()) {
+            return shardFor(laboratory);
+        }
+        if (fila.get().getMovingTo() != null) {
+            throw new ConflictException("El laboratorio " + laboratory + " se está rebalanceando, reintente en unos segundos");
+        }
+        mapa.put(laboratory, fila.get().getShard());
+        return fila.get().getShard();
+    }
+
+    /**
+     * Asigna por hash un laboratorio sin fila. Si otro nodo lo asignó a la
+     * vez (PK duplicada), vale la fila que quedó en la BD.
+     */
+    private int asignar(String laboratory) {
+        int shard = Math.floorMod(laboratory.hashCode(), shardCount());
+        try {
+            guardarAsignacion(laboratory, shard);
+            log.info("🧩 Laboratorio '{}' asignado al shard {}", laboratory, shard);
+            return shard;
+        } catch (DataIntegrityViolationException e) {
+            return onShard(0, () -> assignmentRepository.findById(laboratory)).map(ShardAssignment::getShard)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private void guardarAsignacion(String laboratory, int shard) {
+        ShardAssignment asignacion = new ShardAssignment();
+        asignacion.setLaboratory(laboratory);
+        asignacion.setShard(shard);
+        onShard(0, () -> assignmentRepository.save(asignacion));
+    }
+
+    private int enShardPrincipal(Supplier<Integer> actualizacion) {
+        return onShard(0, () -> tx.execute(status -> actualizacion.get()));
+    }
+}
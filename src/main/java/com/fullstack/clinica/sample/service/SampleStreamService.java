@@ -0,0 +1,354 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.exception.ServiceUnavailableException;
+import com.fullstack.clinica.sample.event.SampleChangedEvent;
+import com.fullstack.clinica.sample.event.SamplesHeldEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleStreamService
+ * ---------------------------------------------------------------
+ * Feed Server-Sent Events de cambios de muestras por laboratorio.
+ *
+ * - Cada conexión es un SseEmitter asíncrono: no ocupa un hilo de
+ *   Tomcat mientras está inactiva.
+ * - Cada suscriptor tiene un buffer acotado. Si se llena (cliente lento)
+ *   la conexión se cierra y el cliente debe reconectar.
+ * - Un pool pequeño de hilos vacía los buffers: el hilo que publica el
+ *   evento solo encola, nunca escribe en la red.
+ * - SseEmitter.send bloquea mientras el cliente no lee (TCP lleno). Un
+ *   envío que pasa de clinica.stream.send-timeout desconecta a ese
+ *   suscriptor y el pool recibe un hilo de reemplazo mientras el envío
+ *   atascado espera el timeout de escritura del contenedor: los demás
+ *   suscriptores siguen recibiendo.
+ * - Un heartbeat periódico mantiene vivas las conexiones a través de
+ *   proxies y detecta clientes desconectados.
+ * - Los suscriptores se agrupan por ID de laboratorio: un renombre no
+ *   los deja sin eventos. Solo se aceptan laboratorios existentes, y la
+ *   entrada de un laboratorio se elimina con su último suscriptor: el
+ *   mapa no crece con nombres arbitrarios.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class SampleStreamService {
+
+    private final Map<Long, Set<Suscriptor>> porLaboratorio = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService heartbeat;
+    private final SampleReferences references;
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int senderThreads;
+    private final int maxReplacements;
+    private int replacements;
+
+    public SampleStreamService(SampleReferences references,
+            @Value("${clinica.stream.buffer-size:256}") int bufferSize,
+            @Value("${clinica.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${clinica.stream.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${clinica.stream.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${clinica.stream.sender-threads:4}") int senderThreads,
+            @Value("${clinica.stream.send-timeout:5s}") Duration sendTimeout,
+            @Value("${clinica.stream.max-stalled-senders:64}") int maxReplacements) {
+        this.references = references;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senderThreads = senderThreads;
+        this.maxReplacements = maxReplacements;
+        AtomicInteger n = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> hilo(r, "sse-sender-" + n.incrementAndGet()));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> hilo(r, "sse-heartbeat"));
+        this.heartbeat.scheduleAtFixedRate(this::enviarHeartbeat, heartbeatSeconds, heartbeatSeconds,
+                TimeUnit.SECONDS);
+        long revision = Math.max(100, sendTimeout.toMillis() / 2);
+        this.heartbeat.scheduleAtFixedRate(this::revisarEnvios, revision, revision, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        porLaboratorio.values().forEach(s -> s.forEach(x -> x.emitter.complete()));
+    }
+
+    /**
+     * Registra un nuevo suscriptor del laboratorio indicado.
+     */
+    public SseEmitter subscribe(String laboratory) {
+        Long laboratoryId = references.laboratoryId(laboratory);
+        if (laboratoryId == null) {
+            throw new ResourceNotFoundException("No existe el laboratorio: " + laboratory);
+        }
+        if (total.incrementAndGet() > maxSubscribers) {
+            total.decrementAndGet();
+            throw new ServiceUnavailableException("Se alcanzó el máximo de suscriptores en tiempo real", 5);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Suscriptor suscriptor = new Suscriptor(laboratoryId, laboratory, emitter,
+                new ArrayBlockingQueue<>(bufferSize));
+        porLaboratorio.compute(laboratoryId, (l, subs) -> {
+            Set<Suscriptor> set = subs != null ? subs : ConcurrentHashMap.newKeySet();
+            set.add(suscriptor);
+            return set;
+        });
+
+        emitter.onCompletion(() -> quitar(suscriptor));
+        emitter.onTimeout(() -> quitar(suscriptor));
+        emitter.onError(e -> quitar(suscriptor));
+
+        encolar(suscriptor, SseEmitter.event().name("connected").data(laboratory));
+        log.info("📡 Nuevo suscriptor SSE para el laboratorio {} (total: {})", laboratory, total.get());
+        return emitter;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", total.get());
+        Map<String, Integer> porLab = new LinkedHashMap<>();
+        porLaboratorio.forEach((id, subs) -> {
+            String nombre = references.laboratoryName(id);
+            porLab.put(nombre != null ? nombre : String.valueOf(id), subs.size());
+        });
+        stats.put("byLaboratory", porLab);
+        synchronized (this) {
+            stats.put("stalledSenders", replacements);
+        }
+        return stats;
+    }
+
+    // ============================================================
+    // Publicación
+    // ============================================================
+
+    @EventListener
+    public void onSampleChanged(SampleChangedEvent evento) {
+        Set<Suscriptor> suscriptores = suscriptores(evento.getLaboratory());
+        if (suscriptores == null || suscriptores.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", evento.getTipo());
+        payload.put("sampleId", evento.getSampleId());
+        payload.put("sample", evento.getSample());
+
+        for (Suscriptor suscriptor : suscriptores) {
+            encolar(suscriptor, SseEmitter.event()
+                    .id(String.valueOf(evento.getSampleId()))
+                    .name(evento.getTipo().name())
+                    .data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Retención en bloque: un solo evento RETENIDAS / LIBERADAS con el
+     * conteo, en vez de uno por muestra.
+     */
+    @EventListener
+    public void onSamplesHeld(SamplesHeldEvent evento) {
+        Set<Suscriptor> suscriptores = suscriptores(evento.getLaboratory());
+        if (suscriptores == null || suscriptores.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("laboratory", evento.getLaboratory());
+        payload.put("count", evento.getCount());
+        payload.put("heldAt", evento.getHeldAt());
+
+        String nombre = evento.getHeldAt() != null ? "RETENIDAS" : "LIBERADAS";
+        for (Suscriptor suscriptor : suscriptores) {
+            encolar(suscriptor, SseEmitter.event().name(nombre).data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /** Los eventos traen el nombre actual del laboratorio; se agrupa por su ID. */
+    private Set<Suscriptor> suscriptores(String laboratory) {
+        if (porLaboratorio.isEmpty()) {
+            return null;
+        }
+        Long laboratoryId = references.laboratoryId(laboratory);
+        return laboratoryId != null ? porLaboratorio.get(laboratoryId) : null;
+    }
+
+    private void enviarHeartbeat() {
+        porLaboratorio.values().forEach(subs -> subs.forEach(s -> encolar(s, SseEmitter.event().comment("ping"))));
+    }
+
+    private void encolar(Suscriptor suscriptor, SseEmitter.SseEventBuilder evento) {
+        if (suscriptor.cerrado) {
+            return;
+        }
+        if (!suscriptor.buffer.offer(evento)) {
+            log.warn("🐢 Suscriptor lento del laboratorio {}: buffer lleno, se desconecta", suscriptor.laboratory);
+            // complete() espera al envío en curso: lo hace el hilo de envío, nunca quien publica
+            suscriptor.cerrado = true;
+            quitar(suscriptor);
+        }
+        if (suscriptor.enviando.compareAndSet(false, true)) {
+            senders.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    /**
+     * Envía todo lo pendiente del suscriptor. Solo un hilo a la vez por
+     * suscriptor (flag "enviando"), así se conserva el orden de eventos.
+     */
+    private void vaciar(Suscriptor suscriptor) {
+        do {
+            SseEmitter.SseEventBuilder evento;
+            while (!suscriptor.cerrado && (evento = suscriptor.buffer.poll()) != null) {
+                suscriptor.envioDesde = System.nanoTime();
+                try {
+                    suscriptor.emitter.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    suscriptor.cerrado = true;
+                } finally {
+                    synchronized (suscriptor) {
+                        suscriptor.envioDesde = 0;
+                    }
+                }
+            }
+            if (suscriptor.cerrado) {
+                cerrar(suscriptor);
+                return;
+            }
+            suscriptor.enviando.set(false);
+        } while ((suscriptor.cerrado || !suscriptor.buffer.isEmpty())
+                && suscriptor.enviando.compareAndSet(false, true));
+    }
+
+    /**
+     * Desconecta a los suscriptores con un envío en curso más largo que
+     * send-timeout y le da al pool un hilo de reemplazo por cada uno.
+     */
+    private void revisarEnvios() {
+        long ahora = System.nanoTime();
+        porLaboratorio.values().forEach(subs -> subs.forEach(s -> {
+            long desde = s.envioDesde;
+            if (desde != 0 && ahora - desde > sendTimeoutNanos) {
+                atascado(s);
+            }
+        }));
+    }
+
+    private void atascado(Suscriptor suscriptor) {
+        synchronized (suscriptor) {
+            // Puede estar ya cerrado (buffer lleno) y seguir con el envío bloqueado
+            if (suscriptor.envioDesde == 0 || suscriptor.atascado) {
+                return; // el envío terminó entretanto, o ya se atendió
+            }
+            suscriptor.atascado = true;
+            suscriptor.cerrado = true;
+            suscriptor.reemplazado = reemplazarEnviador();
+        }
+        quitar(suscriptor);
+        log.warn("🐢 Suscriptor del laboratorio {} sin leer hace más de {} ms: se desconecta{}",
+                suscriptor.laboratory, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos),
+                suscriptor.reemplazado ? "" : " (sin hilos de reemplazo disponibles)");
+    }
+
+    /** Cierra el suscriptor desde su hilo de envío (ya sin envío en curso). */
+    private void cerrar(Suscriptor suscriptor) {
+        quitar(suscriptor);
+        suscriptor.buffer.clear();
+        synchronized (suscriptor) {
+            if (suscriptor.reemplazado) {
+                suscriptor.reemplazado = false;
+                devolverEnviador();
+            }
+        }
+        suscriptor.emitter.complete();
+    }
+
+    private synchronized boolean reemplazarEnviador() {
+        if (replacements >= maxReplacements) {
+            return false;
+        }
+        replacements++;
+        senders.setMaximumPoolSize(senderThreads + replacements);
+        senders.setCorePoolSize(senderThreads + replacements);
+        return true;
+    }
+
+    private synchronized void devolverEnviador() {
+        replacements--;
+        senders.setCorePoolSize(senderThreads + replacements);
+        senders.setMaximumPoolSize(senderThreads + replacements);
+    }
+
+    /**
+     * Quita el suscriptor y, si era el último, la entrada del laboratorio.
+     * compute() serializa altas y bajas del mismo laboratorio: un alta
+     * concurrente nunca queda en un conjunto ya eliminado del mapa.
+     */
+    private void quitar(Suscriptor suscriptor) {
+        porLaboratorio.computeIfPresent(suscriptor.laboratoryId, (l, subs) -> {
+            if (subs.remove(suscriptor)) {
+                total.decrementAndGet();
+            }
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    private static Thread hilo(Runnable r, String nombre) {
+        Thread t = new Thread(r, nombre);
+        t.setDaemon(true);
+        return t;
+    }
+
+    private static final class Suscriptor {
+        private final Long laboratoryId;
+        private final String laboratory;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        /** Inicio (nanoTime) del envío en curso; 0 si no hay envío. */
+        private volatile long envioDesde;
+        /** Desconectado: no se encola ni se envía más. */
+        private volatile boolean cerrado;
+        /** Envío más largo que send-timeout (ya desconectado). */
+        private boolean atascado;
+        /** El pool recibió un hilo de reemplazo por este suscriptor. */
+        private boolean reemplazado;
+
+        private Suscriptor(Long laboratoryId, String laboratory, SseEmitter emitter,
+                BlockingQueue<SseEmitter.SseEventBuilder> buffer) {
+            this.laboratoryId = laboratoryId;
+            this.laboratory = laboratory;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
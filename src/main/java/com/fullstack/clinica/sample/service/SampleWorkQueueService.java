@@ -0,0 +1,244 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.audit.service.AuditService;
+import com.fullstack.clinica.common.RequestCoalescer;
+import com.fullstack.clinica.exception.BadRequestException;
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.sample.event.SampleChangedEvent;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.repository.SampleRepository;
+import com.fullstack.clinica.sync.service.ChangeFeedService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleWorkQueueService
+ * ---------------------------------------------------------------
+ * Cola de trabajo de muestras por laboratorio: cada técnico reclama
+ * N muestras RECIBIDAS sin dueño, en vez de recorrer los listados del
+ * laboratorio.
+ *
+ * - Reclamo atómico con SELECT ... FOR UPDATE SKIP LOCKED: los técnicos
+ *   que reclaman a la vez se saltan las filas que otro está tomando,
+ *   sin esperar su lock y sin asignar una muestra dos veces.
+ * - Cada reclamo es un arriendo (claimedBy + leaseUntil): si vence sin
+ *   que la muestra avance de estado, vuelve a estar disponible.
+ * - El técnico puede renovar el arriendo o liberar la muestra.
+ * - Las muestras retenidas (laboratorio inactivo, heldAt) no se reclaman.
+ * - claimedBy y leaseUntil salen en el JSON: cada UPDATE fija también
+ *   change_seq (primer parámetro), para /api/samples/changes.
+ *
+ * Las filas se bloquean a medida que se leen (setMaxRows = N), por eso el
+ * SELECT no lleva ORDER BY: obligaría a H2 a ordenar en memoria, y para
+ * eso bloquea TODAS las filas del laboratorio antes de devolver la
+ * primera. El reclamo NO garantiza orden de llegada: se toman las
+ * primeras filas libres que entregue el plan (hoy, el recorrido de
+ * IX_SAMPLE_LABORATORY suele dar las de menor ID, pero ni la BD ni
+ * SKIP LOCKED lo aseguran). Solo GET /queue se ordena por ID.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class SampleWorkQueueService {
+
+    private static final String ENTIDAD = "SAMPLE";
+
+    private static final String RECLAMABLES = "select id, claimed_by, lease_until from SAMPLE "
+            + "where laboratory_id = ? and status = ? and held_at is null "
+            + "and (claimed_by is null or lease_until < ?) "
+            + "for update skip locked";
+    private static final String RECLAMAR = "update SAMPLE set change_seq = ?, claimed_by = ?, lease_until = ? "
+            + "where id = ?";
+    private static final String RENOVAR = "update SAMPLE set change_seq = ?, lease_until = ? "
+            + "where id = ? and claimed_by = ?";
+    private static final String LIBERAR = "update SAMPLE set change_seq = ?, claimed_by = null, lease_until = null "
+            + "where id = ? and claimed_by = ?";
+
+    private final SampleRepository repository;
+    private final SampleShardRouter router;
+    private final TransactionTemplate tx;
+    private final JdbcTemplate jdbc;
+    private final ApplicationEventPublisher events;
+    private final RequestCoalescer coalescer;
+    private final AuditService audit;
+    private final SampleReferences references;
+    private final ChangeFeedService changes;
+    private final long leaseSeconds;
+    private final int maxClaim;
+
+    public SampleWorkQueueService(SampleRepository repository, SampleShardRouter router, TransactionTemplate tx,
+            JdbcTemplate jdbc, ApplicationEventPublisher events, RequestCoalescer coalescer, AuditService audit,
+            SampleReferences references, ChangeFeedService changes,
+            @Value("${clinica.work-queue.lease-seconds:900}") long leaseSeconds,
+            @Value("${clinica.work-queue.max-claim:50}") int maxClaim) {
+        this.repository = repository;
+        this.router = router;
+        this.tx = tx;
+        this.jdbc = jdbc;
+        this.events = events;
+        this.coalescer = coalescer;
+        this.audit = audit;
+        this.references = references;
+        this.changes = changes;
+        this.leaseSeconds = leaseSeconds;
+        this.maxClaim = maxClaim;
+    }
+
+    /**
+     * Muestras disponibles del laboratorio (RECIBIDAS sin dueño o con el
+     * arriendo vencido), de la más antigua a la más nueva (por ID). Solo
+     * lectura: claim() no necesariamente las toma en este orden.
+     */
+    public List<Sample> pending(String laboratory, int limit) {
+        log.info("📋 Consultando la cola de trabajo del laboratorio: {}", laboratory);
+        if (references.laboratoryId(laboratory) == null) {
+            return List.of();
+        }
+        return router.onLaboratory(laboratory, () -> repository.findClaimable(laboratory, SampleStatus.RECIBIDA,
+                LocalDateTime.now(), Limit.of(acotar(limit))));
+    }
+
+    /**
+     * Reclama hasta {@code limit} muestras disponibles del laboratorio para
+     * el técnico, sin orden garantizado. Devuelve las reclamadas, ordenadas
+     * por ID (puede ser una lista vacía).
+     */
+    public List<Sample> claim(String laboratory, String technician, int limit) {
+        String tecnico = validarTecnico(technician);
+        int cantidad = acotar(limit);
+        Long laboratoryId = references.laboratoryId(laboratory);
+        if (laboratoryId == null) {
+            throw new ResourceNotFoundException("No existe el laboratorio: " + laboratory);
+        }
+        log.info("🙋 {} reclama hasta {} muestras del laboratorio {}", tecnico, cantidad, laboratory);
+
+        Map<Long, Sample> previas = new HashMap<>();
+        List<Sample> reclamadas = router.onLaboratoryWrite(laboratory, () -> tx.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Sample> disponibles = jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(RECLAMABLES);
+                ps.setLong(1, laboratoryId);
+                ps.setString(2, SampleStatus.RECIBIDA.name());
+                ps.setTimestamp(3, Timestamp.valueOf(ahora));
+                ps.setMaxRows(cantidad);
+                return ps;
+            }, (rs, fila) -> {
+                Sample previa = new Sample();
+                previa.setId(rs.getLong("id"));
+                previa.setClaimedBy(rs.getString("claimed_by"));
+                Timestamp arriendo = rs.getTimestamp("lease_until");
+                previa.setLeaseUntil(arriendo != null ? arriendo.toLocalDateTime() : null);
+                return previa;
+            });
+            if (disponibles.isEmpty()) {
+                return List.<Sample>of();
+            }
+
+            Timestamp vence = Timestamp.valueOf(ahora.plusSeconds(leaseSeconds));
+            long seq = changes.currentSeq();
+            jdbc.batchUpdate(RECLAMAR, disponibles.stream()
+                    .map(m -> new Object[] { seq, tecnico, vence, m.getId() })
+                    .toList());
+            disponibles.forEach(m -> previas.put(m.getId(), m));
+
+            List<Sample> actualizadas = new ArrayList<>(repository.findByIdIn(previas.keySet()));
+            actualizadas.sort(Comparator.comparing(Sample::getId));
+            return actualizadas;
+        }));
+
+        for (Sample muestra : reclamadas) {
+            Sample previa = previas.get(muestra.getId());
+            publicar(muestra);
+            audit.recordUpdate(ENTIDAD, muestra.getId(), fotoPrevia(muestra, previa), muestra);
+        }
+        log.info("✅ {} reclamó {} muestras del laboratorio {}", tecnico, reclamadas.size(), laboratory);
+        return reclamadas;
+    }
+
+    /**
+     * Extiende el arriendo de una muestra que el técnico tiene reclamada.
+     */
+    public Sample renew(Long id, String technician) {
+        String tecnico = validarTecnico(technician);
+        log.info("⏳ {} renueva el arriendo de la muestra {}", tecnico, id);
+        Timestamp vence = Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSeconds));
+        return actualizarReclamo(id, tecnico, RENOVAR, vence, id, tecnico);
+    }
+
+    /**
+     * Devuelve a la cola una muestra que el técnico tiene reclamada.
+     */
+    public Sample release(Long id, String technician) {
+        String tecnico = validarTecnico(technician);
+        log.info("↩️ {} libera la muestra {}", tecnico, id);
+        return actualizarReclamo(id, tecnico, LIBERAR, id, tecnico);
+    }
+
+    /**
+     * Ejecuta el UPDATE condicionado a que el técnico sea el dueño del
+     * reclamo; si no lo es (otro la reclamó tras vencer) responde 409.
+     * El change_seq de la transacción se antepone a los argumentos.
+     */
+    private Sample actualizarReclamo(Long id, String tecnico, String sql, Object... args) {
+        Sample previa = router.onSampleId(id, () -> repository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("No se encontró la muestra con ID: " + id));
+        Map<String, Object> antes = audit.snapshot(previa);
+
+        Sample actualizada = router.onLaboratoryWrite(previa.getLaboratory(), () -> tx.execute(status -> {
+            Object[] parametros = new Object[args.length + 1];
+            parametros[0] = changes.currentSeq();
+            System.arraycopy(args, 0, parametros, 1, args.length);
+            if (jdbc.update(sql, parametros) == 0) {
+                throw new ConflictException("La muestra " + id + " no está reclamada por " + tecnico);
+            }
+            return repository.findById(id).orElseThrow();
+        }));
+        publicar(actualizada);
+        audit.recordUpdate(ENTIDAD, id, antes, actualizada);
+        return actualizada;
+    }
+
+    private Map<String, Object> fotoPrevia(Sample actual, Sample previa) {
+        Sample copia = new Sample();
+        BeanUtils.copyProperties(actual, copia);
+        copia.setClaimedBy(previa.getClaimedBy());
+        copia.setLeaseUntil(previa.getLeaseUntil());
+        return audit.snapshot(copia);
+    }
+
+    private void publicar(Sample muestra) {
+        coalescer.forget("samples.");
+        events.publishEvent(new SampleChangedEvent(SampleChangedEvent.Tipo.ACTUALIZADA, muestra.getId(),
+                muestra.getLaboratory(), muestra));
+    }
+
+    private int acotar(int limit) {
+        return Math.min(Math.max(limit, 1), maxClaim);
+    }
+
+    private static String validarTecnico(String technician) {
+        if (technician == null || technician.isBlank()) {
+            throw new BadRequestException("Debe indicar el técnico que reclama la muestra");
+        }
+        return technician.trim();
+    }
+}
@@ -0,0 +1,217 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.exception.BadRequestException;
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.sample.event.SampleShardMovedEvent;
+import com.fullstack.clinica.sample.shard.ShardRowCopier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ShardRebalanceService
+ * ---------------------------------------------------------------
+ * Mueve todas las muestras (y su historial) de un laboratorio a otro
+ * shard y actualiza el mapa de shards. Las muestras conservan su ID
+ * (los rangos por shard lo hacen único): para la API, la auditoría,
+ * las colas y /api/samples/changes el movimiento no existe.
+ *
+ * 1️⃣ Reclama el movimiento en SAMPLE_SHARD_MAP (moving_to): desde ese
+ *    commit ningún nodo escribe muestras del laboratorio.
+ * 2️⃣ Drena el laboratorio de cada shard distinto del destino, por
+ *    páginas: copia muestras e historial (borrando antes en el destino
+ *    los mismos IDs) y borra el origen solo si, con las filas
+ *    bloqueadas (FOR UPDATE), siguen igual que lo copiado; si una
+ *    escritura en vuelo las cambió, la página se vuelve a copiar.
+ * 3️⃣ Apunta el laboratorio al destino y drena otra vez (escrituras que
+ *    llegaron al shard anterior).
+ * 4️⃣ Publica SampleShardMovedEvent (los chunks de resultados se drenan
+ *    igual) y levanta el bloqueo.
+ *
+ * Cada paso es idempotente: si el nodo cae a mitad, el bloqueo queda en
+ * la BD y repetir el PUT con el mismo destino (pasado
+ * clinica.sharding.move-lease sin renovación) termina el movimiento.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class ShardRebalanceService {
+
+    private static final int PAGINA = 500;
+
+    private static final String PAGINA_MUESTRAS = "select * from SAMPLE where laboratory_id = :laboratoryId "
+            + "and id > :desde order by id fetch first " + PAGINA + " rows only";
+    private static final String HISTORIAL = "select * from SAMPLE_TRANSITION where sample_id in (:ids)";
+    private static final String VERSIONES = "select id, change_seq from SAMPLE where id in (:ids) for update";
+
+    private final SampleShardRouter router;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ShardRowCopier copier;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final SampleReferences references;
+    private final Duration lease;
+
+    public ShardRebalanceService(SampleShardRouter router, NamedParameterJdbcTemplate jdbc, ShardRowCopier copier,
+            TransactionTemplate tx, ApplicationEventPublisher events, SampleReferences references,
+            @Value("${clinica.sharding.move-lease:PT2M}") Duration lease) {
+        this.router = router;
+        this.jdbc = jdbc;
+        this.copier = copier;
+        this.tx = tx;
+        this.events = events;
+        this.references = references;
+        this.lease = lease;
+    }
+
+    public Map<String, Object> move(String laboratory, int destino) {
+        if (!router.isEnabled()) {
+            throw new ConflictException("El sharding de muestras no está activo");
+        }
+        if (destino < 0 || destino >= router.shardCount()) {
+            throw new BadRequestException("Shard inexistente: " + destino);
+        }
+        Long laboratoryId = references.laboratoryId(laboratory);
+        if (laboratoryId == null) {
+            throw new ResourceNotFoundException("No existe el laboratorio: " + laboratory);
+        }
+        int origen = router.shardFor(laboratory);
+        Optional<Integer> pendiente = router.movimientoPendiente(laboratory);
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("laboratory", laboratory);
+        resumen.put("from", origen);
+        resumen.put("to", destino);
+        if (pendiente.isPresent() && pendiente.get() != destino) {
+            throw new ConflictException("El laboratorio " + laboratory + " tiene un movimiento pendiente al shard "
+                    + pendiente.get() + ": reanúdelo con ese destino");
+        }
+        if (origen == destino && pendiente.isEmpty()) {
+            resumen.put("moved", 0);
+            return resumen;
+        }
+        if (!router.reclamarMovimiento(laboratory, destino, lease)) {
+            throw new ConflictException("El laboratorio " + laboratory + " ya se está rebalanceando");
+        }
+
+        log.info("🧩 Moviendo laboratorio '{}' del shard {} al {}{}", laboratory, origen, destino,
+                pendiente.isPresent() ? " (reanudado)" : "");
+        int movidas = drenar(laboratory, laboratoryId, destino);
+        router.reasignar(laboratory, destino);
+        movidas += drenar(laboratory, laboratoryId, destino);
+        events.publishEvent(new SampleShardMovedEvent(laboratory, origen, destino));
+        router.terminarMovimiento(laboratory, destino);
+
+        resumen.put("moved", movidas);
+        log.info("✅ Laboratorio '{}' movido: {} muestras", laboratory, movidas);
+        return resumen;
+    }
+
+    /**
+     * Trae al destino las muestras del laboratorio que queden en
+     * cualquier otro shard. Repite hasta que una pasada no encuentre nada.
+     */
+    private int drenar(String laboratory, Long laboratoryId, int destino) {
+        int total = 0;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            if (shard == destino) {
+                continue;
+            }
+            int movidas;
+            do {
+                movidas = drenarPasada(laboratory, laboratoryId, shard, destino);
+                total += movidas;
+            } while (movidas > 0);
+        }
+        return total;
+    }
+
+    private int drenarPasada(String laboratory, Long laboratoryId, int origen, int destino) {
+        int movidas = 0;
+        long desde = 0;
+        while (true) {
+            long cursor = desde;
+            List<Map<String, Object>> muestras = router.onShard(origen, () -> jdbc.queryForList(PAGINA_MUESTRAS,
+                    Map.of("laboratoryId", laboratoryId, "desde", cursor)));
+            if (muestras.isEmpty()) {
+                return movidas;
+            }
+            moverPagina(muestras, origen, destino);
+            router.renovarMovimiento(laboratory, destino);
+            movidas += muestras.size();
+            desde = ((Number) muestras.get(muestras.size() - 1).get("ID")).longValue();
+        }
+    }
+
+    /**
+     * Copia la página y borra el origen si nada cambió desde la lectura;
+     * si cambió (escritura en vuelo al reclamar), relee y vuelve a copiar.
+     */
+    private void moverPagina(List<Map<String, Object>> muestras, int origen, int destino) {
+        List<Map<String, Object>> pagina = muestras;
+        List<Long> copiados = List.of();
+        while (!pagina.isEmpty()) {
+            List<Long> ids = pagina.stream().map(f -> ((Number) f.get("ID")).longValue()).toList();
+            Map<Long, Long> versiones = versiones(pagina);
+            List<Map<String, Object>> historial = router.onShard(origen,
+                    () -> jdbc.queryForList(HISTORIAL, Map.of("ids", ids)));
+
+            // Destino: los mismos IDs se reemplazan (reintento o movimiento reanudado)
+            List<Long> reemplazar = Stream.concat(ids.stream(), copiados.stream()).distinct().toList();
+            List<Map<String, Object>> filas = pagina;
+            router.onShard(destino, () -> tx.execute(status -> {
+                Map<String, Object> params = Map.of("ids", reemplazar);
+                jdbc.update("delete from SAMPLE_TRANSITION where sample_id in (:ids)", params);
+                jdbc.update("delete from SAMPLE where id in (:ids)", params);
+                copier.insertar("SAMPLE", filas, Set.of());
+                copier.insertar("SAMPLE_TRANSITION", historial, Set.of("ID"));
+                return null;
+            }));
+            copiados = ids;
+
+            Boolean borrado = router.onShard(origen, () -> tx.execute(status -> {
+                Map<String, Object> params = Map.of("ids", ids);
+                if (!versiones.equals(versiones(jdbc.queryForList(VERSIONES, params)))) {
+                    return false;
+                }
+                jdbc.update("delete from SAMPLE_TRANSITION where sample_id in (:ids)", params);
+                jdbc.update("delete from SAMPLE where id in (:ids)", params);
+                return true;
+            }));
+            if (Boolean.TRUE.equals(borrado)) {
+                return;
+            }
+            log.warn("⚠️ Muestras modificadas durante la copia al shard {}: se copian de nuevo", destino);
+            pagina = router.onShard(origen, () -> jdbc.queryForList("select * from SAMPLE where id in (:ids)",
+                    Map.of("ids", ids)));
+        }
+        // Se borraron en el origen durante la copia: tampoco quedan en el destino
+        Map<String, Object> params = Map.of("ids", copiados);
+        router.onShard(destino, () -> tx.execute(status -> {
+            jdbc.update("delete from SAMPLE_TRANSITION where sample_id in (:ids)", params);
+            return jdbc.update("delete from SAMPLE where id in (:ids)", params);
+        }));
+    }
+
+    /** ID → change_seq: cada escritura de la muestra avanza su change_seq. */
+    private static Map<Long, Long> versiones(List<Map<String, Object>> filas) {
+        Map<Long, Long> versiones = new HashMap<>();
+        filas.forEach(f -> versiones.put(((Number) f.get("ID")).longValue(),
+                ((Number) f.get("CHANGE_SEQ")).longValue()));
+        return versiones;
+    }
+}
@@ -0,0 +1,134 @@
+package com.fullstack.clinica.sample.service;
+
+import com.fullstack.clinica.sample.model.TurnaroundStats;
+import com.fullstack.clinica.sample.repository.SampleRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ===============================================================
+ * 📘 Clase: TurnaroundTracker
+ * ---------------------------------------------------------------
+ * Mantiene, por laboratorio, un histograma HDR con el turnaround
+ * (recepción → informe) de cada muestra informada.
+ *
+ * - Registrar un valor y pedir percentiles es O(1) respecto a la
+ *   cantidad de muestras: no se recorre el historial de eventos.
+ * - Los histogramas son combinables (merge), lo que permite obtener
+ *   el agregado de todos los laboratorios sin volver a la BD.
+ * - Al arrancar se reconstruyen una sola vez desde la tabla SAMPLE,
+ *   shard por shard y en páginas por keyset (no se carga la tabla).
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class TurnaroundTracker {
+
+    // Valores en segundos, 3 dígitos significativos; el rango crece solo si es necesario
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final int PAGINA = 1000;
+
+    private final Map<String, Histogram> porLaboratorio = new ConcurrentHashMap<>();
+    private final SampleRepository repository;
+    private final SampleShardRouter router;
+
+    public TurnaroundTracker(SampleRepository repository, SampleShardRouter router) {
+        this.repository = repository;
+        this.router = router;
+    }
+
+    /**
+     * Reconstruye los histogramas con las muestras ya informadas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long total = 0;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            long ultimoId = 0;
+            List<Object[]> pagina;
+            do {
+                long desde = ultimoId;
+                pagina = router.onShard(shard, () -> repository.findTurnaroundRows(desde, Limit.of(PAGINA)));
+                for (Object[] fila : pagina) {
+                    registrar((String) fila[1], (LocalDateTime) fila[2], (LocalDateTime) fila[3]);
+                    ultimoId = (Long) fila[0];
+                }
+                total += pagina.size();
+            } while (pagina.size() == PAGINA);
+        }
+        log.info("⏱️ Histogramas de turnaround reconstruidos con {} muestras informadas", total);
+    }
+
+    /**
+     * Registra el turnaround de una muestra recién informada.
+     */
+    public void registrar(String laboratory, LocalDateTime receivedAt, LocalDateTime reportedAt) {
+        if (laboratory == null || receivedAt == null || reportedAt == null) {
+            return;
+        }
+        long segundos = Math.max(0, Duration.between(receivedAt, reportedAt).getSeconds());
+        porLaboratorio.computeIfAbsent(laboratory, l -> nuevoHistograma()).recordValue(segundos);
+    }
+
+    /**
+     * El laboratorio se renombró: su histograma pasa al nombre nuevo
+     * (se combina si ya había uno con ese nombre).
+     */
+    public void renombrar(String anterior, String nuevo) {
+        Histogram histograma = porLaboratorio.remove(anterior);
+        if (histograma != null) {
+            porLaboratorio.merge(nuevo, histograma, (actual, movido) -> {
+                actual.add(movido);
+                return actual;
+            });
+        }
+    }
+
+    /**
+     * Percentiles del laboratorio indicado (count = 0 si aún no hay datos).
+     */
+    public TurnaroundStats estadisticas(String laboratory) {
+        Histogram histograma = porLaboratorio.get(laboratory);
+        return aStats(laboratory, histograma != null ? histograma.copy() : nuevoHistograma());
+    }
+
+    /**
+     * Percentiles agregados de todos los laboratorios (merge de histogramas).
+     */
+    public TurnaroundStats estadisticasGlobales() {
+        Histogram total = nuevoHistograma();
+        porLaboratorio.values().forEach(total::add);
+        return aStats("*", total);
+    }
+
+    private static Histogram nuevoHistograma() {
+        ConcurrentHistogram histograma = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+        histograma.setAutoResize(true);
+        return histograma;
+    }
+
+    private static TurnaroundStats aStats(String laboratory, Histogram h) {
+        return new TurnaroundStats(laboratory, h.getTotalCount(),
+                minutos(h.getValueAtPercentile(50)),
+                minutos(h.getValueAtPercentile(90)),
+                minutos(h.getValueAtPercentile(95)),
+                minutos(h.getValueAtPercentile(99)),
+                minutos(h.getMaxValue()));
+    }
+
+    private static double minutos(long segundos) {
+        return segundos / 60.0;
+    }
+}
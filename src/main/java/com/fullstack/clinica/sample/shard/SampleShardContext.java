@@ -0,0 +1,26 @@
+package com.fullstack.clinica.sample.shard;
+
+/**
+ * Shard activo del hilo actual. Lo fija {@code SampleShardRouter} antes de
+ * abrir la transacción y lo lee {@link ShardRoutingDataSource} al pedir una
+ * conexión. Sin valor se usa el shard 0 (BD principal).
+ */
+public final class SampleShardContext {
+
+    private static final ThreadLocal<Integer> ACTUAL = new ThreadLocal<>();
+
+    private SampleShardContext() {
+    }
+
+    public static Integer get() {
+        return ACTUAL.get();
+    }
+
+    public static void set(Integer shard) {
+        ACTUAL.set(shard);
+    }
+
+    public static void clear() {
+        ACTUAL.remove();
+    }
+}
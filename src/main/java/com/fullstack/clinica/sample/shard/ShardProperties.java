@@ -0,0 +1,40 @@
+package com.fullstack.clinica.sample.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ShardProperties
+ * ---------------------------------------------------------------
+ * Configuración del particionado de muestras por laboratorio.
+ *
+ * clinica.sharding.enabled=true
+ * clinica.sharding.shards[0].url=...   → shard 1
+ * clinica.sharding.shards[1].url=...   → shard 2
+ *
+ * El shard 0 siempre es spring.datasource (donde viven USERC y LABORATORY).
+ * ===============================================================
+ */
+@Data
+@ConfigurationProperties(prefix = "clinica.sharding")
+public class ShardProperties {
+
+    private boolean enabled = false;
+
+    // Aplica el esquema de Hibernate (ddl-auto) también en los shards adicionales
+    private boolean schemaUpdate = true;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fullstack.clinica.sample.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource que entrega la conexión del shard fijado en {@link SampleShardContext}.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = SampleShardContext.get();
+        return shard != null ? shard : 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.fullstack.clinica.sample.shard;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserta en el shard actual (SampleShardContext) filas leídas de otro
+ * shard con {@code select *}, columna por columna, en un solo batch.
+ * Lo usan los rebalanceos: como copia todas las columnas que trae la
+ * fila, una columna nueva de la tabla no requiere tocar este código.
+ */
+@Component
+public class ShardRowCopier {
+
+    private final JdbcTemplate jdbc;
+
+    public ShardRowCopier(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @param excluir columnas que no se copian (p. ej. un ID que el
+     *                destino debe generar)
+     */
+    public int insertar(String tabla, List<Map<String, Object>> filas, Set<String> excluir) {
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        List<String> columnas = filas.get(0).keySet().stream()
+                .filter(c -> !excluir.contains(c.toUpperCase()))
+                .toList();
+        String sql = "insert into " + tabla + " (" + String.join(", ", columnas) + ") values ("
+                + String.join(", ", columnas.stream().map(c -> "?").toList()) + ")";
+        List<Object[]> valores = new ArrayList<>(filas.size());
+        for (Map<String, Object> fila : filas) {
+            valores.add(columnas.stream().map(fila::get).toArray());
+        }
+        jdbc.batchUpdate(sql, valores);
+        return filas.size();
+    }
+}
@@ -0,0 +1,120 @@
+package com.fullstack.clinica.sample.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate solo ejecuta ddl-auto contra la conexión por defecto (shard 0).
+ * Este integrador guarda el Metadata y, una vez creados todos los beans,
+ * repite la gestión de esquema en cada shard adicional fijando el
+ * {@link SampleShardContext} correspondiente.
+ *
+ * Además mueve el IDENTITY de SAMPLE y RESULT_CHUNK al rango del shard
+ * (shard × {@link SampleShardRouter#ID_RANGE}) para que los IDs sean
+ * únicos entre shards: al rebalancear, las filas se copian con su ID.
+ * Se compara el próximo valor del IDENTITY (no el MAX(id), que puede
+ * venir de filas movidas desde otro rango) y nunca se retrocede.
+ *
+ * Quien necesite el esquema de los shards antes de que Spring llegue a
+ * este bean (p. ej. ChangeSequence) llama a {@link #ensureSchema()};
+ * el trabajo se hace una sola vez.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements Integrator, SmartInitializingSingleton {
+
+    private static final List<String> TABLAS_CON_RANGO = List.of("SAMPLE", "RESULT_CHUNK");
+
+    private final ShardProperties properties;
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+    private boolean aplicado;
+
+    public ShardSchemaInitializer(ShardProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+            SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registry) {
+        this.metadata = null;
+        this.sessionFactory = null;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ensureSchema();
+    }
+
+    public synchronized void ensureSchema() {
+        if (aplicado || !properties.isSchemaUpdate() || metadata == null) {
+            return;
+        }
+        aplicado = true;
+        Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+        for (int shard = 1; shard <= properties.getShards().size(); shard++) {
+            SampleShardContext.set(shard);
+            try {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings,
+                        action -> { });
+                for (String tabla : TABLAS_CON_RANGO) {
+                    ajustarIdentity(shard, tabla);
+                }
+                log.info("🧩 Esquema aplicado en el shard {}", shard);
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudo preparar el shard " + shard, e);
+            } finally {
+                SampleShardContext.clear();
+            }
+        }
+    }
+
+    private void ajustarIdentity(int shard, String tabla) throws SQLException {
+        long inicio = shard * SampleShardRouter.ID_RANGE;
+        ConnectionProvider provider = sessionFactory.getServiceRegistry().getService(ConnectionProvider.class);
+        Connection con = provider.getConnection();
+        try (Statement st = con.createStatement()) {
+            boolean oracle = con.getMetaData().getDatabaseProductName().toLowerCase().contains("oracle");
+            long proximo;
+            try (ResultSet rs = st.executeQuery(oracle
+                    ? "SELECT s.last_number FROM user_tab_identity_columns c JOIN user_sequences s "
+                            + "ON s.sequence_name = c.sequence_name WHERE c.table_name = '" + tabla
+                            + "' AND c.column_name = 'ID'"
+                    : "SELECT IDENTITY_BASE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = '" + tabla
+                            + "' AND COLUMN_NAME = 'ID'")) {
+                proximo = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (proximo >= inicio) {
+                return;
+            }
+            st.execute(oracle
+                    ? "ALTER TABLE " + tabla + " MODIFY (id GENERATED BY DEFAULT AS IDENTITY (START WITH " + inicio + "))"
+                    : "ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + inicio);
+            log.info("🧩 IDs de {} en el shard {} comienzan en {}", tabla, shard, inicio);
+        } finally {
+            provider.closeConnection(con);
+        }
+    }
+}
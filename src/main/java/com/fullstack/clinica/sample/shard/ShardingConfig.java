@@ -0,0 +1,81 @@
+package com.fullstack.clinica.sample.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ShardingConfig
+ * ---------------------------------------------------------------
+ * Cuando clinica.sharding.enabled=true reemplaza el DataSource de
+ * Spring Boot por un {@link ShardRoutingDataSource}:
+ *
+ * - Shard 0 → spring.datasource (BD principal).
+ * - Shard 1..N → clinica.sharding.shards[*].
+ *
+ * Con el sharding desactivado no se crea ningún bean y la aplicación
+ * usa el DataSource habitual.
+ * ===============================================================
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "clinica.sharding", name = "enabled", havingValue = "true")
+    public DataSource dataSource(DataSourceProperties principal, ShardProperties properties) {
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(0, principal.initializeDataSourceBuilder().build());
+
+        List<ShardProperties.Shard> shards = properties.getShards();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardProperties.Shard shard = shards.get(i);
+            DataSource ds = DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .driverClassName(shard.getDriverClassName())
+                    .build();
+            destinos.put(i + 1, ds);
+        }
+        log.info("🧩 Sharding de muestras activo con {} shards", destinos.size());
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(destinos);
+        routing.setDefaultTargetDataSource(destinos.get(0));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "clinica.sharding", name = "enabled", havingValue = "true")
+    public ShardSchemaInitializer shardSchemaInitializer(ShardProperties properties) {
+        return new ShardSchemaInitializer(properties);
+    }
+
+    /**
+     * Registra el integrador que captura el Metadata de Hibernate para
+     * poder replicar el esquema en los shards adicionales.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "clinica.sharding", name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchemaInitializer initializer) {
+        return props -> props.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(initializer));
+    }
+}
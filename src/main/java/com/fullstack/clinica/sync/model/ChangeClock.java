@@ -0,0 +1,27 @@
+package com.fullstack.clinica.sync.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeClock
+ * ---------------------------------------------------------------
+ * Una sola fila (id = 1) con el último change_seq entregado, en la BD
+ * principal. La comparten todos los nodos: ChangeSequence la incrementa
+ * con un UPDATE, así el bloqueo de la fila ordena a los nodos entre sí.
+ *
+ * ChangeSequence la lee y escribe por JDBC; JPA solo crea la tabla.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "CHANGE_CLOCK")
+public class ChangeClock {
+
+    @Id
+    private Long id;
+
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+}
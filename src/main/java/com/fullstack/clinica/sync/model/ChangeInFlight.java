@@ -0,0 +1,41 @@
+package com.fullstack.clinica.sync.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+import java.time.LocalDateTime;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeInFlight
+ * ---------------------------------------------------------------
+ * Un change_seq entregado cuya transacción aún no termina, en la BD
+ * principal. Todos los nodos la consultan para saber hasta dónde es
+ * seguro leer cambios.
+ *
+ * - Se inserta junto con el incremento de CHANGE_CLOCK y se borra al
+ *   terminar la transacción (commit o rollback).
+ * - El nodo renueva lease_until mientras la transacción sigue; la
+ *   fila de un nodo caído vence y deja de contar.
+ *
+ * ChangeSequence la lee y escribe por JDBC; JPA solo crea la tabla.
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "CHANGE_IN_FLIGHT", indexes = {
+        @Index(name = "IX_CHANGE_IN_FLIGHT_INSTANCE", columnList = "instance_id")
+})
+public class ChangeInFlight {
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    // Instancia de la aplicación que la tomó (UUID por arranque)
+    @Column(name = "instance_id", nullable = false, length = 36)
+    private String instanceId;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
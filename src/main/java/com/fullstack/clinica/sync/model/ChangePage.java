@@ -0,0 +1,62 @@
+package com.fullstack.clinica.sync.model;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangePage
+ * ---------------------------------------------------------------
+ * Una página de GET /api/{recurso}/changes:
+ *
+ * {
+ *   "changed": [ ...filas creadas o modificadas... ],
+ *   "deleted": [ 17, 42 ],
+ *   "cursor":  "U0FNUExFfDEyOHw0Mnw5MHwxNzYw...",
+ *   "hasMore": false
+ * }
+ *
+ * El cliente guarda "cursor" y lo manda como ?since= en la próxima
+ * consulta; con hasMore=true debe pedir la página siguiente enseguida.
+ * Sin since la respuesta es una resincronización completa (en páginas).
+ * ===============================================================
+ */
+@Data
+public class ChangePage<T> {
+
+    private final List<T> changed;
+    private final List<Long> deleted;
+    private final String cursor;
+    private final boolean hasMore;
+
+    /**
+     * Posición del cliente en la secuencia de cambios (opaca para él):
+     *
+     * - (seq, id): último cambio entregado; la página siguiente empieza
+     *   justo después (keyset, sin OFFSET).
+     * - base: secuencia visible al iniciar la resincronización completa;
+     *   las lápidas anteriores son de filas que el cliente nunca recibió.
+     * - completoEn: instante (epoch ms) en que el cliente quedó al día
+     *   por última vez; define la vigencia frente a la purga de lápidas.
+     */
+    public record Cursor(String entity, long seq, long id, long base, long completoEn) {
+
+        public String encode() {
+            String valor = entity + "|" + seq + "|" + id + "|" + base + "|" + completoEn;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** @throws IllegalArgumentException si el texto no es un cursor válido */
+        public static Cursor decode(String cursor) {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (partes.length != 5) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new Cursor(partes[0], Long.parseLong(partes[1]), Long.parseLong(partes[2]),
+                    Long.parseLong(partes[3]), Long.parseLong(partes[4]));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.fullstack.clinica.sync.model;
+
+import jakarta.persistence.*; // JPA: mapeo objeto–relacional (entidades, columnas, etc.)
+import lombok.Data; // Lombok: genera getters, setters, toString, equals, hashCode
+
+import java.time.LocalDateTime;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeTombstone
+ * ---------------------------------------------------------------
+ * Lápida de una fila eliminada: la sincronización incremental la
+ * entrega como "deleted" a los clientes cuyo cursor es anterior.
+ *
+ * - Se escribe en la misma transacción que el DELETE y en la misma BD
+ *   (las lápidas de muestras quedan en el shard de la muestra).
+ * - ChangeFeedService las purga pasada la retención; un cursor más
+ *   viejo que eso ya no puede ponerse al día (410 → resincronizar).
+ * ===============================================================
+ */
+@Data
+@Entity
+@Table(name = "CHANGE_TOMBSTONE", indexes = {
+        // Mismo orden que el recorrido por keyset de ChangeFeedService
+        @Index(name = "IX_CHANGE_TOMBSTONE_SEQ", columnList = "entity_type, change_seq, entity_id"),
+        @Index(name = "IX_CHANGE_TOMBSTONE_DELETED", columnList = "deleted_at")
+})
+public class ChangeTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // USER, SAMPLE, LABORATORY (igual que AUDIT_LOG.entity_type)
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
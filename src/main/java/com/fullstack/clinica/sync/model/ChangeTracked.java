@@ -0,0 +1,20 @@
+package com.fullstack.clinica.sync.model;
+
+/**
+ * ===============================================================
+ * 📘 Interfaz: ChangeTracked
+ * ---------------------------------------------------------------
+ * Entidad con columna change_seq (ver ChangeSeqListener): el número
+ * de cambio de la última transacción que la creó o modificó. Es lo
+ * que recorre GET /api/{recurso}/changes para la sincronización
+ * incremental.
+ * ===============================================================
+ */
+public interface ChangeTracked {
+
+    Long getId();
+
+    Long getChangeSeq();
+
+    void setChangeSeq(Long changeSeq);
+}
@@ -0,0 +1,49 @@
+package com.fullstack.clinica.sync.repository;
+
+import com.fullstack.clinica.resilience.QueryTimeouts;
+import com.fullstack.clinica.sync.model.ChangeTombstone;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Interfaz: ChangeTombstoneRepository
+ * ---------------------------------------------------------------
+ * Lápidas de la sincronización incremental (ver ChangeFeedService).
+ * ===============================================================
+ */
+@Repository
+public interface ChangeTombstoneRepository extends JpaRepository<ChangeTombstone, Long> {
+
+    /**
+     * Lápidas posteriores a (seq, id) y visibles (changeSeq <= hasta),
+     * en orden de keyset. Recorre IX_CHANGE_TOMBSTONE_SEQ: el
+     * "changeSeq >=" acota el rango y el OR solo descarta los empates
+     * ya entregados.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select t from ChangeTombstone t where t.entityType = :entityType "
+            + "and t.changeSeq >= :seq and t.changeSeq <= :hasta and (t.changeSeq > :seq or t.entityId > :id) "
+            + "order by t.entityType, t.changeSeq, t.entityId")
+    List<ChangeTombstone> findSince(String entityType, long seq, long id, long hasta, Limit limit);
+
+    /**
+     * Purga las lápidas anteriores al límite, salvo la más reciente:
+     * así MAX(change_seq) nunca retrocede y ChangeSequence no reutiliza
+     * números tras un reinicio.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("delete from ChangeTombstone t where t.deletedAt < :limite "
+            + "and t.changeSeq < (select max(u.changeSeq) from ChangeTombstone u)")
+    int purgeBefore(LocalDateTime limite);
+}
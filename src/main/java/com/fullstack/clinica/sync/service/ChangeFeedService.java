@@ -0,0 +1,230 @@
+package com.fullstack.clinica.sync.service;
+
+import com.fullstack.clinica.exception.BadRequestException;
+import com.fullstack.clinica.exception.CursorExpiredException;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sync.model.ChangePage;
+import com.fullstack.clinica.sync.model.ChangeTombstone;
+import com.fullstack.clinica.sync.model.ChangeTracked;
+import com.fullstack.clinica.sync.repository.ChangeTombstoneRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeFeedService
+ * ---------------------------------------------------------------
+ * Sincronización incremental: GET /api/{recurso}/changes?since=cursor
+ * devuelve solo lo creado, modificado o eliminado desde el cursor.
+ *
+ * 🔹 Lectura:
+ * - Filas con (change_seq, id) > cursor y lápidas con (change_seq,
+ *   entity_id) > cursor, ambas hasta ChangeSequence.visible() (común
+ *   a todos los nodos), por keyset y con limit + 1 por shard; se mezclan y la fila sobrante
+ *   indica hasMore.
+ * - Sin since es una resincronización completa (desde (0, 0)): las
+ *   lápidas anteriores a ese momento se omiten.
+ * 🔹 Escritura (en la transacción que modifica):
+ * - Altas y cambios por JPA: ChangeSeqListener.
+ * - UPDATE masivos: fijan change_seq = currentSeq() en la sentencia.
+ * - DELETE: tombstone() deja la lápida.
+ * 🔹 Cursores:
+ * - Uno mal formado o de otro recurso responde 400.
+ * 🔹 Vencimiento:
+ * - Las lápidas se purgan pasada clinica.sync.tombstone-retention. Un
+ *   cursor que no se puso al día en ese plazo, o que es posterior a la
+ *   secuencia actual (BD reiniciada), responde 410: el cliente
+ *   resincroniza sin since.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    /** Holgura de la purga: una lápida toma deleted_at antes de su commit. */
+    private static final Duration MARGEN_PURGA = Duration.ofHours(1);
+
+    private final ChangeSequence sequence;
+    private final ChangeTombstoneRepository tombstones;
+    private final SampleShardRouter router;
+    private final TransactionTemplate tx;
+    private final Duration retention;
+    private final int pageSize;
+    private final int maxPageSize;
+    private final ScheduledExecutorService purga;
+
+    public ChangeFeedService(ChangeSequence sequence, ChangeTombstoneRepository tombstones, SampleShardRouter router,
+            TransactionTemplate tx,
+            @Value("${clinica.sync.tombstone-retention:7d}") Duration retention,
+            @Value("${clinica.sync.page-size:500}") int pageSize,
+            @Value("${clinica.sync.max-page-size:5000}") int maxPageSize,
+            @Value("${clinica.sync.purge-interval:1h}") Duration purgeInterval) {
+        this.sequence = sequence;
+        this.tombstones = tombstones;
+        this.router = router;
+        this.tx = tx;
+        this.retention = retention;
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+        this.purga = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-tombstone-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        long cada = purgeInterval.toMillis();
+        this.purga.scheduleWithFixedDelay(this::purgar, cada, cada, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        purga.shutdownNow();
+    }
+
+    /**
+     * Filas de un shard con (changeSeq, id) > (seq, id) y changeSeq <= hasta,
+     * ordenadas por (changeSeq, id).
+     */
+    @FunctionalInterface
+    public interface Rows<T> {
+        List<T> since(long seq, long id, long hasta, Limit limit);
+    }
+
+    // ============================================================
+    // Lectura
+    // ============================================================
+
+    /**
+     * @param entityType  USER, SAMPLE o LABORATORY (también en el cursor)
+     * @param since       cursor de la respuesta anterior (null = resincronización completa)
+     * @param allShards   true para muestras (fan-out), false para tablas de la BD principal
+     */
+    public <T extends ChangeTracked> ChangePage<T> page(String entityType, String since, Integer limit,
+            boolean allShards, Rows<T> rows) {
+        long ahora = System.currentTimeMillis();
+        ChangeSequence.Visible visible = sequence.visible();
+        long hasta = visible.upTo();
+        ChangePage.Cursor desde = since == null || since.isBlank()
+                ? new ChangePage.Cursor(entityType, 0, 0, hasta, ahora)
+                : validar(entityType, since, ahora, visible.last());
+        int tamano = limit == null || limit <= 0 ? pageSize : Math.min(limit, maxPageSize);
+        Limit limite = Limit.of(tamano + 1);
+
+        List<Cambio<T>> cambios = new ArrayList<>();
+        enShards(allShards, () -> rows.since(desde.seq(), desde.id(), hasta, limite))
+                .forEach(fila -> cambios.add(new Cambio<>(fila.getChangeSeq(), fila.getId(), fila)));
+
+        // Las lápidas hasta "base" son de filas que el cliente nunca recibió
+        long seqLapida = Math.max(desde.seq(), desde.base());
+        long idLapida = desde.base() >= desde.seq() ? Long.MAX_VALUE : desde.id();
+        if (seqLapida < hasta || (seqLapida == hasta && idLapida != Long.MAX_VALUE)) {
+            enShards(allShards, () -> tombstones.findSince(entityType, seqLapida, idLapida, hasta, limite))
+                    .forEach(t -> cambios.add(new Cambio<>(t.getChangeSeq(), t.getEntityId(), null)));
+        }
+        cambios.sort(Comparator.comparingLong(Cambio<T>::seq).thenComparingLong(Cambio::id));
+
+        boolean hayMas = cambios.size() > tamano;
+        List<Cambio<T>> pagina = hayMas ? cambios.subList(0, tamano) : cambios;
+        List<T> modificadas = new ArrayList<>();
+        List<Long> eliminadas = new ArrayList<>();
+        pagina.forEach(c -> {
+            if (c.fila() != null) {
+                modificadas.add(c.fila());
+            } else {
+                eliminadas.add(c.id());
+            }
+        });
+
+        Cambio<T> ultimo = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1);
+        ChangePage.Cursor siguiente = new ChangePage.Cursor(entityType,
+                ultimo != null ? ultimo.seq() : desde.seq(),
+                ultimo != null ? ultimo.id() : desde.id(),
+                desde.base(),
+                hayMas ? desde.completoEn() : ahora);
+        log.info("🔄 Cambios de {} desde {}: {} modificados, {} eliminados{}", entityType,
+                since == null ? "el inicio" : desde.seq(), modificadas.size(), eliminadas.size(),
+                hayMas ? " (hay más)" : "");
+        return new ChangePage<>(modificadas, eliminadas, siguiente.encode(), hayMas);
+    }
+
+    private ChangePage.Cursor validar(String entityType, String since, long ahora, long ultimo) {
+        ChangePage.Cursor cursor;
+        try {
+            cursor = ChangePage.Cursor.decode(since);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor de cambios inválido: " + since);
+        }
+        if (!entityType.equals(cursor.entity())) {
+            throw new BadRequestException("El cursor no corresponde a " + entityType);
+        }
+        if (ahora - cursor.completoEn() >= retention.toMillis()) {
+            throw new CursorExpiredException("El cursor tiene más de " + retention.toDays()
+                    + " días sin ponerse al día: resincronice sin 'since'");
+        }
+        if (cursor.seq() > ultimo) {
+            throw new CursorExpiredException("El cursor es posterior a la secuencia de cambios actual: "
+                    + "resincronice sin 'since'");
+        }
+        return cursor;
+    }
+
+    private <R> List<R> enShards(boolean allShards, Supplier<List<R>> consulta) {
+        return allShards ? router.fanOut(consulta) : router.onShard(0, consulta);
+    }
+
+    private record Cambio<T>(long seq, long id, T fila) {
+    }
+
+    // ============================================================
+    // Escritura (dentro de la transacción que modifica)
+    // ============================================================
+
+    /**
+     * change_seq de la transacción en curso, para los UPDATE masivos que
+     * no pasan por ChangeSeqListener.
+     */
+    public long currentSeq() {
+        return sequence.next();
+    }
+
+    public void tombstone(String entityType, Long entityId) {
+        ChangeTombstone lapida = new ChangeTombstone();
+        lapida.setEntityType(entityType);
+        lapida.setEntityId(entityId);
+        lapida.setChangeSeq(sequence.next());
+        lapida.setDeletedAt(LocalDateTime.now());
+        tombstones.save(lapida);
+    }
+
+    // ============================================================
+    // Purga (hilo change-tombstone-purge)
+    // ============================================================
+
+    void purgar() {
+        LocalDateTime limite = LocalDateTime.now().minus(retention).minus(MARGEN_PURGA);
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            try {
+                Integer purgadas = router.onShard(shard, () -> tx.execute(status -> tombstones.purgeBefore(limite)));
+                if (purgadas != null && purgadas > 0) {
+                    log.info("🪦 Shard {}: {} lápidas anteriores a {} purgadas", shard, purgadas, limite);
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ No se pudieron purgar las lápidas del shard {}: {}", shard, e.getMessage());
+            }
+        }
+    }
+}
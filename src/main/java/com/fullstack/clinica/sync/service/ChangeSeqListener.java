@@ -0,0 +1,39 @@
+package com.fullstack.clinica.sync.service;
+
+import com.fullstack.clinica.sync.model.ChangeTracked;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeSeqListener
+ * ---------------------------------------------------------------
+ * Listener JPA de las entidades ChangeTracked: toda alta o cambio que
+ * pasa por Hibernate lleva el change_seq de su transacción. @PreUpdate
+ * solo se dispara si la entidad quedó sucia, así un save() sin cambios
+ * no la vuelve a entregar a los clientes.
+ *
+ * Los UPDATE masivos (JPQL o JDBC) no pasan por aquí: fijan change_seq
+ * en la misma sentencia con ChangeSequence.next().
+ *
+ * Hibernate lo crea vía el contenedor de beans de Spring (inyección por
+ * constructor, igual que los convertidores de Sample).
+ * ===============================================================
+ */
+public class ChangeSeqListener {
+
+    private final ChangeSequence sequence;
+
+    public ChangeSeqListener(ChangeSequence sequence) {
+        this.sequence = sequence;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void marcar(Object entidad) {
+        if (entidad instanceof ChangeTracked rastreada) {
+            rastreada.setChangeSeq(sequence.next());
+        }
+    }
+}
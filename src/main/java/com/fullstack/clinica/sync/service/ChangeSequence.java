@@ -0,0 +1,285 @@
+package com.fullstack.clinica.sync.service;
+
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sample.shard.ShardSchemaInitializer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeSequence
+ * ---------------------------------------------------------------
+ * Secuencia monótona de cambios (columna change_seq de LABORATORY,
+ * USERC, SAMPLE y CHANGE_TOMBSTONE), común a todos los shards y a
+ * todos los nodos: vive en la BD principal, no en memoria.
+ *
+ * - Cada transacción que escribe toma UN número con next(): todas sus
+ *   filas comparten ese change_seq (el empate se ordena por ID).
+ * - next() incrementa CHANGE_CLOCK e inserta el número en
+ *   CHANGE_IN_FLIGHT en una transacción propia y corta. El UPDATE
+ *   bloquea la fila del reloj hasta ese commit, así los números quedan
+ *   registrados en el mismo orden en que se entregan (con un SEQUENCE
+ *   suelto, otro nodo podría ver el número siguiente antes que el
+ *   registro de este).
+ * - Al terminar la transacción (commit o rollback) su fila se borra.
+ * - visible() lee en una sola sentencia el reloj y el menor número en
+ *   vuelo de cualquier nodo: las consultas de cambios no pasan de ahí,
+ *   así un commit lento con un número bajo, en este u otro nodo, no
+ *   queda detrás del cursor de un cliente.
+ * - Cada nodo renueva el arriendo (clinica.sync.in-flight-lease) de sus
+ *   números en vuelo; los de un nodo caído vencen y dejan de frenar la
+ *   visibilidad.
+ * - Al arrancar, el reloj nunca queda por debajo del MAX(change_seq)
+ *   de todos los shards (filas anteriores al reloj).
+ *
+ * Usa un pool JDBC propio y pequeño hacia la BD principal: next() se
+ * llama con la conexión de la transacción del llamador tomada, y si
+ * compartieran pool, N escrituras simultáneas podrían agotarlo
+ * esperándose entre sí. Sus sentencias no pasan por el DataSource de
+ * Spring.
+ *
+ * Hibernate la necesita para crear ChangeSeqListener: el router (que
+ * depende de JPA) se resuelve recién al inicializar, sin ciclo. Las
+ * filas anteriores a la columna quedan con change_seq = 0.
+ * ===============================================================
+ */
+@Slf4j
+@Component
+public class ChangeSequence implements SmartInitializingSingleton {
+
+    /** Tablas con change_seq en la BD principal y en cada shard. */
+    private static final List<String> TABLAS_PRINCIPALES = List.of("LABORATORY", "USERC");
+    private static final List<String> TABLAS_POR_SHARD = List.of("SAMPLE", "CHANGE_TOMBSTONE");
+
+    private static final String AVANZAR = "update CHANGE_CLOCK set seq = seq + 1 where id = 1";
+    private static final String LEER = "select seq from CHANGE_CLOCK where id = 1";
+    private static final String REGISTRAR =
+            "insert into CHANGE_IN_FLIGHT (seq, instance_id, lease_until) values (?, ?, ?)";
+    private static final String TERMINAR = "delete from CHANGE_IN_FLIGHT where seq = ?";
+    private static final String RENOVAR = "update CHANGE_IN_FLIGHT set lease_until = ? where instance_id = ?";
+    private static final String VENCIDOS = "delete from CHANGE_IN_FLIGHT where lease_until < ?";
+    // Una sola sentencia: el reloj y los números en vuelo de la misma foto
+    private static final String VISIBLE = "select c.seq, (select min(f.seq) from CHANGE_IN_FLIGHT f "
+            + "where f.lease_until >= ?) from CHANGE_CLOCK c where c.id = 1";
+
+    private final HikariDataSource reloj;
+    private final JdbcTemplate jdbc;
+    private final ObjectProvider<SampleShardRouter> routers;
+    private final ObjectProvider<ShardSchemaInitializer> shardSchema;
+    private final Duration lease;
+    private final String instancia = UUID.randomUUID().toString();
+    private final ScheduledExecutorService renovacion;
+
+    /** Números de esta instancia en vuelo, y los ya terminados cuyo DELETE falló. */
+    private final Set<Long> enVuelo = ConcurrentHashMap.newKeySet();
+    private final Set<Long> porBorrar = ConcurrentHashMap.newKeySet();
+    private volatile boolean iniciada;
+
+    /** Hasta dónde se puede leer y último número entregado. */
+    public record Visible(long upTo, long last) {
+    }
+
+    public ChangeSequence(DataSourceProperties principal, ObjectProvider<SampleShardRouter> routers,
+            ObjectProvider<ShardSchemaInitializer> shardSchema,
+            @Value("${clinica.sync.in-flight-lease:60s}") Duration lease,
+            @Value("${clinica.sync.clock-pool-size:4}") int poolSize) {
+        this.reloj = principal.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.reloj.setPoolName("change-clock");
+        this.reloj.setMaximumPoolSize(poolSize);
+        this.reloj.setMinimumIdle(1);
+        this.jdbc = new JdbcTemplate(reloj);
+        this.routers = routers;
+        this.shardSchema = shardSchema;
+        this.lease = lease;
+        this.renovacion = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-seq-lease");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        shardSchema.ifAvailable(ShardSchemaInitializer::ensureSchema); // change_seq en los shards 1..N
+        SampleShardRouter router = routers.getObject();
+        long maximo = 0;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            List<String> tablas = new ArrayList<>(TABLAS_POR_SHARD);
+            if (shard == 0) {
+                tablas.addAll(TABLAS_PRINCIPALES);
+            }
+            for (String tabla : tablas) {
+                Long max = router.onShard(shard,
+                        () -> jdbc.queryForObject("select coalesce(max(change_seq), 0) from " + tabla, Long.class));
+                maximo = Math.max(maximo, max != null ? max : 0);
+            }
+        }
+        long seq = ajustarReloj(maximo);
+        jdbc.update(VENCIDOS, Timestamp.valueOf(LocalDateTime.now()));
+        long cada = Math.max(1, lease.toMillis() / 3);
+        renovacion.scheduleWithFixedDelay(this::renovar, cada, cada, TimeUnit.MILLISECONDS);
+        iniciada = true;
+        log.info("🔢 Secuencia de cambios en {} (instancia {})", seq, instancia);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renovacion.shutdownNow();
+        reloj.close();
+    }
+
+    /**
+     * Número de cambio de la transacción en curso (el mismo en toda la
+     * transacción). Exige una transacción de Spring activa.
+     */
+    public long next() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("change_seq solo se asigna dentro de una transacción");
+        }
+        if (!iniciada) {
+            throw new IllegalStateException("La secuencia de cambios aún no se inicializa");
+        }
+        // Una transacción interna (REQUIRES_NEW) hereda el número de la externa:
+        // sigue en vuelo hasta que termina la externa, lo que solo es más conservador.
+        Long actual = (Long) TransactionSynchronizationManager.getResource(this);
+        if (actual != null) {
+            return actual;
+        }
+        long seq = tomar();
+        enVuelo.add(seq);
+        TransactionSynchronizationManager.bindResource(this, seq);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeSequence.this);
+                terminar(seq);
+            }
+        });
+        return seq;
+    }
+
+    /**
+     * Mayor change_seq cuyas transacciones (y las de todos los menores, en
+     * cualquier nodo) ya terminaron, y el último número entregado (un
+     * cursor mayor viene de otra BD o de antes de un reinicio).
+     */
+    public Visible visible() {
+        return jdbc.queryForObject(VISIBLE, (rs, i) -> {
+            long ultimo = rs.getLong(1);
+            long menorEnVuelo = rs.getLong(2);
+            return new Visible(rs.wasNull() ? ultimo : menorEnVuelo - 1, ultimo);
+        }, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /** Números en vuelo de esta instancia. */
+    public int inFlight() {
+        return enVuelo.size();
+    }
+
+    /** Incrementa el reloj y registra el número en vuelo, en una transacción propia. */
+    private long tomar() {
+        return jdbc.execute((ConnectionCallback<Long>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement avanzar = con.prepareStatement(AVANZAR);
+                    PreparedStatement leer = con.prepareStatement(LEER);
+                    PreparedStatement registrar = con.prepareStatement(REGISTRAR)) {
+                if (avanzar.executeUpdate() != 1) {
+                    throw new IllegalStateException("CHANGE_CLOCK no está inicializado");
+                }
+                long seq;
+                try (ResultSet rs = leer.executeQuery()) {
+                    rs.next();
+                    seq = rs.getLong(1);
+                }
+                registrar.setLong(1, seq);
+                registrar.setString(2, instancia);
+                registrar.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now().plus(lease)));
+                registrar.executeUpdate();
+                con.commit();
+                return seq;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private void terminar(long seq) {
+        enVuelo.remove(seq);
+        try {
+            jdbc.update(TERMINAR, seq);
+        } catch (DataAccessException e) {
+            // Se reintenta en la próxima renovación; mientras tanto frena la visibilidad
+            porBorrar.add(seq);
+            log.warn("⚠️ No se pudo cerrar el change_seq {}: {}", seq, e.getMessage());
+        }
+    }
+
+    /** Hilo change-seq-lease: renueva los números propios y limpia los vencidos. */
+    private void renovar() {
+        try {
+            for (Long seq : porBorrar) {
+                jdbc.update(TERMINAR, seq);
+                porBorrar.remove(seq);
+            }
+            LocalDateTime ahora = LocalDateTime.now();
+            if (!enVuelo.isEmpty()) {
+                jdbc.update(RENOVAR, Timestamp.valueOf(ahora.plus(lease)), instancia);
+            }
+            int vencidos = jdbc.update(VENCIDOS, Timestamp.valueOf(ahora));
+            if (vencidos > 0) {
+                log.warn("⌛ {} change_seq en vuelo de otro nodo vencieron: dejan de frenar la sincronización",
+                        vencidos);
+            }
+        } catch (DataAccessException e) {
+            log.warn("⚠️ No se pudo renovar el arriendo de los change_seq en vuelo: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Crea la fila del reloj si falta (el primer nodo que arranca) y la
+     * adelanta si hay filas con un change_seq mayor. Nunca retrocede.
+     */
+    private long ajustarReloj(long maximo) {
+        if (jdbc.queryForList(LEER, Long.class).isEmpty()) {
+            try {
+                jdbc.update("insert into CHANGE_CLOCK (id, seq) values (1, ?)", maximo);
+            } catch (DuplicateKeyException e) {
+                // Otro nodo la creó a la vez
+            }
+        }
+        jdbc.update("update CHANGE_CLOCK set seq = ? where id = 1 and seq < ?", maximo, maximo);
+        return jdbc.queryForObject(LEER, Long.class);
+    }
+}
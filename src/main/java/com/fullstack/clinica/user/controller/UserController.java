@@ -8,10 +8,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import com.fullstack.clinica.common.BatchResult;
 import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.sample.model.SampleTimeline;
+import com.fullstack.clinica.sync.model.ChangePage;
 import com.fullstack.clinica.user.model.LoginRequest;
 import com.fullstack.clinica.user.model.User;
-import com.fullstack.clinica.user.repository.UserRepository;
+import com.fullstack.clinica.user.model.UserBulkRequest;
+import com.fullstack.clinica.user.model.UserBulkResult;
+import com.fullstack.clinica.user.service.UserBulkService;
 import com.fullstack.clinica.user.service.UserService;
 
 import java.util.List;
@@ -34,14 +39,16 @@ import java.util.UUID;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int MAX_PAGINA_HISTORIAL = 200;
+
     private final UserService service;
+    private final UserBulkService bulk;
     private final PasswordEncoder passwordEncoder;
-    private final UserRepository repository;
 
-    public UserController(UserService service, PasswordEncoder passwordEncoder, UserRepository repository) {
+    public UserController(UserService service, UserBulkService bulk, PasswordEncoder passwordEncoder) {
         this.service = service;
+        this.bulk = bulk;
         this.passwordEncoder = passwordEncoder;
-        this.repository = repository;
     }
 
     //API uso administrativo
@@ -58,6 +65,17 @@ public class UserController {
         return ResponseEntity.ok(service.buscarPorId(id));
     }
 
+    /**
+     * Multi-get: GET /api/users?ids=1,2,3 → usuarios en el orden pedido
+     * más los IDs inexistentes en "missing" (a lo más 1000 IDs).
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResult<User>> obtenerPorIds(@RequestParam List<Long> ids) {
+        log.info("🔍 [GET] Obtener {} usuarios por ID", ids.size());
+        BatchResult.checkRequest(ids);
+        return ResponseEntity.ok(service.buscarPorIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<User> crear(@Valid @RequestBody User user) {
         log.info("📝 [POST] Crear usuario: {}", user.getEmail());
@@ -65,6 +83,27 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(creado);
     }
 
+    /**
+     * Alta masiva: {"users": [...]} → resultado por fila (ID o error).
+     * ?threads=N limita los hilos de hash (para medir la aceleración).
+     */
+    @PostMapping(value = "/bulk", consumes = "application/json")
+    public ResponseEntity<UserBulkResult> crearLote(@Valid @RequestBody UserBulkRequest lote,
+            @RequestParam(defaultValue = "0") int threads) {
+        log.info("👥 [POST] Alta masiva de {} usuarios", lote.getUsers().size());
+        return respuestaLote(bulk.registrar(lote.getUsers(), threads));
+    }
+
+    /**
+     * Alta masiva desde CSV (cabecera: fullName,email,password,phone,rol).
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<UserBulkResult> crearLoteCsv(@RequestBody String csv,
+            @RequestParam(defaultValue = "0") int threads) {
+        log.info("👥 [POST] Alta masiva de usuarios desde CSV");
+        return respuestaLote(bulk.registrarCsv(csv, threads));
+    }
+
     @PutMapping("/id/{id}")
     public ResponseEntity<User> actualizar(@PathVariable Long id,
             @Valid @RequestBody User user) {
@@ -97,6 +136,31 @@ public class UserController {
         return ResponseEntity.ok(usuarios);
     }
 
+    /**
+     * Historial de muestras del paciente, más reciente primero:
+     * GET /api/users/id/{id}/samples?size=50 y luego ?cursor={nextCursor}
+     * hasta que nextCursor sea null.
+     */
+    @GetMapping("/id/{id}/samples")
+    public ResponseEntity<SampleTimeline> historialDeMuestras(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("🩺 [GET] Historial de muestras del paciente ID: {}", id);
+        int tamanio = Math.max(1, Math.min(size, MAX_PAGINA_HISTORIAL));
+        return ResponseEntity.ok(service.historialDeMuestras(id, cursor, tamanio));
+    }
+
+    /**
+     * Sincronización incremental: GET /api/users/changes (resincronización
+     * completa) y luego ?since={cursor}. 410 si el cursor venció.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<User>> cambios(@RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("🔄 [GET] Cambios de usuarios desde: {}", since);
+        return ResponseEntity.ok(service.cambiosDesde(since, limit));
+    }
+
     //API uso FrontEnd
 
     @PostMapping("/register")
@@ -123,8 +187,7 @@ public class UserController {
             String tempPassword = UUID.randomUUID().toString().substring(0, 8);
 
             // Guardar hash de la contraseña temporal
-            user.setPassword(passwordEncoder.encode(tempPassword));
-            repository.save(user);
+            service.restablecerPassword(user, passwordEncoder.encode(tempPassword));
 
             // Retornar la contraseña temporal para mostrar en Angular
             return ResponseEntity.ok(tempPassword);
@@ -147,4 +210,9 @@ public class UserController {
         service.eliminar(id);
         return ResponseEntity.noContent().build();
     }
+
+    /** 201 si se creó al menos un usuario; 200 si todas las filas fueron rechazadas. */
+    private static ResponseEntity<UserBulkResult> respuestaLote(UserBulkResult resultado) {
+        return ResponseEntity.status(resultado.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.OK).body(resultado);
+    }
 }
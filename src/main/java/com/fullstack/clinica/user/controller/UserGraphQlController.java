@@ -0,0 +1,31 @@
+package com.fullstack.clinica.user.controller;
+
+import com.fullstack.clinica.user.model.User;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ===============================================================
+ * 📘 Clase: UserGraphQlController
+ * ---------------------------------------------------------------
+ * Usuarios en /graphql. User.laboratory no necesita resolver propio:
+ * los usuarios se cargan con su laboratorio en el mismo JOIN. La
+ * contraseña no forma parte del esquema.
+ * ===============================================================
+ */
+@Slf4j
+@Controller
+public class UserGraphQlController {
+
+    @QueryMapping
+    public CompletableFuture<User> user(@Argument Long id, DataLoader<Long, User> usuarios) {
+        log.info("🔷 [GraphQL] Usuario con ID: {}", id);
+        return usuarios.load(id);
+    }
+}
@@ -5,14 +5,26 @@ import jakarta.validation.constraints.*; // Semana 2 → Bean Validation
 import lombok.Data; // Lombok: getters/setters/toString
 import java.time.LocalDate;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.sync.model.ChangeTracked;
+import com.fullstack.clinica.sync.service.ChangeSeqListener;
 
 @Data
 @Entity
 @Table(name = "USERC", uniqueConstraints = {
         @UniqueConstraint(name = "UK_USERC_EMAIL", columnNames = "EMAIL")
+}, indexes = {
+        // Desasociar a los usuarios de un laboratorio inactivo sin recorrer USERC
+        @Index(name = "IX_USERC_LABORATORY", columnList = "laboratory_id"),
+        // GET /api/users/changes recorre por keyset (change_seq, id)
+        @Index(name = "IX_USERC_CHANGE", columnList = "change_seq, id")
 })
-public class User {
+@EntityListeners(ChangeSeqListener.class)
+public class User implements ChangeTracked {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,4 +63,9 @@ public class User {
     @JoinColumn(name = "laboratory_id")
     private Laboratory laboratory;
 
+    // Número del último cambio: lo fija ChangeSeqListener (sincronización incremental)
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    @JsonIgnore
+    private Long changeSeq;
 }
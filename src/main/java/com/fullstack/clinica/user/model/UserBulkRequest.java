@@ -0,0 +1,20 @@
+package com.fullstack.clinica.user.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cuerpo JSON de POST /api/users/bulk: {"users": [ {...}, {...} ]}.
+ * Cada usuario se valida por separado (ver UserBulkService): una fila
+ * inválida no rechaza el lote completo.
+ */
+@Data
+public class UserBulkRequest {
+
+    @NotEmpty(message = "El lote no tiene usuarios")
+    @Size(max = 5000, message = "El lote admite a lo más 5000 usuarios")
+    private List<User> users;
+}
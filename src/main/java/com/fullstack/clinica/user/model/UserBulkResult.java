@@ -0,0 +1,39 @@
+package com.fullstack.clinica.user.model;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ===============================================================
+ * 📘 Clase: UserBulkResult
+ * ---------------------------------------------------------------
+ * Respuesta de POST /api/users/bulk:
+ *
+ * {
+ *   "total": 300, "created": 298, "rejected": 2,
+ *   "threads": 8, "hashMillis": 1210, "hashCpuMillis": 9400, "insertMillis": 35,
+ *   "rows": [ {"row": 1, "email": "...", "id": 41, "error": null}, ... ]
+ * }
+ *
+ * hashCpuMillis / hashMillis es la aceleración del hash en paralelo
+ * (≈ threads cuando hay núcleos libres).
+ * ===============================================================
+ */
+@Data
+public class UserBulkResult {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private int threads;
+    private long hashMillis;
+    private long hashCpuMillis;
+    private long insertMillis;
+    private List<Row> rows = new ArrayList<>();
+
+    /** Resultado de una fila (número desde 1, en el orden recibido). */
+    public record Row(int row, String email, Long id, String error) {
+    }
+}
@@ -1,23 +1,104 @@
 package com.fullstack.clinica.user.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.fullstack.clinica.resilience.QueryTimeouts;
 import com.fullstack.clinica.user.model.User;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // El laboratorio es EAGER: las consultas que devuelven usuarios lo traen
+    // en el mismo JOIN (@EntityGraph), no en un SELECT por laboratorio distinto.
+
     /**
      * Busca un usuario por email (debe ser único).
      */
+    @EntityGraph(attributePaths = "laboratory")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
     Optional<User> findByEmail(String email);
 
     /**
      * Lista usuarios por rol (ADMIN o TECNICO).
      */
+    @EntityGraph(attributePaths = "laboratory")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
     List<User> findByRol(String rol);
+
+    // Métodos heredados redeclarados solo para fijarles un timeout
+    @EntityGraph(attributePaths = "laboratory")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Override
+    List<User> findAll();
+
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.POINT))
+    @Override
+    Optional<User> findById(Long id);
+
+    /**
+     * Multi-get: entidades cuyos ids están en la lista (a lo más 1000,
+     * ver BatchResult).
+     */
+    @EntityGraph(attributePaths = "laboratory")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<User> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Usuarios de varios laboratorios en una consulta IN (a lo más 1000
+     * laboratorios), con su laboratorio en el mismo JOIN.
+     */
+    @EntityGraph(attributePaths = "laboratory")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    List<User> findByLaboratoryIdIn(Collection<Long> laboratoryIds);
+
+    /**
+     * Desasocia en una sola sentencia a los usuarios del laboratorio
+     * (al desactivarlo). Devuelve cuántos cambiaron.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("update User u set u.laboratory = null, u.changeSeq = :seq where u.laboratory.id = :laboratoryId")
+    int detachFromLaboratory(@Param("laboratoryId") Long laboratoryId, @Param("seq") long seq);
+
+    /**
+     * El JSON de un usuario incluye su laboratorio: si el laboratorio
+     * cambia, sus usuarios vuelven a salir en /api/users/changes.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.SCAN))
+    @Query("update User u set u.changeSeq = :seq where u.laboratory.id = :laboratoryId")
+    int touchByLaboratory(@Param("laboratoryId") Long laboratoryId, @Param("seq") long seq);
+
+    /**
+     * Emails ya registrados de la lista (a lo más 1000): unicidad de un
+     * alta masiva en una sola consulta, con la misma comparación exacta
+     * que UK_USERC_EMAIL.
+     */
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Sincronización incremental (GET /api/users/changes): filas con (changeSeq, id)
+     * posterior al cursor y visibles (changeSeq <= hasta), recorriendo
+     * IX_USERC_CHANGE.
+     */
+    @EntityGraph(attributePaths = "laboratory")
+    @QueryHints(@QueryHint(name = QueryTimeouts.HINT, value = QueryTimeouts.LIST))
+    @Query("select u from User u where u.changeSeq >= :seq and u.changeSeq <= :hasta "
+            + "and (u.changeSeq > :seq or u.id > :id) order by u.changeSeq, u.id")
+    List<User> findChangedSince(long seq, long id, long hasta, Limit limit);
 }
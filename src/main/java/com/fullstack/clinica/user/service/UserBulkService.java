@@ -0,0 +1,339 @@
+package com.fullstack.clinica.user.service;
+
+import com.fullstack.clinica.audit.service.AuditService;
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.common.CsvLineParser;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sync.service.ChangeFeedService;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.model.UserBulkResult;
+import com.fullstack.clinica.user.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * ===============================================================
+ * 📘 Clase: UserBulkService
+ * ---------------------------------------------------------------
+ * Alta masiva de usuarios (POST /api/users/bulk), pensada para cuando
+ * una clínica nueva trae cientos de técnicos y pacientes:
+ *
+ * 1️⃣ Bean Validation por fila (una fila inválida no frena el lote).
+ * 2️⃣ Unicidad de email: repetidos dentro del lote y una consulta IN
+ *    contra USERC (de a 1000), con la comparación exacta de
+ *    UK_USERC_EMAIL.
+ * 3️⃣ BCrypt en paralelo en un ForkJoinPool propio del tamaño de los
+ *    núcleos (≈70 ms por hash: es casi todo el costo del lote).
+ * 4️⃣ Un INSERT por lotes JDBC en una transacción, con las claves
+ *    generadas. Si otra petición registra el mismo email entre la
+ *    consulta y el INSERT, el lote se reintenta fila a fila y solo esa
+ *    fila se rechaza. Todas las filas llevan el change_seq de su
+ *    transacción (el INSERT no pasa por ChangeSeqListener).
+ *
+ * Cada fila devuelve su ID o su error (UserBulkResult).
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class UserBulkService {
+
+    private static final String ENTIDAD = "USER";
+    private static final String EMAIL_DUPLICADO = "email: El email ya está registrado";
+    private static final List<String> COLUMNAS = List.of("fullname", "email", "password", "phone", "rol");
+
+    private static final String INSERT = "insert into USERC (full_name, password, email, phone, register_date, rol, "
+            + "change_seq) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository repository;
+    private final PasswordEncoder passwordEncoder;
+    private final AuditService audit;
+    private final Validator validator;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ChangeFeedService changes;
+    private final SampleReferences references;
+    private final int maxRows;
+    private final ForkJoinPool pool;
+
+    public UserBulkService(UserRepository repository, PasswordEncoder passwordEncoder, AuditService audit,
+            Validator validator, JdbcTemplate jdbc, TransactionTemplate tx, ChangeFeedService changes,
+            SampleReferences references, @Value("${clinica.users.bulk.max-rows:5000}") int maxRows,
+            @Value("${clinica.users.bulk.parallelism:0}") int parallelism) {
+        this.repository = repository;
+        this.passwordEncoder = passwordEncoder;
+        this.audit = audit;
+        this.validator = validator;
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.changes = changes;
+        this.references = references;
+        this.maxRows = maxRows;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void detener() {
+        pool.shutdown();
+    }
+
+    /** Hilos del pool de hash (clinica.users.bulk.parallelism, o los núcleos). */
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Registra los usuarios y devuelve el resultado de cada fila.
+     *
+     * @param threads hilos de hash a usar (1..parallelism); 0 = todos
+     */
+    public UserBulkResult registrar(List<User> usuarios, int threads) {
+        log.info("👥 Alta masiva de {} usuarios", usuarios.size());
+        List<Fila> filas = new ArrayList<>(usuarios.size());
+        for (int i = 0; i < usuarios.size(); i++) {
+            filas.add(new Fila(i + 1, usuarios.get(i)));
+        }
+
+        validar(filas);
+        List<Fila> validas = filas.stream().filter(f -> f.error == null).toList();
+
+        UserBulkResult resultado = new UserBulkResult();
+        int hilos = threads > 0 ? Math.min(threads, pool.getParallelism()) : pool.getParallelism();
+        resultado.setThreads(Math.max(1, Math.min(hilos, validas.size())));
+
+        long inicio = System.nanoTime();
+        resultado.setHashCpuMillis(hashear(validas, resultado.getThreads()) / 1_000_000);
+        resultado.setHashMillis((System.nanoTime() - inicio) / 1_000_000);
+
+        inicio = System.nanoTime();
+        insertar(validas);
+        resultado.setInsertMillis((System.nanoTime() - inicio) / 1_000_000);
+
+        for (Fila fila : filas) {
+            if (fila.id != null) {
+                fila.usuario.setId(fila.id);
+                references.technicianCreated(fila.usuario.getFullName());
+                audit.recordCreate(ENTIDAD, fila.id, fila.usuario);
+            }
+            resultado.getRows().add(new UserBulkResult.Row(fila.numero, fila.usuario.getEmail(), fila.id, fila.error));
+        }
+        resultado.setTotal(filas.size());
+        resultado.setCreated((int) filas.stream().filter(f -> f.id != null).count());
+        resultado.setRejected(resultado.getTotal() - resultado.getCreated());
+        log.info("✅ Alta masiva: {} creados, {} rechazados (hash {} ms con {} hilos, insert {} ms)",
+                resultado.getCreated(), resultado.getRejected(), resultado.getHashMillis(),
+                resultado.getThreads(), resultado.getInsertMillis());
+        return resultado;
+    }
+
+    /**
+     * Usuarios desde un CSV con cabecera (en cualquier orden, coma o punto
+     * y coma): fullName, email, password, phone, rol.
+     */
+    public UserBulkResult registrarCsv(String csv, int threads) {
+        List<User> usuarios = new ArrayList<>();
+        String[] lineas = csv.replace("\uFEFF", "").split("\r?\n");
+        if (lineas.length > 0 && !lineas[0].isBlank()) {
+            char separador = CsvLineParser.detectSeparator(lineas[0]);
+            List<String> cabecera = CsvLineParser.parse(lineas[0], separador).stream()
+                    .map(c -> c.toLowerCase(Locale.ROOT)).toList();
+            for (int i = 1; i < lineas.length; i++) {
+                if (!lineas[i].isBlank()) {
+                    usuarios.add(aUsuario(CsvLineParser.parse(lineas[i], separador), cabecera));
+                }
+            }
+        }
+        return registrar(usuarios, threads);
+    }
+
+    // ============================================================
+    // Pasos del alta
+    // ============================================================
+
+    /** Bean Validation, tope de filas y emails repetidos (en el lote y en USERC). */
+    private void validar(List<Fila> filas) {
+        for (Fila fila : filas) {
+            if (fila.numero > maxRows) {
+                fila.error = "Fila fuera del máximo por petición (" + maxRows + ")";
+                continue;
+            }
+            List<String> mensajes = new ArrayList<>();
+            for (ConstraintViolation<User> v : validator.validate(fila.usuario)) {
+                mensajes.add(v.getPropertyPath() + ": " + v.getMessage());
+            }
+            fila.error = mensajes.isEmpty() ? null : String.join("; ", mensajes);
+        }
+
+        Set<String> emails = new HashSet<>();
+        for (Fila fila : filas) {
+            if (fila.error == null && !emails.add(fila.usuario.getEmail())) {
+                fila.error = "email: Repetido en el lote";
+            }
+        }
+        Set<String> existentes = new HashSet<>();
+        for (List<String> lote : BatchResult.chunks(emails)) {
+            existentes.addAll(repository.findExistingEmails(lote));
+        }
+        for (Fila fila : filas) {
+            if (fila.error == null && existentes.contains(fila.usuario.getEmail())) {
+                fila.error = EMAIL_DUPLICADO;
+            }
+        }
+    }
+
+    /**
+     * BCrypt en el pool: las filas se reparten en tantos tramos como hilos.
+     * Devuelve la suma del tiempo de hash de cada tramo (ns).
+     */
+    private long hashear(List<Fila> filas, int hilos) {
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        int tramo = (filas.size() + hilos - 1) / hilos;
+        List<Callable<Long>> tareas = new ArrayList<>(hilos);
+        for (int desde = 0; desde < filas.size(); desde += tramo) {
+            List<Fila> parte = filas.subList(desde, Math.min(desde + tramo, filas.size()));
+            tareas.add(() -> {
+                long inicio = System.nanoTime();
+                for (Fila fila : parte) {
+                    fila.usuario.setPassword(passwordEncoder.encode(fila.usuario.getPassword()));
+                }
+                return System.nanoTime() - inicio;
+            });
+        }
+        long total = 0;
+        try {
+            for (Future<Long> tarea : pool.invokeAll(tareas)) {
+                total += tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Alta masiva interrumpida", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException(e.getCause());
+        }
+        return total;
+    }
+
+    private void insertar(List<Fila> filas) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        try {
+            tx.executeWithoutResult(status -> {
+                KeyHolder claves = new GeneratedKeyHolder();
+                long seq = changes.currentSeq();
+                jdbc.batchUpdate(con -> con.prepareStatement(INSERT, new String[] { "ID" }),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                parametros(ps, filas.get(i), seq);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return filas.size();
+                            }
+                        }, claves);
+                List<Map<String, Object>> ids = claves.getKeyList();
+                for (int i = 0; i < filas.size(); i++) {
+                    filas.get(i).id = ((Number) ids.get(i).values().iterator().next()).longValue();
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            // Otra petición registró alguno de los emails después de la consulta IN
+            log.warn("⚠️ Email registrado en paralelo durante el alta masiva; reintento fila a fila");
+            filas.forEach(f -> f.id = null);
+            filas.forEach(this::insertarUna);
+        }
+    }
+
+    private void insertarUna(Fila fila) {
+        try {
+            fila.id = tx.execute(status -> {
+                KeyHolder clave = new GeneratedKeyHolder();
+                long seq = changes.currentSeq();
+                jdbc.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(INSERT, new String[] { "ID" });
+                    parametros(ps, fila, seq);
+                    return ps;
+                }, clave);
+                return clave.getKey().longValue();
+            });
+        } catch (DuplicateKeyException e) {
+            fila.error = EMAIL_DUPLICADO;
+        }
+    }
+
+    private static void parametros(PreparedStatement ps, Fila fila, long seq) throws SQLException {
+        User u = fila.usuario;
+        if (u.getRegisterDate() == null) {
+            u.setRegisterDate(LocalDate.now());
+        }
+        ps.setString(1, u.getFullName());
+        ps.setString(2, u.getPassword());
+        ps.setString(3, u.getEmail());
+        ps.setString(4, u.getPhone());
+        ps.setDate(5, Date.valueOf(u.getRegisterDate()));
+        ps.setString(6, u.getRol());
+        ps.setLong(7, seq);
+    }
+
+    // ============================================================
+    // Apoyo
+    // ============================================================
+
+    private static User aUsuario(List<String> campos, List<String> cabecera) {
+        User u = new User();
+        u.setFullName(campo(campos, cabecera, COLUMNAS.get(0)));
+        u.setEmail(campo(campos, cabecera, COLUMNAS.get(1)));
+        u.setPassword(campo(campos, cabecera, COLUMNAS.get(2)));
+        u.setPhone(campo(campos, cabecera, COLUMNAS.get(3)));
+        u.setRol(campo(campos, cabecera, COLUMNAS.get(4)));
+        return u;
+    }
+
+    /** Valor de la columna; null si falta (Bean Validation la reporta en la fila). */
+    private static String campo(List<String> campos, List<String> cabecera, String columna) {
+        int i = cabecera.indexOf(columna);
+        return i >= 0 && i < campos.size() ? campos.get(i) : null;
+    }
+
+    private static final class Fila {
+        private final int numero;
+        private final User usuario;
+        private String error;
+        private Long id;
+
+        private Fila(int numero, User usuario) {
+            this.numero = numero;
+            this.usuario = usuario;
+        }
+    }
+}
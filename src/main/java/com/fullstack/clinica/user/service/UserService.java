@@ -1,6 +1,14 @@
 package com.fullstack.clinica.user.service;
 
+import com.fullstack.clinica.audit.service.AuditService;
+import com.fullstack.clinica.common.BatchResult;
+import com.fullstack.clinica.exception.ConflictException;
 import com.fullstack.clinica.exception.ResourceNotFoundException;
+import com.fullstack.clinica.sample.model.SampleTimeline;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sync.model.ChangePage;
+import com.fullstack.clinica.sync.service.ChangeFeedService;
 import com.fullstack.clinica.user.model.User;
 import com.fullstack.clinica.user.repository.UserRepository;
 
@@ -10,9 +18,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * ===============================================================
@@ -25,21 +38,48 @@ import java.util.List;
  * 1) Unicidad de email (no permitir duplicados).
  * 2) Búsqueda con 404 cuando no exista.
  * - Logging con @Slf4j en operaciones clave.
+ *
+ * 🔹 Auditoría:
+ * - Cada alta, cambio y baja queda registrada en AuditService
+ *   (la contraseña se enmascara en el diff).
+ *
+ * 🔹 Muestras:
+ * - SAMPLE referencia al técnico por ID (se muestra su nombre completo):
+ *   no se elimina un usuario con muestras (409) y los cambios de nombre
+ *   se avisan a SampleReferences.
+ *
+ * 🔹 Sincronización incremental:
+ * - cambiosDesde entrega lo cambiado desde un cursor; la baja deja su
+ *   lápida en la misma transacción.
  * ===============================================================
  */
 @Slf4j
 @Service
 public class UserService {
 
+    private static final String ENTIDAD = "USER";
+    private static final String PACIENTE = "PACIENTE";
+
     @Autowired
     private BCryptPasswordEncoder encoder;
 
     private final UserRepository repository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository repository, PasswordEncoder passwordEncoder) {
+    private final AuditService audit;
+    private final SampleService samples;
+    private final SampleReferences references;
+    private final TransactionTemplate tx;
+    private final ChangeFeedService changes;
+
+    public UserService(UserRepository repository, PasswordEncoder passwordEncoder, AuditService audit,
+            SampleService samples, SampleReferences references, TransactionTemplate tx, ChangeFeedService changes) {
         this.repository = repository;
         this.passwordEncoder = passwordEncoder;
+        this.audit = audit;
+        this.samples = samples;
+        this.references = references;
+        this.tx = tx;
+        this.changes = changes;
     }
 
     // ============================================================
@@ -57,6 +97,15 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
     }
 
+    /**
+     * Multi-get: resuelve varios IDs de una vez, en el orden pedido
+     * (consultas IN de hasta 1000 IDs).
+     */
+    public BatchResult<User> buscarPorIds(List<Long> ids) {
+        log.info("🔍 Buscando {} usuarios por ID", ids.size());
+        return BatchResult.load(ids, repository::findByIdIn, User::getId);
+    }
+
     /**
      * Crea un nuevo usuario aplicando reglas de negocio.
      * Reglas Semana 2:
@@ -71,6 +120,8 @@ public class UserService {
         });
 
         User guardado = repository.save(u);
+        references.technicianCreated(guardado.getFullName());
+        audit.recordCreate(ENTIDAD, guardado.getId(), guardado);
         log.info("✅ Usuario creado con ID: {}", guardado.getId());
         return guardado;
     }
@@ -83,6 +134,8 @@ public class UserService {
     public User actualizar(Long id, User data) {
         log.info("✏️ Actualizando usuario ID: {}", id);
         User existente = buscarPorId(id);
+        Map<String, Object> antes = audit.snapshot(existente);
+        String nombreAnterior = existente.getFullName();
 
         // Si el email cambia, validar unicidad
         if (!existente.getEmail().equalsIgnoreCase(data.getEmail())) {
@@ -92,6 +145,12 @@ public class UserService {
             });
         }
 
+        // Un paciente con muestras no puede dejar de serlo (la muestra apunta a un PACIENTE)
+        if (PACIENTE.equals(existente.getRol()) && !PACIENTE.equals(data.getRol()) && samples.existsByPatient(id)) {
+            log.warn("⚠️ El usuario {} es paciente de muestras, no cambia de rol", id);
+            throw new ConflictException("El paciente tiene muestras registradas y no puede cambiar de rol");
+        }
+
         existente.setFullName(data.getFullName());
         existente.setEmail(data.getEmail());
         existente.setPhone(data.getPhone());
@@ -99,17 +158,35 @@ public class UserService {
         existente.setRol(data.getRol());
 
         User actualizado = repository.save(existente);
+        references.technicianRenamed(id, nombreAnterior, actualizado.getFullName());
+        audit.recordUpdate(ENTIDAD, id, antes, actualizado);
         log.info("✅ Usuario actualizado ID: {}", actualizado.getId());
         return actualizado;
     }
 
     public void eliminar(Long id) {
         log.info("🗑️ Eliminando usuario ID: {}", id);
-        if (!repository.existsById(id)) {
+        User existente = repository.findById(id).orElseThrow(() -> {
             log.error("❌ No se puede eliminar. Usuario no existe: {}", id);
-            throw new ResourceNotFoundException("Usuario no existe: " + id);
+            return new ResourceNotFoundException("Usuario no existe: " + id);
+        });
+        // Equivalente a ON DELETE RESTRICT de la FK de SAMPLE
+        if (samples.existsByTechnician(id)) {
+            log.warn("⚠️ El usuario {} es técnico de muestras, no se elimina", id);
+            throw new ConflictException("El usuario es técnico de muestras registradas y no se puede eliminar");
+        }
+        if (PACIENTE.equals(existente.getRol()) && samples.existsByPatient(id)) {
+            log.warn("⚠️ El usuario {} es paciente de muestras, no se elimina", id);
+            throw new ConflictException("El paciente tiene muestras registradas y no se puede eliminar");
         }
-        repository.deleteById(id);
+        Map<String, Object> antes = audit.snapshot(existente);
+        tx.execute(status -> {
+            repository.delete(existente);
+            changes.tombstone(ENTIDAD, id);
+            return null;
+        });
+        references.technicianDeleted(id, existente.getFullName());
+        audit.recordDelete(ENTIDAD, id, antes);
         log.info("✅ Usuario eliminado ID: {}", id);
     }
 
@@ -127,6 +204,40 @@ public class UserService {
         return repository.findByRol(rol);
     }
 
+    /**
+     * Usuarios de varios laboratorios (una consulta IN por cada 1000
+     * laboratorios), agrupados por ID de laboratorio.
+     */
+    public Map<Long, List<User>> listarPorLaboratorios(Collection<Long> laboratoryIds) {
+        log.info("🧪 Listando usuarios de {} laboratorios", laboratoryIds.size());
+        Map<Long, List<User>> porLaboratorio = new HashMap<>();
+        for (List<Long> lote : BatchResult.chunks(laboratoryIds)) {
+            repository.findByLaboratoryIdIn(lote).forEach(u -> porLaboratorio
+                    .computeIfAbsent(u.getLaboratory().getId(), id -> new ArrayList<>()).add(u));
+        }
+        return porLaboratorio;
+    }
+
+    /**
+     * Sincronización incremental: usuarios creados, modificados o
+     * eliminados desde el cursor.
+     */
+    public ChangePage<User> cambiosDesde(String since, Integer limit) {
+        return changes.page(ENTIDAD, since, limit, false, repository::findChangedSince);
+    }
+
+    /**
+     * Historial de muestras de un paciente (más reciente primero), por
+     * páginas con cursor. El usuario debe existir y tener rol PACIENTE.
+     */
+    public SampleTimeline historialDeMuestras(Long id, String cursor, int size) {
+        User usuario = buscarPorId(id);
+        if (!PACIENTE.equals(usuario.getRol())) {
+            throw new ResourceNotFoundException("El usuario " + id + " no es un paciente");
+        }
+        return samples.findPatientTimeline(id, cursor, size);
+    }
+
     // ============================================================
     // Métodos específicos para autenticación y registro
     // ============================================================
@@ -153,6 +264,7 @@ public class UserService {
         nuevo.setRol(data.getRol()); // rol por defecto para registro web
 
         User guardado = repository.save(nuevo);
+        audit.recordCreate(ENTIDAD, guardado.getId(), guardado);
         log.info("✅ [Registro] Usuario registrado con ID: {}", guardado.getId());
         return guardado;
     }
@@ -187,6 +299,8 @@ public class UserService {
     public User actualizarPerfil(Long id, User data) {
         log.info("👤 [Perfil] Actualizando perfil del usuario ID: {}", id);
         User existente = buscarPorId(id);
+        Map<String, Object> antes = audit.snapshot(existente);
+        String nombreAnterior = existente.getFullName();
 
         existente.setFullName(data.getFullName());
         existente.setPhone(data.getPhone());
@@ -198,10 +312,24 @@ public class UserService {
         }
 
         User actualizado = repository.save(existente);
+        references.technicianRenamed(id, nombreAnterior, actualizado.getFullName());
+        audit.recordUpdate(ENTIDAD, id, antes, actualizado);
         log.info("✅ [Perfil] Perfil actualizado ID: {}", actualizado.getId());
         return actualizado;
     }
 
+    /**
+     * Reemplaza la contraseña (ya encriptada) por una temporal de recuperación.
+     */
+    public User restablecerPassword(User usuario, String passwordEncriptada) {
+        log.info("🔑 [Recuperación] Restableciendo contraseña del usuario ID: {}", usuario.getId());
+        Map<String, Object> antes = audit.snapshot(usuario);
+        usuario.setPassword(passwordEncriptada);
+        User actualizado = repository.save(usuario);
+        audit.recordUpdate(ENTIDAD, usuario.getId(), antes, actualizado);
+        return actualizado;
+    }
+
     // ============================================================
     // Método de apoyo interno
     // ============================================================
@@ -0,0 +1,32 @@
+package com.fullstack.clinica.warmup;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ===============================================================
+ * 📘 Clase: WarmupConfig
+ * ---------------------------------------------------------------
+ * Calentamiento de arranque:
+ *
+ * - WarmupService: mezcla sintética de lecturas por HTTP contra los
+ *   controladores reales antes de declarar la readiness.
+ * - WarmupLatencyFilter: percentiles del tráfico real en la ventana
+ *   posterior (para comparar con y sin calentamiento).
+ * - WarmupController: reporte en /api/admin/warmup.
+ * ===============================================================
+ */
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public FilterRegistrationBean<WarmupLatencyFilter> warmupLatencyFilter(WarmupService service) {
+        FilterRegistrationBean<WarmupLatencyFilter> registro =
+                new FilterRegistrationBean<>(new WarmupLatencyFilter(service));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
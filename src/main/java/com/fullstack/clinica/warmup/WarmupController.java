@@ -0,0 +1,36 @@
+package com.fullstack.clinica.warmup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ===============================================================
+ * 📘 Clase: WarmupController
+ * ---------------------------------------------------------------
+ * Reporte del calentamiento de arranque: tiempo, peticiones, latencia
+ * fría vs caliente por endpoint y percentiles del tráfico real en el
+ * primer minuto tras la readiness.
+ * ===============================================================
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/warmup")
+public class WarmupController {
+
+    private final WarmupService service;
+
+    public WarmupController(WarmupService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> reporte() {
+        log.info("🔥 [GET] Reporte del calentamiento");
+        return ResponseEntity.ok(service.reporte());
+    }
+}
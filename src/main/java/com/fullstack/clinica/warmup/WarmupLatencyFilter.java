@@ -0,0 +1,46 @@
+package com.fullstack.clinica.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * ===============================================================
+ * 📘 Clase: WarmupLatencyFilter
+ * ---------------------------------------------------------------
+ * Mide la latencia de las peticiones reales durante la ventana
+ * posterior a la readiness (el "primer minuto" tras un despliegue).
+ * Quedan fuera las del propio calentamiento (cabecera X-Warmup) y las
+ * de sondas y reportes, que no representan tráfico.
+ * ===============================================================
+ */
+public class WarmupLatencyFilter extends OncePerRequestFilter {
+
+    private final WarmupService service;
+
+    public WarmupLatencyFilter(WarmupService service) {
+        this.service = service;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return request.getHeader(WarmupService.HEADER) != null || uri.startsWith("/api/health")
+                || uri.startsWith("/api/admin/warmup") || !service.observando();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            service.registrarPeticionReal(System.nanoTime() - inicio);
+        }
+    }
+}
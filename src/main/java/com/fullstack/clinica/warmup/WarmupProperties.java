@@ -0,0 +1,41 @@
+package com.fullstack.clinica.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * ===============================================================
+ * 📘 Clase: WarmupProperties
+ * ---------------------------------------------------------------
+ * Calentamiento previo a la readiness (clinica.warmup.*).
+ * ===============================================================
+ */
+@Data
+@ConfigurationProperties(prefix = "clinica.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    // Vueltas completas de la mezcla de peticiones (repartidas entre los hilos)
+    private int iterations = 150;
+
+    // Hilos que envían la mezcla en paralelo (también abren varias conexiones del pool)
+    private int concurrency = 2;
+
+    // Tope de tiempo: pasado esto se declara listo aunque falten vueltas
+    private Duration maxDuration = Duration.ofSeconds(60);
+
+    // Una verificación BCrypt (≈70 ms, lo que cuesta un login) cada N vueltas
+    private int loginEvery = 10;
+
+    // Conexiones que se abren a la vez en cada shard (no más que el máximo del pool)
+    private int connections = 5;
+
+    // Espera máxima a que el modelo de lectura termine de cargar
+    private Duration readModelWait = Duration.ofSeconds(120);
+
+    // Ventana tras la readiness en la que se miden las peticiones reales
+    private Duration observeWindow = Duration.ofSeconds(60);
+}
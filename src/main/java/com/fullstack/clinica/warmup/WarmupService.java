@@ -0,0 +1,434 @@
+package com.fullstack.clinica.warmup;
+
+import com.fullstack.clinica.sample.service.SampleReadModel;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ===============================================================
+ * 📘 Clase: WarmupService
+ * ---------------------------------------------------------------
+ * Calienta la aplicación antes de declararla lista. Corre en el
+ * último listener de ApplicationReadyEvent, así que Spring Boot
+ * publica ReadinessState.ACCEPTING_TRAFFIC (y /api/health/readiness
+ * pasa a 200) recién cuando termina:
+ *
+ * 1️⃣ Espera a que el modelo de lectura termine de cargar.
+ * 2️⃣ Abre a la vez varias conexiones en cada shard (pool lleno y
+ *    validado antes del primer pico).
+ * 3️⃣ Envía por HTTP local una mezcla de lecturas contra los
+ *    controladores reales (Tomcat, filtros, Jackson, Hibernate: cada
+ *    JPQL queda en la caché de planes) y, cada tantas vueltas, una
+ *    verificación BCrypt llamando directo al PasswordEncoder (no un
+ *    login: no toca cuentas reales ni deja intentos fallidos en el
+ *    log). Nada escribe en la BD.
+ *
+ * Un fallo del calentamiento solo se registra: nunca impide arrancar.
+ * Después, WarmupLatencyFilter mide el tráfico real de la ventana
+ * siguiente (primer minuto) para comparar con y sin calentamiento.
+ * ===============================================================
+ */
+@Slf4j
+@Service
+public class WarmupService {
+
+    static final String HEADER = "X-Warmup";
+    private static final String CLAVE = "Calentamiento1";
+    private static final int DIGITOS = 3;
+    // La ventana se reparte en tramos: el efecto de la JVM fría se concentra en los primeros segundos
+    private static final int TRAMOS = 6;
+
+    private final WarmupProperties properties;
+    private final Environment env;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final SampleShardRouter router;
+    private final SampleReadModel readModel;
+    private final PasswordEncoder passwordEncoder;
+
+    private final Map<String, Object> reporte = new LinkedHashMap<>();
+
+    // Tráfico real tras la readiness (µs)
+    private final ConcurrentHistogram primerMinuto = new ConcurrentHistogram(DIGITOS);
+    private final ConcurrentHistogram[] tramos = new ConcurrentHistogram[TRAMOS];
+    private final AtomicLong primeraPeticionMicros = new AtomicLong(-1);
+    private volatile long observarDesde;
+    private volatile long observarHasta;
+    private volatile LocalDateTime listaDesde;
+
+    public WarmupService(WarmupProperties properties, Environment env, DataSource dataSource, JdbcTemplate jdbc,
+            SampleShardRouter router, SampleReadModel readModel, PasswordEncoder passwordEncoder) {
+        this.properties = properties;
+        this.env = env;
+        this.dataSource = dataSource;
+        this.jdbc = jdbc;
+        this.router = router;
+        this.readModel = readModel;
+        this.passwordEncoder = passwordEncoder;
+        for (int i = 0; i < TRAMOS; i++) {
+            tramos[i] = new ConcurrentHistogram(DIGITOS);
+        }
+    }
+
+    // ============================================================
+    // Ciclo de arranque
+    // ============================================================
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void calentar() {
+        if (!properties.isEnabled()) {
+            guardar("estado", "DESACTIVADO");
+            return;
+        }
+        log.info("🔥 Calentamiento previo a la readiness");
+        long inicio = System.nanoTime();
+        long limite = inicio + properties.getMaxDuration().toNanos();
+        try {
+            guardar("esperaModeloLecturaMs", esperarModeloDeLectura() / 1_000_000);
+            guardar("conexiones", cebarConexiones());
+            mezcla(limite);
+            guardar("estado", "COMPLETADO");
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Calentamiento interrumpido: {}", e.getMessage());
+            guardar("estado", "INTERRUMPIDO");
+            guardar("error", e.getMessage());
+        }
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+        guardar("millis", millis);
+        log.info("🔥 Calentamiento terminado en {} ms", millis);
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> evento) {
+        if (evento.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        listaDesde = LocalDateTime.now();
+        observarDesde = System.nanoTime();
+        observarHasta = observarDesde + properties.getObserveWindow().toNanos();
+        log.info("✅ Lista para recibir tráfico; midiendo los primeros {} s", properties.getObserveWindow().toSeconds());
+    }
+
+    // ============================================================
+    // Pasos del calentamiento
+    // ============================================================
+
+    private long esperarModeloDeLectura() {
+        long inicio = System.nanoTime();
+        long limite = inicio + properties.getReadModelWait().toNanos();
+        while (readModel.isEnabled() && !readModel.isReady() && System.nanoTime() < limite) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    /** Toma varias conexiones a la vez en cada shard y las valida (quedan en el pool). */
+    private int cebarConexiones() {
+        int total = 0;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            total += router.onShard(shard, () -> {
+                List<Connection> abiertas = new ArrayList<>();
+                try {
+                    for (int i = 0; i < Math.max(1, properties.getConnections()); i++) {
+                        Connection con = dataSource.getConnection();
+                        abiertas.add(con);
+                        con.isValid(1);
+                    }
+                } catch (SQLException e) {
+                    log.warn("⚠️ No se pudo abrir otra conexión: {}", e.getMessage());
+                } finally {
+                    for (Connection con : abiertas) {
+                        try {
+                            con.close();
+                        } catch (SQLException e) {
+                            log.debug("Conexión ya cerrada: {}", e.getMessage());
+                        }
+                    }
+                }
+                return abiertas.size();
+            });
+        }
+        return total;
+    }
+
+    private void mezcla(long limite) {
+        Integer puerto = env.getProperty("local.server.port", Integer.class);
+        if (puerto == null || puerto <= 0) {
+            log.info("🔥 Sin servidor HTTP (¿test sin puerto?): se omite la mezcla de peticiones");
+            return;
+        }
+        List<Paso> pasos = pasos("http://localhost:" + puerto);
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        int hilos = Math.max(1, properties.getConcurrency());
+        AtomicInteger vueltas = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> trabajadores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                trabajadores.add(pool.submit(() -> {
+                    int vuelta;
+                    while ((vuelta = vueltas.getAndIncrement()) < properties.getIterations()
+                            && System.nanoTime() < limite && !Thread.currentThread().isInterrupted()) {
+                        for (int i = 0; i < pasos.size(); i++) {
+                            Paso paso = pasos.get((i + vuelta) % pasos.size()); // cada vuelta en otro orden
+                            if (!paso.bcrypt || vuelta % Math.max(1, properties.getLoginEvery()) == 0) {
+                                paso.ejecutar(cliente);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> trabajador : trabajadores) {
+                trabajador.get(Math.max(1, limite - System.nanoTime()) + TimeUnit.SECONDS.toNanos(10),
+                        TimeUnit.NANOSECONDS);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("la mezcla de peticiones falló: " + e.getMessage(), e);
+        } finally {
+            pool.shutdownNow();
+            resumir(pasos, Math.min(vueltas.get(), properties.getIterations()));
+        }
+    }
+
+    private void resumir(List<Paso> pasos, int vueltas) {
+        Map<String, Object> porEndpoint = new LinkedHashMap<>();
+        long peticiones = 0;
+        long errores = 0;
+        for (Paso paso : pasos) {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("llamadas", paso.latencias.getTotalCount());
+            fila.put("primeraMs", ms(paso.primeraMicros.get()));
+            fila.put("p50Ms", ms(paso.latencias.getValueAtPercentile(50)));
+            fila.put("p99Ms", ms(paso.latencias.getValueAtPercentile(99)));
+            fila.put("errores", paso.errores.get());
+            porEndpoint.put(paso.nombre, fila);
+            peticiones += paso.latencias.getTotalCount();
+            errores += paso.errores.get();
+        }
+        guardar("vueltas", vueltas);
+        guardar("peticiones", peticiones);
+        guardar("errores", errores);
+        guardar("endpoints", porEndpoint);
+        log.info("🔥 {} vueltas, {} peticiones ({} con error 5xx o de red)", vueltas, peticiones, errores);
+    }
+
+    /**
+     * Lecturas con IDs reales si los hay; con una BD vacía los IDs no
+     * existen y se calienta igual el camino del 404.
+     */
+    private List<Paso> pasos(String base) {
+        Map<String, Object> lab = primero("select id, name from LABORATORY order by id");
+        Map<String, Object> tecnico = primero("select id, email from USERC order by case when rol = 'TECNICO' "
+                + "then 0 else 1 end, id");
+        Map<String, Object> paciente = primero("select patient_id from SAMPLE where patient_id is not null");
+        List<Long> muestras = router.fanOut(() -> jdbc.queryForList(
+                "select id from SAMPLE order by id fetch first 2 rows only", Long.class));
+
+        Object labId = lab.getOrDefault("ID", 0);
+        String labNombre = codificar(String.valueOf(lab.getOrDefault("NAME", "Calentamiento")));
+        Object userId = tecnico.getOrDefault("ID", 0);
+        String email = String.valueOf(tecnico.getOrDefault("EMAIL", "calentamiento@clinica.invalid"));
+        Object pacienteId = paciente.getOrDefault("PATIENT_ID", userId);
+        Object muestra = muestras.isEmpty() ? 0 : muestras.get(0);
+        Object otraMuestra = muestras.size() > 1 ? muestras.get(1) : muestra;
+
+        List<Paso> pasos = new ArrayList<>();
+        pasos.add(new Paso("GET /api/laboratories/id/{id}", base + "/api/laboratories/id/" + labId));
+        pasos.add(new Paso("GET /api/laboratories?ids", base + "/api/laboratories?ids=" + labId + ",0"));
+        pasos.add(new Paso("GET /api/laboratories/state/{state}", base + "/api/laboratories/state/ACTIVO"));
+        pasos.add(new Paso("GET /api/laboratories/id/{id}/turnaround",
+                base + "/api/laboratories/id/" + labId + "/turnaround"));
+        pasos.add(new Paso("GET /api/users/id/{id}", base + "/api/users/id/" + userId));
+        pasos.add(new Paso("GET /api/users?ids", base + "/api/users?ids=" + userId + "," + pacienteId));
+        pasos.add(new Paso("GET /api/users/email/{email}", base + "/api/users/email/" + codificar(email)));
+        pasos.add(new Paso("GET /api/users/id/{id}/samples",
+                base + "/api/users/id/" + pacienteId + "/samples?size=20"));
+        pasos.add(new Paso("GET /api/samples/id/{id}", base + "/api/samples/id/" + muestra));
+        pasos.add(new Paso("GET /api/samples?ids", base + "/api/samples?ids=" + muestra + "," + otraMuestra));
+        pasos.add(new Paso("GET /api/samples/id/{id}/history", base + "/api/samples/id/" + muestra + "/history"));
+        if (readModel.isReady()) {
+            pasos.add(new Paso("GET /api/samples/view", base + "/api/samples/view?laboratory=" + labNombre
+                    + "&limit=50"));
+            pasos.add(new Paso("GET /api/samples/view/count", base + "/api/samples/view/count?status=RECIBIDA"));
+        }
+        // El mismo costo que un login, sin pasar por una cuenta real
+        String hash = passwordEncoder.encode(CLAVE);
+        pasos.add(new Paso("BCrypt matches", () -> passwordEncoder.matches(CLAVE, hash)));
+        return pasos;
+    }
+
+    private Map<String, Object> primero(String sql) {
+        List<Map<String, Object>> filas = router.onShard(0, () -> jdbc.queryForList(sql + " fetch first 1 rows only"));
+        return filas.isEmpty() ? Map.of() : filas.get(0);
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    // ============================================================
+    // Primer minuto tras la readiness
+    // ============================================================
+
+    boolean observando() {
+        long ahora = System.nanoTime();
+        return observarDesde != 0 && ahora - observarHasta < 0;
+    }
+
+    void registrarPeticionReal(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        primeraPeticionMicros.compareAndSet(-1, micros);
+        primerMinuto.recordValue(micros);
+        long transcurrido = System.nanoTime() - observarDesde;
+        int tramo = (int) (transcurrido * TRAMOS / Math.max(1, observarHasta - observarDesde));
+        tramos[Math.min(Math.max(tramo, 0), TRAMOS - 1)].recordValue(micros);
+    }
+
+    /**
+     * Reporte del calentamiento y percentiles del tráfico real en la
+     * ventana posterior a la readiness.
+     */
+    public Map<String, Object> reporte() {
+        Map<String, Object> respuesta;
+        synchronized (reporte) {
+            respuesta = new LinkedHashMap<>(reporte);
+        }
+        respuesta.putIfAbsent("estado", "EN_CURSO");
+        Map<String, Object> ventana = new LinkedHashMap<>();
+        ventana.put("listaDesde", listaDesde);
+        ventana.put("segundos", properties.getObserveWindow().toSeconds());
+        ventana.put("midiendo", observando());
+        ventana.put("primeraMs", ms(primeraPeticionMicros.get()));
+        ventana.putAll(percentiles(primerMinuto));
+        List<Map<String, Object>> porTramo = new ArrayList<>();
+        long segundos = properties.getObserveWindow().toSeconds();
+        for (int i = 0; i < TRAMOS; i++) {
+            Map<String, Object> tramo = new LinkedHashMap<>();
+            tramo.put("desdeS", segundos * i / TRAMOS);
+            tramo.put("hastaS", segundos * (i + 1) / TRAMOS);
+            tramo.putAll(percentiles(tramos[i]));
+            porTramo.add(tramo);
+        }
+        ventana.put("tramos", porTramo);
+        respuesta.put("primerMinuto", ventana);
+        return respuesta;
+    }
+
+    private static Map<String, Object> percentiles(ConcurrentHistogram histograma) {
+        Histogram copia = histograma.copy();
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("peticiones", copia.getTotalCount());
+        valores.put("p50Ms", ms(copia.getValueAtPercentile(50)));
+        valores.put("p90Ms", ms(copia.getValueAtPercentile(90)));
+        valores.put("p99Ms", ms(copia.getValueAtPercentile(99)));
+        valores.put("maxMs", ms(copia.getMaxValue()));
+        return valores;
+    }
+
+    private void guardar(String clave, Object valor) {
+        synchronized (reporte) {
+            reporte.put(clave, valor);
+        }
+    }
+
+    private static double ms(long micros) {
+        return micros < 0 ? 0 : Math.round(micros / 100.0) / 10.0;
+    }
+
+    /** Una petición de la mezcla (o el paso local de BCrypt) con sus latencias (µs). */
+    private static final class Paso {
+        final String nombre;
+        final HttpRequest request;
+        final Runnable local;
+        final boolean bcrypt;
+        final ConcurrentHistogram latencias = new ConcurrentHistogram(DIGITOS);
+        final AtomicLong primeraMicros = new AtomicLong(-1);
+        final AtomicInteger errores = new AtomicInteger();
+
+        Paso(String nombre, String url) {
+            this.nombre = nombre;
+            this.local = null;
+            this.bcrypt = false;
+            this.request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .header(HEADER, "1")
+                    .GET().build();
+        }
+
+        Paso(String nombre, Runnable local) {
+            this.nombre = nombre;
+            this.request = null;
+            this.local = local;
+            this.bcrypt = true;
+        }
+
+        void ejecutar(HttpClient cliente) {
+            long inicio = System.nanoTime();
+            try {
+                if (local != null) {
+                    local.run();
+                    registrar(inicio);
+                    return;
+                }
+                HttpResponse<Void> respuesta = cliente.send(request, HttpResponse.BodyHandlers.discarding());
+                if (respuesta.statusCode() >= 500) {
+                    errores.incrementAndGet();
+                }
+            } catch (IOException e) {
+                errores.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            registrar(inicio);
+        }
+
+        private void registrar(long inicio) {
+            long micros = Math.max(1, (System.nanoTime() - inicio) / 1000);
+            primeraMicros.compareAndSet(-1, micros);
+            latencias.recordValue(micros);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- ===============================================================
+-- 📘 Script manual 028: SAMPLE.code_key
+-- ---------------------------------------------------------------
+-- code_key = upper(code): la detección de duplicados busca por
+-- UX_SAMPLE_CODE_KEY en vez de recorrer la tabla con upper(code).
+-- ddl-auto agrega la columna (nulable) y el índice único; este script
+-- completa las filas que ya existían.
+--
+-- Lo ejecuta un operador UNA vez, en TODOS los shards (0, 1, ...), con
+-- la versión que crea la columna ya desplegada y antes de habilitar
+-- importaciones. Va antes de los scripts 040-*. Es repetible: solo toca
+-- filas con code_key nulo. No es una migración Flyway (el nombre no
+-- sigue V<n>__ a propósito): el paso 1 es un informe para revisar.
+-- ===============================================================
+
+-- 1️⃣ Revisión previa: códigos que solo difieren en mayúsculas. El índice
+--    único rechazará el UPDATE si hay alguno; corregirlos antes de seguir.
+select upper(code) as code_key, count(*) as filas
+from SAMPLE
+group by upper(code)
+having count(*) > 1;
+
+-- 2️⃣ Completar code_key
+update SAMPLE set code_key = upper(code) where code_key is null;
+
+commit;
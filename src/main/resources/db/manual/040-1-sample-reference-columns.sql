@@ -0,0 +1,36 @@
+-- ===============================================================
+-- 📘 Script manual 040-1: columnas de ID de SAMPLE
+-- ---------------------------------------------------------------
+-- SAMPLE pasa de repetir el nombre del laboratorio y del técnico
+-- (laboratory / technician, texto) a guardar sus IDs
+-- (laboratory_id / technician_id). Los ejecuta un operador, en este
+-- orden y en estos shards:
+--
+--   040-1  columnas nuevas y tabla de correspondencias    (todos)
+--   040-2  correspondencias nombre → ID                    (shard 0; genera los INSERT de los demás)
+--   040-3  completar los IDs e informar los sin match      (todos)
+--   040-4  NOT NULL de los IDs                             (todos)
+--   040-5  claves foráneas                                 (solo shard 0)
+--   040-9  eliminar las columnas de texto (más adelante)   (todos)
+--
+-- 040-1 a 040-3 se ejecutan con la aplicación detenida, antes de
+-- arrancar la versión nueva. Ningún paso crea laboratorios ni usuarios.
+-- No son migraciones Flyway: traen informes para revisar y pasos que
+-- no van en todos los shards.
+-- ===============================================================
+
+-- 1️⃣ Columnas de ID (ddl-auto las crearía igual, nulables, al arrancar)
+alter table SAMPLE add (laboratory_id number(19), technician_id number(19));
+
+-- 2️⃣ Las columnas de texto dejan de ser obligatorias: la versión nueva
+--    ya no las escribe. Se conservan hasta 040-9 (vuelta atrás posible).
+alter table SAMPLE modify (laboratory null);
+alter table SAMPLE modify (technician null);
+
+-- 3️⃣ Correspondencias nombre → ID que usará 040-3 (se borra en 040-4)
+create table MIG_SAMPLE_REFERENCE (
+    kind   varchar2(12)  not null,
+    name   varchar2(100) not null,
+    ref_id number(19)    not null,
+    constraint PK_MIG_SAMPLE_REFERENCE primary key (kind, name)
+);
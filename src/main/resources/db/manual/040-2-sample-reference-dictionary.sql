@@ -0,0 +1,34 @@
+-- ===============================================================
+-- 📘 Script manual 040-2: correspondencias nombre → ID
+-- ---------------------------------------------------------------
+-- Solo en el shard 0 (donde viven LABORATORY y USERC), después de
+-- 040-1 en todos los shards. Solo entran los nombres que identifican
+-- UNA fila: un nombre completo compartido por varios usuarios no se
+-- resuelve por su cuenta (antes la muestra quedaba en el de menor ID);
+-- lo decide el operador.
+-- ===============================================================
+
+-- 1️⃣ Laboratorios y usuarios con nombre único
+insert into MIG_SAMPLE_REFERENCE (kind, name, ref_id)
+select 'LABORATORY', name, min(id) from LABORATORY group by name having count(*) = 1;
+
+insert into MIG_SAMPLE_REFERENCE (kind, name, ref_id)
+select 'TECHNICIAN', full_name, min(id) from USERC group by full_name having count(*) = 1;
+
+commit;
+
+-- 2️⃣ Revisión: usuarios homónimos. Los que de verdad son técnicos de
+--    muestras aparecen, shard por shard, en el informe 1️⃣ de 040-3.
+--    Para cada uno, elegir el usuario correcto y agregarlo a mano, p. ej.:
+--    insert into MIG_SAMPLE_REFERENCE values ('TECHNICIAN', 'Ana Pérez', 42);
+select u.full_name, u.id, u.email, u.rol
+from USERC u
+where u.full_name in (select full_name from USERC group by full_name having count(*) > 1)
+order by u.full_name, u.id;
+
+-- 3️⃣ Shards 1..N: el resultado de esta consulta son los INSERT que se
+--    ejecutan en cada uno (más las correcciones manuales del paso 2️⃣).
+select 'insert into MIG_SAMPLE_REFERENCE (kind, name, ref_id) values ('''
+       || kind || ''', ''' || replace(name, '''', '''''') || ''', ' || ref_id || ');' as sentencia
+from MIG_SAMPLE_REFERENCE
+order by kind, name;
@@ -0,0 +1,44 @@
+-- ===============================================================
+-- 📘 Script manual 040-3: completar laboratory_id / technician_id
+-- ---------------------------------------------------------------
+-- En todos los shards, después de 040-2 (MIG_SAMPLE_REFERENCE ya cargada).
+-- Repetible: solo toca filas con el ID nulo. Si el paso 1️⃣ informa
+-- nombres sin correspondencia, se agregan a MIG_SAMPLE_REFERENCE
+-- (apuntando al laboratorio o usuario correcto, ya existente) y se
+-- vuelve a ejecutar; el script no inventa laboratorios ni usuarios.
+-- ===============================================================
+
+-- 1️⃣ Informe: nombres sin correspondencia y cuántas muestras afectan
+select 'LABORATORY' as kind, s.laboratory as name, count(*) as filas
+from SAMPLE s
+where s.laboratory_id is null
+  and not exists (select 1 from MIG_SAMPLE_REFERENCE r where r.kind = 'LABORATORY' and r.name = s.laboratory)
+group by s.laboratory
+union all
+select 'TECHNICIAN', s.technician, count(*)
+from SAMPLE s
+where s.technician_id is null
+  and not exists (select 1 from MIG_SAMPLE_REFERENCE r where r.kind = 'TECHNICIAN' and r.name = s.technician)
+group by s.technician
+order by 1, 2;
+
+-- 2️⃣ Completar los IDs con correspondencia
+update SAMPLE s
+set laboratory_id = (select r.ref_id from MIG_SAMPLE_REFERENCE r
+                     where r.kind = 'LABORATORY' and r.name = s.laboratory)
+where s.laboratory_id is null
+  and exists (select 1 from MIG_SAMPLE_REFERENCE r where r.kind = 'LABORATORY' and r.name = s.laboratory);
+
+update SAMPLE s
+set technician_id = (select r.ref_id from MIG_SAMPLE_REFERENCE r
+                     where r.kind = 'TECHNICIAN' and r.name = s.technician)
+where s.technician_id is null
+  and exists (select 1 from MIG_SAMPLE_REFERENCE r where r.kind = 'TECHNICIAN' and r.name = s.technician);
+
+-- 3️⃣ Toma de las muestras anteriores al historial del paciente
+update SAMPLE set collected_at = received_at where collected_at is null and received_at is not null;
+
+commit;
+
+-- 4️⃣ Verificación: debe dar 0 antes de arrancar la versión nueva
+select count(*) as sin_id from SAMPLE where laboratory_id is null or technician_id is null;
@@ -0,0 +1,11 @@
+-- ===============================================================
+-- 📘 Script manual 040-4: NOT NULL de laboratory_id / technician_id
+-- ---------------------------------------------------------------
+-- En todos los shards, cuando 040-3 verificó 0 filas sin ID en cada
+-- uno. Después, 040-5 solo en el shard 0.
+-- ===============================================================
+
+alter table SAMPLE modify (laboratory_id not null);
+alter table SAMPLE modify (technician_id not null);
+
+drop table MIG_SAMPLE_REFERENCE;
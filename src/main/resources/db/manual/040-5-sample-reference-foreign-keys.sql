@@ -0,0 +1,11 @@
+-- ===============================================================
+-- 📘 Script manual 040-5: claves foráneas de SAMPLE
+-- ---------------------------------------------------------------
+-- Solo en el shard 0, después de 040-4. En los demás shards no existen
+-- LABORATORY ni USERC y la integridad la validan SampleService,
+-- LaboratoryService y UserService.
+-- ===============================================================
+
+alter table SAMPLE add constraint FK_SAMPLE_LABORATORY foreign key (laboratory_id) references LABORATORY (id);
+alter table SAMPLE add constraint FK_SAMPLE_TECHNICIAN foreign key (technician_id) references USERC (id);
+alter table SAMPLE add constraint FK_SAMPLE_PATIENT foreign key (patient_id) references USERC (id);
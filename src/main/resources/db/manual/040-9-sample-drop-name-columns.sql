@@ -0,0 +1,14 @@
+-- ===============================================================
+-- 📘 Script manual 040-9: eliminar laboratory / technician de SAMPLE
+-- ---------------------------------------------------------------
+-- Paso posterior e irreversible. Va en todos los shards cuando la
+-- versión con laboratory_id / technician_id está estable y ya no se
+-- volverá a la anterior (que lee las columnas de texto). Hasta entonces
+-- las columnas siguen ahí, sin actualizarse en las muestras nuevas.
+-- ===============================================================
+
+-- 1️⃣ Revisión: debe dar 0 (040-3 completo en este shard)
+select count(*) as sin_id from SAMPLE where laboratory_id is null or technician_id is null;
+
+-- 2️⃣ Eliminar las columnas
+alter table SAMPLE drop (laboratory, technician);
@@ -0,0 +1,179 @@
+package com.fullstack.clinica.audit;
+
+import com.fullstack.clinica.audit.model.AuditAction;
+import com.fullstack.clinica.audit.model.AuditEntry;
+import com.fullstack.clinica.audit.service.AuditService;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.user.model.User;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ===============================================================
+ * 📘 Clase: AuditServiceTest
+ * ---------------------------------------------------------------
+ * Auditoría asíncrona:
+ * - la foto "después" se toma al registrar: cambios posteriores a la
+ *   entidad no llegan a AUDIT_LOG;
+ * - el actor es el usuario autenticado; la cabecera X-User-Email no
+ *   suplanta a nadie (sin Principal queda "anonimo@<ip>");
+ * - la búsqueda combina solo los filtros presentes y pagina;
+ * - las contraseñas quedan enmascaradas en el diff.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auditoria;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false",
+        "clinica.audit.flush-interval-ms=20"
+})
+@AutoConfigureMockMvc
+class AuditServiceTest {
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    AuditService audit;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void laFotoDespuesSeTomaAlRegistrar() {
+        String id = "foto-" + SECUENCIA.incrementAndGet();
+        Laboratory laboratorio = new Laboratory();
+        laboratorio.setName("Laboratorio Original");
+        laboratorio.setState("ACTIVO");
+
+        audit.recordCreate("LABORATORY", id, laboratorio);
+        // La petición sigue usando la entidad después de registrar el cambio
+        laboratorio.setName("Modificado Después");
+
+        AuditEntry entrada = esperar(() -> audit.search("LABORATORY", id, null, null, null, null, 0, 10)).get(0);
+        assertThat(entrada.getChanges()).contains("Laboratorio Original").doesNotContain("Modificado Después");
+    }
+
+    @Test
+    void elActorNoSaleDeUnaCabeceraDelCliente() throws Exception {
+        String anonimo = crearLaboratorio(null);
+        String autenticado = crearLaboratorio("ana@clinica.cl");
+
+        AuditEntry sinPrincipal = esperar(() -> audit.search("LABORATORY", anonimo, null, null, null, null, 0, 10)).get(0);
+        AuditEntry conPrincipal = esperar(() -> audit.search("LABORATORY", autenticado, null, null, null, null, 0, 10)).get(0);
+
+        assertThat(sinPrincipal.getActor()).startsWith("anonimo@").isNotEqualTo("jefe@clinica.cl");
+        assertThat(conPrincipal.getActor()).isEqualTo("ana@clinica.cl");
+        assertThat(audit.search(null, null, "jefe@clinica.cl", null, null, null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void buscaSoloConLosFiltrosPresentes() {
+        String id = "filtros-" + SECUENCIA.incrementAndGet();
+        LocalDateTime inicio = LocalDateTime.now().minusSeconds(1);
+        Laboratory laboratorio = new Laboratory();
+        laboratorio.setName("Lab " + id);
+        Map<String, Object> antes = audit.snapshot(laboratorio);
+        audit.recordCreate("LABORATORY", id, laboratorio);
+        for (int i = 1; i <= 3; i++) {
+            laboratorio.setDescription("versión " + i);
+            audit.recordUpdate("LABORATORY", id, antes, laboratorio);
+            antes = audit.snapshot(laboratorio);
+        }
+        audit.recordDelete("LABORATORY", id, antes);
+
+        List<AuditEntry> todas = esperar(() -> {
+            List<AuditEntry> r = audit.search("LABORATORY", id, null, null, null, null, 0, 50);
+            return r.size() == 5 ? r : List.of();
+        });
+        // Más reciente primero
+        assertThat(todas).extracting(AuditEntry::getAction).containsExactly(AuditAction.ELIMINAR,
+                AuditAction.ACTUALIZAR, AuditAction.ACTUALIZAR, AuditAction.ACTUALIZAR, AuditAction.CREAR);
+
+        assertThat(audit.search("LABORATORY", id, null, AuditAction.ACTUALIZAR, null, null, 0, 50)).hasSize(3);
+        assertThat(audit.search(null, id, todas.get(0).getActor(), AuditAction.CREAR, inicio, null, 0, 50)).hasSize(1);
+        assertThat(audit.search("USER", id, null, null, null, null, 0, 50)).isEmpty();
+        assertThat(audit.search("LABORATORY", id, null, null, null, inicio, 0, 50)).isEmpty();
+        assertThat(audit.search(null, null, null, null, inicio, LocalDateTime.now().plusMinutes(1), 0, 500))
+                .extracting(AuditEntry::getEntityId).contains(id);
+
+        // Páginas de 2: 2 + 2 + 1, sin repetir
+        List<AuditEntry> pagina0 = audit.search("LABORATORY", id, null, null, null, null, 0, 2);
+        List<AuditEntry> pagina1 = audit.search("LABORATORY", id, null, null, null, null, 1, 2);
+        List<AuditEntry> pagina2 = audit.search("LABORATORY", id, null, null, null, null, 2, 2);
+        assertThat(pagina0).hasSize(2);
+        assertThat(pagina1).hasSize(2);
+        assertThat(pagina2).extracting(AuditEntry::getAction).containsExactly(AuditAction.CREAR);
+        assertThat(pagina1.get(0).getId()).isLessThan(pagina0.get(1).getId());
+    }
+
+    @Test
+    void lasContrasenasQuedanEnmascaradas() {
+        String id = "clave-" + SECUENCIA.incrementAndGet();
+        User usuario = new User();
+        usuario.setEmail(id + "@clinica.cl");
+        usuario.setPassword("$2a$10$hashDePrueba");
+
+        audit.recordCreate("USER", id, usuario);
+
+        String cambios = esperar(() -> audit.search("USER", id, null, null, null, null, 0, 10)).get(0).getChanges();
+        assertThat(cambios).contains("\"password\":{\"antes\":null,\"despues\":\"***\"}").doesNotContain("hashDePrueba");
+    }
+
+    // ============================================================
+    // Apoyo
+    // ============================================================
+
+    /** Crea un laboratorio por la API con X-User-Email y, si se indica, un usuario autenticado. */
+    private String crearLaboratorio(String principal) throws Exception {
+        var peticion = post("/api/laboratories")
+                .header("X-User-Email", "jefe@clinica.cl")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Lab Auditoría " + SECUENCIA.incrementAndGet()
+                        + "\",\"description\":\"Laboratorio auditado\",\"state\":\"ACTIVO\"}");
+        if (principal != null) {
+            peticion.principal(() -> principal);
+        }
+        String cuerpo = mvc.perform(peticion).andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return cuerpo.replaceAll("(?s).*\"id\"\\s*:\\s*(\\d+).*", "$1");
+    }
+
+    /** Espera a que el escritor de auditoría persista los registros buscados. */
+    private static List<AuditEntry> esperar(Supplier<List<AuditEntry>> busqueda) {
+        for (int i = 0; i < 200; i++) {
+            List<AuditEntry> resultado = busqueda.get();
+            if (!resultado.isEmpty()) {
+                return resultado;
+            }
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError("La auditoría no se escribió a tiempo");
+    }
+}
@@ -0,0 +1,210 @@
+package com.fullstack.clinica.graphql;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.service.LaboratoryService;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.service.UserService;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: GraphQlBatchingTest
+ * ---------------------------------------------------------------
+ * El tablero de /graphql (laboratorios con sus usuarios y últimas
+ * muestras, y de cada muestra su técnico, paciente y laboratorio)
+ * cuesta una consulta por tipo: las sentencias no crecen con el
+ * número de laboratorios. Las consultas que exceden la profundidad o
+ * la complejidad se rechazan sin tocar la BD.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:graphql;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GraphQlBatchingTest {
+
+    private static final int LABORATORIOS = 6;
+    private static final int USUARIOS_POR_LAB = 3;
+    private static final int MUESTRAS_POR_LAB = 8;
+
+    private static final String TABLERO = """
+            { laboratories(state: "ACTIVO") { id name
+                users { fullName laboratory { name } }
+                samples(limit: 5) { code technician { fullName } patient { fullName } laboratory { name } } } }""";
+
+    @Autowired
+    ExecutionGraphQlService graphQl;
+
+    @Autowired
+    LaboratoryService laboratories;
+
+    @Autowired
+    UserService users;
+
+    @Autowired
+    SampleService samples;
+
+    private long labId;
+
+    @BeforeAll
+    void prepararDatos() {
+        User paciente = usuario("Paciente GraphQL", "paciente@graphql.cl", "PACIENTE", null);
+        for (int l = 0; l < LABORATORIOS; l++) {
+            Laboratory lab = new Laboratory();
+            lab.setName("LabGraphQl" + l);
+            lab.setDescription("Laboratorio del tablero " + l);
+            lab.setState("ACTIVO");
+            lab = laboratories.save(lab);
+            labId = lab.getId();
+            List<User> tecnicos = new ArrayList<>();
+            for (int u = 0; u < USUARIOS_POR_LAB; u++) {
+                tecnicos.add(usuario("Tecnico GraphQL " + l + "-" + u, "t" + l + "-" + u + "@graphql.cl", "TECNICO", lab));
+            }
+            List<Sample> nuevas = new ArrayList<>();
+            for (int m = 0; m < MUESTRAS_POR_LAB; m++) {
+                Sample muestra = new Sample();
+                muestra.setCode("GQL-" + l + "-" + m);
+                muestra.setDescription("Muestra del tablero " + m);
+                muestra.setTechnician(tecnicos.get(m % USUARIOS_POR_LAB).getFullName());
+                muestra.setLaboratory(lab.getName());
+                muestra.setPatientId(paciente.getId());
+                nuevas.add(muestra);
+            }
+            samples.saveImported(lab.getName(), nuevas);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tableroCuestaUnaConsultaPorTipo() {
+        Contador.SENTENCIAS.set(0);
+        ExecutionGraphQlResponse uno = ejecutar(
+                TABLERO.replace("laboratories(state: \"ACTIVO\")", "laboratory(id: " + labId + ")"));
+        long sentenciasUno = Contador.SENTENCIAS.get();
+        assertThat(uno.getErrors()).isEmpty();
+
+        Contador.SENTENCIAS.set(0);
+        ExecutionGraphQlResponse todos = ejecutar(TABLERO);
+        long sentenciasTodos = Contador.SENTENCIAS.get();
+        assertThat(todos.getErrors()).isEmpty();
+
+        List<Map<String, Object>> labs = todos.field("laboratories").getValue();
+        assertThat(labs).hasSize(LABORATORIOS);
+        labs.forEach(lab -> {
+            assertThat((List<?>) lab.get("users")).hasSize(USUARIOS_POR_LAB);
+            List<Map<String, Object>> ultimas = (List<Map<String, Object>>) lab.get("samples");
+            assertThat(ultimas).hasSize(5);
+            ultimas.forEach(m -> {
+                assertThat(m.get("technician")).isNotNull();
+                assertThat(m.get("patient")).isNotNull();
+                assertThat(((Map<?, ?>) m.get("laboratory")).get("name")).isEqualTo(lab.get("name"));
+            });
+        });
+
+        // Lista de laboratorios + usuarios por laboratorio + muestras por laboratorio
+        // + técnicos y pacientes por ID + laboratorios de las muestras por ID
+        assertThat(sentenciasTodos).as("sentencias del tablero completo").isLessThanOrEqualTo(5);
+        assertThat(sentenciasTodos).as("no crece con el número de laboratorios").isLessThanOrEqualTo(sentenciasUno + 1);
+    }
+
+    @Test
+    void consultasProfundasOCarasSeRechazanSinTocarLaBd() {
+        Contador.SENTENCIAS.set(0);
+        ExecutionGraphQlResponse profunda = ejecutar("""
+                { laboratories { users { laboratory { users { laboratory { users { laboratory { users {
+                  laboratory { name } } } } } } } } } }""");
+        ExecutionGraphQlResponse cara = ejecutar(
+                "{ laboratories { samples(limit: 1000) { code technician { fullName laboratory { name } } } } }");
+
+        assertThat(profunda.getErrors()).singleElement()
+                .satisfies(e -> assertThat(e.getMessage()).contains("maximum query depth"));
+        assertThat(cara.getErrors()).singleElement()
+                .satisfies(e -> assertThat(e.getMessage()).contains("maximum query complexity"));
+        assertThat(Contador.SENTENCIAS.get()).isZero();
+    }
+
+    private ExecutionGraphQlResponse ejecutar(String documento) {
+        return graphQl.execute(new DefaultExecutionGraphQlRequest(documento, null, null, null,
+                UUID.randomUUID().toString(), null)).block();
+    }
+
+    private User usuario(String nombre, String email, String rol, Laboratory lab) {
+        User u = new User();
+        u.setFullName(nombre);
+        u.setEmail(email);
+        u.setPassword("clave123");
+        u.setPhone("912345678");
+        u.setRol(rol);
+        u.setLaboratory(lab);
+        return users.crear(u);
+    }
+
+    static final class Contador {
+        static final AtomicLong SENTENCIAS = new AtomicLong();
+
+        // Hilos de segundo plano cuyas sentencias no son parte de la consulta
+        private static final List<String> SEGUNDO_PLANO =
+                List.of("audit-writer", "job-", "sample-read-model-loader", "sse-");
+
+        static boolean cuenta() {
+            String hilo = Thread.currentThread().getName();
+            return SEGUNDO_PLANO.stream().noneMatch(hilo::startsWith);
+        }
+    }
+
+    @TestConfiguration
+    static class Instrumentacion {
+
+        @Bean
+        static BeanPostProcessor contadorDeSentencias() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    if (bean instanceof DataSource ds) {
+                        return ProxyDataSourceBuilder.create(ds)
+                                .name("graphql")
+                                .afterQuery((ejecucion, consultas) -> {
+                                    if (Contador.cuenta()) {
+                                        Contador.SENTENCIAS.incrementAndGet();
+                                    }
+                                })
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.fullstack.clinica.job;
+
+import com.fullstack.clinica.job.model.Job;
+import com.fullstack.clinica.job.model.JobStatus;
+import com.fullstack.clinica.job.repository.JobRepository;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.service.SampleImportService;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ===============================================================
+ * 📘 Clase: JobRecoveryTest
+ * ---------------------------------------------------------------
+ * Trabajos compartidos entre nodos:
+ * - una importación con el arriendo vencido (su nodo cayó) la retoma
+ *   este nodo desde el checkpoint, con la entrada y los errores desde
+ *   la BD: lo que el nodo caído ya guardó no se cuenta como duplicado
+ *   y los contadores siguen desde donde quedaron;
+ * - un trabajo con el arriendo vigente de otro nodo no se toca.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:trabajos;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false",
+        // Huérfanos buscados cada 200 ms
+        "clinica.jobs.lease=600ms"
+})
+@AutoConfigureMockMvc
+class JobRecoveryTest {
+
+    private static final String TECNICO = "Técnico de Trabajos";
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    JobRepository jobs;
+
+    @Autowired
+    SampleService samples;
+
+    @Autowired
+    LaboratoryRepository laboratories;
+
+    @Autowired
+    UserRepository users;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    MockMvc mvc;
+
+    private String laboratorio;
+
+    @BeforeEach
+    void prepararLaboratorio() {
+        laboratorio = "LabTrabajos" + SECUENCIA.incrementAndGet();
+        Laboratory lab = new Laboratory();
+        lab.setName(laboratorio);
+        lab.setDescription("Laboratorio de trabajos");
+        lab.setState("ACTIVO");
+        laboratories.save(lab);
+        if (users.findByEmail("trabajos@clinica.cl").isEmpty()) {
+            User tecnico = new User();
+            tecnico.setFullName(TECNICO);
+            tecnico.setEmail("trabajos@clinica.cl");
+            tecnico.setPassword("clave123");
+            tecnico.setRol("TECNICO");
+            users.save(tecnico);
+        }
+    }
+
+    @Test
+    void laImportacionDeUnNodoCaidoSigueDesdeSuCheckpoint() throws Exception {
+        String p = "REC" + SECUENCIA.incrementAndGet() + "-";
+        // Línea 1 = cabecera; las líneas 2 y 3 quedaron confirmadas (checkpoint 3).
+        // La 4 se guardó en el lote que el nodo caído no alcanzó a confirmar.
+        // La 6 choca con una muestra distinta que ya existía.
+        samples.saveImported(laboratorio, List.of(muestra(p + "1"), muestra(p + "2"), muestra(p + "3")));
+        Sample ajena = muestra(p + "OTRA");
+        ajena.setDescription("Muestra de otra importación");
+        samples.saveImported(laboratorio, List.of(ajena));
+        String csv = "code,description,technician,laboratory\n"
+                + fila(p + "1") + fila(p + "2") + fila(p + "3") + fila(p + "4") + fila(p + "OTRA");
+
+        Job job = huerfano(JobStatus.EN_EJECUCION, "nodo-caido", LocalDateTime.now().minusMinutes(1));
+        job.setAttempts(1);
+        job.setCheckpoint(3);
+        job.setProcessed(2);
+        job.setSucceeded(2);
+        job.setResultParts(1);
+        job.setResultContentType("text/csv");
+        jobs.save(job);
+        jdbc.update("insert into JOB_RESULT_PART (job_id, part, content) values (?, 0, ?)", job.getId(),
+                "line,code,error\n");
+        jdbc.update("insert into JOB_INPUT (job_id, content) values (?, ?)", job.getId(),
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        Job terminado = esperarTermino(job.getId());
+
+        assertThat(terminado.getStatus()).as(terminado.getMessage()).isEqualTo(JobStatus.COMPLETADO);
+        assertThat(terminado.getOwner()).isNotEqualTo("nodo-caido");
+        assertThat(terminado.getAttempts()).isEqualTo(2);
+        assertThat(terminado.getProcessed()).isEqualTo(5);
+        assertThat(terminado.getSucceeded()).isEqualTo(4);
+        assertThat(terminado.getFailed()).isEqualTo(1);
+        assertThat(samples.findExistingCodes(Set.of(p + "1", p + "2", p + "3", p + "4"))).hasSize(4);
+
+        String errores = mvc.perform(get("/api/samples/import/" + job.getId() + "/errors"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(errores).isEqualTo("line,code,error\n6," + p + "OTRA,Ya existe una muestra con el mismo código.\n");
+        assertThat(jdbc.queryForObject("select count(*) from JOB_INPUT where job_id = ?", Integer.class, job.getId()))
+                .isZero();
+    }
+
+    @Test
+    void noSeReclamaUnTrabajoConArriendoVigente() throws Exception {
+        Job job = huerfano(JobStatus.PENDIENTE, "otro-nodo", LocalDateTime.now().plusHours(1));
+        jobs.save(job);
+
+        Thread.sleep(1_000); // varias rondas de búsqueda de huérfanos
+
+        Job actual = jobs.findById(job.getId()).orElseThrow();
+        assertThat(actual.getStatus()).isEqualTo(JobStatus.PENDIENTE);
+        assertThat(actual.getOwner()).isEqualTo("otro-nodo");
+        assertThat(actual.getAttempts()).isZero();
+    }
+
+    // ============================================================
+    // Apoyo
+    // ============================================================
+
+    private Job huerfano(JobStatus estado, String dueno, LocalDateTime arriendo) {
+        Job job = new Job();
+        job.setId(UUID.randomUUID().toString());
+        job.setType(SampleImportService.TYPE);
+        job.setStatus(estado);
+        job.setParams("{\"fileName\":\"recuperada.csv\"}");
+        job.setCreatedAt(LocalDateTime.now());
+        job.setOwner(dueno);
+        job.setLeaseUntil(arriendo);
+        return job;
+    }
+
+    private Sample muestra(String codigo) {
+        Sample muestra = new Sample();
+        muestra.setCode(codigo);
+        muestra.setDescription("Muestra importada");
+        muestra.setTechnician(TECNICO);
+        muestra.setLaboratory(laboratorio);
+        return muestra;
+    }
+
+    private String fila(String codigo) {
+        return codigo + ",Muestra importada," + TECNICO + "," + laboratorio + "\n";
+    }
+
+    private Job esperarTermino(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Job job = jobs.findById(id).orElseThrow();
+            if (job.getStatus().isTerminal()) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("El trabajo " + id + " no terminó a tiempo");
+    }
+}
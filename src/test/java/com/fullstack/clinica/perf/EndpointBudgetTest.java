@@ -0,0 +1,540 @@
+package com.fullstack.clinica.perf;
+
+import com.fullstack.clinica.laboratory.controller.LaboratoryController;
+import com.fullstack.clinica.sample.controller.SampleController;
+import com.fullstack.clinica.user.controller.UserController;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: EndpointBudgetTest
+ * ---------------------------------------------------------------
+ * Presupuesto de costo por endpoint (UserController, LaboratoryController
+ * y SampleController) sobre H2 en modo Oracle:
+ *
+ * - Sentencias SQL por petición, contadas con datasource-proxy.
+ * - Bytes asignados por petición en el hilo de Tomcat (ThreadMXBean),
+ *   medidos por un filtro que envuelve toda la cadena (incluye JSON).
+ *
+ * Los límites están en src/test/resources/perf/endpoint-budgets.txt
+ * (versionado): si un cambio agrega un N+1 o un findAll por petición,
+ * el test falla y con él el build. Un endpoint nuevo sin presupuesto
+ * también hace fallar el build.
+ *
+ * Las sentencias de hilos de segundo plano (auditoría, trabajos, carga
+ * del modelo de lectura) no cuentan: no forman parte de la petición.
+ * ===============================================================
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:presupuestos;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        // Sin muestreo de Server-Timing: los KB medidos no deben depender del azar
+        "clinica.profiling.server-timing.sample-rate=0",
+        // Sin calentamiento de arranque: sus peticiones dejarían mediciones ajenas en la cola del contador
+        "clinica.warmup.enabled=false"
+})
+class EndpointBudgetTest {
+
+    private static final String PRESUPUESTOS = "/perf/endpoint-budgets.txt";
+    private static final Set<Class<?>> CONTROLADORES =
+            Set.of(UserController.class, LaboratoryController.class, SampleController.class);
+
+    private static final int CALENTAMIENTO = 2;
+    private static final int MEDICIONES = 3;
+
+    // Volumen de datos con el que se mide: un N+1 o un findAll por petición
+    // deben notarse en sentencias o en KB asignados
+    private static final String LAB = "LabPresupuesto";
+    /** Técnico de las muestras (el usuario 0 se renombra en su escenario PUT). */
+    private static final String TECNICO = "Usuario Base Numero 1";
+    private static final int MUESTRAS = 300;
+    private static final int USUARIOS = 20;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    RequestMappingHandlerMapping mappings;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final AtomicInteger secuencia = new AtomicInteger();
+
+    private long labId;
+    private long userId;
+    private long patientId;
+    private long sampleId;
+    /** Importación ya completada, con filas rechazadas. */
+    private String importId;
+    /** Cursores de /changes tomados al final de prepararDatos (sondeo incremental). */
+    private final Map<String, String> cursores = new HashMap<>();
+
+    /**
+     * Cada endpoint del presupuesto se mide en un test dinámico, en el
+     * orden del archivo.
+     */
+    @TestFactory
+    Stream<DynamicTest> endpointsRespetanSuPresupuesto() throws Exception {
+        prepararDatos();
+        Map<String, Supplier<Peticion>> escenarios = escenarios();
+        return leerPresupuestos().values().stream()
+                .filter(p -> !p.excluido())
+                .map(p -> DynamicTest.dynamicTest(p.clave(), () -> verificar(p, escenarios.get(p.clave()))));
+    }
+
+    /**
+     * Todo endpoint de los tres controladores tiene presupuesto y escenario
+     * (y no quedan presupuestos de endpoints que ya no existen).
+     */
+    @Test
+    void todosLosEndpointsTienenPresupuesto() throws Exception {
+        Set<String> endpoints = new TreeSet<>();
+        mappings.getHandlerMethods().forEach((info, metodo) -> {
+            if (CONTROLADORES.contains(metodo.getBeanType())) {
+                endpoints.addAll(claves(info));
+            }
+        });
+
+        Set<String> presupuestados = new TreeSet<>(leerPresupuestos().keySet());
+        assertThat(presupuestados).as("presupuestos en " + PRESUPUESTOS).isEqualTo(endpoints);
+
+        Set<String> conEscenario = new TreeSet<>(escenarios().keySet());
+        leerPresupuestos().values().stream().filter(Presupuesto::excluido)
+                .forEach(p -> conEscenario.add(p.clave()));
+        assertThat(conEscenario).as("escenarios del test").isEqualTo(endpoints);
+    }
+
+    // ============================================================
+    // Medición
+    // ============================================================
+
+    private void verificar(Presupuesto presupuesto, Supplier<Peticion> escenario) throws Exception {
+        assertThat(escenario).as("escenario para " + presupuesto.clave()).isNotNull();
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            ejecutar(escenario.get());
+        }
+        int sentencias = 0;
+        long bytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            Medicion m = ejecutar(escenario.get());
+            sentencias = Math.max(sentencias, m.sentencias());
+            // El mínimo descarta asignaciones puntuales (carga de clases, cachés perezosas)
+            bytes = Math.min(bytes, m.bytes());
+        }
+        long kb = (bytes + 1023) / 1024;
+        System.out.printf("📏 %-45s sentencias=%-3d (máx %d)  KB=%-6d (máx %d)%n",
+                presupuesto.clave(), sentencias, presupuesto.sentencias(), kb, presupuesto.kb());
+
+        assertThat(sentencias).as("sentencias SQL de " + presupuesto.clave()).isLessThanOrEqualTo(presupuesto.sentencias());
+        assertThat(kb).as("KB asignados por " + presupuesto.clave()).isLessThanOrEqualTo(presupuesto.kb());
+    }
+
+    private Medicion ejecutar(Peticion peticion) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + peticion.ruta()))
+                .timeout(Duration.ofSeconds(30));
+        if (peticion.cuerpo() != null) {
+            builder.header("Content-Type", peticion.contentType());
+            builder.method(peticion.metodo(), HttpRequest.BodyPublishers.ofString(peticion.cuerpo()));
+        } else {
+            builder.method(peticion.metodo(), HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<String> respuesta = http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(respuesta.statusCode()).as(peticion.metodo() + " " + peticion.ruta() + " → " + respuesta.body())
+                .isLessThan(400);
+
+        // Puede haber mediciones rezagadas de peticiones de preparación: se busca la propia
+        String esperada = peticion.metodo() + " " + URI.create(peticion.ruta()).getPath();
+        Medicion medicion;
+        do {
+            medicion = Contador.MEDICIONES.poll(5, TimeUnit.SECONDS);
+            assertThat(medicion).as("medición de " + peticion.ruta()).isNotNull();
+        } while (!medicion.peticion().equals(esperada));
+        return medicion;
+    }
+
+    // ============================================================
+    // Escenarios: una petición concreta por endpoint
+    // ============================================================
+
+    private Map<String, Supplier<Peticion>> escenarios() {
+        Map<String, Supplier<Peticion>> e = new LinkedHashMap<>();
+
+        // 👤 Usuarios
+        e.put("GET /api/users", () -> get("/api/users"));
+        e.put("GET /api/users/id/{id}", () -> get("/api/users/id/" + userId));
+        e.put("GET /api/users?ids", () -> get("/api/users?ids=" + userId + "," + (userId + 1) + ",999999"));
+        e.put("POST /api/users", () -> json("POST", "/api/users", usuario("crear")));
+        e.put("POST /api/users/bulk", () -> json("POST", "/api/users/bulk",
+                "{\"users\":[" + usuario("lote") + "," + usuario("lote") + "]}"));
+        e.put("PUT /api/users/id/{id}", () -> json("PUT", "/api/users/id/" + userId,
+                "{\"fullName\":\"Usuario Base Editado\",\"email\":\"base-0@clinica.cl\","
+                        + "\"password\":\"clave123\",\"phone\":\"912345678\",\"rol\":\"TECNICO\"}"));
+        e.put("DELETE /api/users/id/{id}", () -> sinCuerpo("DELETE", "/api/users/id/" + crearUsuario()));
+        e.put("GET /api/users/email/{email}", () -> get("/api/users/email/base-0@clinica.cl"));
+        e.put("GET /api/users/rol/{rol}", () -> get("/api/users/rol/TECNICO"));
+        e.put("POST /api/users/register", () -> json("POST", "/api/users/register", usuario("registro")));
+        e.put("POST /api/users/login", () -> json("POST", "/api/users/login",
+                "{\"email\":\"base-0@clinica.cl\",\"password\":\"clave123\"}"));
+        e.put("GET /api/users/recover/{email}", () -> get("/api/users/recover/base-1@clinica.cl"));
+        e.put("PUT /api/users/profile/{id}", () -> json("PUT", "/api/users/profile/" + userId,
+                "{\"fullName\":\"Usuario Perfil Editado\",\"phone\":\"912345678\"}"));
+        e.put("DELETE /api/users/delete/{id}", () -> sinCuerpo("DELETE", "/api/users/delete/" + crearUsuario()));
+        e.put("GET /api/users/id/{id}/samples", () -> get("/api/users/id/" + patientId + "/samples?size=50"));
+        e.put("GET /api/users/changes", () -> get("/api/users/changes?limit=50&since=" + cursores.get("users")));
+
+        // 🧪 Laboratorios
+        e.put("GET /api/laboratories", () -> get("/api/laboratories"));
+        e.put("GET /api/laboratories/id/{id}", () -> get("/api/laboratories/id/" + labId));
+        e.put("GET /api/laboratories?ids", () -> get("/api/laboratories?ids=" + labId + ",999999"));
+        e.put("POST /api/laboratories", () -> json("POST", "/api/laboratories", laboratorio("Nuevo")));
+        e.put("PUT /api/laboratories/id/{id}", () -> json("PUT", "/api/laboratories/id/" + labId,
+                "{\"name\":\"" + LAB + "\",\"description\":\"Descripción editada\",\"state\":\"ACTIVO\"}"));
+        e.put("DELETE /api/laboratories/id/{id}", () -> sinCuerpo("DELETE", "/api/laboratories/id/"
+                + crear("/api/laboratories", laboratorio("Borrar"))));
+        e.put("POST /api/laboratories/id/{id}/deactivate", () -> sinCuerpo("POST", "/api/laboratories/id/"
+                + crear("/api/laboratories", laboratorio("Desactivar")) + "/deactivate"));
+        e.put("POST /api/laboratories/id/{id}/activate", () -> sinCuerpo("POST", "/api/laboratories/id/"
+                + crear("/api/laboratories", laboratorio("Activar")) + "/activate"));
+        e.put("GET /api/laboratories/state/{state}", () -> get("/api/laboratories/state/ACTIVO"));
+        e.put("GET /api/laboratories/id/{id}/turnaround", () -> get("/api/laboratories/id/" + labId + "/turnaround"));
+        e.put("GET /api/laboratories/changes", () -> get("/api/laboratories/changes?limit=50&since="
+                + cursores.get("laboratories")));
+
+        // 🧫 Muestras
+        e.put("GET /api/samples", () -> get("/api/samples"));
+        e.put("GET /api/samples/id/{id}", () -> get("/api/samples/id/" + sampleId));
+        e.put("GET /api/samples?ids", () -> get("/api/samples?ids=" + sampleId + "," + (sampleId + 1) + ",999999"));
+        e.put("POST /api/samples", () -> json("POST", "/api/samples", muestra()));
+        e.put("PUT /api/samples/id/{id}", () -> json("PUT", "/api/samples/id/" + sampleId,
+                "{\"code\":\"EDIT-" + sampleId + "\",\"description\":\"Muestra editada\","
+                        + "\"technician\":\"" + TECNICO + "\",\"laboratory\":\"" + LAB + "\"}"));
+        e.put("DELETE /api/samples/id/{id}", () -> sinCuerpo("DELETE", "/api/samples/id/" + crear("/api/samples", muestra())));
+        e.put("GET /api/samples/laboratory/{laboratory}", () -> get("/api/samples/laboratory/" + LAB));
+        e.put("GET /api/samples/changes", () -> get("/api/samples/changes?limit=50&since=" + cursores.get("samples")));
+        e.put("GET /api/samples/view", () -> get("/api/samples/view?laboratory=" + LAB));
+        e.put("GET /api/samples/view/count", () -> get("/api/samples/view/count?laboratory=" + LAB));
+        e.put("GET /api/samples/stream/stats", () -> get("/api/samples/stream/stats"));
+        e.put("PUT /api/samples/id/{id}/status/{status}", () -> sinCuerpo("PUT",
+                "/api/samples/id/" + crear("/api/samples", muestra()) + "/status/EN_PROCESO"));
+        e.put("GET /api/samples/id/{id}/history", () -> get("/api/samples/id/" + sampleId + "/history"));
+        e.put("GET /api/samples/queue", () -> get("/api/samples/queue?laboratory=" + LAB));
+        e.put("POST /api/samples/claim", () -> sinCuerpo("POST",
+                "/api/samples/claim?laboratory=" + LAB + "&technician=tecnico-cola&limit=2"));
+        e.put("POST /api/samples/id/{id}/renew", () -> sinCuerpo("POST",
+                "/api/samples/id/" + reclamar() + "/renew?technician=tecnico-cola"));
+        e.put("POST /api/samples/id/{id}/release", () -> sinCuerpo("POST",
+                "/api/samples/id/" + reclamar() + "/release?technician=tecnico-cola"));
+        e.put("POST /api/samples/import", () -> csv("/api/samples/import"));
+        e.put("GET /api/samples/import/{jobId}", () -> get("/api/samples/import/" + importId));
+        e.put("GET /api/samples/import/{jobId}/errors", () -> get("/api/samples/import/" + importId + "/errors"));
+        e.put("POST /api/samples/export", () -> sinCuerpo("POST", "/api/samples/export?laboratory=" + LAB));
+        return e;
+    }
+
+    private void prepararDatos() throws Exception {
+        labId = crear("/api/laboratories",
+                "{\"name\":\"" + LAB + "\",\"description\":\"Laboratorio de presupuestos\",\"state\":\"ACTIVO\"}");
+        long otroLab = crear("/api/laboratories", laboratorio("Usuarios"));
+        // Usuarios alternados entre dos laboratorios: un laboratorio cargado
+        // aparte por cada usuario (o por cada laboratorio) se ve en las sentencias
+        for (int i = 0; i < USUARIOS; i++) {
+            long id = crear("/api/users/register", "{\"fullName\":\"Usuario Base Numero " + i + "\","
+                    + "\"email\":\"base-" + i + "@clinica.cl\",\"password\":\"clave123\","
+                    + "\"phone\":\"912345678\",\"rol\":\"TECNICO\"}");
+            // El registro web no asigna laboratorio: se fija directo en la BD
+            jdbc.update("update USERC set laboratory_id = ? where id = ?", i % 2 == 0 ? labId : otroLab, id);
+            if (i == 0) {
+                userId = id;
+            }
+        }
+        patientId = crear("/api/users", "{\"fullName\":\"Paciente de Presupuesto\",\"email\":\"paciente@clinica.cl\","
+                + "\"password\":\"clave123\",\"phone\":\"912345678\",\"rol\":\"PACIENTE\"}");
+        // Las muestras base son del paciente: su historial tiene MUESTRAS filas
+        for (int i = 0; i < MUESTRAS; i++) {
+            long id = crear("/api/samples", muestra().replace("}", ",\"patientId\":" + patientId + "}"));
+            if (i == 0) {
+                sampleId = id;
+            }
+        }
+        importId = importar();
+        for (String recurso : List.of("users", "laboratories", "samples")) {
+            cursores.put(recurso, cursor("/api/" + recurso + "/changes?limit=5000"));
+        }
+        // El modelo de lectura se carga en segundo plano al arrancar
+        for (int i = 0; i < 100 && get200("/api/samples/view/count") != 200; i++) {
+            Thread.sleep(100);
+        }
+    }
+
+    private String usuario(String prefijo) {
+        return "{\"fullName\":\"Usuario de Presupuesto\",\"email\":\"" + prefijo + "-" + secuencia.incrementAndGet()
+                + "@clinica.cl\",\"password\":\"clave123\",\"phone\":\"912345678\",\"rol\":\"TECNICO\"}";
+    }
+
+    private String laboratorio(String prefijo) {
+        return "{\"name\":\"" + prefijo + "-" + secuencia.incrementAndGet()
+                + "\",\"description\":\"Laboratorio temporal\",\"state\":\"ACTIVO\"}";
+    }
+
+    private String muestra() {
+        return "{\"code\":\"PRES-" + secuencia.incrementAndGet() + "\",\"description\":\"Muestra de presupuesto\","
+                + "\"technician\":\"" + TECNICO + "\",\"laboratory\":\"" + LAB + "\"}";
+    }
+
+    /** Reclama (sin medir) una muestra del laboratorio base para tecnico-cola. */
+    private long reclamar() {
+        return crear("/api/samples/claim?laboratory=" + LAB + "&technician=tecnico-cola&limit=1", "");
+    }
+
+    private long crearUsuario() {
+        return crear("/api/users", usuario("borrar"));
+    }
+
+    /** Crea un recurso (sin medir) y devuelve su ID. */
+    private long crear(String ruta, String cuerpo) {
+        try {
+            HttpResponse<String> r = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + ruta))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(r.statusCode()).as("POST " + ruta + " → " + r.body()).isLessThan(400);
+            Matcher id = Pattern.compile("\"id\"\\s*:\\s*(\\d+)").matcher(r.body());
+            assertThat(id.find()).isTrue();
+            return Long.parseLong(id.group(1));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Importa (sin medir) un CSV con filas duplicadas y espera a que termine. */
+    private String importar() throws Exception {
+        Peticion peticion = csv("/api/samples/import");
+        // La primera fila va tres veces: dos quedan rechazadas por código duplicado
+        String cuerpo = peticion.cuerpo().replaceFirst("(CSV-[^\\n]+\\n)", "$1$1$1");
+        HttpResponse<String> r = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + peticion.ruta()))
+                .header("Content-Type", peticion.contentType())
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher id = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"").matcher(r.body());
+        assertThat(id.find()).as("POST " + peticion.ruta() + " → " + r.body()).isTrue();
+        for (int i = 0; i < 100; i++) {
+            String estado = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/jobs/"
+                    + id.group(1))).build(), HttpResponse.BodyHandlers.ofString()).body();
+            if (estado.contains("\"COMPLETADO\"")) {
+                return id.group(1);
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La importación " + id.group(1) + " no terminó a tiempo");
+    }
+
+    /** Cursor de una respuesta de /changes (sin medir). */
+    private String cursor(String ruta) throws Exception {
+        String cuerpo = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + ruta)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher cursor = Pattern.compile("\"cursor\"\\s*:\\s*\"([^\"]+)\"").matcher(cuerpo);
+        assertThat(cursor.find()).as("GET " + ruta + " → " + cuerpo).isTrue();
+        return cursor.group(1);
+    }
+
+    private int get200(String ruta) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + ruta)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private Peticion csv(String ruta) {
+        String limite = "presupuesto" + secuencia.incrementAndGet();
+        StringBuilder csv = new StringBuilder("code,description,technician,laboratory\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append("CSV-").append(limite).append('-').append(i)
+                    .append(",Muestra importada,").append(TECNICO).append(',').append(LAB).append('\n');
+        }
+        String cuerpo = "--" + limite + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"muestras.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n" + csv + "\r\n--" + limite + "--\r\n";
+        return new Peticion("POST", ruta, cuerpo, "multipart/form-data; boundary=" + limite);
+    }
+
+    private static Peticion get(String ruta) {
+        return new Peticion("GET", ruta, null, null);
+    }
+
+    private static Peticion sinCuerpo(String metodo, String ruta) {
+        return new Peticion(metodo, ruta, null, null);
+    }
+
+    private static Peticion json(String metodo, String ruta, String cuerpo) {
+        return new Peticion(metodo, ruta, cuerpo, "application/json");
+    }
+
+    // ============================================================
+    // Presupuestos (archivo versionado)
+    // ============================================================
+
+    /**
+     * Formato por línea: MÉTODO RUTA MAX_SENTENCIAS MAX_KB ("-" = no se mide).
+     */
+    private static Map<String, Presupuesto> leerPresupuestos() throws Exception {
+        Map<String, Presupuesto> presupuestos = new LinkedHashMap<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                EndpointBudgetTest.class.getResourceAsStream(PRESUPUESTOS), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                linea = linea.strip();
+                if (linea.isEmpty() || linea.startsWith("#")) {
+                    continue;
+                }
+                String[] c = linea.split("\\s+");
+                Presupuesto p = "-".equals(c[2])
+                        ? new Presupuesto(c[0], c[1], -1, -1)
+                        : new Presupuesto(c[0], c[1], Integer.parseInt(c[2]), Long.parseLong(c[3]));
+                presupuestos.put(p.clave(), p);
+            }
+        }
+        return presupuestos;
+    }
+
+    /** "GET /api/samples/id/{id}" o "GET /api/samples?ids" si el mapping exige un parámetro. */
+    private static List<String> claves(RequestMappingInfo info) {
+        String params = info.getParamsCondition().getExpressions().stream()
+                .map(NameValueExpression::getName).findFirst().map(p -> "?" + p).orElse("");
+        List<String> claves = new ArrayList<>();
+        for (var metodo : info.getMethodsCondition().getMethods()) {
+            for (String ruta : info.getPathPatternsCondition().getPatternValues()) {
+                claves.add(metodo.name() + " " + ruta + params);
+            }
+        }
+        return claves;
+    }
+
+    private record Presupuesto(String metodo, String ruta, int sentencias, long kb) {
+        String clave() {
+            return metodo + " " + ruta;
+        }
+
+        boolean excluido() {
+            return sentencias < 0;
+        }
+    }
+
+    private record Peticion(String metodo, String ruta, String cuerpo, String contentType) {
+    }
+
+    private record Medicion(String peticion, int sentencias, long bytes) {
+    }
+
+    // ============================================================
+    // Instrumentación: proxy del DataSource + filtro de medición
+    // ============================================================
+
+    static final class Contador {
+        static final AtomicLong SENTENCIAS = new AtomicLong();
+        static final BlockingQueue<Medicion> MEDICIONES = new LinkedBlockingQueue<>();
+
+        // Hilos de segundo plano cuyas sentencias no son parte de la petición
+        private static final List<String> SEGUNDO_PLANO =
+                List.of("audit-writer", "job-", "sample-read-model-loader", "sse-");
+
+        static boolean cuenta() {
+            String hilo = Thread.currentThread().getName();
+            return SEGUNDO_PLANO.stream().noneMatch(hilo::startsWith);
+        }
+    }
+
+    @TestConfiguration
+    static class Instrumentacion {
+
+        @Bean
+        static BeanPostProcessor contadorDeSentencias() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    if (bean instanceof DataSource ds) {
+                        return ProxyDataSourceBuilder.create(ds)
+                                .name("presupuestos")
+                                .afterQuery((ejecucion, consultas) -> {
+                                    if (Contador.cuenta()) {
+                                        Contador.SENTENCIAS.incrementAndGet();
+                                    }
+                                })
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Bean
+        FilterRegistrationBean<Filter> medidorDePeticiones() {
+            com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            FilterRegistrationBean<Filter> registro = new FilterRegistrationBean<>((request, response, chain) -> {
+                long sentenciasAntes = Contador.SENTENCIAS.get();
+                long bytesAntes = hilos.getCurrentThreadAllocatedBytes();
+                chain.doFilter(request, response);
+                if (!request.isAsyncStarted()) {
+                    long bytes = hilos.getCurrentThreadAllocatedBytes() - bytesAntes;
+                    HttpServletRequest http = (HttpServletRequest) request;
+                    Contador.MEDICIONES.offer(new Medicion(http.getMethod() + " " + http.getRequestURI(),
+                            (int) (Contador.SENTENCIAS.get() - sentenciasAntes), bytes));
+                }
+            });
+            registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            registro.addUrlPatterns("/api/*");
+            return registro;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.fullstack.clinica.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResilienceFaultInjectionTest
+ * ---------------------------------------------------------------
+ * Inyección de fallas sobre una H2 deliberadamente lenta: cada
+ * sentencia JDBC espera SlowH2.delayMs antes de ejecutarse (respetando
+ * el queryTimeout del Statement, como haría el driver de Oracle).
+ *
+ * Se comprueba que, con la BD lenta, la latencia de cola sigue acotada:
+ * - una consulta colgada se corta por su timeout (503);
+ * - el circuito de un repositorio se abre y luego falla al instante;
+ * - un grupo de endpoints saturado no bloquea a los demás (bulkhead).
+ * ===============================================================
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:resiliencia;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "clinica.resilience.bulkheads.reads.max-concurrent=6",
+        "clinica.resilience.bulkheads.reads.max-wait-ms=20",
+        "clinica.resilience.breaker.window-size=10",
+        "clinica.resilience.breaker.minimum-calls=5",
+        "clinica.resilience.breaker.slow-call-ms=300",
+        "clinica.resilience.breaker.open-seconds=30",
+        // Las peticiones frías del calentamiento contarían como lentas en la ventana del breaker
+        "clinica.warmup.enabled=false"
+})
+class ResilienceFaultInjectionTest {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    @AfterEach
+    void restaurar() {
+        SlowH2.delayMs = 0;
+    }
+
+    @Test
+    void consultaColgadaSeCortaPorSuTimeout() {
+        SlowH2.delayMs = 60_000;
+
+        Resultado r = get("/api/laboratories/state/ACTIVO");
+
+        // findByState tiene QueryTimeouts.LIST (5 s): nunca espera el minuto completo
+        assertThat(r.status).isEqualTo(503);
+        assertThat(r.millis).isLessThan(7_000);
+    }
+
+    @Test
+    void circuitoAbiertoFallaAlInstante() throws Exception {
+        SlowH2.delayMs = 1_000;
+
+        // 6 llamadas lentas (> slow-call-ms) abren el circuito de UserRepository
+        enParalelo(6, i -> "/api/users");
+
+        Resultado rechazada = get("/api/users");
+        assertThat(rechazada.status).isEqualTo(503);
+        assertThat(rechazada.retryAfter).isNotNull();
+        assertThat(rechazada.millis).isLessThan(300);
+
+        // Con el circuito abierto, una ráfaga completa responde sin tocar la BD
+        List<Resultado> rafaga = enParalelo(30, i -> "/api/users");
+        assertThat(rafaga).allSatisfy(res -> assertThat(res.status).isEqualTo(503));
+        assertThat(rafaga.stream().mapToLong(res -> res.millis).max().orElseThrow()).isLessThan(1_000);
+    }
+
+    @Test
+    void bulkheadLlenoNoBloqueaOtrosGrupos() throws Exception {
+        SlowH2.delayMs = 1_500;
+        ExecutorService pool = Executors.newFixedThreadPool(30);
+        try {
+            // 30 lecturas distintas (sin agrupamiento) contra un bulkhead de 6
+            List<Future<Resultado>> lecturas = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                String ruta = "/api/samples/laboratory/LAB-" + i;
+                lecturas.add(pool.submit(() -> get(ruta)));
+            }
+            Thread.sleep(200);
+
+            // Mientras las lecturas están saturadas, el grupo ADMIN responde al instante
+            Resultado admin = get("/api/admin/resilience");
+            assertThat(admin.status).isEqualTo(200);
+            assertThat(admin.millis).isLessThan(500);
+
+            List<Resultado> resultados = new ArrayList<>();
+            for (Future<Resultado> f : lecturas) {
+                resultados.add(f.get());
+            }
+            long rechazadas = resultados.stream().filter(res -> res.status == 503).count();
+            assertThat(rechazadas).isGreaterThanOrEqualTo(24);
+            // Latencia de cola acotada: nadie espera más que una consulta lenta + margen
+            assertThat(resultados.stream().mapToLong(res -> res.millis).max().orElseThrow()).isLessThan(3_500);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ============================================================
+    // Utilidades
+    // ============================================================
+
+    private List<Resultado> enParalelo(int n, java.util.function.IntFunction<String> ruta) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(n);
+        try {
+            List<Future<Resultado>> futuros = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                String destino = ruta.apply(i);
+                futuros.add(pool.submit(() -> get(destino)));
+            }
+            List<Resultado> resultados = new ArrayList<>();
+            for (Future<Resultado> f : futuros) {
+                resultados.add(f.get());
+            }
+            return resultados;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Resultado get(String ruta) {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<String> respuesta = http.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + ruta)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return new Resultado(respuesta.statusCode(), (System.nanoTime() - inicio) / 1_000_000,
+                    respuesta.headers().firstValue("Retry-After").orElse(null));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Resultado(int status, long millis, String retryAfter) {
+    }
+
+    // ============================================================
+    // H2 lenta
+    // ============================================================
+
+    @TestConfiguration
+    static class SlowH2 {
+
+        static volatile long delayMs;
+
+        @Bean
+        static BeanPostProcessor slowDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? lento(ds, DataSource.class) : bean;
+                }
+            };
+        }
+
+        /**
+         * Envuelve DataSource → Connection → Statement; las ejecuciones
+         * esperan delayMs, o su queryTimeout y luego fallan con timeout.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T lento(T real, Class<T> tipo) {
+            return (T) Proxy.newProxyInstance(SlowH2.class.getClassLoader(), new Class<?>[] { tipo },
+                    (proxy, metodo, args) -> {
+                        if (real instanceof Statement st && metodo.getName().startsWith("execute")) {
+                            esperar(st);
+                        }
+                        Object resultado;
+                        try {
+                            resultado = metodo.invoke(real, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (resultado instanceof Connection c && metodo.getReturnType() == Connection.class) {
+                            return lento(c, Connection.class);
+                        }
+                        if (resultado instanceof Statement s && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                            return lento(s, (Class<Statement>) metodo.getReturnType());
+                        }
+                        return resultado;
+                    });
+        }
+
+        private static void esperar(Statement statement) throws Exception {
+            long demora = delayMs;
+            if (demora <= 0) {
+                return;
+            }
+            long timeoutMs = statement.getQueryTimeout() * 1000L;
+            if (timeoutMs > 0 && demora > timeoutMs) {
+                Thread.sleep(timeoutMs);
+                throw new SQLTimeoutException("Query timeout (H2 lenta)");
+            }
+            Thread.sleep(demora);
+        }
+    }
+}
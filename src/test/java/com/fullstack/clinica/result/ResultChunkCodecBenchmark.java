@@ -0,0 +1,99 @@
+package com.fullstack.clinica.result;
+
+import com.fullstack.clinica.result.service.ResultChunkCodec;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultChunkCodecBenchmark
+ * ---------------------------------------------------------------
+ * Compresión (bytes por punto) y throughput de codificar /
+ * decodificar una serie sintética tipo laboratorio (glicemias con un
+ * decimal, tomas cada 30 s – 10 min), verificando la ida y vuelta.
+ *
+ * No corre con el build (el nombre no termina en Test):
+ *   ./mvnw test -Dtest=ResultChunkCodecBenchmark -Dpuntos=2000000
+ *
+ * La ingesta y las consultas por la API (HTTP + BD) las mide
+ * scripts/bench-resultados.sh.
+ * ===============================================================
+ */
+class ResultChunkCodecBenchmark {
+
+    private static final int PUNTOS_POR_CHUNK = 2048;
+
+    @Test
+    void codec() {
+        int puntos = Integer.getInteger("puntos", 200_000);
+        int iteraciones = Integer.getInteger("iteraciones", 50);
+        List<ResultChunkCodec.Columns> chunks = serieSintetica(puntos);
+        List<byte[]> codificados = new ArrayList<>();
+        chunks.forEach(c -> codificados.add(ResultChunkCodec.encode(c)));
+
+        long bytes = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            ResultChunkCodec.Columns original = chunks.get(i);
+            ResultChunkCodec.Columns decodificado = ResultChunkCodec.decode(codificados.get(i), original.size());
+            assertThat(decodificado.times()).isEqualTo(original.times());
+            assertThat(Arrays.equals(decodificado.values(), original.values())).isTrue();
+            assertThat(decodificado.sampleIds()).isEqualTo(original.sampleIds());
+            bytes += codificados.get(i).length;
+        }
+
+        long codificar = Long.MAX_VALUE;
+        long decodificar = Long.MAX_VALUE;
+        for (int it = 0; it < Math.max(3, iteraciones / 10); it++) {
+            long inicio = System.nanoTime();
+            chunks.forEach(ResultChunkCodec::encode);
+            codificar = Math.min(codificar, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            for (int i = 0; i < chunks.size(); i++) {
+                ResultChunkCodec.decode(codificados.get(i), chunks.get(i).size());
+            }
+            decodificar = Math.min(decodificar, System.nanoTime() - inicio);
+        }
+
+        System.out.printf("🏁 %d puntos en %d chunks: %d bytes (%.2f bytes/punto, %d sin comprimir)%n",
+                puntos, chunks.size(), bytes, (double) bytes / puntos,
+                (long) puntos * ResultChunkCodec.RAW_BYTES_PER_POINT);
+        System.out.printf("   codificar: %,d puntos/s   decodificar: %,d puntos/s%n",
+                puntos * 1_000_000_000L / Math.max(1, codificar),
+                puntos * 1_000_000_000L / Math.max(1, decodificar));
+    }
+
+    /** Serie de un analito: chunks de un día, como los escribe la ingesta. */
+    private static List<ResultChunkCodec.Columns> serieSintetica(int puntos) {
+        SplittableRandom azar = new SplittableRandom(42);
+        List<ResultChunkCodec.Columns> chunks = new ArrayList<>();
+        long t = LocalDate.of(2026, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long muestra = 1_000;
+        int generados = 0;
+        while (generados < puntos) {
+            int n = Math.min(PUNTOS_POR_CHUNK, puntos - generados);
+            long[] tiempos = new long[n];
+            double[] valores = new double[n];
+            long[] muestras = new long[n];
+            for (int i = 0; i < n; i++) {
+                t += 30_000L * azar.nextInt(1, 21);
+                muestra += azar.nextInt(0, 4);
+                tiempos[i] = t;
+                muestras[i] = muestra;
+                // Glicemia (mg/dL) con un decimal, como la entrega el equipo
+                valores[i] = Math.round((95 + 20 * Math.sin(i / 50.0) + azar.nextGaussian() * 8) * 10) / 10.0;
+            }
+            chunks.add(new ResultChunkCodec.Columns(tiempos, valores, muestras));
+            generados += n;
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,104 @@
+package com.fullstack.clinica.result;
+
+import com.fullstack.clinica.result.service.ResultChunkCodec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ResultChunkCodecTest
+ * ---------------------------------------------------------------
+ * Ida y vuelta del códec sobre 20 000 series aleatorias: tiempos
+ * regulares, desordenados o repetidos; IDs con saltos grandes o
+ * negativos; valores con 0–4 decimales (modo decimal) y doubles
+ * arbitrarios, NaN, infinitos y -0.0 (modo XOR). Cada valor debe
+ * volver bit a bit.
+ * ===============================================================
+ */
+class ResultChunkCodecTest {
+
+    private static final int SERIES = 20_000;
+
+    @Test
+    void idaYVueltaExactaEnSeriesAleatorias() {
+        SplittableRandom azar = new SplittableRandom(2026);
+        for (int s = 0; s < SERIES; s++) {
+            int n = azar.nextInt(1, 300);
+            ResultChunkCodec.Columns original = new ResultChunkCodec.Columns(
+                    tiempos(azar, n), valores(azar, n), muestras(azar, n));
+
+            byte[] payload = ResultChunkCodec.encode(original);
+            ResultChunkCodec.Columns decodificado = ResultChunkCodec.decode(payload, n);
+
+            assertThat(decodificado.times()).as("tiempos de la serie %d", s).isEqualTo(original.times());
+            assertThat(decodificado.sampleIds()).as("muestras de la serie %d", s).isEqualTo(original.sampleIds());
+            for (int i = 0; i < n; i++) {
+                assertThat(Double.doubleToRawLongBits(decodificado.values()[i]))
+                        .as("valor %d de la serie %d (%s)", i, s, original.values()[i])
+                        .isEqualTo(Double.doubleToRawLongBits(original.values()[i]));
+            }
+        }
+    }
+
+    @Test
+    void serieVacia() {
+        ResultChunkCodec.Columns vacia = new ResultChunkCodec.Columns(new long[0], new double[0], new long[0]);
+        assertThat(ResultChunkCodec.encode(vacia)).isEmpty();
+        assertThat(ResultChunkCodec.decode(new byte[0], 0).size()).isZero();
+    }
+
+    private static long[] tiempos(SplittableRandom azar, int n) {
+        long[] t = new long[n];
+        t[0] = azar.nextLong(0, 4_102_444_800_000L);
+        int tipo = azar.nextInt(4);
+        for (int i = 1; i < n; i++) {
+            t[i] = switch (tipo) {
+                case 0 -> t[i - 1] + 60_000; // intervalo fijo
+                case 1 -> t[i - 1] + azar.nextLong(0, 600_000); // irregular, con repetidos
+                case 2 -> t[i - 1] + azar.nextLong(-3_600_000, 3_600_000); // desordenados
+                default -> azar.nextLong(); // cualquier long
+            };
+        }
+        return t;
+    }
+
+    private static long[] muestras(SplittableRandom azar, int n) {
+        long[] ids = new long[n];
+        ids[0] = azar.nextBoolean() ? azar.nextLong(1, 1_000_000) : azar.nextLong();
+        boolean saltos = azar.nextBoolean();
+        for (int i = 1; i < n; i++) {
+            ids[i] = saltos ? azar.nextLong() : ids[i - 1] + azar.nextInt(-5, 50);
+        }
+        return ids;
+    }
+
+    private static double[] valores(SplittableRandom azar, int n) {
+        double[] v = new double[n];
+        int tipo = azar.nextInt(6);
+        double escala = Math.pow(10, azar.nextInt(5));
+        double base = azar.nextDouble(-1_000, 1_000);
+        for (int i = 0; i < n; i++) {
+            v[i] = switch (tipo) {
+                // 0–4 decimales, como los entrega un equipo
+                case 0 -> Math.round((base + azar.nextGaussian() * 10) * escala) / escala;
+                case 1 -> base; // constante
+                case 2 -> azar.nextDouble(); // doubles arbitrarios
+                case 3 -> Double.longBitsToDouble(azar.nextLong()); // cualquier patrón de bits (incluye NaN)
+                case 4 -> especial(azar);
+                // Decimales con algún valor que obliga al modo XOR
+                default -> azar.nextInt(20) == 0 ? especial(azar) : Math.round(base * escala) / escala;
+            };
+        }
+        return v;
+    }
+
+    private static double especial(SplittableRandom azar) {
+        double[] especiales = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, -0.0, 0.0,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 1e300, 4_503_599_627_370_496.5 };
+        return especiales[azar.nextInt(especiales.length)];
+    }
+}
@@ -0,0 +1,237 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.exception.InvalidTransitionException;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.model.SampleTransition;
+import com.fullstack.clinica.sample.repository.SampleRepository;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sample.service.TurnaroundTracker;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleLifecycleTest
+ * ---------------------------------------------------------------
+ * Máquina de estados de la muestra:
+ * - solo se permiten las transiciones de SampleStatus y cada una
+ *   queda en el historial;
+ * - una transición inválida o sobre una muestra retenida lanza
+ *   InvalidTransitionException (409) y no cambia el estado;
+ * - al informar se registra el turnaround, y reconstruir los
+ *   histogramas desde la BD da el mismo conteo;
+ * - editar el código a uno existente (en cualquier mayúscula) se
+ *   rechaza igual que al crear.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cicloVida;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+class SampleLifecycleTest {
+
+    private static final String TECNICO = "Técnico del Ciclo";
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    SampleService samples;
+
+    @Autowired
+    SampleRepository repository;
+
+    @Autowired
+    SampleShardRouter router;
+
+    @Autowired
+    TurnaroundTracker turnaround;
+
+    @Autowired
+    LaboratoryRepository laboratories;
+
+    @Autowired
+    UserRepository users;
+
+    @Autowired
+    MockMvc mvc;
+
+    private String laboratorio;
+
+    @BeforeEach
+    void prepararLaboratorio() {
+        laboratorio = "LabCiclo" + SECUENCIA.incrementAndGet();
+        Laboratory lab = new Laboratory();
+        lab.setName(laboratorio);
+        lab.setDescription("Laboratorio del ciclo de vida");
+        lab.setState("ACTIVO");
+        laboratories.save(lab);
+        if (users.findByEmail("ciclo@clinica.cl").isEmpty()) {
+            User tecnico = new User();
+            tecnico.setFullName(TECNICO);
+            tecnico.setEmail("ciclo@clinica.cl");
+            tecnico.setPassword("clave123");
+            tecnico.setRol("TECNICO");
+            users.save(tecnico);
+        }
+    }
+
+    @Test
+    void soloSePermitenLasTransicionesDelCiclo() {
+        assertThat(SampleStatus.RECIBIDA.siguientes()).containsExactly(SampleStatus.EN_PROCESO);
+        assertThat(SampleStatus.EN_PROCESO.siguientes()).containsExactly(SampleStatus.VALIDADA);
+        assertThat(SampleStatus.VALIDADA.siguientes())
+                .containsExactlyInAnyOrder(SampleStatus.INFORMADA, SampleStatus.EN_PROCESO);
+        assertThat(SampleStatus.INFORMADA.siguientes()).isEmpty();
+        for (SampleStatus estado : SampleStatus.values()) {
+            assertThat(estado.puedePasarA(estado)).as("%s → %s", estado, estado).isFalse();
+        }
+        assertThat(SampleStatus.pendientes()).isEqualTo(EnumSet.of(SampleStatus.RECIBIDA, SampleStatus.EN_PROCESO));
+    }
+
+    @Test
+    void cicloCompletoQuedaEnElHistorialYRegistraElTurnaround() {
+        Sample muestra = crear();
+        assertThat(muestra.getStatus()).isEqualTo(SampleStatus.RECIBIDA);
+        assertThat(muestra.getReceivedAt()).isNotNull();
+
+        // Una validada puede volver a proceso (repetición del análisis)
+        List<SampleStatus> camino = List.of(SampleStatus.EN_PROCESO, SampleStatus.VALIDADA,
+                SampleStatus.EN_PROCESO, SampleStatus.VALIDADA, SampleStatus.INFORMADA);
+        camino.forEach(estado -> samples.changeStatus(muestra.getId(), estado));
+
+        Sample informada = samples.findById(muestra.getId());
+        assertThat(informada.getStatus()).isEqualTo(SampleStatus.INFORMADA);
+        assertThat(informada.getReportedAt()).isAfterOrEqualTo(informada.getReceivedAt());
+
+        List<SampleTransition> historial = samples.findHistory(muestra.getId());
+        assertThat(historial).extracting(SampleTransition::getToStatus).containsExactly(SampleStatus.RECIBIDA,
+                SampleStatus.EN_PROCESO, SampleStatus.VALIDADA, SampleStatus.EN_PROCESO, SampleStatus.VALIDADA,
+                SampleStatus.INFORMADA);
+        assertThat(historial.get(0).getFromStatus()).isNull();
+        assertThat(historial.get(5).getFromStatus()).isEqualTo(SampleStatus.VALIDADA);
+
+        assertThat(turnaround.estadisticas(laboratorio).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void transicionInvalidaNoCambiaElEstado() {
+        Sample muestra = crear();
+        assertThatThrownBy(() -> samples.changeStatus(muestra.getId(), SampleStatus.VALIDADA))
+                .isInstanceOf(InvalidTransitionException.class);
+        assertThatThrownBy(() -> samples.changeStatus(muestra.getId(), SampleStatus.RECIBIDA))
+                .isInstanceOf(InvalidTransitionException.class);
+
+        samples.changeStatus(muestra.getId(), SampleStatus.EN_PROCESO);
+        samples.changeStatus(muestra.getId(), SampleStatus.VALIDADA);
+        samples.changeStatus(muestra.getId(), SampleStatus.INFORMADA);
+        // INFORMADA es final
+        for (SampleStatus estado : SampleStatus.values()) {
+            assertThatThrownBy(() -> samples.changeStatus(muestra.getId(), estado))
+                    .isInstanceOf(InvalidTransitionException.class);
+        }
+
+        assertThat(samples.findById(muestra.getId()).getStatus()).isEqualTo(SampleStatus.INFORMADA);
+        assertThat(samples.findHistory(muestra.getId())).hasSize(4);
+    }
+
+    @Test
+    void muestraRetenidaNoCambiaDeEstadoHastaLiberarse() {
+        Sample muestra = crear();
+        assertThat(samples.holdPending(laboratorio)).isEqualTo(1);
+
+        assertThatThrownBy(() -> samples.changeStatus(muestra.getId(), SampleStatus.EN_PROCESO))
+                .isInstanceOf(InvalidTransitionException.class)
+                .hasMessageContaining("retenida");
+        assertThat(samples.findById(muestra.getId()).getStatus()).isEqualTo(SampleStatus.RECIBIDA);
+
+        assertThat(samples.releaseHeld(laboratorio)).isEqualTo(1);
+        assertThat(samples.changeStatus(muestra.getId(), SampleStatus.EN_PROCESO).getStatus())
+                .isEqualTo(SampleStatus.EN_PROCESO);
+    }
+
+    @Test
+    void transicionInvalidaResponde409() throws Exception {
+        Sample muestra = crear();
+        mvc.perform(put("/api/samples/id/{id}/status/{status}", muestra.getId(), SampleStatus.INFORMADA))
+                .andExpect(status().isConflict());
+        mvc.perform(put("/api/samples/id/{id}/status/{status}", muestra.getId(), SampleStatus.EN_PROCESO))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void reconstruirDesdeLaBdDaElMismoConteo() {
+        Set<Long> informadas = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Sample muestra = crear();
+            samples.changeStatus(muestra.getId(), SampleStatus.EN_PROCESO);
+            samples.changeStatus(muestra.getId(), SampleStatus.VALIDADA);
+            samples.changeStatus(muestra.getId(), SampleStatus.INFORMADA);
+            informadas.add(muestra.getId());
+        }
+
+        TurnaroundTracker reconstruido = new TurnaroundTracker(repository, router);
+        reconstruido.reconstruir();
+
+        assertThat(reconstruido.estadisticas(laboratorio).getCount()).isEqualTo(informadas.size());
+        assertThat(reconstruido.estadisticasGlobales().getCount())
+                .isEqualTo(turnaround.estadisticasGlobales().getCount());
+    }
+
+    @Test
+    void cambiarElCodigoAUnoExistenteSeRechaza() {
+        Sample existente = crear();
+        Sample muestra = crear();
+
+        Sample cambio = new Sample();
+        cambio.setCode(existente.getCode().toLowerCase(Locale.ROOT));
+        cambio.setDescription("Muestra renombrada");
+        assertThatThrownBy(() -> samples.update(muestra.getId(), cambio))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Ya existe una muestra con el mismo código.");
+        assertThat(samples.findById(muestra.getId()).getCode()).isEqualTo(muestra.getCode());
+
+        // Cambiar solo mayúsculas/minúsculas del propio código no es un duplicado
+        cambio.setCode(muestra.getCode().toLowerCase(Locale.ROOT));
+        assertThat(samples.update(muestra.getId(), cambio).getCode()).isEqualTo(cambio.getCode());
+    }
+
+    private Sample crear() {
+        Sample muestra = new Sample();
+        muestra.setCode(laboratorio + "-" + SECUENCIA.incrementAndGet());
+        muestra.setDescription("Muestra del ciclo de vida");
+        muestra.setTechnician(TECNICO);
+        muestra.setLaboratory(laboratorio);
+        return samples.save(muestra);
+    }
+}
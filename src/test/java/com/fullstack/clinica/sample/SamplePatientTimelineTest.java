@@ -0,0 +1,124 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SamplePatientTimelineTest
+ * ---------------------------------------------------------------
+ * Historial de muestras del paciente (GET /api/users/id/{id}/samples):
+ * - las páginas siguen el nextCursor, más reciente primero, sin
+ *   repetir ni saltar muestras, y la última trae nextCursor null;
+ * - un cursor mal formado es un error de la petición (400), no un
+ *   paciente inexistente (404).
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:historialPaciente;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SamplePatientTimelineTest {
+
+    private static final String LABORATORIO = "LabHistorial";
+    private static final String TECNICO = "Técnico del Historial";
+
+    @Autowired
+    SampleService samples;
+
+    @Autowired
+    LaboratoryRepository laboratories;
+
+    @Autowired
+    UserRepository users;
+
+    @Autowired
+    MockMvc mvc;
+
+    private Long paciente;
+    private final Long[] muestras = new Long[3];
+
+    @BeforeAll
+    void prepararHistorial() {
+        Laboratory lab = new Laboratory();
+        lab.setName(LABORATORIO);
+        lab.setDescription("Laboratorio del historial");
+        lab.setState("ACTIVO");
+        laboratories.save(lab);
+        users.save(usuario(TECNICO, "historial@clinica.cl", "TECNICO"));
+        paciente = users.save(usuario("Paciente del Historial", "paciente-historial@clinica.cl", "PACIENTE")).getId();
+
+        LocalDateTime toma = LocalDateTime.now().minusDays(3);
+        for (int i = 0; i < muestras.length; i++) {
+            Sample muestra = new Sample();
+            muestra.setCode("HIST-" + i);
+            muestra.setDescription("Muestra del historial");
+            muestra.setTechnician(TECNICO);
+            muestra.setLaboratory(LABORATORIO);
+            muestra.setPatientId(paciente);
+            muestra.setCollectedAt(toma.plusDays(i));
+            muestras[i] = samples.save(muestra).getId();
+        }
+    }
+
+    @Test
+    void lasPaginasSiguenElCursorHastaLaUltima() throws Exception {
+        String respuesta = mvc.perform(get("/api/users/id/{id}/samples", paciente).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", contains(muestras[2].intValue(), muestras[1].intValue())))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = respuesta.replaceAll("(?s).*\"nextCursor\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+
+        mvc.perform(get("/api/users/id/{id}/samples", paciente).param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id", contains(muestras[0].intValue())))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void cursorMalFormadoResponde400() throws Exception {
+        mvc.perform(get("/api/users/id/{id}/samples", paciente).param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/users/id/{id}/samples", paciente).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static User usuario(String nombre, String email, String rol) {
+        User usuario = new User();
+        usuario.setFullName(nombre);
+        usuario.setEmail(email);
+        usuario.setPassword("clave123");
+        usuario.setRol(rol);
+        return usuario;
+    }
+}
@@ -0,0 +1,169 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.repository.SampleRepository;
+import com.fullstack.clinica.sample.service.SampleReadModel;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.repository.UserRepository;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReadModelBenchmark
+ * ---------------------------------------------------------------
+ * Compara el mismo listado servido por JPA (consulta + entidades) y por
+ * SampleReadModel, en el mismo hilo:
+ *
+ * - Latencia por operación (p50 / p99 / máx, en µs) con HdrHistogram.
+ * - Bytes asignados por operación (ThreadMXBean del hilo actual).
+ * - Memoria estimada que ocuparía todo el grafo de entidades frente a
+ *   la del modelo por columnas.
+ *
+ * No corre con el build (el nombre no termina en Test):
+ *   ./mvnw test -Dtest=SampleReadModelBenchmark -Dmuestras=50000 -Diteraciones=50 -Dlaboratorio=Lab-3
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchModeloLectura;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false"
+})
+class SampleReadModelBenchmark {
+
+    private static final int LABORATORIOS = 8;
+    private static final int TECNICOS = 40;
+    private static final int LOTE = 1000;
+
+    @Autowired
+    SampleService samples;
+
+    @Autowired
+    SampleRepository repository;
+
+    @Autowired
+    SampleShardRouter router;
+
+    @Autowired
+    SampleReadModel readModel;
+
+    @Autowired
+    LaboratoryRepository laboratories;
+
+    @Autowired
+    UserRepository users;
+
+    @Test
+    void jpaContraModeloDeLectura() throws InterruptedException {
+        int muestras = Integer.getInteger("muestras", 20_000);
+        int iteraciones = Integer.getInteger("iteraciones", 50);
+        String laboratorio = System.getProperty("laboratorio");
+        poblar(muestras);
+        for (int i = 0; i < 600 && (!readModel.isReady() || readModel.count(null, null, null) < muestras); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(readModel.count(null, null, null)).as("muestras en el modelo de lectura").isEqualTo(muestras);
+
+        // Los shards se consultan en serie en este hilo para poder medir sus asignaciones
+        Supplier<List<Sample>> jpa = laboratorio != null
+                ? () -> router.onLaboratory(laboratorio, () -> repository.findByLaboratory(laboratorio))
+                : () -> {
+                    List<Sample> todas = new ArrayList<>();
+                    for (int shard = 0; shard < router.shardCount(); shard++) {
+                        todas.addAll(router.onShard(shard, repository::findAll));
+                    }
+                    return todas;
+                };
+        Supplier<List<Sample>> modelo = () -> readModel.find(laboratorio, null, null, 0, Integer.MAX_VALUE);
+
+        System.out.printf("🏁 %d muestras, %d iteraciones%s%n", muestras, iteraciones,
+                laboratorio != null ? ", laboratorio " + laboratorio : "");
+        int filasJpa = medir("JPA", jpa, iteraciones);
+        int filasModelo = medir("modelo de lectura", modelo, iteraciones);
+        assertThat(filasModelo).isEqualTo(filasJpa);
+
+        var stats = readModel.stats();
+        System.out.printf("   memoria estimada: modelo %,d bytes, grafo de entidades %,d bytes%n",
+                stats.get("estimatedBytes"), stats.get("entityGraphEstimatedBytes"));
+    }
+
+    /** Laboratorios Lab-0.., técnicos y muestras repartidas entre ellos (INSERT por lotes). */
+    private void poblar(int muestras) {
+        for (int l = 0; l < LABORATORIOS; l++) {
+            Laboratory lab = new Laboratory();
+            lab.setName("Lab-" + l);
+            lab.setDescription("Laboratorio de benchmark");
+            lab.setState("ACTIVO");
+            laboratories.save(lab);
+        }
+        for (int t = 0; t < TECNICOS; t++) {
+            User tecnico = new User();
+            tecnico.setFullName("Tecnico de Turno " + t);
+            tecnico.setEmail("turno-" + t + "@clinica.cl");
+            tecnico.setPassword("clave123");
+            tecnico.setRol("TECNICO");
+            users.save(tecnico);
+        }
+        for (int l = 0; l < LABORATORIOS; l++) {
+            List<Sample> lote = new ArrayList<>(LOTE);
+            for (int i = l; i < muestras; i += LABORATORIOS) {
+                Sample muestra = new Sample();
+                muestra.setCode("RM-" + i);
+                muestra.setDescription("Muestra de benchmark " + i);
+                muestra.setTechnician("Tecnico de Turno " + (i % TECNICOS));
+                muestra.setLaboratory("Lab-" + l);
+                lote.add(muestra);
+                if (lote.size() == LOTE) {
+                    samples.saveImported("Lab-" + l, lote);
+                    lote = new ArrayList<>(LOTE);
+                }
+            }
+            samples.saveImported("Lab-" + l, lote);
+        }
+    }
+
+    private static int medir(String nombre, Supplier<List<Sample>> listado, int iteraciones) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Calentamiento: JIT y cachés de la BD
+        for (int i = 0; i < Math.max(1, iteraciones / 5); i++) {
+            listado.get();
+        }
+
+        Histogram micros = new Histogram(3);
+        long asignados = 0;
+        int filas = 0;
+        for (int i = 0; i < iteraciones; i++) {
+            long bytesAntes = hilos.getCurrentThreadAllocatedBytes();
+            long inicio = System.nanoTime();
+            filas = listado.get().size();
+            micros.recordValue(Math.max(1, (System.nanoTime() - inicio) / 1_000));
+            asignados += hilos.getCurrentThreadAllocatedBytes() - bytesAntes;
+        }
+        System.out.printf("   %-18s %,d filas  p50=%,d µs  p99=%,d µs  máx=%,d µs  %,d bytes/op%n", nombre, filas,
+                micros.getValueAtPercentile(50), micros.getValueAtPercentile(99), micros.getMaxValue(),
+                asignados / Math.max(1, iteraciones));
+        return filas;
+    }
+}
@@ -0,0 +1,273 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.sample.event.SampleChangedEvent;
+import com.fullstack.clinica.sample.event.SampleReferenceRenamedEvent;
+import com.fullstack.clinica.sample.event.SamplesHeldEvent;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.service.SampleReadModel;
+import com.fullstack.clinica.sample.service.SampleService;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReadModelTest
+ * ---------------------------------------------------------------
+ * Modelo de lectura en memoria, sin BD (SampleService sustituido por
+ * uno que solo entrega las páginas de la carga inicial):
+ * - alta, actualización y baja por SampleChangedEvent;
+ * - cambio de laboratorio (la muestra pasa al shard de otro) y de
+ *   estado: cada fila queda en una sola lista de posiciones y los
+ *   filtros combinados coinciden con un recorrido completo;
+ * - renombre de laboratorio y técnico, retención y liberación;
+ * - eventos que llegan durante la carga inicial se aplican al final.
+ * ===============================================================
+ */
+class SampleReadModelTest {
+
+    private static final String LAB_A = "Lab A";
+    private static final String LAB_B = "Lab B";
+    private static final String TEC_1 = "Técnico Uno";
+    private static final String TEC_2 = "Técnico Dos";
+
+    @Test
+    void altaActualizacionYBaja() {
+        SampleReadModel modelo = cargado(
+                muestra(1, LAB_A, TEC_1, SampleStatus.RECIBIDA),
+                muestra(2, LAB_A, TEC_2, SampleStatus.RECIBIDA),
+                muestra(3, LAB_B, TEC_1, SampleStatus.INFORMADA));
+
+        assertThat(ids(modelo.find(LAB_A, null, null, 0, 100))).containsExactly(1L, 2L);
+        assertThat(modelo.count(null, TEC_1, null)).isEqualTo(2);
+
+        Sample editada = muestra(2, LAB_A, TEC_2, SampleStatus.RECIBIDA);
+        editada.setDescription("Descripción corregida");
+        modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.ACTUALIZADA, editada));
+        modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.CREADA, muestra(4, LAB_B, TEC_2, SampleStatus.RECIBIDA)));
+        modelo.onSampleChanged(new SampleChangedEvent(SampleChangedEvent.Tipo.ELIMINADA, 1L, LAB_A, null));
+
+        assertThat(ids(modelo.find(LAB_A, null, null, 0, 100))).containsExactly(2L);
+        assertThat(modelo.find(LAB_A, null, null, 0, 100).get(0).getDescription()).isEqualTo("Descripción corregida");
+        assertThat(ids(modelo.find(null, TEC_2, null, 0, 100))).containsExactly(2L, 4L);
+        assertThat(modelo.count(null, null, null)).isEqualTo(3);
+        assertThat(modelo.stats()).containsEntry("rows", 3).containsEntry("deletedRows", 1);
+        // Borrar dos veces o un ID desconocido no descuenta de más
+        modelo.onSampleChanged(new SampleChangedEvent(SampleChangedEvent.Tipo.ELIMINADA, 1L, LAB_A, null));
+        modelo.onSampleChanged(new SampleChangedEvent(SampleChangedEvent.Tipo.ELIMINADA, 99L, LAB_A, null));
+        assertThat(modelo.stats()).containsEntry("rows", 3);
+        verificarListas(modelo);
+    }
+
+    @Test
+    void cambioDeLaboratorioMueveLaFilaDeLista() {
+        SampleReadModel modelo = cargado(
+                muestra(1, LAB_A, TEC_1, SampleStatus.RECIBIDA),
+                muestra(2, LAB_A, TEC_1, SampleStatus.RECIBIDA));
+
+        // La muestra 1 pasa a un laboratorio de otro shard (y a otro técnico)
+        modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.ACTUALIZADA, muestra(1, LAB_B, TEC_2, SampleStatus.RECIBIDA)));
+
+        assertThat(ids(modelo.find(LAB_A, null, null, 0, 100))).containsExactly(2L);
+        assertThat(ids(modelo.find(LAB_B, null, null, 0, 100))).containsExactly(1L);
+        assertThat(ids(modelo.find(LAB_B, TEC_1, null, 0, 100))).isEmpty();
+        assertThat(modelo.countByLaboratory()).containsEntry(LAB_A, 1).containsEntry(LAB_B, 1);
+        verificarListas(modelo);
+    }
+
+    @Test
+    void cambioDeEstadoMantieneLasListasConsistentes() {
+        List<Sample> muestras = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            muestras.add(muestra(i, i % 2 == 0 ? LAB_A : LAB_B, i % 3 == 0 ? TEC_1 : TEC_2, SampleStatus.RECIBIDA));
+        }
+        SampleReadModel modelo = cargado(muestras.toArray(Sample[]::new));
+
+        for (int i = 1; i <= 40; i += 3) {
+            Sample cambiada = muestras.get(i - 1);
+            cambiada.setStatus(SampleStatus.EN_PROCESO);
+            modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.ESTADO, cambiada));
+        }
+
+        assertThat(modelo.count(null, null, SampleStatus.EN_PROCESO)).isEqualTo(14);
+        assertThat(modelo.count(null, null, SampleStatus.RECIBIDA)).isEqualTo(26);
+        // Cambiar de estado no duplica ni pierde posiciones
+        assertThat(modelo.countByLaboratory()).containsEntry(LAB_A, 20).containsEntry(LAB_B, 20);
+        verificarListas(modelo);
+    }
+
+    @Test
+    void renombrarLaboratorioYTecnico() {
+        SampleReadModel modelo = cargado(
+                muestra(1, LAB_A, TEC_1, SampleStatus.RECIBIDA),
+                muestra(2, LAB_B, TEC_1, SampleStatus.RECIBIDA));
+        Sample reclamada = muestra(3, LAB_A, TEC_2, SampleStatus.RECIBIDA);
+        reclamada.setClaimedBy(TEC_1);
+        modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.ACTUALIZADA, reclamada));
+
+        modelo.onReferenceRenamed(new SampleReferenceRenamedEvent(
+                SampleReferenceRenamedEvent.Tipo.LABORATORIO, 10L, LAB_A, "Lab A Renombrado"));
+        modelo.onReferenceRenamed(new SampleReferenceRenamedEvent(
+                SampleReferenceRenamedEvent.Tipo.TECNICO, 20L, TEC_1, "Técnico Uno Renombrado"));
+
+        assertThat(modelo.find(LAB_A, null, null, 0, 100)).isEmpty();
+        assertThat(ids(modelo.find("Lab A Renombrado", null, null, 0, 100))).containsExactly(1L, 3L);
+        assertThat(modelo.find(null, TEC_1, null, 0, 100)).isEmpty();
+        assertThat(modelo.find(null, "Técnico Uno Renombrado", null, 0, 100))
+                .extracting(Sample::getLaboratory).containsExactly("Lab A Renombrado", LAB_B);
+        // claimedBy es texto libre: conserva el nombre con que se reclamó
+        assertThat(modelo.find(null, TEC_2, null, 0, 100).get(0).getClaimedBy()).isEqualTo(TEC_1);
+        verificarListas(modelo);
+    }
+
+    @Test
+    void retenerYLiberarSoloLasPendientesDelLaboratorio() {
+        Sample reclamada = muestra(1, LAB_A, TEC_1, SampleStatus.RECIBIDA);
+        reclamada.setClaimedBy(TEC_1);
+        reclamada.setLeaseUntil(LocalDateTime.now().plusMinutes(15));
+        SampleReadModel modelo = cargado(
+                reclamada,
+                muestra(2, LAB_A, TEC_1, SampleStatus.INFORMADA),
+                muestra(3, LAB_B, TEC_1, SampleStatus.RECIBIDA));
+        LocalDateTime desde = LocalDateTime.of(2026, 3, 1, 8, 30);
+
+        modelo.onSamplesHeld(new SamplesHeldEvent(LAB_A, desde, 1));
+
+        List<Sample> labA = modelo.find(LAB_A, null, null, 0, 100);
+        assertThat(labA.get(0).getHeldAt()).isEqualTo(desde);
+        assertThat(labA.get(0).getClaimedBy()).isNull();
+        assertThat(labA.get(0).getLeaseUntil()).isNull();
+        assertThat(labA.get(1).getHeldAt()).as("informada").isNull();
+        assertThat(modelo.find(LAB_B, null, null, 0, 100).get(0).getHeldAt()).as("otro laboratorio").isNull();
+
+        modelo.onSamplesHeld(new SamplesHeldEvent(LAB_A, null, 1));
+        assertThat(modelo.find(LAB_A, null, null, 0, 100)).extracting(Sample::getHeldAt).containsOnlyNulls();
+    }
+
+    @Test
+    void losEventosDuranteLaCargaSeAplicanAlFinal() throws Exception {
+        CountDownLatch primeraPagina = new CountDownLatch(1);
+        CountDownLatch seguir = new CountDownLatch(1);
+        SampleReadModel modelo = new SampleReadModel(paginas(consumidor -> {
+            consumidor.accept(List.of(muestra(1, LAB_A, TEC_1, SampleStatus.RECIBIDA),
+                    muestra(2, LAB_A, TEC_1, SampleStatus.RECIBIDA)));
+            primeraPagina.countDown();
+            try {
+                assertThat(seguir.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumidor.accept(List.of(muestra(3, LAB_B, TEC_2, SampleStatus.RECIBIDA)));
+        }), true, 16);
+
+        modelo.cargar();
+        assertThat(primeraPagina.await(5, TimeUnit.SECONDS)).isTrue();
+        // Cambios confirmados mientras se carga: uno sobre una fila ya cargada,
+        // otro sobre una que aún no llega y una baja
+        Sample enProceso = muestra(1, LAB_A, TEC_1, SampleStatus.EN_PROCESO);
+        modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.ESTADO, enProceso));
+        modelo.onSampleChanged(evento(SampleChangedEvent.Tipo.ACTUALIZADA, muestra(3, LAB_A, TEC_2, SampleStatus.RECIBIDA)));
+        modelo.onSampleChanged(new SampleChangedEvent(SampleChangedEvent.Tipo.ELIMINADA, 2L, LAB_A, null));
+        assertThat(modelo.isReady()).isFalse();
+        seguir.countDown();
+        esperarCarga(modelo);
+
+        assertThat(ids(modelo.find(LAB_A, null, null, 0, 100))).containsExactly(1L, 3L);
+        assertThat(modelo.find(LAB_B, null, null, 0, 100)).isEmpty();
+        assertThat(modelo.count(null, null, SampleStatus.EN_PROCESO)).isEqualTo(1);
+        assertThat(modelo.stats()).containsEntry("rows", 2);
+        verificarListas(modelo);
+    }
+
+    // ============================================================
+    // Apoyo
+    // ============================================================
+
+    /** Modelo cargado con las muestras indicadas (una sola página). */
+    private static SampleReadModel cargado(Sample... muestras) {
+        // Capacidad mínima: obliga a crecer las columnas durante la carga
+        SampleReadModel modelo = new SampleReadModel(paginas(consumidor -> consumidor.accept(List.of(muestras))),
+                true, 16);
+        modelo.cargar();
+        esperarCarga(modelo);
+        return modelo;
+    }
+
+    /**
+     * SampleService que solo sirve la carga inicial (forEachPage). Es una
+     * subclase y no un mock: un mock inline instrumentaría la clase para
+     * todo el JVM y cambiaría los KB medidos por EndpointBudgetTest.
+     */
+    private static SampleService paginas(Consumer<Consumer<List<Sample>>> carga) {
+        return new SampleService(null, null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public void forEachPage(String laboratory, Consumer<List<Sample>> consumidor) {
+                carga.accept(consumidor);
+            }
+        };
+    }
+
+    private static void esperarCarga(SampleReadModel modelo) {
+        for (int i = 0; i < 200 && !modelo.isReady(); i++) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        assertThat(modelo.isReady()).as("modelo cargado").isTrue();
+    }
+
+    /**
+     * Las listas de posiciones coinciden con un recorrido completo: cada
+     * combinación de filtros devuelve exactamente las filas que la cumplen.
+     */
+    private static void verificarListas(SampleReadModel modelo) {
+        List<Sample> todas = modelo.find(null, null, null, 0, Integer.MAX_VALUE);
+        assertThat(ids(todas)).doesNotHaveDuplicates();
+        for (Sample muestra : todas) {
+            for (SampleStatus estado : new SampleStatus[] { null, muestra.getStatus() }) {
+                List<Long> esperadas = todas.stream()
+                        .filter(m -> m.getLaboratory().equals(muestra.getLaboratory()))
+                        .filter(m -> m.getTechnician().equals(muestra.getTechnician()))
+                        .filter(m -> estado == null || m.getStatus() == estado)
+                        .map(Sample::getId).toList();
+                assertThat(ids(modelo.find(muestra.getLaboratory(), muestra.getTechnician(), estado, 0, 1000)))
+                        .as("%s / %s / %s", muestra.getLaboratory(), muestra.getTechnician(), estado)
+                        .isEqualTo(esperadas);
+            }
+        }
+        assertThat(modelo.countByLaboratory().values().stream().mapToInt(Integer::intValue).sum())
+                .isEqualTo(todas.size());
+    }
+
+    private static Sample muestra(long id, String laboratorio, String tecnico, SampleStatus estado) {
+        Sample muestra = new Sample();
+        muestra.setId(id);
+        muestra.setCode("RM-" + id);
+        muestra.setDescription("Muestra " + id);
+        muestra.setLaboratory(laboratorio);
+        muestra.setTechnician(tecnico);
+        muestra.setStatus(estado);
+        muestra.setReceivedAt(LocalDateTime.of(2026, 1, 1, 8, 0).plusMinutes(id));
+        return muestra;
+    }
+
+    private static SampleChangedEvent evento(SampleChangedEvent.Tipo tipo, Sample muestra) {
+        return new SampleChangedEvent(tipo, muestra.getId(), muestra.getLaboratory(), muestra);
+    }
+
+    private static List<Long> ids(List<Sample> muestras) {
+        return muestras.stream().map(Sample::getId).toList();
+    }
+}
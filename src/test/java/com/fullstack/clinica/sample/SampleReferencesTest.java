@@ -0,0 +1,177 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.model.SampleStatus;
+import com.fullstack.clinica.sample.service.SampleReferences;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sync.service.ChangeSequence;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.service.UserService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleReferencesTest
+ * ---------------------------------------------------------------
+ * Directorio nombre ↔ ID de laboratorios y técnicos:
+ * - un técnico cuyo nombre comparten varios usuarios es ambiguo (409)
+ *   al registrar una muestra, pero las muestras ya guardadas con él
+ *   siguen cambiando de estado y editándose;
+ * - un renombre o un homónimo hecho en otro nodo (aquí, SQL directo con
+ *   su change_seq) corrige la caché de este nodo en el siguiente
+ *   refresco.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:referenciasMuestras;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false",
+        "clinica.references.refresh-interval=200ms"
+})
+class SampleReferencesTest {
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    SampleService samples;
+
+    @Autowired
+    SampleReferences references;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    LaboratoryRepository laboratories;
+
+    @Autowired
+    ChangeSequence sequence;
+
+    @Autowired
+    TransactionTemplate tx;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    void unTecnicoHomonimoEsAmbiguoPeroSusMuestrasSiguen() {
+        int n = SECUENCIA.incrementAndGet();
+        String laboratorio = crearLaboratorio("LabHomonimos" + n);
+        String tecnico = "Técnico Repetido " + n;
+        crearUsuario(tecnico, "repetido-a" + n + "@clinica.cl");
+        Sample guardada = samples.save(muestra("HOMO-A" + n, tecnico, laboratorio));
+
+        crearUsuario(tecnico, "repetido-b" + n + "@clinica.cl");
+
+        assertThatThrownBy(() -> samples.save(muestra("HOMO-B" + n, tecnico, laboratorio)))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining(tecnico);
+        samples.changeStatus(guardada.getId(), SampleStatus.EN_PROCESO);
+        Sample datos = muestra("HOMO-C" + n, tecnico, laboratorio);
+        datos.setDescription("Descripción editada");
+        samples.update(guardada.getId(), datos);
+
+        Sample leida = samples.findById(guardada.getId());
+        assertThat(leida.getStatus()).isEqualTo(SampleStatus.EN_PROCESO);
+        assertThat(leida.getTechnician()).isEqualTo(tecnico);
+        assertThat(leida.getDescription()).isEqualTo("Descripción editada");
+    }
+
+    @Test
+    void unRenombreEnOtroNodoLlegaEnElRefresco() throws InterruptedException {
+        int n = SECUENCIA.incrementAndGet();
+        String anterior = crearLaboratorio("LabOtroNodo" + n);
+        Long id = references.laboratoryId(anterior);
+        assertThat(id).isNotNull();
+        assertThat(references.laboratoryName(id)).isEqualTo(anterior);
+
+        String nuevo = "LabRenombradoAfuera" + n;
+        tx.executeWithoutResult(estado -> jdbc.update("update LABORATORY set name = ?, change_seq = ? where id = ?",
+                nuevo, sequence.next(), id));
+
+        esperar(() -> nuevo.equals(references.laboratoryName(id)));
+        assertThat(references.laboratoryId(nuevo)).isEqualTo(id);
+        assertThat(references.laboratoryId(anterior)).isNull();
+    }
+
+    @Test
+    void unHomonimoCreadoEnOtroNodoLlegaEnElRefresco() throws InterruptedException {
+        int n = SECUENCIA.incrementAndGet();
+        String tecnico = "Técnico de Afuera " + n;
+        Long id = crearUsuario(tecnico, "afuera-a" + n + "@clinica.cl").getId();
+        assertThat(references.technicianId(tecnico)).isEqualTo(id);
+
+        tx.executeWithoutResult(estado -> jdbc.update("insert into USERC (full_name, password, email, register_date, "
+                + "rol, change_seq) values (?, 'clave123', ?, ?, 'TECNICO', ?)",
+                tecnico, "afuera-b" + n + "@clinica.cl", LocalDate.now(), sequence.next()));
+
+        esperar(() -> {
+            try {
+                references.technicianId(tecnico);
+                return false;
+            } catch (ConflictException e) {
+                return true;
+            }
+        });
+    }
+
+    private String crearLaboratorio(String nombre) {
+        Laboratory lab = new Laboratory();
+        lab.setName(nombre);
+        lab.setDescription("Laboratorio de referencias");
+        lab.setState("ACTIVO");
+        laboratories.save(lab);
+        return nombre;
+    }
+
+    private User crearUsuario(String nombre, String email) {
+        User usuario = new User();
+        usuario.setFullName(nombre);
+        usuario.setEmail(email);
+        usuario.setPassword("clave123");
+        usuario.setRol("TECNICO");
+        return userService.crear(usuario);
+    }
+
+    private static Sample muestra(String codigo, String tecnico, String laboratorio) {
+        Sample muestra = new Sample();
+        muestra.setCode(codigo);
+        muestra.setDescription("Muestra de referencias");
+        muestra.setTechnician(tecnico);
+        muestra.setLaboratory(laboratorio);
+        return muestra;
+    }
+
+    private static void esperar(Supplier<Boolean> condicion) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (Objects.equals(condicion.get(), Boolean.TRUE)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La caché no se refrescó a tiempo");
+    }
+}
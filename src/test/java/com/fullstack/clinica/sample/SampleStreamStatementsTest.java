@@ -0,0 +1,329 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.sample.event.SampleChangedEvent;
+import com.fullstack.clinica.sample.model.Sample;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleStreamStatementsTest
+ * ---------------------------------------------------------------
+ * Sondeo vs. feed SSE, contado en sentencias SQL con datasource-proxy:
+ *
+ * - N clientes que sondean GET /api/samples/laboratory/{lab} después
+ *   de cada cambio cuestan al menos N sentencias por cambio.
+ * - Con N suscriptores SSE, los mismos cambios cuestan lo mismo que sin
+ *   suscriptores: la entrega no lee la BD, y cada suscriptor recibe
+ *   todos los eventos.
+ * - Un laboratorio inexistente responde 404 y la entrada de un
+ *   laboratorio desaparece de las estadísticas con su último suscriptor.
+ * - Renombrar el laboratorio no corta el feed de sus suscriptores.
+ * - Un cliente que no lee no frena a los demás, aunque haya un solo
+ *   hilo de envío: pasado send-timeout se desconecta y el pool recibe
+ *   un hilo de reemplazo.
+ * ===============================================================
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:feedSse;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false",
+        // Un ping por segundo: el servidor detecta pronto a los clientes que se van
+        "clinica.stream.heartbeat-seconds=1",
+        // Un solo hilo de envío: un cliente atascado frenaría a todos sin send-timeout
+        "clinica.stream.sender-threads=1",
+        "clinica.stream.send-timeout=500ms"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SampleStreamStatementsTest {
+
+    private static final String LAB = "LabFeedSse";
+    private static final String TECNICO = "Tecnico del Feed";
+    private static final int CLIENTES = 8;
+    private static final int CAMBIOS = 10;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ApplicationEventPublisher events;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final AtomicInteger secuencia = new AtomicInteger();
+
+    @BeforeAll
+    void prepararDatos() throws Exception {
+        enviar("POST", "/api/laboratories",
+                "{\"name\":\"" + LAB + "\",\"description\":\"Laboratorio del feed\",\"state\":\"ACTIVO\"}");
+        enviar("POST", "/api/users", "{\"fullName\":\"" + TECNICO + "\",\"email\":\"feed@clinica.cl\","
+                + "\"password\":\"clave123\",\"phone\":\"912345678\",\"rol\":\"TECNICO\"}");
+        // Calentamiento: cachés de referencias y primeras consultas fuera de la medición
+        for (int i = 0; i < 3; i++) {
+            crearMuestra();
+            enviar("GET", "/api/samples/laboratory/" + LAB, null);
+        }
+    }
+
+    @Test
+    void elFeedNoAgregaSentenciasPorSuscriptorYElSondeoSi() throws Exception {
+        // Sin suscriptores: costo base de los cambios
+        long base = medir(() -> {
+            for (int i = 0; i < CAMBIOS; i++) {
+                crearMuestra();
+            }
+        });
+
+        // Sondeo: cada cliente relee el laboratorio después de cada cambio
+        long sondeo = medir(() -> {
+            for (int i = 0; i < CAMBIOS; i++) {
+                crearMuestra();
+                for (int c = 0; c < CLIENTES; c++) {
+                    enviar("GET", "/api/samples/laboratory/" + LAB, null);
+                }
+            }
+        });
+
+        // SSE: los mismos cambios con CLIENTES conectados
+        List<Cliente> clientes = new ArrayList<>();
+        for (int c = 0; c < CLIENTES; c++) {
+            clientes.add(conectar(CAMBIOS));
+        }
+        long sse = medir(() -> {
+            for (int i = 0; i < CAMBIOS; i++) {
+                crearMuestra();
+            }
+        });
+        for (Cliente cliente : clientes) {
+            assertThat(cliente.eventos.await(10, TimeUnit.SECONDS)).as("eventos recibidos por el suscriptor").isTrue();
+            cliente.cerrar();
+        }
+        System.out.printf("📏 %d cambios, %d clientes: base=%d sondeo=%d sse=%d sentencias%n",
+                CAMBIOS, CLIENTES, base, sondeo, sse);
+
+        assertThat(sse).as("sentencias con suscriptores SSE").isEqualTo(base);
+        assertThat(sondeo - base).as("sentencias de sondeo").isGreaterThanOrEqualTo((long) CAMBIOS * CLIENTES);
+    }
+
+    @Test
+    void laboratorioInexistenteYEntradasVacias() throws Exception {
+        assertThat(enviar("GET", "/api/samples/laboratory/NoExiste/stream", null).statusCode()).isEqualTo(404);
+        assertThat(enviar("GET", "/api/samples/stream/stats", null).body()).doesNotContain("NoExiste");
+
+        Cliente cliente = conectar(0);
+        assertThat(enviar("GET", "/api/samples/stream/stats", null).body()).contains(LAB);
+        cliente.cerrar();
+        String stats = "";
+        for (int i = 0; i < 100; i++) {
+            stats = enviar("GET", "/api/samples/stream/stats", null).body();
+            if (!stats.contains(LAB)) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(stats).as("estadísticas tras desconectar").doesNotContain(LAB);
+    }
+
+    @Test
+    void renombrarElLaboratorioNoCortaElFeed() throws Exception {
+        String nombre = "LabFeedRenombre";
+        String id = idDe(enviar("POST", "/api/laboratories",
+                "{\"name\":\"" + nombre + "\",\"description\":\"Laboratorio a renombrar\",\"state\":\"ACTIVO\"}"));
+        Cliente cliente = conectar(nombre, 1);
+
+        String nuevo = nombre + "Nuevo";
+        assertThat(enviar("PUT", "/api/laboratories/id/" + id,
+                "{\"name\":\"" + nuevo + "\",\"description\":\"Laboratorio a renombrar\",\"state\":\"ACTIVO\"}")
+                .statusCode()).isEqualTo(200);
+        crearMuestra(nuevo);
+
+        assertThat(cliente.eventos.await(10, TimeUnit.SECONDS)).as("evento tras el renombre").isTrue();
+        assertThat(enviar("GET", "/api/samples/stream/stats", null).body()).contains(nuevo);
+        cliente.cerrar();
+    }
+
+    @Test
+    void unClienteQueNoLeeNoFrenaALosDemas() throws Exception {
+        String otro = "LabFeedAtascado";
+        enviar("POST", "/api/laboratories",
+                "{\"name\":\"" + otro + "\",\"description\":\"Laboratorio del cliente atascado\",\"state\":\"ACTIVO\"}");
+
+        try (Socket atascado = new Socket()) {
+            // Se suscribe y nunca lee: el envío queda bloqueado con el TCP lleno
+            atascado.setReceiveBufferSize(4 * 1024);
+            atascado.connect(new InetSocketAddress("localhost", port));
+            atascado.getOutputStream().write(("GET /api/samples/laboratory/" + otro + "/stream HTTP/1.1\r\n"
+                    + "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            atascado.getOutputStream().flush();
+            for (int i = 0; i < 100 && !enviar("GET", "/api/samples/stream/stats", null).body().contains(otro); i++) {
+                Thread.sleep(50);
+            }
+            // Eventos de 64 KB (bajas de IDs que no existen): llenan el TCP sin llenar el buffer (256)
+            Sample grande = new Sample();
+            grande.setDescription("x".repeat(64 * 1024));
+            for (long i = 1; i <= 200; i++) {
+                events.publishEvent(new SampleChangedEvent(SampleChangedEvent.Tipo.ELIMINADA, -i, otro, grande));
+            }
+
+            Cliente cliente = conectar(1);
+            crearMuestra();
+            assertThat(cliente.eventos.await(10, TimeUnit.SECONDS)).as("evento para el cliente que sí lee").isTrue();
+            cliente.cerrar();
+        }
+    }
+
+    // ============================================================
+    // Apoyo
+    // ============================================================
+
+    private static String idDe(HttpResponse<String> respuesta) {
+        return idDe(respuesta.body());
+    }
+
+    private static String idDe(String json) {
+        return json.replaceAll("(?s).*\"id\"\\s*:\\s*(\\d+).*", "$1");
+    }
+
+    private long medir(Accion accion) throws Exception {
+        Contador.SENTENCIAS.set(0);
+        accion.ejecutar();
+        return Contador.SENTENCIAS.get();
+    }
+
+    private void crearMuestra() throws Exception {
+        crearMuestra(LAB);
+    }
+
+    private void crearMuestra(String laboratorio) throws Exception {
+        HttpResponse<String> r = enviar("POST", "/api/samples", "{\"code\":\"SSE-" + secuencia.incrementAndGet()
+                + "\",\"description\":\"Muestra del feed\",\"technician\":\"" + TECNICO
+                + "\",\"laboratory\":\"" + laboratorio + "\"}");
+        assertThat(r.statusCode()).as("POST /api/samples → " + r.body()).isEqualTo(201);
+    }
+
+    /** Abre el feed y cuenta los eventos de muestra (no "connected" ni pings). */
+    private Cliente conectar(int esperados) throws Exception {
+        return conectar(LAB, esperados);
+    }
+
+    private Cliente conectar(String laboratorio, int esperados) throws Exception {
+        CountDownLatch conectado = new CountDownLatch(1);
+        CountDownLatch eventos = new CountDownLatch(esperados);
+        HttpResponse<Stream<String>> r = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/samples/laboratory/" + laboratorio + "/stream"))
+                        .timeout(Duration.ofSeconds(5)).build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(r.statusCode()).isEqualTo(200);
+        Thread lector = new Thread(() -> {
+            try (Stream<String> lineas = r.body()) {
+                lineas.forEach(linea -> {
+                    if (linea.equals("event:connected")) {
+                        conectado.countDown();
+                    } else if (linea.startsWith("event:")) {
+                        eventos.countDown();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Conexión cerrada por el test
+            }
+        }, "lector-sse");
+        lector.setDaemon(true);
+        lector.start();
+        assertThat(conectado.await(5, TimeUnit.SECONDS)).as("evento connected").isTrue();
+        return new Cliente(r.body(), eventos);
+    }
+
+    private HttpResponse<String> enviar(String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + ruta))
+                .timeout(Duration.ofSeconds(10));
+        if (cuerpo != null) {
+            builder.header("Content-Type", "application/json").method(metodo, HttpRequest.BodyPublishers.ofString(cuerpo));
+        } else {
+            builder.method(metodo, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @FunctionalInterface
+    private interface Accion {
+        void ejecutar() throws Exception;
+    }
+
+    private record Cliente(Stream<String> lineas, CountDownLatch eventos) {
+        void cerrar() {
+            lineas.close();
+        }
+    }
+
+    static final class Contador {
+        static final AtomicLong SENTENCIAS = new AtomicLong();
+
+        // Hilos de segundo plano cuyas sentencias no son parte de las peticiones
+        private static final List<String> SEGUNDO_PLANO =
+                List.of("audit-writer", "job-", "sample-read-model-loader", "sse-");
+
+        static boolean cuenta() {
+            String hilo = Thread.currentThread().getName();
+            return SEGUNDO_PLANO.stream().noneMatch(hilo::startsWith);
+        }
+    }
+
+    @TestConfiguration
+    static class Instrumentacion {
+
+        @Bean
+        static BeanPostProcessor contadorDeSentencias() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    if (bean instanceof DataSource ds) {
+                        return ProxyDataSourceBuilder.create(ds)
+                                .name("feed-sse")
+                                .afterQuery((ejecucion, consultas) -> {
+                                    if (Contador.cuenta()) {
+                                        Contador.SENTENCIAS.incrementAndGet();
+                                    }
+                                })
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.fullstack.clinica.sample;
+
+import com.fullstack.clinica.exception.ConflictException;
+import com.fullstack.clinica.laboratory.model.Laboratory;
+import com.fullstack.clinica.laboratory.repository.LaboratoryRepository;
+import com.fullstack.clinica.sample.model.Sample;
+import com.fullstack.clinica.sample.service.SampleService;
+import com.fullstack.clinica.sample.service.SampleWorkQueueService;
+import com.fullstack.clinica.user.model.User;
+import com.fullstack.clinica.user.repository.UserRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ===============================================================
+ * 📘 Clase: SampleWorkQueueConcurrencyTest
+ * ---------------------------------------------------------------
+ * Muchos técnicos reclamando a la vez la cola de un laboratorio:
+ * - ninguna muestra se asigna dos veces y ninguna queda sin asignar;
+ * - el trabajo se reparte entre los técnicos y un reclamo se salta las
+ *   filas que otra transacción tiene bloqueadas en vez de esperarlas;
+ * - las muestras de otro laboratorio no se tocan;
+ * - un arriendo vencido vuelve a la cola y su dueño anterior lo pierde.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:colaTrabajo;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "logging.level.com.fullstack.clinica=WARN"
+})
+class SampleWorkQueueConcurrencyTest {
+
+    private static final int MUESTRAS = 600;
+    private static final int TECNICOS = 16;
+    private static final int POR_RECLAMO = 5;
+    private static final String RECEPCION = "Técnico de Recepción";
+
+    @Autowired
+    SampleService samples;
+
+    @Autowired
+    SampleWorkQueueService workQueue;
+
+    @Autowired
+    LaboratoryRepository laboratories;
+
+    @Autowired
+    UserRepository users;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    TransactionTemplate tx;
+
+    @Test
+    void tecnicosEnParaleloNoRepitenNiPierdenMuestras() throws Exception {
+        crear("LabCola", MUESTRAS);
+        List<Sample> ajenas = crear("LabVecino", 20);
+
+        ExecutorService pool = Executors.newFixedThreadPool(TECNICOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<List<Long>>> resultados = new ArrayList<>();
+        for (int t = 0; t < TECNICOS; t++) {
+            String tecnico = "tecnico-" + t;
+            resultados.add(pool.submit(() -> {
+                largada.await();
+                List<Long> propias = new ArrayList<>();
+                List<Sample> lote;
+                do {
+                    lote = workQueue.claim("LabCola", tecnico, POR_RECLAMO);
+                    lote.forEach(m -> {
+                        assertThat(m.getClaimedBy()).isEqualTo(tecnico);
+                        propias.add(m.getId());
+                    });
+                } while (!lote.isEmpty());
+                return propias;
+            }));
+        }
+        largada.countDown();
+
+        Map<Long, String> duenos = new HashMap<>();
+        Set<Long> repetidas = new HashSet<>();
+        int tecnicosConTrabajo = 0;
+        for (int t = 0; t < TECNICOS; t++) {
+            List<Long> propias = resultados.get(t).get(60, TimeUnit.SECONDS);
+            if (!propias.isEmpty()) {
+                tecnicosConTrabajo++;
+            }
+            for (Long id : propias) {
+                if (duenos.put(id, "tecnico-" + t) != null) {
+                    repetidas.add(id);
+                }
+            }
+        }
+        pool.shutdown();
+
+        assertThat(repetidas).as("muestras asignadas dos veces").isEmpty();
+        assertThat(duenos).hasSize(MUESTRAS);
+        assertThat(tecnicosConTrabajo).as("técnicos que obtuvieron muestras").isGreaterThan(TECNICOS / 2);
+
+        // Lo que quedó en la BD coincide con lo que recibió cada técnico
+        jdbc.query("select s.id, s.claimed_by from SAMPLE s join LABORATORY l on l.id = s.laboratory_id "
+                + "where l.name = 'LabCola'", rs -> {
+            assertThat(rs.getString("claimed_by")).isEqualTo(duenos.get(rs.getLong("id")));
+        });
+        assertThat(workQueue.pending("LabCola", 50)).isEmpty();
+        assertThat(workQueue.pending("LabVecino", 50)).hasSize(ajenas.size());
+    }
+
+    @Test
+    void reclamoSeSaltaLasFilasBloqueadasSinEsperar() throws Exception {
+        List<Sample> muestras = crear("LabSalto", 4);
+        ExecutorService otro = Executors.newSingleThreadExecutor();
+        CountDownLatch bloqueadas = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        try {
+            // Otra transacción retiene el lock de las dos primeras muestras
+            Future<?> retencion = otro.submit(() -> tx.execute(status -> {
+                jdbc.queryForList("select id from SAMPLE where id in (?, ?) for update", Long.class,
+                        muestras.get(0).getId(), muestras.get(1).getId());
+                bloqueadas.countDown();
+                try {
+                    soltar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertThat(bloqueadas.await(10, TimeUnit.SECONDS)).isTrue();
+
+            long inicio = System.nanoTime();
+            List<Sample> reclamadas = workQueue.claim("LabSalto", "carla", 2);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertThat(reclamadas).extracting(Sample::getId)
+                    .containsExactly(muestras.get(2).getId(), muestras.get(3).getId());
+            assertThat(millis).as("ms esperando locks ajenos").isLessThan(500);
+
+            soltar.countDown();
+            retencion.get(10, TimeUnit.SECONDS);
+        } finally {
+            soltar.countDown();
+            otro.shutdown();
+        }
+    }
+
+    @Test
+    void arriendoVencidoVuelveALaColaYSuDuenoLoPierde() {
+        Sample muestra = crear("LabArriendo", 1).get(0);
+
+        assertThat(workQueue.claim("LabArriendo", "ana", 1)).extracting(Sample::getId).containsExactly(muestra.getId());
+        assertThat(workQueue.claim("LabArriendo", "beto", 1)).isEmpty();
+
+        jdbc.update("update SAMPLE set lease_until = ? where id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), muestra.getId());
+
+        assertThat(workQueue.claim("LabArriendo", "beto", 1)).extracting(Sample::getClaimedBy).containsExactly("beto");
+        assertThatThrownBy(() -> workQueue.renew(muestra.getId(), "ana")).isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> workQueue.release(muestra.getId(), "ana")).isInstanceOf(ConflictException.class);
+
+        Sample liberada = workQueue.release(muestra.getId(), "beto");
+        assertThat(liberada.getClaimedBy()).isNull();
+        assertThat(workQueue.pending("LabArriendo", 10)).extracting(Sample::getId).containsExactly(muestra.getId());
+    }
+
+    private List<Sample> crear(String laboratorio, int cantidad) {
+        // SAMPLE referencia al laboratorio y al técnico: deben existir
+        Laboratory lab = new Laboratory();
+        lab.setName(laboratorio);
+        lab.setDescription("Laboratorio de la cola");
+        lab.setState("ACTIVO");
+        laboratories.save(lab);
+        if (users.findByEmail("recepcion@cola.cl").isEmpty()) {
+            User tecnico = new User();
+            tecnico.setFullName(RECEPCION);
+            tecnico.setEmail("recepcion@cola.cl");
+            tecnico.setPassword("clave123");
+            tecnico.setRol("TECNICO");
+            users.save(tecnico);
+        }
+
+        List<Sample> nuevas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Sample muestra = new Sample();
+            muestra.setCode(laboratorio + "-" + i);
+            muestra.setDescription("Muestra de la cola " + i);
+            muestra.setTechnician(RECEPCION);
+            muestra.setLaboratory(laboratorio);
+            nuevas.add(muestra);
+        }
+        return samples.saveImported(laboratorio, nuevas);
+    }
+}
@@ -0,0 +1,122 @@
+package com.fullstack.clinica.sync;
+
+import com.fullstack.clinica.sample.service.SampleShardRouter;
+import com.fullstack.clinica.sample.shard.ShardSchemaInitializer;
+import com.fullstack.clinica.sync.service.ChangeSequence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ===============================================================
+ * 📘 Clase: ChangeSequenceClusterTest
+ * ---------------------------------------------------------------
+ * Secuencia de cambios con dos instancias sobre la misma BD (la del
+ * contexto y una segunda creada a mano, como otro nodo):
+ * - los números no se repiten entre nodos;
+ * - una transacción abierta en un nodo frena la visibilidad del otro
+ *   hasta que termina, con commit o con rollback;
+ * - el número en vuelo de un nodo caído deja de contar al vencer su
+ *   arriendo.
+ * ===============================================================
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:secuenciaCambios;MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.com.fullstack.clinica=WARN",
+        "clinica.warmup.enabled=false"
+})
+class ChangeSequenceClusterTest {
+
+    @Autowired
+    ChangeSequence sequence;
+
+    @Autowired
+    DataSourceProperties principal;
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    PlatformTransactionManager transactions;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private ChangeSequence otroNodo;
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void arrancarOtroNodo() {
+        otroNodo = new ChangeSequence(principal, context.getBeanProvider(SampleShardRouter.class),
+                context.getBeanProvider(ShardSchemaInitializer.class), Duration.ofSeconds(60), 2);
+        otroNodo.afterSingletonsInstantiated();
+        tx = new TransactionTemplate(transactions);
+    }
+
+    @AfterEach
+    void detenerOtroNodo() {
+        ReflectionTestUtils.invokeMethod(otroNodo, "shutdown");
+    }
+
+    @Test
+    void unaTransaccionAbiertaEnOtroNodoFrenaLaVisibilidad() {
+        long[] numeros = new long[2];
+        tx.executeWithoutResult(estado -> {
+            numeros[0] = otroNodo.next();
+            // Este nodo escribe después, con un número mayor, y confirma antes
+            TransactionTemplate propia = new TransactionTemplate(transactions);
+            propia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            numeros[1] = propia.execute(interna -> sequence.next());
+            assertThat(numeros[1]).isGreaterThan(numeros[0]);
+            assertThat(sequence.visible().upTo()).isEqualTo(numeros[0] - 1);
+            assertThat(sequence.visible().last()).isEqualTo(numeros[1]);
+        });
+        assertThat(sequence.visible().upTo()).isGreaterThanOrEqualTo(numeros[1]);
+    }
+
+    @Test
+    void unRollbackTambienLiberaLaVisibilidad() {
+        long[] numero = new long[1];
+        tx.executeWithoutResult(estado -> {
+            numero[0] = otroNodo.next();
+            estado.setRollbackOnly();
+        });
+        assertThat(sequence.visible().upTo()).isGreaterThanOrEqualTo(numero[0]);
+        assertThat(jdbc.queryForObject("select count(*) from CHANGE_IN_FLIGHT", Integer.class)).isZero();
+    }
+
+    @Test
+    void elNumeroDeUnNodoCaidoDejaDeContarAlVencer() {
+        long ultimo = sequence.visible().last();
+        jdbc.update("insert into CHANGE_IN_FLIGHT (seq, instance_id, lease_until) values (?, ?, ?)",
+                ultimo, "nodo-caido", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        try {
+            assertThat(sequence.visible().upTo()).isEqualTo(ultimo);
+        } finally {
+            jdbc.update("delete from CHANGE_IN_FLIGHT where instance_id = 'nodo-caido'");
+        }
+    }
+}